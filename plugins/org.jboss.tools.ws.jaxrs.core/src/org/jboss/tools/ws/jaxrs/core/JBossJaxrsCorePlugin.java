@@ -11,23 +11,29 @@
 
 package org.jboss.tools.ws.jaxrs.core;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.jdt.core.JavaCore;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JavaElementChangedListener;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelEventBus;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelSaveParticipant;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.ResourceChangedListener;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics.Format;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodelChangedListener;
-import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsElementDelta;
-import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsEndpointDelta;
-import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelDelta;
 import org.osgi.framework.BundleContext;
 
 /**
@@ -38,6 +44,9 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	/** The plug-in ID. */
 	public static final String PLUGIN_ID = "org.jboss.tools.ws.jaxrs.core"; //$NON-NLS-1$
 
+	/** The name of the file in which the metrics are exported when the plugin stops. */
+	private static final String METRICS_FILENAME = "metrics.json"; //$NON-NLS-1$
+
 	/** The shared instance. */
 	private static JBossJaxrsCorePlugin plugin;
 
@@ -47,8 +56,8 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	/** The resource changes listener. */
 	private final ResourceChangedListener resourceChangedListener = new ResourceChangedListener();
 
-	/** The Listeners for JAX-RS Metamodel changes. */
-	private final Set<IJaxrsMetamodelChangedListener> metamodelChangedListeners = new HashSet<IJaxrsMetamodelChangedListener>();
+	/** The save participant that writes the JAX-RS Metamodel snapshots. */
+	private final JaxrsMetamodelSaveParticipant saveParticipant = new JaxrsMetamodelSaveParticipant();
 
 	/**
 	 * The constructor.
@@ -64,6 +73,9 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		if (isDebugging() && "true".equalsIgnoreCase(Platform.getDebugOption(Metrics.OPTION))) {
+			Metrics.setEnabled(true);
+		}
 		registerListeners();
 	}
 
@@ -72,12 +84,36 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		exportMetrics();
 		plugin = null;
 		unregisterListeners();
+		JaxrsMetamodelEventBus.getInstance().dispose();
 		super.stop(context);
 	}
 
 
+	/**
+	 * Exports the metrics collected during this session in the
+	 * {@code metrics.json} file of this plugin's state location, if the
+	 * metrics collection is enabled.
+	 */
+	private void exportMetrics() {
+		if (!Metrics.isEnabled()) {
+			return;
+		}
+		try {
+			final File metricsFile = getStateLocation().append(METRICS_FILENAME).toFile();
+			final Writer writer = new OutputStreamWriter(new FileOutputStream(metricsFile), "UTF-8");
+			try {
+				Metrics.export(writer, Format.JSON);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			Logger.warn("Failed to export the JAX-RS metrics", e);
+		}
+	}
+
 	/**
 	 * Register the elementChangedListeners.
 	 */
@@ -90,6 +126,12 @@ public class JBossJaxrsCorePlugin extends Plugin {
 		// editor, refactoring, etc.)
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceChangedListener,
 				IResourceChangeEvent.PRE_CLOSE);
+		// the JAX-RS Metamodels are saved along with the workspace, so that they can be restored at startup
+		try {
+			ResourcesPlugin.getWorkspace().addSaveParticipant(PLUGIN_ID, saveParticipant);
+		} catch (CoreException e) {
+			Logger.error("Failed to register the JAX-RS Metamodel save participant", e);
+		}
 	}
 
 	/**
@@ -98,6 +140,7 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	private void unregisterListeners() {
 		JavaCore.removeElementChangedListener(javaElementChangedListener);
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceChangedListener);
+		ResourcesPlugin.getWorkspace().removeSaveParticipant(PLUGIN_ID);
 	}
 
 	/**
@@ -127,14 +170,14 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	
 	/**
 	 * Registers the given listener for further notifications when JAX-RS
-	 * Endpoints changed in this metamodel.
+	 * Endpoints changed in this metamodel. The notifications are delivered
+	 * asynchronously, on the thread of the {@link JaxrsMetamodelEventBus}.
 	 * 
 	 * @param listener
 	 */
 	public void addJaxrsMetamodelChangedListener(final IJaxrsMetamodelChangedListener listener) {
-		if(!metamodelChangedListeners.contains(listener)) { 
+		if(JaxrsMetamodelEventBus.getInstance().addListener(listener)) { 
 			Logger.debug("Registering JaxrsMetamodelChangedListener");
-			metamodelChangedListeners.add(listener);
 		}
 	}
 
@@ -145,7 +188,7 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	 * @param listener
 	 */
 	public void removeListener(final IJaxrsMetamodelChangedListener listener) {
-		metamodelChangedListeners.remove(listener);
+		JaxrsMetamodelEventBus.getInstance().removeListener(listener);
 	}
 
 	/**
@@ -155,20 +198,9 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	 *            the endpoint that was added/changed/removed
 	 * @param deltaKind
 	 *            the kind of change
-	 * @param flags
-	 *            some optional flags (use {@link JaxrsElementDelta#F_NONE} if
-	 *            no change occurred)
 	 */
 	public static void notifyEndpointChanged(final IJaxrsEndpoint endpoint, final int deltaKind) {
-		if (endpoint != null && !getDefault().metamodelChangedListeners.isEmpty()) {
-			final JaxrsEndpointDelta delta = new JaxrsEndpointDelta(endpoint, deltaKind);
-			Logger.trace("Notify elementChangedListeners after {}", delta);
-			for (IJaxrsMetamodelChangedListener listener : getDefault().metamodelChangedListeners) {
-				listener.notifyEndpointChanged(delta);
-			}
-		} else if(getDefault().metamodelChangedListeners.isEmpty()) {
-			Logger.trace(" No Listener to notify about endpoint changed (type={}): {}", deltaKind, endpoint);
-		}
+		JaxrsMetamodelEventBus.getInstance().notifyEndpointChanged(endpoint, deltaKind);
 	}
 
 	/**
@@ -181,35 +213,21 @@ public class JBossJaxrsCorePlugin extends Plugin {
 	public static void notifyEndpointProblemLevelChanged(final IJaxrsEndpoint endpoint) {
 		Logger.debug("Notifying that problem severity changed to {} for endpoint {} {}", endpoint.getProblemLevel(),
 				endpoint.getHttpMethod().getHttpVerb(), endpoint.getUriPathTemplate());
-		for (IJaxrsMetamodelChangedListener listener : getDefault().metamodelChangedListeners) {
-			listener.notifyEndpointProblemLevelChanged(endpoint);
-		}
+		JaxrsMetamodelEventBus.getInstance().notifyEndpointProblemLevelChanged(endpoint);
 	}
 
 	/**
 	 * Notifies all registered listeners that the problem level of this {@link JaxrsMetamodel} changed
 	 */
 	public static void notifyMetamodelProblemLevelChanged(final IJaxrsMetamodel metamodel) {
-		if(getDefault().metamodelChangedListeners.isEmpty()) {
-			Logger.debug("No metamodelChangedListeners to notify that the metamodel problem level changed :(");
-			return;
-		}
-		for (IJaxrsMetamodelChangedListener listener : getDefault().metamodelChangedListeners) {
-			listener.notifyMetamodelProblemLevelChanged(metamodel);
-		}
+		JaxrsMetamodelEventBus.getInstance().notifyMetamodelProblemLevelChanged(metamodel);
 	}
 
 	/**
 	 * Notifies all registered listeners that this {@link JaxrsMetamodel} changed
 	 */
 	public static void notifyMetamodelChanged(final IJaxrsMetamodel metamodel, final int deltaKind) {
-		if(getDefault().metamodelChangedListeners.isEmpty()) {
-			Logger.debug("No metamodelChangedListener to notify of the metamodel changed :(");
-			return;
-		}
-		for (IJaxrsMetamodelChangedListener listener : getDefault().metamodelChangedListeners) {
-			listener.notifyMetamodelChanged(new JaxrsMetamodelDelta(metamodel, deltaKind));
-		}
+		JaxrsMetamodelEventBus.getInstance().notifyMetamodelChanged(metamodel, deltaKind);
 	}
 
 
@@ -12,9 +12,12 @@ package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
 
 import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelBuilder.SCALE;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -27,35 +30,87 @@ import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.JobMonitor;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelLocator;
 
 /** @author xcoulon */
 public class JavaElementChangedBuildJob extends Job {
 
+	/** The single event to process, or {@code null} if the events are retrieved from the {@link #scheduler}. */
 	private final ElementChangedEvent event;
+
+	/** The project whose pending events should be processed when this job is scheduled by a {@link JavaElementChangedBuildScheduler}. */
+	private final IProject project;
+
+	/** The scheduler from which the pending events are retrieved, or {@code null} if this job processes a single event. */
+	private final JavaElementChangedBuildScheduler scheduler;
 	
 	public JavaElementChangedBuildJob(final ElementChangedEvent event) {
 		super("Processing JAX-RS changes...");
 		Logger.debug("Kicking a JavaElementChangedBuildJob (#{}) to process {}", JobMonitor.getJobId(this), event);
 		this.setPriority(Job.SHORT);
 		this.event = event;
+		this.project = null;
+		this.scheduler = null;
+		this.addJobChangeListener(new JobMonitor());
+	}
+
+	/**
+	 * Constructor for a job that processes all the pending events of the given
+	 * project each time it runs.
+	 * 
+	 * @param project
+	 *            the project
+	 * @param scheduler
+	 *            the scheduler that collects the pending events
+	 */
+	JavaElementChangedBuildJob(final IProject project, final JavaElementChangedBuildScheduler scheduler) {
+		super("Processing JAX-RS changes...");
+		Logger.debug("Creating a JavaElementChangedBuildJob (#{}) for project {}", JobMonitor.getJobId(this), project.getName());
+		this.setPriority(Job.SHORT);
+		this.event = null;
+		this.project = project;
+		this.scheduler = scheduler;
 		this.addJobChangeListener(new JobMonitor());
 	}
+
+	/**
+	 * @return the project whose pending events are processed by this job, or
+	 *         {@code null} if this job processes a single event.
+	 */
+	IProject getProject() {
+		return project;
+	}
 	
 	
 	protected IStatus run(final IProgressMonitor progressMonitor) {
 		final long startTime = new Date().getTime();
+		final long start = Metrics.start();
 		IJavaElement element = null;
 		try {
 			progressMonitor.beginTask("Building JAX-RS Metamodel", 3 * SCALE);
 			progressMonitor.worked(SCALE);
-			Logger.debug("Building JAX-RS Metamodel after: {}", event);
+			final List<ElementChangedEvent> events = (scheduler != null) ? scheduler.drain(project) : Collections
+					.singletonList(event);
+			Logger.debug("Building JAX-RS Metamodel after: {}", events);
 			if (progressMonitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
-			// scan and filter delta, retrieve a list of java changes
-			final List<JavaElementChangedEvent> affectedJavaElements = new JavaElementDeltaScanner().scanAndFilterEvent(event,
-					new SubProgressMonitor(progressMonitor, SCALE));
+			// scan and filter deltas, retrieve a list of java changes and coalesce them per element
+			final List<JavaElementChangedEvent> scannedJavaElements = new ArrayList<JavaElementChangedEvent>();
+			final JavaElementDeltaScanner scanner = new JavaElementDeltaScanner();
+			final IProgressMonitor scanProgressMonitor = new SubProgressMonitor(progressMonitor, SCALE);
+			scanProgressMonitor.beginTask("Scanning Java changes", events.size());
+			for (ElementChangedEvent pendingEvent : events) {
+				scannedJavaElements.addAll(scanner.scanAndFilterEvent(pendingEvent, new SubProgressMonitor(
+						scanProgressMonitor, 1)));
+			}
+			scanProgressMonitor.done();
+			final List<JavaElementChangedEvent> affectedJavaElements = JavaElementChangedBuildScheduler
+					.coalesce(scannedJavaElements);
+			Logger.tracePerf("Coalesced {} Java element changes from {} event(s) into {} change(s)",
+					scannedJavaElements.size(), events.size(), affectedJavaElements.size());
+			Metrics.BUILD_JOB_CHANGES.record(affectedJavaElements.size());
 			if(affectedJavaElements.isEmpty()) {
 				Logger.debug("* No relevant affected element to process *");
 				return Status.OK_STATUS;
@@ -98,6 +153,7 @@ public class JavaElementChangedBuildJob extends Job {
 			}
 		} finally {
 			progressMonitor.done();
+			Metrics.JAVA_ELEMENT_CHANGED_BUILD_JOB.stop(start);
 			long endTime = new Date().getTime();
 			if (Logger.isDebugEnabled()) {
 				Logger.debug("Java element changes processed in {} ms.", (endTime - startTime));
@@ -106,4 +162,12 @@ public class JavaElementChangedBuildJob extends Job {
 		}
 		return Status.OK_STATUS;
 	}
+
+	/**
+	 * All JAX-RS Metamodel build jobs belong to the {@link JaxrsMetamodelBuilder#BUILDER_ID} family.
+	 */
+	@Override
+	public boolean belongsTo(final Object family) {
+		return JaxrsMetamodelBuilder.BUILDER_ID.equals(family);
+	}
 }
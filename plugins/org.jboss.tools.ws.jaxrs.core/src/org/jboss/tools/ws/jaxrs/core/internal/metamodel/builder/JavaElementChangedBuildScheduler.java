@@ -0,0 +1,248 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
+
+/**
+ * Collects the {@link ElementChangedEvent}s per project and schedules a single
+ * {@link JavaElementChangedBuildJob} for each project once no new event was
+ * received during a short debounce window. This avoids running one build per
+ * keystroke while the user is typing in an editor: all the pending events are
+ * scanned together and the resulting {@link JavaElementChangedEvent}s are
+ * coalesced per Java element before being processed. The build job of a
+ * project is discarded once it is done and no new event is pending, or when the
+ * project is closed or removed.
+ *
+ * @author xcoulon
+ */
+public class JavaElementChangedBuildScheduler {
+
+	/**
+	 * Delay (in milliseconds) during which the build is postponed each time a
+	 * new event is received for the same project.
+	 */
+	static final long DEBOUNCE_DELAY = 250;
+
+	/**
+	 * Maximum delay (in milliseconds) between the first pending event of a
+	 * project and the build that processes it, so that a continuous flow of
+	 * events does not postpone the build forever.
+	 */
+	static final long MAX_DELAY = 1000;
+
+	/** The pending events, indexed by project. */
+	private final Map<IProject, List<ElementChangedEvent>> pendingEvents = new HashMap<IProject, List<ElementChangedEvent>>();
+
+	/** The time at which the first pending event was received, indexed by project. */
+	private final Map<IProject, Long> firstPendingEventTimes = new HashMap<IProject, Long>();
+
+	/** The build job in charge of each project. */
+	private final Map<IProject, JavaElementChangedBuildJob> jobs = new HashMap<IProject, JavaElementChangedBuildJob>();
+
+	/** Job listener that discards the build jobs that are done. */
+	private final JobChangeAdapter doneListener = new JobChangeAdapter() {
+		@Override
+		public void done(final IJobChangeEvent event) {
+			buildDone((JavaElementChangedBuildJob) event.getJob());
+		}
+	};
+
+	/**
+	 * Adds the given event to the pending events of the given project and
+	 * (re)schedules the build job of this project.
+	 *
+	 * @param project
+	 *            the project in which the change occurred
+	 * @param event
+	 *            the change event
+	 */
+	public synchronized void schedule(final IProject project, final ElementChangedEvent event) {
+		if (!pendingEvents.containsKey(project)) {
+			pendingEvents.put(project, new ArrayList<ElementChangedEvent>());
+			firstPendingEventTimes.put(project, System.currentTimeMillis());
+		}
+		pendingEvents.get(project).add(event);
+		JavaElementChangedBuildJob job = jobs.get(project);
+		if (job == null) {
+			job = new JavaElementChangedBuildJob(project, this);
+			job.setRule(project.getWorkspace().getRuleFactory().buildRule());
+			job.addJobChangeListener(doneListener);
+			jobs.put(project, job);
+		}
+		final long elapsedTime = System.currentTimeMillis() - firstPendingEventTimes.get(project);
+		final long delay = Math.max(0, Math.min(DEBOUNCE_DELAY, MAX_DELAY - elapsedTime));
+		// a job that is waiting cannot be rescheduled, it has to be cancelled
+		// first. A running job will be rescheduled when it is done.
+		if (job.getState() == Job.WAITING || job.getState() == Job.SLEEPING) {
+			job.cancel();
+		}
+		job.schedule(delay);
+	}
+
+	/**
+	 * Discards the pending events and cancels the build job of the given
+	 * project, for example because the project was closed or removed.
+	 *
+	 * @param project
+	 *            the project
+	 */
+	public synchronized void remove(final IProject project) {
+		pendingEvents.remove(project);
+		firstPendingEventTimes.remove(project);
+		final JavaElementChangedBuildJob job = jobs.remove(project);
+		if (job != null) {
+			job.removeJobChangeListener(doneListener);
+			job.cancel();
+		}
+	}
+
+	/**
+	 * Discards the given build job once it is done, unless new events were
+	 * received in the meantime, in which case it was (or will be) scheduled
+	 * again.
+	 *
+	 * @param job
+	 *            the build job that is done
+	 */
+	synchronized void buildDone(final JavaElementChangedBuildJob job) {
+		final IProject project = job.getProject();
+		if (jobs.get(project) == job && !pendingEvents.containsKey(project)) {
+			jobs.remove(project);
+			job.removeJobChangeListener(doneListener);
+		}
+	}
+
+	/**
+	 * @return the number of projects for which a build job is kept.
+	 */
+	synchronized int getJobCount() {
+		return jobs.size();
+	}
+
+	/**
+	 * Removes and returns all the pending events of the given project.
+	 *
+	 * @param project
+	 *            the project
+	 * @return the pending events in the order in which they were received, or
+	 *         an empty list if there was none
+	 */
+	synchronized List<ElementChangedEvent> drain(final IProject project) {
+		final List<ElementChangedEvent> events = pendingEvents.remove(project);
+		firstPendingEventTimes.remove(project);
+		if (events == null) {
+			return new ArrayList<ElementChangedEvent>();
+		}
+		Logger.tracePerf("Draining {} pending Java element change events for project {}", events.size(),
+				project.getName());
+		return events;
+	}
+
+	/**
+	 * Coalesces the given {@link JavaElementChangedEvent}s per Java element,
+	 * so that each element is processed at most once:
+	 * <ul>
+	 * <li>an element that was added then removed is skipped,</li>
+	 * <li>an element that was added then changed is processed as added,</li>
+	 * <li>an element that was removed then added is processed as changed,</li>
+	 * <li>otherwise, the last kind of change wins and the flags of successive
+	 * changes are combined.</li>
+	 * </ul>
+	 * All the resulting events are associated with the last known AST of their
+	 * compilation unit.
+	 *
+	 * @param events
+	 *            the events to coalesce, in the order in which they occurred
+	 * @return the coalesced events, in the order in which their element first
+	 *         changed
+	 */
+	static List<JavaElementChangedEvent> coalesce(final List<JavaElementChangedEvent> events) {
+		final Map<IJavaElement, JavaElementChangedEvent> coalescedEvents = new LinkedHashMap<IJavaElement, JavaElementChangedEvent>();
+		final Map<ICompilationUnit, CompilationUnit> lastASTs = new HashMap<ICompilationUnit, CompilationUnit>();
+		for (JavaElementChangedEvent event : events) {
+			final IJavaElement element = event.getElement();
+			final ICompilationUnit compilationUnit = getCompilationUnit(element);
+			if (compilationUnit != null && event.getCompilationUnitAST() != null) {
+				lastASTs.put(compilationUnit, event.getCompilationUnitAST());
+			}
+			final JavaElementChangedEvent previousEvent = coalescedEvents.get(element);
+			if (previousEvent == null) {
+				coalescedEvents.put(element, event);
+				continue;
+			}
+			final int previousKind = previousEvent.getKind();
+			final int kind = event.getKind();
+			if (previousKind == ADDED && kind == REMOVED) {
+				coalescedEvents.remove(element);
+				continue;
+			}
+			final int coalescedKind;
+			if (previousKind == ADDED && kind == CHANGED) {
+				coalescedKind = ADDED;
+			} else if (previousKind == REMOVED && kind == ADDED) {
+				coalescedKind = CHANGED;
+			} else {
+				coalescedKind = kind;
+			}
+			final Flags flags = new Flags();
+			flags.addFlags(event.getFlags());
+			if (previousKind == CHANGED && coalescedKind == CHANGED) {
+				flags.addFlags(previousEvent.getFlags());
+			}
+			coalescedEvents.put(element, new JavaElementChangedEvent(element, coalescedKind, event.getEventType(),
+					event.getCompilationUnitAST(), flags));
+		}
+		final List<JavaElementChangedEvent> result = new ArrayList<JavaElementChangedEvent>(coalescedEvents.size());
+		for (JavaElementChangedEvent event : coalescedEvents.values()) {
+			final CompilationUnit lastAST = lastASTs.get(getCompilationUnit(event.getElement()));
+			if (lastAST != null && lastAST != event.getCompilationUnitAST()) {
+				result.add(new JavaElementChangedEvent(event.getElement(), event.getKind(), event.getEventType(),
+						lastAST, event.getFlags()));
+			} else {
+				result.add(event);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the compilation unit of the given element, or {@code null} if
+	 *         the element is not part of a compilation unit (eg: a package
+	 *         fragment root or a project)
+	 */
+	private static ICompilationUnit getCompilationUnit(final IJavaElement element) {
+		if (element == null) {
+			return null;
+		}
+		return (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+	}
+
+}
@@ -10,26 +10,50 @@ le * Copyright (c) 2008 - 2014 Red Hat, Inc. and others.
  ******************************************************************************/
 package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
 
+import static org.eclipse.jdt.core.IJavaElement.COMPILATION_UNIT;
+import static org.eclipse.jdt.core.IJavaElement.FIELD;
+import static org.eclipse.jdt.core.IJavaElement.JAVA_MODEL;
+import static org.eclipse.jdt.core.IJavaElement.JAVA_PROJECT;
+import static org.eclipse.jdt.core.IJavaElement.PACKAGE_FRAGMENT;
 import static org.eclipse.jdt.core.IJavaElement.PACKAGE_FRAGMENT_ROOT;
+import static org.eclipse.jdt.core.IJavaElement.TYPE;
 import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_ADDED_TO_CLASSPATH;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_ANNOTATIONS;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CLASSPATH_CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CLOSED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CONTENT;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_FINE_GRAINED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_MODIFIERS;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_OPENED;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_REMOVED_FROM_CLASSPATH;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_SUPER_TYPES;
 import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.configuration.ProjectNatureUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.jdt.CompilationUnitsRepository;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
 
 /**
- * Listens to all change events (Java elements and resources) and triggers a new job for each change.<br>
+ * Listens to all change events (Java elements and resources) and triggers a (coalesced) build job for each project.<br>
  * Yet, it avoids trigger new Jobs for high level changes (JavaModel, WorkspaceRoot, etc.)
  * 
  * @author xcoulon
@@ -39,6 +63,9 @@ public class JavaElementChangedListener implements IElementChangedListener {
 	/** Listener state. */
 	private boolean active = true;
 
+	/** The scheduler that coalesces the events received for each project into a single build. */
+	private final JavaElementChangedBuildScheduler scheduler = new JavaElementChangedBuildScheduler();
+
 	/**
 	 * Stops processing the incoming {@link ElementChangedEvent} in the implemented {@link IElementChangedListener#elementChanged(ElementChangedEvent)} method
 	 */
@@ -60,6 +87,15 @@ public class JavaElementChangedListener implements IElementChangedListener {
 	 */
 	@Override
 	public void elementChanged(final ElementChangedEvent event) {
+		if (event.getType() == ElementChangedEvent.POST_CHANGE) {
+			// the cached ASTs must be discarded even if the changes are not processed
+			final Set<IJavaProject> changedProjects = new HashSet<IJavaProject>();
+			collectProjectsWithBindingChanges(event.getDelta(), changedProjects);
+			if (!changedProjects.isEmpty()) {
+				CompilationUnitsRepository.getInstance().removeASTs(getDependentProjectNames(changedProjects));
+			}
+			removeClosedProjects(event.getDelta());
+		}
 		if(!active) {
 			return;
 		}
@@ -67,15 +103,156 @@ public class JavaElementChangedListener implements IElementChangedListener {
 			final IProject project = getProject(event.getDelta());
 			if (ProjectNatureUtils.isProjectNatureInstalled(project, ProjectNatureUtils.JAXRS_NATURE_ID)) {
 				logDelta(event.getDelta(), event.getType());
-				final JavaElementChangedBuildJob job = new JavaElementChangedBuildJob(event);
-				job.setRule(project.getWorkspace().getRuleFactory().buildRule());
-				job.schedule();
+				scheduler.schedule(project, event);
 			}
 		} catch (CoreException e) {
 			Logger.error("Failed to process Java Element change", e);
 		}
 	}
 	
+	/**
+	 * Discards the pending build of each project that was closed or removed,
+	 * according to the given delta.
+	 * 
+	 * @param delta
+	 *            the delta on the Java model
+	 */
+	private void removeClosedProjects(final IJavaElementDelta delta) {
+		if (delta.getElement().getElementType() != JAVA_MODEL) {
+			return;
+		}
+		for (IJavaElementDelta affectedChild : delta.getAffectedChildren()) {
+			if (affectedChild.getElement().getElementType() == JAVA_PROJECT
+					&& (affectedChild.getKind() == REMOVED || (affectedChild.getFlags() & F_CLOSED) != 0)) {
+				scheduler.remove(((IJavaProject) affectedChild.getElement()).getProject());
+			}
+		}
+	}
+
+	/**
+	 * Collects the projects in which the given delta (or one of its children)
+	 * describes a change that may affect the bindings resolved in the ASTs of
+	 * other compilation units: a compilation unit or a type was added or
+	 * removed, the declaration of a type changed (annotations, super types or
+	 * modifiers), a field changed (eg: a constant used in an annotation
+	 * value), the project was opened or closed or its classpath changed, or a
+	 * compilation unit changed but its delta does not tell what changed.
+	 * 
+	 * @param delta
+	 *            the delta
+	 * @param changedProjects
+	 *            the projects whose changes affect the bindings
+	 */
+	private static void collectProjectsWithBindingChanges(final IJavaElementDelta delta,
+			final Set<IJavaProject> changedProjects) {
+		if (affectsBindings(delta)) {
+			changedProjects.add(delta.getElement().getJavaProject());
+			return;
+		}
+		switch (delta.getElement().getElementType()) {
+		case JAVA_MODEL:
+		case JAVA_PROJECT:
+		case PACKAGE_FRAGMENT_ROOT:
+		case PACKAGE_FRAGMENT:
+		case COMPILATION_UNIT:
+		case TYPE:
+			for (IJavaElementDelta affectedChild : delta.getAffectedChildren()) {
+				collectProjectsWithBindingChanges(affectedChild, changedProjects);
+			}
+			break;
+		default:
+			// changes in methods do not affect the other compilation units' bindings
+			break;
+		}
+	}
+
+	/**
+	 * Checks if the given delta itself (regardless of its children) describes
+	 * a change that may affect the bindings resolved in the ASTs of other
+	 * compilation units.
+	 * 
+	 * @param delta
+	 *            the delta
+	 * @return true if the cached ASTs of the delta's project (and of the
+	 *         projects that depend on it) should be discarded, false
+	 *         otherwise
+	 */
+	private static boolean affectsBindings(final IJavaElementDelta delta) {
+		final int kind = delta.getKind();
+		final int flags = delta.getFlags();
+		switch (delta.getElement().getElementType()) {
+		case JAVA_PROJECT:
+			return kind != CHANGED
+					|| (flags & (F_CLASSPATH_CHANGED | F_RESOLVED_CLASSPATH_CHANGED | F_OPENED | F_CLOSED)) != 0;
+		case PACKAGE_FRAGMENT_ROOT:
+			return kind != CHANGED
+					|| (flags & (F_ADDED_TO_CLASSPATH | F_REMOVED_FROM_CLASSPATH | F_ARCHIVE_CONTENT_CHANGED)) != 0;
+		case PACKAGE_FRAGMENT:
+			return kind != CHANGED;
+		case COMPILATION_UNIT:
+			return kind != CHANGED || ((flags & F_CONTENT) != 0 && (flags & F_FINE_GRAINED) == 0);
+		case TYPE:
+			return kind != CHANGED || (flags & (F_ANNOTATIONS | F_SUPER_TYPES | F_MODIFIERS)) != 0;
+		case FIELD:
+			// annotation values are resolved through the bindings of the constants they reference
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @param changedProjects
+	 *            the projects whose changes affect the bindings
+	 * @return the names of the given projects and of the projects that
+	 *         (directly or not) require them on their classpath.
+	 */
+	private static Set<String> getDependentProjectNames(final Set<IJavaProject> changedProjects) {
+		final Set<String> projectNames = new HashSet<String>();
+		for (IJavaProject changedProject : changedProjects) {
+			projectNames.add(changedProject.getElementName());
+		}
+		final IJavaProject[] javaProjects;
+		try {
+			javaProjects = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+		} catch (JavaModelException e) {
+			Logger.warn("Failed to retrieve the Java projects of the workspace", e);
+			return projectNames;
+		}
+		boolean projectAdded = true;
+		while (projectAdded) {
+			projectAdded = false;
+			for (IJavaProject javaProject : javaProjects) {
+				if (!projectNames.contains(javaProject.getElementName()) && requiresAny(javaProject, projectNames)) {
+					projectNames.add(javaProject.getElementName());
+					projectAdded = true;
+				}
+			}
+		}
+		return projectNames;
+	}
+
+	/**
+	 * @return true if the given Java project requires one of the given
+	 *         projects on its classpath, false otherwise (including when the
+	 *         project is closed).
+	 */
+	private static boolean requiresAny(final IJavaProject javaProject, final Set<String> projectNames) {
+		if (!javaProject.getProject().isOpen()) {
+			return false;
+		}
+		try {
+			for (String requiredProjectName : javaProject.getRequiredProjectNames()) {
+				if (projectNames.contains(requiredProjectName)) {
+					return true;
+				}
+			}
+		} catch (JavaModelException e) {
+			Logger.warn("Failed to retrieve the projects required by " + javaProject.getElementName(), e);
+		}
+		return false;
+	}
+
 	private IProject getProject(final IJavaElementDelta delta) {
 		final IJavaProject javaProject = delta.getElement().getJavaProject();
 		if (javaProject != null) {
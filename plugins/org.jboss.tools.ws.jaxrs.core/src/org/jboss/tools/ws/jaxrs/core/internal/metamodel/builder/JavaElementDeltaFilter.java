@@ -25,6 +25,7 @@ import static org.eclipse.jdt.core.IJavaElementDelta.F_ADDED_TO_CLASSPATH;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_AST_AFFECTED;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_CHILDREN;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_CLASSPATH_CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_ANNOTATIONS;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_CONTENT;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_FINE_GRAINED;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_OPENED;
@@ -37,30 +38,45 @@ import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElem
 import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_MARKER_REMOVED;
 import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_SIGNATURE;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.ConstantUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
-import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 
+/**
+ * Filters the {@link JavaElementChangedEvent}s (or the raw Java element deltas
+ * they would be built from) that the metamodel should be notified of.
+ * <p>
+ * The rules are compiled into a lookup table indexed by element kind, delta
+ * kind, event type and unit context (working copy or primary copy), where each
+ * slot holds the exact flags values that are accepted. Applying the filter is
+ * thus a single array lookup followed by a few {@code int} comparisons, and
+ * does not allocate any object.
+ * </p>
+ */
 public class JavaElementDeltaFilter {
 
 	private final static int WORKING_COPY = 0x1;
 	private final static int PRIMARY_COPY = 0x2;
 
+	/** Number of supported delta kinds ({@link IJavaElementDelta#ADDED}, {@link IJavaElementDelta#REMOVED} and {@link IJavaElementDelta#CHANGED}). */
+	private static final int DELTA_KINDS = 3;
+
+	/** Number of supported event types (bits of {@link ElementChangedEvent#POST_CHANGE} to {@link ElementChangedEvent#POST_RECONCILE}). */
+	private static final int EVENT_TYPES = 3;
+
+	/** Number of unit contexts ({@link #WORKING_COPY} and {@link #PRIMARY_COPY}). */
+	private static final int UNIT_CONTEXTS = 2;
+
 	/**
 	 * The 'table' of rules for which the metamodel should be notified of Java
-	 * elements changes events.
+	 * elements changes events: the accepted flags values (if any), indexed by
+	 * {@link #getIndex(int, int, int, int)}.
 	 */
-	private final List<Rule> rules = new ArrayList<Rule>();
+	private final int[][] acceptedFlags = new int[(ANNOTATION + 1) * DELTA_KINDS * EVENT_TYPES * UNIT_CONTEXTS][];
 
 	public JavaElementDeltaFilter() {
 		accept().when(JAVA_PROJECT).is(ADDED).after(POST_RECONCILE).in(PRIMARY_COPY);
@@ -112,37 +128,56 @@ public class JavaElementDeltaFilter {
 		return new RuleBuilder();
 	}
 
-	
 	/**
 	 * Applies the configured rules to see if the given JavaElementDelta needs to be processed or should be ignored.
 	 * @param event the  Java Element Delta
 	 * @return true if the event should be processed, false otherwise
 	 */
 	public boolean apply(final JavaElementChangedEvent event) {
-		if(event.getElement() == null) {
+		final boolean match = apply(event.getElement(), event.getKind(), event.getEventType(), event.getFlags().getValue());
+		if (match) {
+			Logger.trace("**accepted** {}", event);
+		} else {
+			Logger.trace("**rejected** {}", event);
+		}
+		return match;
+	}
+
+	/**
+	 * Applies the configured rules to see if a change on the given Java element
+	 * needs to be processed or should be ignored. This method can be called
+	 * before any {@link JavaElementChangedEvent} is created.
+	 * 
+	 * @param element
+	 *            the Java element that changed
+	 * @param deltaKind
+	 *            the kind of change
+	 * @param eventType
+	 *            the type of {@link ElementChangedEvent}
+	 * @param flags
+	 *            the flags of the change
+	 * @return true if the change should be processed, false otherwise
+	 */
+	public boolean apply(final IJavaElement element, final int deltaKind, final int eventType, final int flags) {
+		if (element == null || flags == F_ANNOTATIONS) {
+			return false;
+		}
+		final int elementKind = element.getElementType();
+		final boolean acceptedInWorkingCopy = apply(elementKind, deltaKind, eventType, flags, true);
+		final boolean acceptedInPrimaryCopy = apply(elementKind, deltaKind, eventType, flags, false);
+		if (!acceptedInWorkingCopy && !acceptedInPrimaryCopy) {
 			return false;
 		}
-		final int elementKind = event.getElement().getElementType();
-		final int deltaKind = event.getKind();
-		final IJavaElement element = event.getElement();
 		// prevent processing java elements in a closed java project
 		// prevent processing of any file named 'package-info.java'
 		// prevent processing of any jar file
 		if (isPackageInfoFile(element) || isJarArchive(element)) {
 			return false;
 		}
-		final Flags flags = event.getFlags();
-		if (flags.hasExactValue(IJavaElementDelta.F_ANNOTATIONS)) {
-			return false;
+		if (acceptedInWorkingCopy && acceptedInPrimaryCopy) {
+			return true;
 		}
-		boolean workingCopy = JdtUtils.isWorkingCopy(element);
-		final boolean match = apply(elementKind, deltaKind, event.getEventType(), flags, workingCopy);
-		if (match) {
-			Logger.trace("**accepted** {}", event);
-		} else {
-			Logger.trace("**rejected** {}", event);
-		}
-		return match;
+		return JdtUtils.isWorkingCopy(element) ? acceptedInWorkingCopy : acceptedInPrimaryCopy;
 	}
 
 	/**
@@ -164,17 +199,63 @@ public class JavaElementDeltaFilter {
 		return element.getResource() != null && element.getResource().getType() == IResource.FILE && element.getResource().getName().equals("package-info.java");
 	}
 
-	protected boolean apply(final int elementKind, final int deltaKind, final int eventType, final Flags flags, final boolean workingCopy) {
-		final Rule matcher = new Rule(elementKind, deltaKind, eventType, workingCopy ? WORKING_COPY : PRIMARY_COPY, flags);
-		for (Iterator<Rule> iterator = rules.iterator(); iterator.hasNext();) {
-			final Rule rule = iterator.next();
-			if (rule.match(matcher)) {
-				Logger.trace("Rule {} matched", rule);
+	protected boolean apply(final int elementKind, final int deltaKind, final int eventType, final int flags, final boolean workingCopy) {
+		final int index = getIndex(elementKind, deltaKind, eventType, workingCopy ? WORKING_COPY : PRIMARY_COPY);
+		if (index < 0 || acceptedFlags[index] == null) {
+			return false;
+		}
+		for (int accepted : acceptedFlags[index]) {
+			if (accepted == flags) {
 				return true;
 			}
 		}
 		return false;
+	}
 
+	/**
+	 * @return the index in the {@link #acceptedFlags} table for the given
+	 *         element kind, delta kind, event type and unit context (each of
+	 *         the last three being a single bit), or {@code -1} if the given
+	 *         values are not supported.
+	 */
+	private static int getIndex(final int elementKind, final int deltaKind, final int eventType, final int unitContext) {
+		if (elementKind < 0 || elementKind > ANNOTATION || Integer.bitCount(deltaKind) != 1
+				|| Integer.bitCount(eventType) != 1) {
+			return -1;
+		}
+		final int deltaKindIndex = Integer.numberOfTrailingZeros(deltaKind);
+		final int eventTypeIndex = Integer.numberOfTrailingZeros(eventType);
+		if (deltaKindIndex >= DELTA_KINDS || eventTypeIndex >= EVENT_TYPES) {
+			return -1;
+		}
+		return ((elementKind * DELTA_KINDS + deltaKindIndex) * EVENT_TYPES + eventTypeIndex) * UNIT_CONTEXTS
+				+ Integer.numberOfTrailingZeros(unitContext);
+	}
+
+	/**
+	 * Adds the given flags value in the slots of the table matching the given
+	 * element kind and delta kind, and each of the event types and unit
+	 * contexts of the given masks.
+	 */
+	private void register(final int elementKind, final int deltaKind, final int eventTypes, final int unitContexts,
+			final int flags) {
+		for (int eventType = 1; eventType <= eventTypes; eventType <<= 1) {
+			for (int unitContext = 1; unitContext <= unitContexts; unitContext <<= 1) {
+				if ((eventTypes & eventType) == 0 || (unitContexts & unitContext) == 0) {
+					continue;
+				}
+				final int index = getIndex(elementKind, deltaKind, eventType, unitContext);
+				final int[] previousFlags = acceptedFlags[index];
+				if (previousFlags == null) {
+					acceptedFlags[index] = new int[] { flags };
+				} else {
+					final int[] newFlags = new int[previousFlags.length + 1];
+					System.arraycopy(previousFlags, 0, newFlags, 0, previousFlags.length);
+					newFlags[previousFlags.length] = flags;
+					acceptedFlags[index] = newFlags;
+				}
+			}
+		}
 	}
 
 	/**
@@ -188,8 +269,7 @@ public class JavaElementDeltaFilter {
 		private int elementKind;
 		private int deltaKind;
 		private int eventType;
-		private int unitContext;
-		private Flags flags = Flags.NONE;
+		private int flags = 0;
 
 		private RuleBuilder() {
 		}
@@ -200,7 +280,7 @@ public class JavaElementDeltaFilter {
 		}
 
 		public RuleBuilder withFlags(final int flags) {
-			this.flags = new Flags(flags);
+			this.flags = flags;
 			return this;
 		}
 
@@ -215,43 +295,8 @@ public class JavaElementDeltaFilter {
 		}
 
 		public void in(final int unitContext) {
-			this.unitContext = unitContext;
-			Rule rule = new Rule(this.elementKind, this.deltaKind, this.eventType, this.unitContext, this.flags);
-			rules.add(rule);
-		}
-	}
-
-	static class Rule {
-
-		private final int elementKind;
-		private final int deltaKind;
-		private final int eventType;
-		private final int unitContext;
-		private final Flags flags;
-
-		Rule(final int elementKind, final int deltaKind, final int eventType, final int unitContext, final Flags flags) {
-			this.elementKind = elementKind;
-			this.deltaKind = deltaKind;
-			this.eventType = eventType;
-			this.unitContext = unitContext;
-			this.flags = flags;
-		}
-
-		public boolean match(Rule matcher) {
-			return this.elementKind == matcher.elementKind && this.deltaKind == matcher.deltaKind
-					&& ((this.eventType & matcher.eventType) > 0) && ((this.unitContext & matcher.unitContext) != 0)
-					&& (this.flags.equals(matcher.flags));
+			register(this.elementKind, this.deltaKind, this.eventType, unitContext, this.flags);
 		}
-
-		@Override
-		public String toString() {
-			return new StringBuilder().append("[")
-					.append(ConstantUtils.getStaticFieldName(ElementChangedEvent.class, eventType)).append("] ")
-					.append(ConstantUtils.getStaticFieldName(IJavaElement.class, elementKind)).append(" ").append("[")
-					.append(ConstantUtils.getStaticFieldName(IJavaElementDelta.class, deltaKind)).append("]: ")
-					.toString();
-		}
-
 	}
 
 }
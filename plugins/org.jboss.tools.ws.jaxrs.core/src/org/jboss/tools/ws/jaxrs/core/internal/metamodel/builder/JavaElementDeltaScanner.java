@@ -25,7 +25,6 @@ import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
 import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_SIGNATURE;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,8 +45,8 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JavaMethodSignature;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.ConstantUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
-import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJavaMethodSignature;
 
 /**
@@ -70,51 +69,59 @@ public class JavaElementDeltaScanner {
 			progressMonitor.beginTask("Analysing changes", 1);
 			Logger.debug("Some java elements changed on a {} event ",
 					ConstantUtils.getStaticFieldName(ElementChangedEvent.class, event.getType()));
-			return scanDelta(event.getDelta(), event.getType());
+			final List<JavaElementChangedEvent> events = new ArrayList<JavaElementChangedEvent>();
+			scanDelta(event.getDelta(), event.getType(), null, events);
+			return events;
 		} finally {
 			progressMonitor.done();
 		}
 	}
 
 	/**
-	 * Recursively analyse the given Java Element Delta.
+	 * Recursively analyse the given Java Element Delta. Events are only
+	 * created for the changes that are accepted by the
+	 * {@link JavaElementDeltaFilter}.
 	 * 
 	 * @param delta
 	 * @param eventType
+	 * @param parentCompilationUnitAST
+	 *            the AST of the compilation unit of the parent delta's element,
+	 *            or null if the parent element is not part of a compilation
+	 *            unit (or if there is no parent delta)
+	 * @param events
+	 *            the list in which the accepted events are added
 	 * @throws CoreException
 	 * @see https://bugs.eclipse.org/bugs/show_bug.cgi?id=100267
 	 */
-	private List<JavaElementChangedEvent> scanDelta(final IJavaElementDelta delta, final int eventType) throws CoreException {
-		final List<JavaElementChangedEvent> events = new ArrayList<JavaElementChangedEvent>();
+	private void scanDelta(final IJavaElementDelta delta, final int eventType,
+			final CompilationUnit parentCompilationUnitAST, final List<JavaElementChangedEvent> events) throws CoreException {
 		final IJavaElement element = delta.getElement();
 		// skip as the project is closed
 		if (element == null) {
 			Logger.debug("** skipping this build because the delta element is null **");
-			return Collections.emptyList();
+			return;
 		} else if(element.getElementType() == IJavaElement.JAVA_PROJECT && !element.getJavaProject().getProject().isOpen() && delta.getFlags() != F_OPENED) {
 			Logger.debug("** skipping this build because the java project is closed. **");
-			return Collections.emptyList();
+			return;
 		} else if ((element.getElementType() == IJavaElement.PACKAGE_FRAGMENT_ROOT)) {
 			final IPackageFragmentRoot packageFragmentRoot = (IPackageFragmentRoot) element;
 			if (!packageFragmentRoot.isExternal()
 					&& (packageFragmentRoot.getResource() == null || !packageFragmentRoot.getResource().exists())) {
-				return Collections.emptyList();
+				return;
 			}
 		} else if (element.getResource() == null || !element.getResource().exists()) {
-			return Collections.emptyList();
+			return;
 		}
 		final int elementKind = element.getElementType();
 		final int deltaKind = retrieveDeltaKind(delta);
-		final Flags flags = new Flags(delta.getFlags());
+		final int flags = delta.getFlags();
 		if(elementKind == JAVA_PROJECT ){
-			final JavaElementChangedEvent event = new JavaElementChangedEvent(element, delta.getKind(), eventType, null, new Flags(delta.getFlags()));
-			if (javaElementChangedEventFilter.apply(event)) {
-				events.add(event);
+			if (addEvent(element, delta.getKind(), eventType, null, flags, events)) {
 				// skip anything below
-				return events;
+				return;
 			}
 		}
-		final CompilationUnit compilationUnitAST = getCompilationUnitAST(delta);
+		final CompilationUnit compilationUnitAST = getCompilationUnitAST(delta, parentCompilationUnitAST);
 		if (elementKind == COMPILATION_UNIT) {
 			final ICompilationUnit compilationUnit = (ICompilationUnit) element;
 			// compilationUnitAST is null when the given compilation unit'w
@@ -129,11 +136,7 @@ public class JavaElementDeltaScanner {
 				if(requiresDiffsComputation(flags)) {
 					for(IType type : compilationUnit.getAllTypes()) {
 						for(IMethod javaMethod : type.getMethods()) {
-							final JavaElementChangedEvent event = new JavaElementChangedEvent(javaMethod, CHANGED, eventType,
-									compilationUnitAST, new Flags(F_SIGNATURE));
-							if (javaElementChangedEventFilter.apply(event)) {
-								events.add(event);
-							}
+							addEvent(javaMethod, CHANGED, eventType, compilationUnitAST, F_SIGNATURE, events);
 						}
 					}
 				}
@@ -141,49 +144,71 @@ public class JavaElementDeltaScanner {
 		} 
 		// element is part of the compilation unit
 		else if(compilationUnitAST != null){
-			final JavaElementChangedEvent event = new JavaElementChangedEvent(element, deltaKind, eventType, compilationUnitAST,
-					flags);
-			if (javaElementChangedEventFilter.apply(event)) {
-				events.add(event);
-			}
+			addEvent(element, deltaKind, eventType, compilationUnitAST, flags, events);
 		}
 		// continue with children elements, both on annotations and other java
 		// elements.
 		for (IJavaElementDelta affectedChild : delta.getAffectedChildren()) {
-			events.addAll(scanDelta(affectedChild, eventType));
+			scanDelta(affectedChild, eventType, compilationUnitAST, events);
 		}
 		for (IJavaElementDelta annotation : delta.getAnnotationDeltas()) {
-			events.addAll(scanDelta(annotation, eventType));
+			scanDelta(annotation, eventType, compilationUnitAST, events);
+		}
+	}
+
+	/**
+	 * Creates a {@link JavaElementChangedEvent} and adds it into the given list
+	 * if the change is accepted by the {@link JavaElementDeltaFilter}.
+	 * 
+	 * @return true if the change was accepted, false otherwise
+	 */
+	private boolean addEvent(final IJavaElement element, final int deltaKind, final int eventType,
+			final CompilationUnit compilationUnitAST, final int flags, final List<JavaElementChangedEvent> events) {
+		if (!javaElementChangedEventFilter.apply(element, deltaKind, eventType, flags)) {
+			return false;
 		}
-		return events;
+		final JavaElementChangedEvent event = new JavaElementChangedEvent(element, deltaKind, eventType,
+				compilationUnitAST, new Flags(flags));
+		Logger.trace("**accepted** {}", event);
+		events.add(event);
+		return true;
 	}
 
 	/**
 	 * Returns the {@link CompilationUnit} associated with the
-	 * {@link IJavaElement} of the given {@link IJavaElementDelta}.
+	 * {@link IJavaElement} of the given {@link IJavaElementDelta}. The AST
+	 * built by the reconcile operation is used when the delta carries it (only
+	 * the compilation unit delta of a POST_RECONCILE event does), and the
+	 * children of a compilation unit delta share the AST of their parent, so
+	 * that the compilation unit is parsed at most once per scanned event. If a
+	 * parse is still needed, it goes through the {@link ASTProvider}, which
+	 * reuses an AST that is still up-to-date with the underlying resource.
 	 * 
 	 * @param delta the given Java Element Delta
+	 * @param parentCompilationUnitAST the AST of the parent delta's compilation unit, or null 
 	 * @return the associated Compilation Unit AST or null
 	 * @throws JavaModelException
 	 */
-	private CompilationUnit getCompilationUnitAST(final IJavaElementDelta delta) throws JavaModelException {
-		CompilationUnit compilationUnitAST = null;
+	private CompilationUnit getCompilationUnitAST(final IJavaElementDelta delta,
+			final CompilationUnit parentCompilationUnitAST) throws JavaModelException {
+		final CompilationUnit compilationUnitAST = delta.getCompilationUnitAST();
+		if (compilationUnitAST != null) {
+			return compilationUnitAST;
+		}
 		final IJavaElement element = delta.getElement();
-		compilationUnitAST = delta.getCompilationUnitAST();
-		if (compilationUnitAST == null) {
-			//compilationUnitAST = compilationUnitsRepository.getAST(compilationUnit);
-			compilationUnitAST = JdtUtils.parse(element, new NullProgressMonitor());
+		if (parentCompilationUnitAST != null && element.getElementType() > COMPILATION_UNIT) {
+			// element is part of the same compilation unit as its parent
+			return parentCompilationUnitAST;
 		}
-		return compilationUnitAST;
+		return ASTProvider.getInstance().getAST(element, new NullProgressMonitor());
 	}
 
 	/**
 	 * @param flags
 	 * @return
 	 */
-	private boolean requiresDiffsComputation(final Flags flags) {
-		return flags.hasExactValue(F_CONTENT, F_FINE_GRAINED) 
-				|| flags.hasExactValue(F_CONTENT, F_FINE_GRAINED, F_AST_AFFECTED);
+	private static boolean requiresDiffsComputation(final int flags) {
+		return flags == (F_CONTENT | F_FINE_GRAINED) || flags == (F_CONTENT | F_FINE_GRAINED | F_AST_AFFECTED);
 	}
 
 	/**
@@ -82,7 +82,7 @@ public class JaxrsElementChangedProcessorDelegate {
 				processAddition((JaxrsParameterAggregatorProperty) element, flags);
 				break;
 			default:
-				Logger.trace("No direct impact on JAX-RS Endpoints after change on element:" + elementKind);
+				Logger.trace("No direct impact on JAX-RS Endpoints after change on element: {}", elementKind);
 				break;
 			}
 			break;
@@ -113,7 +113,7 @@ public class JaxrsElementChangedProcessorDelegate {
 				processChange((JaxrsParameterAggregatorProperty) element, flags);
 				break;
 			default:
-				Logger.trace("No direct impact on JAX-RS Endpoints after change on element:" + elementKind);
+				Logger.trace("No direct impact on JAX-RS Endpoints after change on element: {}", elementKind);
 				break;
 			}
 			break;
@@ -141,7 +141,7 @@ public class JaxrsElementChangedProcessorDelegate {
 				processRemoval((JaxrsParameterAggregatorProperty) element, flags);
 				break;
 			default:
-				Logger.trace("No direct impact on JAX-RS Endpoints after change on element:" + elementKind);
+				Logger.trace("No direct impact on JAX-RS Endpoints after change on element: {}", elementKind);
 				break;
 			}
 		}
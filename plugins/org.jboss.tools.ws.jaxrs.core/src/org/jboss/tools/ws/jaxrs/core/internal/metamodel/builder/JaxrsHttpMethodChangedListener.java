@@ -26,6 +26,7 @@ import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsResourceMethod;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JavaElementsSearcher;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind;
@@ -64,7 +65,7 @@ public class JaxrsHttpMethodChangedListener implements IJaxrsElementChangedListe
 				final Set<IMethod> affectedMethods = getAffectedMethods(delta);
 				final JavaElementDelta affectedMethodsDelta = new JavaElementDelta(metamodel.getJavaProject(), null, IJavaElementDelta.CHANGED, 0);
 				for(IMethod affectedMethod : affectedMethods) {
-					final CompilationUnit ast = JdtUtils.parse(affectedMethod, new NullProgressMonitor());
+					final CompilationUnit ast = ASTProvider.getInstance().getAST(affectedMethod, new NullProgressMonitor());
 					final JavaElementDelta affectedMethodDelta = new JavaElementDelta(affectedMethod, ast, IJavaElementDelta.CHANGED, 0);
 					final Annotation httpMethodAnnotation = JdtUtils.resolveAnnotation(affectedMethod, ast, httpMethod.getJavaClassName());
 					if(httpMethodAnnotation != null) {
@@ -0,0 +1,208 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+
+/**
+ * Coordinates the project-level builds of the JAX-RS Metamodels across the
+ * workspace. Each build job only locks its own project, and the builds of
+ * independent projects run in parallel, up to a maximum number of concurrent
+ * builds that matches the number of available processors. The build of a
+ * project is held back while the build of one of its required projects is
+ * pending or running, so that the types it shares with its dependencies are
+ * processed in the project dependency order.
+ *
+ * Build jobs submitted to this coordinator must call {@link #buildDone(Job)}
+ * at the end of their {@link Job#run(org.eclipse.core.runtime.IProgressMonitor)}
+ * method, so that the next pending build is scheduled before the current job
+ * is done (and thus, without letting a join on the
+ * {@link JaxrsMetamodelBuilder#BUILDER_ID} family return in-between).
+ *
+ * @author xcoulon
+ */
+public class JaxrsMetamodelBuildCoordinator {
+
+	private static final JaxrsMetamodelBuildCoordinator instance = new JaxrsMetamodelBuildCoordinator(Math.max(1,
+			Runtime.getRuntime().availableProcessors()));
+
+	/** Maximum number of builds that can run in parallel. */
+	private final int maxConcurrentBuilds;
+
+	/** The builds waiting for a free slot or for the build of a required project, in submission order. */
+	private final LinkedList<PendingBuild> pendingBuilds = new LinkedList<PendingBuild>();
+
+	/** The builds that have been scheduled and are not done yet, with their associated project. */
+	private final Map<Job, IProject> runningBuilds = new HashMap<Job, IProject>();
+
+	/** Job listener that releases the slot of a build that is done without having run (eg: cancelled while waiting). */
+	private final JobChangeAdapter doneListener = new JobChangeAdapter() {
+		@Override
+		public void done(final IJobChangeEvent event) {
+			buildDone(event.getJob());
+		}
+	};
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxConcurrentBuilds
+	 *            the maximum number of builds that can run in parallel
+	 */
+	JaxrsMetamodelBuildCoordinator(final int maxConcurrentBuilds) {
+		this.maxConcurrentBuilds = maxConcurrentBuilds;
+	}
+
+	public static JaxrsMetamodelBuildCoordinator getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Submits the given build job for the given Java project. The job will be
+	 * scheduled with a scheduling rule on the project only, as soon as a slot
+	 * is available and no build of a required project is pending or running.
+	 *
+	 * @param job
+	 *            the build job
+	 * @param javaProject
+	 *            the Java project to build
+	 */
+	public void submit(final Job job, final IJavaProject javaProject) {
+		final Set<IProject> requiredProjects = new HashSet<IProject>();
+		try {
+			for (String requiredProjectName : javaProject.getRequiredProjectNames()) {
+				requiredProjects.add(javaProject.getProject().getWorkspace().getRoot().getProject(requiredProjectName));
+			}
+		} catch (JavaModelException e) {
+			Logger.warn("Failed to retrieve the projects required by " + javaProject.getElementName(), e);
+		}
+		submit(job, javaProject.getProject(), requiredProjects);
+	}
+
+	/**
+	 * Submits the given build job for the given project, which depends on the
+	 * given required projects.
+	 *
+	 * @param job
+	 *            the build job
+	 * @param project
+	 *            the project to build
+	 * @param requiredProjects
+	 *            the projects that the project to build depends on
+	 */
+	synchronized void submit(final Job job, final IProject project, final Collection<IProject> requiredProjects) {
+		job.setRule(project);
+		job.addJobChangeListener(doneListener);
+		pendingBuilds.add(new PendingBuild(job, project, requiredProjects));
+		dispatch();
+	}
+
+	/**
+	 * Notifies this coordinator that the given build job is done, so that its
+	 * slot can be used by the next pending build. Calling this method more than
+	 * once for the same job has no effect.
+	 *
+	 * @param job
+	 *            the build job
+	 */
+	public synchronized void buildDone(final Job job) {
+		if (runningBuilds.remove(job) != null) {
+			job.removeJobChangeListener(doneListener);
+			dispatch();
+		}
+	}
+
+	/**
+	 * @return the number of builds that are pending or running.
+	 */
+	public synchronized int getQueueDepth() {
+		return pendingBuilds.size() + runningBuilds.size();
+	}
+
+	/**
+	 * Schedules the pending builds that are ready to run, as long as there are
+	 * free slots.
+	 */
+	private void dispatch() {
+		while (runningBuilds.size() < maxConcurrentBuilds) {
+			final PendingBuild nextBuild = removeNextReadyBuild();
+			if (nextBuild == null) {
+				break;
+			}
+			runningBuilds.put(nextBuild.job, nextBuild.project);
+			Logger.tracePerf("Scheduling JAX-RS Metamodel build for project {} ({} running, {} pending)",
+					nextBuild.project.getName(), runningBuilds.size(), pendingBuilds.size());
+			nextBuild.job.schedule();
+		}
+	}
+
+	/**
+	 * Removes and returns the first pending build whose project is not already
+	 * being built and whose required projects are neither being built nor
+	 * waiting to be built before it.
+	 *
+	 * @return the next build to schedule, or {@code null} if none is ready
+	 */
+	private PendingBuild removeNextReadyBuild() {
+		final Set<IProject> busyProjects = new HashSet<IProject>(runningBuilds.values());
+		for (Iterator<PendingBuild> iterator = pendingBuilds.iterator(); iterator.hasNext();) {
+			final PendingBuild pendingBuild = iterator.next();
+			if (!busyProjects.contains(pendingBuild.project) && !containsAny(busyProjects, pendingBuild.requiredProjects)) {
+				iterator.remove();
+				return pendingBuild;
+			}
+			busyProjects.add(pendingBuild.project);
+		}
+		return null;
+	}
+
+	private static boolean containsAny(final Set<IProject> projects, final Collection<IProject> candidates) {
+		for (IProject candidate : candidates) {
+			if (projects.contains(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A build job waiting to be scheduled.
+	 */
+	private static class PendingBuild {
+
+		final Job job;
+
+		final IProject project;
+
+		final Collection<IProject> requiredProjects;
+
+		PendingBuild(final Job job, final IProject project, final Collection<IProject> requiredProjects) {
+			this.job = job;
+			this.project = project;
+			this.requiredProjects = requiredProjects;
+		}
+	}
+
+}
@@ -95,11 +95,11 @@ public class JaxrsMetamodelBuilder extends IncrementalProjectBuilder {
 	 *            the progress monitor
 	 */
 	private void build(final int buildKind, final IProject project, final IProgressMonitor progressMonitor) {
-		Logger.debug("Building JAX-RS metamodel for project '" + project.getName() + "'");
+		Logger.debug("Building JAX-RS metamodel for project '{}'", project.getName());
 		final IJavaProject javaProject = JavaCore.create(project);
 		final ResourceChangedBuildJob job = new ResourceChangedBuildJob(javaProject, getResourceChangeEvent(project, buildKind));
-		job.setRule(project.getWorkspace().getRuleFactory().buildRule());
-		job.schedule();
+		// builds of independent projects run in parallel, builds of dependent projects run in order
+		JaxrsMetamodelBuildCoordinator.getInstance().submit(job, javaProject);
 	}
 
 	private ResourceChangeEvent getResourceChangeEvent(final IProject project, final int buildKind) {
@@ -0,0 +1,531 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodelBatchedChangedListener;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodelChangedListener;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsEndpointDelta;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelDelta;
+
+/**
+ * Delivers the JAX-RS Metamodel changes to the registered
+ * {@link IJaxrsMetamodelChangedListener}s on a dedicated dispatcher thread, so
+ * that slow listeners never block the build.
+ * 
+ * The changes notified by a thread between a call to
+ * {@link #beginTransaction()} and the matching call to
+ * {@link #endTransaction()} (typically, while the thread holds the write lock
+ * of a metamodel) are coalesced per endpoint and delivered together once the
+ * transaction ended:
+ * <ul>
+ * <li>an endpoint that was added then changed is notified as added,</li>
+ * <li>an endpoint that was added then removed is not notified at all,</li>
+ * <li>an endpoint that was removed then added is notified as changed,</li>
+ * <li>otherwise, the last kind of change wins.</li>
+ * </ul>
+ * The {@link IJaxrsMetamodelBatchedChangedListener}s receive all the changes of
+ * a transaction in a single {@link JaxrsMetamodelDelta}, while the other
+ * listeners receive the coalesced changes one after the other. The addition or
+ * removal of a metamodel notified during a transaction is delivered after the
+ * endpoint changes of that transaction.
+ * 
+ * @author xcoulon
+ *
+ */
+public class JaxrsMetamodelEventBus {
+
+	private static final JaxrsMetamodelEventBus instance = new JaxrsMetamodelEventBus();
+
+	private final Set<IJaxrsMetamodelChangedListener> listeners = new CopyOnWriteArraySet<IJaxrsMetamodelChangedListener>();
+
+	private final Map<IJaxrsMetamodelChangedListener, DispatchStatistics> statistics = Collections
+			.synchronizedMap(new HashMap<IJaxrsMetamodelChangedListener, DispatchStatistics>());
+
+	/** The changes notified by the current thread in its ongoing transaction. */
+	private final ThreadLocal<Transaction> transactions = new ThreadLocal<Transaction>();
+
+	private ExecutorService dispatcher = null;
+
+	private Thread dispatcherThread = null;
+
+	/** Constructor (visible for testing). */
+	JaxrsMetamodelEventBus() {
+		super();
+	}
+
+	public static JaxrsMetamodelEventBus getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Registers the given listener for further notifications when JAX-RS
+	 * Metamodels or their Endpoints changed.
+	 * 
+	 * @param listener
+	 *            the listener to register
+	 * @return {@code true} if the listener was not registered yet
+	 */
+	public boolean addListener(final IJaxrsMetamodelChangedListener listener) {
+		if (listeners.add(listener)) {
+			statistics.put(listener, new DispatchStatistics());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Unregisters the given listener.
+	 * 
+	 * @param listener
+	 *            the listener to unregister
+	 */
+	public void removeListener(final IJaxrsMetamodelChangedListener listener) {
+		listeners.remove(listener);
+		statistics.remove(listener);
+	}
+
+	/**
+	 * @return {@code true} if at least one listener is registered,
+	 *         {@code false} otherwise.
+	 */
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Starts a transaction (or a nested transaction) on the current thread:
+	 * all the changes notified by this thread until the outermost transaction
+	 * ends are delivered together.
+	 */
+	public void beginTransaction() {
+		final Transaction transaction = transactions.get();
+		if (transaction == null) {
+			transactions.set(new Transaction());
+		} else {
+			transaction.depth++;
+		}
+	}
+
+	/**
+	 * Ends the current (nested) transaction of the current thread, and
+	 * delivers its changes if this was the outermost transaction.
+	 */
+	public void endTransaction() {
+		final Transaction transaction = transactions.get();
+		if (transaction == null) {
+			return;
+		}
+		if (transaction.depth > 0) {
+			transaction.depth--;
+			return;
+		}
+		transactions.remove();
+		for (Batch batch : transaction.batches.values()) {
+			dispatch(batch);
+		}
+		for (JaxrsMetamodelDelta metamodelChange : transaction.metamodelChanges) {
+			dispatch(metamodelChange);
+		}
+	}
+
+	/**
+	 * Notifies the listeners that the given JAX-RS Metamodel was added or
+	 * removed. If the current thread has an ongoing transaction, this
+	 * notification is delivered after the other changes of the transaction,
+	 * once it ended.
+	 * 
+	 * @param metamodel
+	 *            the metamodel
+	 * @param deltaKind
+	 *            the kind of change
+	 */
+	public void notifyMetamodelChanged(final IJaxrsMetamodel metamodel, final int deltaKind) {
+		if (listeners.isEmpty()) {
+			Logger.debug("No metamodelChangedListener to notify of the metamodel changed :(");
+			return;
+		}
+		final JaxrsMetamodelDelta delta = new JaxrsMetamodelDelta(metamodel, deltaKind);
+		final Transaction transaction = transactions.get();
+		if (transaction != null) {
+			transaction.metamodelChanges.add(delta);
+		} else {
+			dispatch(delta);
+		}
+	}
+
+	private void dispatch(final JaxrsMetamodelDelta metamodelChange) {
+		submit(new Dispatch() {
+			@Override
+			void dispatch(final IJaxrsMetamodelChangedListener listener) {
+				listener.notifyMetamodelChanged(metamodelChange);
+			}
+		});
+	}
+
+	/**
+	 * Notifies the listeners that the given JAX-RS Endpoint was
+	 * added/changed/removed.
+	 * 
+	 * @param endpoint
+	 *            the endpoint that was added/changed/removed
+	 * @param deltaKind
+	 *            the kind of change
+	 */
+	public void notifyEndpointChanged(final IJaxrsEndpoint endpoint, final int deltaKind) {
+		if (endpoint == null) {
+			return;
+		}
+		if (listeners.isEmpty()) {
+			Logger.trace(" No Listener to notify about endpoint changed (type={}): {}", deltaKind, endpoint);
+			return;
+		}
+		final Batch batch = getBatch(endpoint.getMetamodel());
+		batch.addEndpointChange(endpoint, deltaKind);
+		dispatchIfNoTransaction(batch);
+	}
+
+	/**
+	 * Notifies the listeners that the problem level of the given JAX-RS
+	 * Endpoint changed.
+	 * 
+	 * @param endpoint
+	 *            the endpoint whose problem level changed
+	 */
+	public void notifyEndpointProblemLevelChanged(final IJaxrsEndpoint endpoint) {
+		if (endpoint == null || listeners.isEmpty()) {
+			return;
+		}
+		final Batch batch = getBatch(endpoint.getMetamodel());
+		batch.endpointProblemLevelChanges.add(endpoint);
+		dispatchIfNoTransaction(batch);
+	}
+
+	/**
+	 * Notifies the listeners that the problem level of the given JAX-RS
+	 * Metamodel changed.
+	 * 
+	 * @param metamodel
+	 *            the metamodel whose problem level changed
+	 */
+	public void notifyMetamodelProblemLevelChanged(final IJaxrsMetamodel metamodel) {
+		if (listeners.isEmpty()) {
+			Logger.debug("No metamodelChangedListeners to notify that the metamodel problem level changed :(");
+			return;
+		}
+		final Batch batch = getBatch(metamodel);
+		batch.problemLevelChanged = true;
+		dispatchIfNoTransaction(batch);
+	}
+
+	/**
+	 * @return the batch of changes of the given metamodel in the current
+	 *         transaction, or a new batch if there is no ongoing transaction.
+	 */
+	private Batch getBatch(final IJaxrsMetamodel metamodel) {
+		final Transaction transaction = transactions.get();
+		if (transaction == null) {
+			return new Batch(metamodel);
+		}
+		if (!transaction.batches.containsKey(metamodel)) {
+			transaction.batches.put(metamodel, new Batch(metamodel));
+		}
+		return transaction.batches.get(metamodel);
+	}
+
+	private void dispatchIfNoTransaction(final Batch batch) {
+		if (transactions.get() == null) {
+			dispatch(batch);
+		}
+	}
+
+	private void dispatch(final Batch batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		final JaxrsMetamodelDelta delta = batch.toDelta();
+		Logger.trace("Dispatching {} endpoint change(s) and {} problem level change(s) for {}", delta
+				.getEndpointDeltas().size(), delta.getEndpointProblemLevelChanges().size(), delta.getMetamodel());
+		submit(new Dispatch() {
+			@Override
+			void dispatch(final IJaxrsMetamodelChangedListener listener) {
+				if (listener instanceof IJaxrsMetamodelBatchedChangedListener) {
+					((IJaxrsMetamodelBatchedChangedListener) listener).notifyMetamodelChanges(delta);
+					return;
+				}
+				for (JaxrsEndpointDelta endpointDelta : delta.getEndpointDeltas()) {
+					listener.notifyEndpointChanged(endpointDelta);
+				}
+				for (IJaxrsEndpoint endpoint : delta.getEndpointProblemLevelChanges()) {
+					listener.notifyEndpointProblemLevelChanged(endpoint);
+				}
+				if (delta.isProblemLevelChanged()) {
+					listener.notifyMetamodelProblemLevelChanged(delta.getMetamodel());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Submits the given dispatch for all the listeners registered at this
+	 * time to the dispatcher thread.
+	 */
+	private synchronized void submit(final Dispatch dispatch) {
+		dispatch.recipients = new ArrayList<IJaxrsMetamodelChangedListener>(listeners);
+		dispatch.submissionTime = System.nanoTime();
+		getDispatcher().submit(dispatch);
+	}
+
+	private synchronized ExecutorService getDispatcher() {
+		if (dispatcher == null) {
+			dispatcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable runnable) {
+					final Thread thread = new Thread(runnable, "JAX-RS Metamodel Event Dispatcher");
+					thread.setDaemon(true);
+					dispatcherThread = thread;
+					return thread;
+				}
+			});
+		}
+		return dispatcher;
+	}
+
+	/**
+	 * Waits until all the changes submitted so far were delivered.
+	 * 
+	 * @param timeout
+	 *            the maximum time to wait, in milliseconds
+	 * @return {@code true} if all changes were delivered, {@code false} if the
+	 *         timeout elapsed or if the current thread was interrupted.
+	 */
+	public boolean waitForDispatch(final long timeout) {
+		final Future<?> future;
+		synchronized (this) {
+			if (dispatcher == null || Thread.currentThread() == dispatcherThread) {
+				return true;
+			}
+			future = dispatcher.submit(new Runnable() {
+				@Override
+				public void run() {
+					// nothing to do: all previously submitted dispatches are
+					// done when this one runs
+				}
+			});
+		}
+		try {
+			future.get(timeout, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			return false;
+		} catch (TimeoutException e) {
+			Logger.warn("Timeout while waiting for the JAX-RS Metamodel changes to be delivered");
+			return false;
+		}
+	}
+
+	/**
+	 * @param listener
+	 *            a registered listener
+	 * @return the dispatch statistics of the given listener, or {@code null}
+	 *         if it is not registered.
+	 */
+	public DispatchStatistics getDispatchStatistics(final IJaxrsMetamodelChangedListener listener) {
+		return statistics.get(listener);
+	}
+
+	/**
+	 * Stops the dispatcher thread once the changes submitted so far were
+	 * delivered. A new dispatcher thread is started if other changes are
+	 * notified afterwards.
+	 */
+	public synchronized void dispose() {
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+			dispatcher = null;
+			dispatcherThread = null;
+		}
+	}
+
+	/**
+	 * The delivery of a notification to the listeners.
+	 */
+	abstract class Dispatch implements Runnable {
+
+		List<IJaxrsMetamodelChangedListener> recipients;
+
+		long submissionTime;
+
+		abstract void dispatch(final IJaxrsMetamodelChangedListener listener);
+
+		@Override
+		public void run() {
+			for (IJaxrsMetamodelChangedListener listener : recipients) {
+				try {
+					dispatch(listener);
+				} catch (RuntimeException e) {
+					Metrics.LISTENER_FAILURES.increment();
+					Logger.error("Failed to notify " + listener + " of the JAX-RS Metamodel changes", e);
+				} finally {
+					Metrics.LISTENER_DISPATCH.record(System.nanoTime() - submissionTime);
+					final DispatchStatistics listenerStatistics = statistics.get(listener);
+					if (listenerStatistics != null) {
+						listenerStatistics.record(System.nanoTime() - submissionTime);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The changes notified by a thread during its ongoing transaction, grouped
+	 * by metamodel.
+	 */
+	static class Transaction {
+
+		int depth = 0;
+
+		final Map<IJaxrsMetamodel, Batch> batches = new LinkedHashMap<IJaxrsMetamodel, Batch>();
+
+		final List<JaxrsMetamodelDelta> metamodelChanges = new ArrayList<JaxrsMetamodelDelta>();
+	}
+
+	/**
+	 * The coalesced changes of a metamodel.
+	 */
+	static class Batch {
+
+		final IJaxrsMetamodel metamodel;
+
+		final Map<IJaxrsEndpoint, Integer> endpointChanges = new LinkedHashMap<IJaxrsEndpoint, Integer>();
+
+		final Set<IJaxrsEndpoint> endpointProblemLevelChanges = new LinkedHashSet<IJaxrsEndpoint>();
+
+		boolean problemLevelChanged = false;
+
+		Batch(final IJaxrsMetamodel metamodel) {
+			this.metamodel = metamodel;
+		}
+
+		void addEndpointChange(final IJaxrsEndpoint endpoint, final int deltaKind) {
+			final Integer previousKind = endpointChanges.get(endpoint);
+			if (previousKind == null) {
+				endpointChanges.put(endpoint, deltaKind);
+			} else if (previousKind == ADDED && deltaKind == REMOVED) {
+				endpointChanges.remove(endpoint);
+			} else if (previousKind == ADDED && deltaKind == CHANGED) {
+				// still an addition
+			} else if (previousKind == REMOVED && deltaKind == ADDED) {
+				endpointChanges.put(endpoint, CHANGED);
+			} else {
+				endpointChanges.put(endpoint, deltaKind);
+			}
+		}
+
+		boolean isEmpty() {
+			return endpointChanges.isEmpty() && endpointProblemLevelChanges.isEmpty() && !problemLevelChanged;
+		}
+
+		JaxrsMetamodelDelta toDelta() {
+			final List<JaxrsEndpointDelta> endpointDeltas = new ArrayList<JaxrsEndpointDelta>(endpointChanges.size());
+			for (Entry<IJaxrsEndpoint, Integer> entry : endpointChanges.entrySet()) {
+				endpointDeltas.add(new JaxrsEndpointDelta(entry.getKey(), entry.getValue()));
+			}
+			final List<IJaxrsEndpoint> problemLevelChanges = new ArrayList<IJaxrsEndpoint>();
+			for (IJaxrsEndpoint endpoint : endpointProblemLevelChanges) {
+				final Integer endpointChange = endpointChanges.get(endpoint);
+				if (endpointChange == null || endpointChange != REMOVED) {
+					problemLevelChanges.add(endpoint);
+				}
+			}
+			return new JaxrsMetamodelDelta(metamodel, CHANGED, endpointDeltas, problemLevelChanges,
+					problemLevelChanged);
+		}
+	}
+
+	/**
+	 * The dispatch latencies of a listener, measured from the time the changes
+	 * were submitted to the dispatcher to the time the listener returned.
+	 */
+	public static class DispatchStatistics {
+
+		private long dispatches = 0;
+
+		private long totalLatency = 0;
+
+		private long maxLatency = 0;
+
+		synchronized void record(final long latency) {
+			dispatches++;
+			totalLatency += latency;
+			maxLatency = Math.max(maxLatency, latency);
+		}
+
+		/**
+		 * @return the number of notifications delivered to the listener.
+		 */
+		public synchronized long getDispatches() {
+			return dispatches;
+		}
+
+		/**
+		 * @return the average dispatch latency, in milliseconds.
+		 */
+		public synchronized double getAverageLatency() {
+			if (dispatches == 0) {
+				return 0;
+			}
+			return totalLatency / dispatches / 1000000d;
+		}
+
+		/**
+		 * @return the maximum dispatch latency, in milliseconds.
+		 */
+		public synchronized double getMaxLatency() {
+			return maxLatency / 1000000d;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return "DispatchStatistics [dispatches=" + dispatches + ", averageLatency=" + getAverageLatency()
+					+ "ms, maxLatency=" + getMaxLatency() + "ms]";
+		}
+	}
+
+}
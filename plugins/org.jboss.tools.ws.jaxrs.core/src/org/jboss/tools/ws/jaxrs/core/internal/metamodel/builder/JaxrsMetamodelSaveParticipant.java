@@ -0,0 +1,86 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodelSnapshot;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelLocator;
+
+/**
+ * Workspace save participant that writes a snapshot of each JAX-RS Metamodel
+ * when the workspace (or a single project) is saved, so that the metamodels can
+ * be restored without a full build during the next session.
+ * 
+ * @author xcoulon
+ * 
+ */
+public class JaxrsMetamodelSaveParticipant implements ISaveParticipant {
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void prepareToSave(final ISaveContext context) throws CoreException {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void saving(final ISaveContext context) throws CoreException {
+		if (Job.getJobManager().find(JaxrsMetamodelBuilder.BUILDER_ID).length > 0) {
+			Logger.debug("Skipping JAX-RS Metamodel snapshots since some builds are still running");
+			return;
+		}
+		switch (context.getKind()) {
+		case ISaveContext.FULL_SAVE:
+			for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+				saveSnapshot(project);
+			}
+			JaxrsMetamodelSnapshot.deleteObsoleteSnapshots();
+			break;
+		case ISaveContext.PROJECT_SAVE:
+			saveSnapshot(context.getProject());
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static void saveSnapshot(final IProject project) throws CoreException {
+		final JaxrsMetamodel metamodel = JaxrsMetamodelLocator.get(project);
+		if (metamodel != null) {
+			metamodel.saveSnapshot();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void doneSaving(final ISaveContext context) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rollback(final ISaveContext context) {
+	}
+
+}
@@ -30,6 +30,7 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.JobMonitor;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelLocator;
 
@@ -52,6 +53,7 @@ public class ResourceChangedBuildJob extends Job {
 	@Override
 	protected IStatus run(final IProgressMonitor progressMonitor) {
 		final long startTime = new Date().getTime();
+		final long start = Metrics.start();
 		JaxrsMetamodel metamodel = null;
 		try {
 			progressMonitor.beginTask("Building JAX-RS Metamodel", 3 * SCALE);
@@ -67,7 +69,9 @@ public class ResourceChangedBuildJob extends Job {
 			if (metamodel == null) {
 				metamodel = JaxrsMetamodelLocator.get(javaProject, true);
 				if(metamodel != null) {
-					metamodel.processProject(progressMonitor);
+					// first build of the metamodel in this session: start from the snapshot of the previous session
+					// (if available), which also covers all the changes that occurred since it was saved.
+					metamodel.processProjectFromSnapshot(progressMonitor);
 				}
 			} else if (event.getBuildKind() == IncrementalProjectBuilder.FULL_BUILD
 					|| event.getBuildKind() == IncrementalProjectBuilder.CLEAN_BUILD
@@ -84,6 +88,7 @@ public class ResourceChangedBuildJob extends Job {
 			}
 			return status;
 		} finally {
+			Metrics.RESOURCE_CHANGED_BUILD_JOB.stop(start);
 			long endTime = new Date().getTime();
 			if (Logger.isDebugEnabled()) {
 				Logger.debug("JAX-RS Metamodel for project '{}' built in {} ms, ended with status {}.", javaProject
@@ -91,9 +96,19 @@ public class ResourceChangedBuildJob extends Job {
 						: "unknown"));
 			}
 			progressMonitor.done();
+			// let the next pending build start before this job is done
+			JaxrsMetamodelBuildCoordinator.getInstance().buildDone(this);
 		}
 	}
 
+	/**
+	 * All JAX-RS Metamodel build jobs belong to the {@link JaxrsMetamodelBuilder#BUILDER_ID} family.
+	 */
+	@Override
+	public boolean belongsTo(final Object family) {
+		return JaxrsMetamodelBuilder.BUILDER_ID.equals(family);
+	}
+
 	private List<ResourceDelta> extractAffectedResources(final IResourceDelta delta, final IProgressMonitor progressMonitor)
 			throws CoreException {
 		final List<ResourceDelta> events = new ArrayList<ResourceDelta>();
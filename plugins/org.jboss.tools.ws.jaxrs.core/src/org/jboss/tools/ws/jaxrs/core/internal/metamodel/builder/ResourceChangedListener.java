@@ -58,7 +58,7 @@ public class ResourceChangedListener implements IResourceChangeListener {
 			try {
 				final JaxrsMetamodel metamodel = JaxrsMetamodelLocator.get(project);
 				if (metamodel != null) {
-					Logger.debug("Removing JAX-RS Metamodel before closing project " + project.getName());
+					Logger.debug("Removing JAX-RS Metamodel before closing project {}", project.getName());
 					metamodel.remove();
 				}
 			} catch (CoreException e) {
@@ -0,0 +1,388 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
+import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
+import org.jboss.tools.ws.jaxrs.core.jdt.SourceType;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJavaMethodParameter;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsProvider;
+
+/**
+ * Reverse-dependency graph between the underlying {@link IResource}s of the
+ * JAX-RS elements of a metamodel, used to find which resources must be
+ * validated again after a given resource changed.
+ *
+ * Each resource <em>provides</em> and <em>depends on</em> a set of keys,
+ * computed from the JAX-RS elements it contains:
+ * <ul>
+ * <li>a Name Binding provides its annotation name, which every annotated
+ * element depends on,</li>
+ * <li>elements and providers bound to the same Name Binding depend on each
+ * other,</li>
+ * <li>a ParamConverterProvider is a dependency of every element that has
+ * parameters,</li>
+ * <li>a Java type (eg: a Parameter Aggregator or a Subresource) is a
+ * dependency of every element that refers to it as a parameter, field,
+ * property or return type, and vice-versa.</li>
+ * </ul>
+ * The resources impacted by a change are those which depend on a key that the
+ * changed resource provided before or provides after the change. The graph is
+ * built along with the metamodel and updated as its elements are added,
+ * changed or removed, so that the keys that a resource provided before a
+ * change are kept until the resources depending on it are retrieved with
+ * {@link #getDependentResources(IResource)}.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsDependencyGraph {
+
+	private static final String NAME_BINDING = "nameBinding:";
+
+	private static final String BOUND_ELEMENT = "boundElement:";
+
+	private static final String BOUND_PROVIDER = "boundProvider:";
+
+	private static final String PARAM_CONVERTER_PROVIDER = "paramConverterProvider";
+
+	private static final String TYPE = "type:";
+
+	private static final String REFERENCED_BY = "referencedBy:";
+
+	/** The keys provided and depended on, indexed by resource. */
+	private final Map<IResource, Dependencies> dependencies = new HashMap<IResource, Dependencies>();
+
+	/** The resources depending on each key. */
+	private final Map<String, Set<IResource>> dependents = new HashMap<String, Set<IResource>>();
+
+	/**
+	 * The keys that the changed resources provided before their changes, until
+	 * their dependent resources are retrieved.
+	 */
+	private final Map<IResource, Set<String>> previouslyProvided = new HashMap<IResource, Set<String>>();
+
+	/** Whether the whole metamodel has been indexed yet. */
+	private boolean indexed = false;
+
+	/**
+	 * Constructor
+	 */
+	protected JaxrsDependencyGraph() {
+		super();
+	}
+
+	/**
+	 * @return {@code true} if the whole metamodel has been indexed already,
+	 *         {@code false} otherwise.
+	 */
+	public synchronized boolean isIndexed() {
+		return indexed;
+	}
+
+	/**
+	 * Removes all resources from this graph, which will ignore all updates
+	 * until it is indexed again.
+	 */
+	public synchronized void clear() {
+		dependencies.clear();
+		dependents.clear();
+		previouslyProvided.clear();
+		this.indexed = false;
+	}
+
+	/**
+	 * Indexes all {@link IJaxrsElement}s in the given {@link IJaxrsMetamodel},
+	 * replacing the previous content of this graph.
+	 *
+	 * @param metamodel
+	 *            the metamodel to index.
+	 */
+	public synchronized void index(final IJaxrsMetamodel metamodel) {
+		clear();
+		final Map<IResource, Dependencies> allDependencies = new HashMap<IResource, Dependencies>();
+		for (IJaxrsElement element : metamodel.getAllElements()) {
+			final IResource resource = element.getResource();
+			if (resource == null) {
+				continue;
+			}
+			if (!allDependencies.containsKey(resource)) {
+				allDependencies.put(resource, new Dependencies());
+			}
+			allDependencies.get(resource).add(element);
+		}
+		for (Map.Entry<IResource, Dependencies> entry : allDependencies.entrySet()) {
+			entry.getValue().addDeclaredTypes(entry.getKey());
+			put(entry.getKey(), entry.getValue());
+		}
+		this.indexed = true;
+	}
+
+	/**
+	 * Updates the dependencies of the given resource from the JAX-RS elements
+	 * that it currently contains in the given metamodel. The keys that the
+	 * resource provided until now are kept, so that the resources that
+	 * depended on it before the change can still be retrieved. If a Name
+	 * Binding appeared or disappeared, the resources whose elements are
+	 * annotated with it are updated as well, since they became (or are not)
+	 * bound anymore. Does nothing until this graph is indexed.
+	 *
+	 * @param metamodel
+	 *            the metamodel containing the resource's elements
+	 * @param resource
+	 *            the resource whose elements were added, changed or removed
+	 */
+	public synchronized void update(final JaxrsMetamodel metamodel, final IResource resource) {
+		if (!indexed || resource == null) {
+			return;
+		}
+		final Dependencies previousDependencies = dependencies.get(resource);
+		if (previousDependencies != null) {
+			if (!previouslyProvided.containsKey(resource)) {
+				previouslyProvided.put(resource, new HashSet<String>());
+			}
+			previouslyProvided.get(resource).addAll(previousDependencies.provides);
+		}
+		final Dependencies currentDependencies = reindex(metamodel, resource);
+		// the elements annotated with a Name Binding that appeared or disappeared are (un)bound now
+		final Set<String> previousNameBindings = previousDependencies != null ? previousDependencies
+				.getProvidedNameBindings() : new HashSet<String>();
+		final Set<String> currentNameBindings = currentDependencies.getProvidedNameBindings();
+		final Set<String> changedNameBindings = new HashSet<String>(previousNameBindings);
+		changedNameBindings.addAll(currentNameBindings);
+		previousNameBindings.retainAll(currentNameBindings);
+		changedNameBindings.removeAll(previousNameBindings);
+		final Set<IResource> boundResources = new HashSet<IResource>();
+		collectDependents(changedNameBindings, boundResources);
+		boundResources.remove(resource);
+		for (IResource boundResource : boundResources) {
+			reindex(metamodel, boundResource);
+		}
+	}
+
+	/**
+	 * Replaces the dependencies of the given resource with those of the
+	 * JAX-RS elements that it currently contains in the given metamodel.
+	 *
+	 * @return the new dependencies of the resource
+	 */
+	private Dependencies reindex(final JaxrsMetamodel metamodel, final IResource resource) {
+		unindex(resource);
+		final Dependencies currentDependencies = new Dependencies();
+		for (IJaxrsElement element : metamodel.findElements(resource)) {
+			currentDependencies.add(element);
+		}
+		currentDependencies.addDeclaredTypes(resource);
+		put(resource, currentDependencies);
+		return currentDependencies;
+	}
+
+	/**
+	 * Returns the resources that depend on the given resource, either on the
+	 * keys it currently provides or on the keys it provided before its last
+	 * changes. The latter are forgotten once retrieved.
+	 *
+	 * @param resource
+	 *            the resource that changed
+	 * @return the resources that depend on the given resource (excluding the
+	 *         given resource itself)
+	 */
+	public synchronized Set<IResource> getDependentResources(final IResource resource) {
+		final Set<IResource> dependentResources = new HashSet<IResource>();
+		final Set<String> previousKeys = previouslyProvided.remove(resource);
+		if (previousKeys != null) {
+			collectDependents(previousKeys, dependentResources);
+		}
+		final Dependencies currentDependencies = dependencies.get(resource);
+		if (currentDependencies != null) {
+			collectDependents(currentDependencies.provides, dependentResources);
+		}
+		dependentResources.remove(resource);
+		return dependentResources;
+	}
+
+	/**
+	 * Adds all resources depending on one of the given keys into the given
+	 * target set.
+	 */
+	private void collectDependents(final Set<String> keys, final Set<IResource> target) {
+		for (String key : keys) {
+			final Set<IResource> keyDependents = dependents.get(key);
+			if (keyDependents != null) {
+				target.addAll(keyDependents);
+			}
+		}
+	}
+
+	private void put(final IResource resource, final Dependencies resourceDependencies) {
+		if (resourceDependencies.isEmpty()) {
+			return;
+		}
+		dependencies.put(resource, resourceDependencies);
+		for (String key : resourceDependencies.dependsOn) {
+			if (!dependents.containsKey(key)) {
+				dependents.put(key, new HashSet<IResource>());
+			}
+			dependents.get(key).add(resource);
+		}
+	}
+
+	private void unindex(final IResource resource) {
+		final Dependencies resourceDependencies = dependencies.remove(resource);
+		if (resourceDependencies == null) {
+			return;
+		}
+		for (String key : resourceDependencies.dependsOn) {
+			final Set<IResource> keyDependents = dependents.get(key);
+			if (keyDependents != null) {
+				keyDependents.remove(resource);
+				if (keyDependents.isEmpty()) {
+					dependents.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of resources in this graph.
+	 */
+	public synchronized int size() {
+		return dependencies.size();
+	}
+
+	/**
+	 * The keys provided and depended on by a single resource.
+	 */
+	static class Dependencies {
+
+		final Set<String> provides = new HashSet<String>();
+
+		final Set<String> dependsOn = new HashSet<String>();
+
+		boolean isEmpty() {
+			return provides.isEmpty() && dependsOn.isEmpty();
+		}
+
+		/**
+		 * @return the keys of the Name Bindings provided by the resource.
+		 */
+		Set<String> getProvidedNameBindings() {
+			final Set<String> nameBindings = new HashSet<String>();
+			for (String key : provides) {
+				if (key.startsWith(NAME_BINDING)) {
+					nameBindings.add(key);
+				}
+			}
+			return nameBindings;
+		}
+
+		/**
+		 * Adds the keys provided and depended on by the given element.
+		 */
+		void add(final IJaxrsElement element) {
+			if (!(element instanceof JaxrsJavaElement<?>)) {
+				return;
+			}
+			final JaxrsJavaElement<?> javaElement = (JaxrsJavaElement<?>) element;
+			if (javaElement.getJavaElement() instanceof IType) {
+				final String typeName = ((IType) javaElement.getJavaElement()).getFullyQualifiedName('.');
+				provides.add(TYPE + typeName);
+				dependsOn.add(REFERENCED_BY + typeName);
+			}
+			// any annotation may be (or become) a Name Binding
+			for (Annotation annotation : javaElement.getAnnotations().values()) {
+				dependsOn.add(NAME_BINDING + annotation.getFullyQualifiedName());
+			}
+			final boolean isProvider = element instanceof IJaxrsProvider;
+			for (String nameBinding : javaElement.getNameBindingAnnotations().keySet()) {
+				provides.add((isProvider ? BOUND_PROVIDER : BOUND_ELEMENT) + nameBinding);
+				dependsOn.add((isProvider ? BOUND_ELEMENT : BOUND_PROVIDER) + nameBinding);
+			}
+			if (element instanceof JaxrsNameBinding) {
+				provides.add(NAME_BINDING + ((JaxrsNameBinding) element).getJavaClassName());
+			} else if (element instanceof JaxrsParamConverterProvider) {
+				provides.add(PARAM_CONVERTER_PROVIDER);
+			} else if (element instanceof JaxrsResourceMethod) {
+				final JaxrsResourceMethod resourceMethod = (JaxrsResourceMethod) element;
+				final List<IJavaMethodParameter> parameters = resourceMethod.getJavaMethodParameters();
+				for (IJavaMethodParameter parameter : parameters) {
+					addReference(parameter.getType());
+				}
+				if (!parameters.isEmpty()) {
+					dependsOn.add(PARAM_CONVERTER_PROVIDER);
+				}
+				addReference(resourceMethod.getReturnedType());
+			} else if (element instanceof JaxrsResourceElement<?>) {
+				addReference(((JaxrsResourceElement<?>) element).getType());
+				dependsOn.add(PARAM_CONVERTER_PROVIDER);
+			} else if (element instanceof JaxrsParameterAggregatorElement<?>) {
+				addReference(((JaxrsParameterAggregatorElement<?>) element).getType());
+				dependsOn.add(PARAM_CONVERTER_PROVIDER);
+			}
+		}
+
+		/**
+		 * Adds the keys for a reference to the given type (and its type
+		 * arguments).
+		 */
+		private void addReference(final SourceType type) {
+			if (type == null || type.isPrimitive()) {
+				return;
+			}
+			addReference(type.getErasureName());
+			if (type.getTypeArguments() != null) {
+				for (IType typeArgument : type.getTypeArguments()) {
+					addReference(typeArgument.getFullyQualifiedName('.'));
+				}
+			}
+		}
+
+		private void addReference(final String typeName) {
+			if (typeName != null) {
+				dependsOn.add(TYPE + typeName);
+				provides.add(REFERENCED_BY + typeName);
+			}
+		}
+
+		/**
+		 * Adds the keys for the Java types declared in the given resource, even
+		 * if they are not JAX-RS elements, since they may be used as parameter
+		 * or return types.
+		 */
+		void addDeclaredTypes(final IResource resource) {
+			final ICompilationUnit compilationUnit = JdtUtils.getCompilationUnit(resource);
+			if (compilationUnit == null || !compilationUnit.exists()) {
+				return;
+			}
+			try {
+				for (IType type : compilationUnit.getAllTypes()) {
+					provides.add(TYPE + type.getFullyQualifiedName('.'));
+				}
+			} catch (JavaModelException e) {
+				Logger.warn("Failed to retrieve the types declared in " + resource.getFullPath(), e);
+			}
+		}
+	}
+
+}
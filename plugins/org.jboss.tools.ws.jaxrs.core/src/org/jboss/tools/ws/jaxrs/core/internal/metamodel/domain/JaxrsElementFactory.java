@@ -34,6 +34,7 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JavaElementsSearcher;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
@@ -86,36 +87,39 @@ public class JaxrsElementFactory {
 			return Collections.emptySet();
 		}
 		final Set<IJaxrsElement> elements = new HashSet<IJaxrsElement>();
-		// let's see if the given scope contains JAX-RS Application
-		final Set<IType> matchingApplicationTypes = JavaElementsSearcher.findApplicationTypes(scope,
+		// retrieve all candidate types in a single search
+		final Map<EnumElementCategory, Set<IType>> matchingTypes = JavaElementsSearcher.findJaxrsTypes(scope,
 				progressMonitor);
-		for (IType type : matchingApplicationTypes) {
+		// the compilation units of the candidate types are parsed in batches,
+		// before the types are processed
+		final ASTProvider astProvider = ASTProvider.getInstance();
+		// let's see if the given scope contains JAX-RS Application
+		final Set<IType> matchingApplicationTypes = matchingTypes.get(EnumElementCategory.APPLICATION);
+		for (IType type : astProvider.withASTs(matchingApplicationTypes, progressMonitor)) {
 			final JaxrsJavaApplication application = JaxrsJavaApplication.from(type).withMetamodel(metamodel).build();
 			if (application != null) {
 				elements.add(application);
 			}
 		}
 		// let's see if the given scope contains JAX-RS HTTP Methods
-		final Set<IType> matchingHttpMethodTypes = JavaElementsSearcher.findHttpMethodTypes(scope,
-				progressMonitor);
-		for (IType type : matchingHttpMethodTypes) {
+		final Set<IType> matchingHttpMethodTypes = matchingTypes.get(EnumElementCategory.HTTP_METHOD);
+		for (IType type : astProvider.withASTs(matchingHttpMethodTypes, progressMonitor)) {
 			final JaxrsHttpMethod httpMethod = JaxrsHttpMethod.from(type).withMetamodel(metamodel).build();
 			if (httpMethod != null) {
 				elements.add(httpMethod);
 			}
 		}
 		// let's see if the given scope contains JAX-RS Name Bindings
-		final Set<IType> matchingNameBindingsTypes = JavaElementsSearcher.findNameBindingTypes(scope,
-				progressMonitor);
-		for (IType type : matchingNameBindingsTypes) {
+		final Set<IType> matchingNameBindingsTypes = matchingTypes.get(EnumElementCategory.NAME_BINDING);
+		for (IType type : astProvider.withASTs(matchingNameBindingsTypes, progressMonitor)) {
 			final JaxrsNameBinding nameBinding = JaxrsNameBinding.from(type).withMetamodel(metamodel).build();
 			if (nameBinding != null) {
 				elements.add(nameBinding);
 			}
 		}
 		// let's see if the given scope contains JAX-RS Resources
-		final Set<IType> matchingResourceTypes = JavaElementsSearcher.findResourceTypes(scope, progressMonitor);
-		for (IType type : matchingResourceTypes) {
+		final Set<IType> matchingResourceTypes = matchingTypes.get(EnumElementCategory.RESOURCE);
+		for (IType type : astProvider.withASTs(matchingResourceTypes, progressMonitor)) {
 			final JaxrsResource resource = JaxrsResource.from(type, metamodel.findAllHttpMethodNames()).withMetamodel(metamodel).build();
 			if (resource != null) {
 				elements.add(resource);
@@ -124,16 +128,16 @@ public class JaxrsElementFactory {
 			}
 		}
 		// now,let's see if the given type can be a ParamConverterProvider
-		final Set<IType> matchingParamConverterProviderTypes = JavaElementsSearcher.findParamConverterProviderTypes(scope, progressMonitor);
-		for (IType type : matchingParamConverterProviderTypes) {
+		final Set<IType> matchingParamConverterProviderTypes = matchingTypes.get(EnumElementCategory.PARAM_CONVERTER_PROVIDER);
+		for (IType type : astProvider.withASTs(matchingParamConverterProviderTypes, progressMonitor)) {
 			final JaxrsParamConverterProvider paramConverterProvider = JaxrsParamConverterProvider.from(type).withMetamodel(metamodel).build();
 			if (paramConverterProvider != null) {
 				elements.add(paramConverterProvider);
 			}
 		}
 		// now,let's see if the given type can be a Parameter Aggregator
-		final Set<IType> matchingParameterAggregatorTypes = JavaElementsSearcher.findParameterAggregatorTypes(scope, progressMonitor);
-		for (IType type : matchingParameterAggregatorTypes) {
+		final Set<IType> matchingParameterAggregatorTypes = matchingTypes.get(EnumElementCategory.PARAMETER_AGGREGATOR);
+		for (IType type : astProvider.withASTs(matchingParameterAggregatorTypes, progressMonitor)) {
 			final JaxrsParameterAggregator parameterAggregator = JaxrsParameterAggregator.from(type).buildInMetamodel(metamodel);
 			if (parameterAggregator != null) {
 				elements.add(parameterAggregator);
@@ -142,8 +146,8 @@ public class JaxrsElementFactory {
 			}
 		}
 		// let's see if the given scope contains JAX-RS Providers
-		final Set<IType> matchingProviderTypes = JavaElementsSearcher.findProviderTypes(scope, progressMonitor);
-		for (IType type : matchingProviderTypes) {
+		final Set<IType> matchingProviderTypes = matchingTypes.get(EnumElementCategory.PROVIDER);
+		for (IType type : astProvider.withASTs(matchingProviderTypes, progressMonitor)) {
 			final JaxrsProvider provider = JaxrsProvider.from(type).withMetamodel(metamodel).build();
 			if (provider != null) {
 				elements.add(provider);
@@ -630,6 +630,30 @@ public class JaxrsEndpoint implements IJaxrsEndpoint {
 		return uriPathTemplate;
 	}
 
+	/**
+	 * @return the URI Path Template of this endpoint as declared in the
+	 *         {@code @ApplicationPath} and {@code @Path} annotations, ie, with
+	 *         the template parameters regexps instead of their Java types and
+	 *         without the query parameters. This template is used to match
+	 *         concrete request paths.
+	 */
+	public String getMatchingPathTemplate() {
+		final StringBuilder matchingPathTemplateBuilder = new StringBuilder();
+		if (application != null && application.getApplicationPath() != null) {
+			matchingPathTemplateBuilder.append(application.getApplicationPath());
+		}
+		final JaxrsResource parentResource = resourceMethods.get(0).getParentResource();
+		if (parentResource != null && parentResource.getPathTemplate() != null) {
+			matchingPathTemplateBuilder.append('/').append(parentResource.getPathTemplate());
+		}
+		for (JaxrsResourceMethod resourceMethod : resourceMethods) {
+			if (resourceMethod.getPathTemplate() != null) {
+				matchingPathTemplateBuilder.append('/').append(resourceMethod.getPathTemplate());
+			}
+		}
+		return matchingPathTemplateBuilder.toString();
+	}
+
 	@Override
 	public List<String> getConsumedMediaTypes() {
 		return consumedMediaTypes;
@@ -20,6 +20,7 @@ import java.util.Set;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IType;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.SourceType;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
@@ -78,7 +79,7 @@ public class JaxrsEndpointFactory {
 	 */
 	public static IJaxrsEndpoint createEndpointFromRootResourceMethod(final JaxrsResourceMethod resourceMethod)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final IJaxrsHttpMethod httpMethod = resourceMethod.getMetamodel().findHttpMethodByTypeName(
 					resourceMethod.getHttpMethodAnnotation().getFullyQualifiedName());
@@ -88,8 +89,7 @@ public class JaxrsEndpointFactory {
 			endpoint.joinMetamodel();
 			return endpoint;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Created JAX-RS Endpoint from JAX-RS Resource Method in {}ms", (end - start));
+			Metrics.ENDPOINT_CREATION.stop(start);
 		}
 	}
 
@@ -99,7 +99,7 @@ public class JaxrsEndpointFactory {
 	 */
 	public static List<IJaxrsEndpoint> createEndpointsFromSubresourceMethod(final JaxrsResourceMethod resourceMethod)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final List<IJaxrsEndpoint> endpoints = new ArrayList<IJaxrsEndpoint>();
 			final JaxrsMetamodel metamodel = resourceMethod.getMetamodel();
@@ -126,8 +126,7 @@ public class JaxrsEndpointFactory {
 			}
 			return endpoints;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Created JAX-RS Endpoint from JAX-RS Subresource Method in {}ms", (end - start));
+			Metrics.ENDPOINT_CREATION.stop(start);
 		}
 
 	}
@@ -136,7 +135,7 @@ public class JaxrsEndpointFactory {
 	@SuppressWarnings("incomplete-switch")
 	public static List<JaxrsEndpoint> createEndpointsFromSubresourceLocator(
 			final JaxrsResourceMethod subresourceLocator) throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final List<JaxrsEndpoint> endpoints = new ArrayList<JaxrsEndpoint>();
 			final JaxrsMetamodel metamodel = subresourceLocator.getMetamodel();
@@ -167,8 +166,7 @@ public class JaxrsEndpointFactory {
 			}
 			return endpoints;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Created JAX-RS Endpoint from JAX-RS Subresource Locator in {}ms", (end - start));
+			Metrics.ENDPOINT_CREATION.stop(start);
 		}
 
 	}
@@ -25,7 +25,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -113,7 +114,7 @@ public class JaxrsHttpMethod extends JaxrsJavaElement<IType> implements IJaxrsHt
 	 * @throws JavaModelException
 	 */
 	public static Builder from(final IJavaElement javaElement) throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		switch (javaElement.getElementType()) {
 		case IJavaElement.COMPILATION_UNIT:
 			return new Builder(((ICompilationUnit) javaElement).findPrimaryType(), ast);
@@ -172,7 +173,7 @@ public class JaxrsHttpMethod extends JaxrsJavaElement<IType> implements IJaxrsHt
 		}
 		
 		JaxrsHttpMethod build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				if (javaType == null || !javaType.exists() || !javaType.isStructureKnown()) {
 					return null;
@@ -191,8 +192,7 @@ public class JaxrsHttpMethod extends JaxrsJavaElement<IType> implements IJaxrsHt
 				}
 				return httpMethod;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS HTTP Method in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 
 		}
@@ -25,6 +25,8 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -53,7 +55,7 @@ public class JaxrsJavaApplication extends JaxrsJavaElement<IType> implements IJa
 	 * @throws JavaModelException
 	 */
 	public static Builder from(final IJavaElement javaElement) throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		switch (javaElement.getElementType()) {
 		case IJavaElement.COMPILATION_UNIT:
 			return new Builder(((ICompilationUnit) javaElement).findPrimaryType(), ast);
@@ -113,7 +115,7 @@ public class JaxrsJavaApplication extends JaxrsJavaElement<IType> implements IJa
 		}
 		
 		JaxrsJavaApplication build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				if (javaType == null || !javaType.exists() || !javaType.isStructureKnown()) {
 					return null;
@@ -134,8 +136,7 @@ public class JaxrsJavaApplication extends JaxrsJavaElement<IType> implements IJa
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS JavaApplication in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -173,7 +174,7 @@ public class JaxrsJavaApplication extends JaxrsJavaElement<IType> implements IJa
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsJavaApplication(final IType javaType, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
+	JaxrsJavaApplication(final IType javaType, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
 			final boolean isApplicationSubclass, final JaxrsJavaApplication primaryCopy) {
 		super(javaType, annotations, metamodel, primaryCopy);
 		this.isApplicationSubclass = isApplicationSubclass;
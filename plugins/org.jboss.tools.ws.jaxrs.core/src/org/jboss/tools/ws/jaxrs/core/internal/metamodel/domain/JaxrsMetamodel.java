@@ -28,6 +28,7 @@ import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.LuceneFiel
 import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.LuceneFields.FIELD_WEBXML_APPLICATION;
 import static org.jboss.tools.ws.jaxrs.core.validation.IJaxrsValidation.JAXRS_PROBLEM_MARKER_ID;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,7 +41,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.Term;
@@ -70,14 +70,20 @@ import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JavaElementChangedEvent;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsElementChangedProcessorDelegate;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsHttpMethodChangedListener;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelEventBus;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.ResourceDelta;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JaxrsElementsIndexationDelegate;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.LuceneDocumentFactory;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.UriTemplateMatcher;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
+import org.jboss.tools.ws.jaxrs.core.jdt.CompilationUnitsRepository;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
 import org.jboss.tools.ws.jaxrs.core.jdt.FlagsUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
+import org.jboss.tools.ws.jaxrs.core.jdt.TypeHierarchyCache;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsApplication;
@@ -136,17 +142,53 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	private final Set<IJaxrsElementChangedListener> elementChangedListeners = new HashSet<IJaxrsElementChangedListener>();
 
 	/** A boolean marker that indicates if the metamodel is being initialized (ie, first/full build).*/
-	private boolean initializing=true;
+	private volatile boolean initializing=true;
 
 	/** The last known build status for this metamodel. */
-	private IStatus buildStatus = Status.OK_STATUS;
+	private volatile IStatus buildStatus = Status.OK_STATUS;
 
-	/** A Read/Write Lock to avoid concurrent access to the elements while changes are being processed. */
+	/**
+	 * A Read/Write Lock to avoid concurrent changes in the elements. Searches
+	 * do not acquire this lock: they are performed on the
+	 * {@link JaxrsMetamodel#publishedView} unless the current thread is the
+	 * one processing the changes.
+	 */
 	private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock(true);
+
+	/**
+	 * The last published immutable view of the elements, endpoints and index,
+	 * replaced on the first lookup after the write lock was released.
+	 */
+	private volatile JaxrsMetamodelView publishedView;
+
+	/**
+	 * Indicates that the elements, endpoints or index changed since the
+	 * {@link JaxrsMetamodel#publishedView} was published.
+	 */
+	private volatile boolean viewChanged = false;
+
+	/** Indicates that this metamodel was removed and that its index was disposed. */
+	private volatile boolean removed = false;
+
+	/** Lock used to publish a new view only once after changes. */
+	private final Object publishLock = new Object();
 	
 	/** A temporary cache for removed elements, so that they can be consumed during validation.*/
 	private JaxrsShadowElementsCache shadowElementsCache = new JaxrsShadowElementsCache();
 
+	/** The dependencies between the underlying resources of the elements, used to complete the validation set.*/
+	private final JaxrsDependencyGraph dependencyGraph = new JaxrsDependencyGraph();
+
+	/** The URI Path Templates of all endpoints, to find the endpoints matching a given request path. */
+	private final UriTemplateMatcher<JaxrsEndpoint> endpointMatcher = new UriTemplateMatcher<JaxrsEndpoint>();
+
+	/**
+	 * The modification stamps of the compilation units when they were last
+	 * processed, indexed by their portable full path, to be saved in the
+	 * snapshot of this metamodel.
+	 */
+	private final Map<String, Long> processedModificationStamps = new HashMap<String, Long>();
+
 	/**
 	 * Full constructor.
 	 * 
@@ -161,7 +203,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	private JaxrsMetamodel(final IJavaProject javaProject) throws CoreException {
 		this.javaProject = javaProject;
 		indexationService = new JaxrsElementsIndexationDelegate(this);
+		publishView();
 		addBuiltinHttpMethods();
+		dependencyGraph.index(this);
 		addJaxrsElementChangedListener(new JaxrsHttpMethodChangedListener());
 	}
 	
@@ -204,6 +248,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		this.problemLevel = 0;
 	}
 
+	/**
+	 * @return the internal problem level of this metamodel, regardless of the problem level of its elements.
+	 */
+	int getMetamodelProblemLevel() {
+		return this.problemLevel;
+	}
+
 	/**
 	 * @return <code>Math.max</code> between the internal problem level and all its endpoints problem level.
 	 * @see IMarker for the severity level (value "0" meaning
@@ -211,8 +262,8 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	public final int getProblemSeverity() {
 		int globalLevel = problemLevel;
-		for(Entry<String, JaxrsBaseElement> entry : this.elements.entrySet()) {
-			globalLevel = Math.max(globalLevel, entry.getValue().getProblemSeverity());
+		for(JaxrsBaseElement element : getView().getElements()) {
+			globalLevel = Math.max(globalLevel, element.getProblemSeverity());
 		}
 		return globalLevel;
 	}
@@ -283,17 +334,20 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	}
 
 	/**
+	 * Removes this metamodel. The listeners are notified of the removal after
+	 * the changes that were pending in the current thread's transaction, if
+	 * any.
+	 * 
 	 * @throws CoreException
 	 *             in case of underlying exception
-	 * @throws IOException
-	 * @throws CorruptIndexException
 	 */
 	public final void remove() throws CoreException {
 		try {
-			readWriteLock.writeLock().lock();
+			acquireWriteLock();
 			JBossJaxrsCorePlugin.notifyMetamodelChanged(this, REMOVED);
 			this.elementChangedListeners.clear();
 			indexationService.dispose();
+			TypeHierarchyCache.getInstance().remove(javaProject);
 			final IProject project = getProject();
 			if(project.exists() && project.isOpen()) {
 				project.setSessionProperty(METAMODEL_QUALIFIED_NAME, null);
@@ -304,8 +358,11 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		} catch (IOException e) {
 			Logger.error("Failed to remove JAX-RS Metamodel for project " + javaProject.getElementName(), e);
 		} finally {
-			readWriteLock.writeLock().unlock();
-			Logger.debug("JAX-RS Metamodel removed for project " + javaProject.getElementName());
+			// no need to publish anything since the index has been disposed
+			this.removed = true;
+			this.publishedView = JaxrsMetamodelView.EMPTY;
+			releaseWriteLock();
+			Logger.debug("JAX-RS Metamodel removed for project {}", javaProject.getElementName());
 		}
 	}
 
@@ -317,6 +374,87 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		return javaProject.getProject();
 	}
 
+	// ********************************************************************************
+	// Published view
+	// ********************************************************************************
+
+	/**
+	 * Returns the view of this metamodel that the current thread should use
+	 * to perform searches: the thread that is currently processing changes
+	 * gets a view on the live elements, endpoints and index (so that it can
+	 * see its own changes), while all other threads get the last published
+	 * view, without waiting for the changes in progress. A new view is
+	 * published by the first thread that performs a lookup after changes
+	 * were processed, unless some other changes are being processed.
+	 * 
+	 * @return the view of this metamodel for the current thread.
+	 */
+	public JaxrsMetamodelView getView() {
+		if (readWriteLock.isWriteLockedByCurrentThread()) {
+			try {
+				return new JaxrsMetamodelView(elements, endpoints, indexationService.getIndexSnapshot());
+			} catch (IOException e) {
+				Logger.error("Failed to open a snapshot of the live JAX-RS index", e);
+			}
+		}
+		if (viewChanged && !removed && readWriteLock.readLock().tryLock()) {
+			try {
+				synchronized (publishLock) {
+					if (viewChanged && !removed) {
+						publishView();
+					}
+				}
+			} finally {
+				readWriteLock.readLock().unlock();
+			}
+		}
+		return publishedView;
+	}
+
+	/**
+	 * Acquires the write lock for the current thread. The endpoint changes
+	 * notified while the outermost write lock is held are delivered together
+	 * to the listeners once this lock is released.
+	 */
+	private void acquireWriteLock() {
+		readWriteLock.writeLock().lock();
+		if (readWriteLock.getWriteHoldCount() == 1) {
+			JaxrsMetamodelEventBus.getInstance().beginTransaction();
+		}
+	}
+
+	/**
+	 * Releases the write lock held by the current thread. If this is the
+	 * outermost write lock, the published view is marked as changed, so that a
+	 * new view of the elements, endpoints and index is published on the next
+	 * lookup (rather than copied after each set of changes). The changes
+	 * notified while holding the lock are delivered after it was released.
+	 */
+	private void releaseWriteLock() {
+		final boolean outermost = readWriteLock.getWriteHoldCount() == 1;
+		if (outermost) {
+			this.viewChanged = true;
+		}
+		readWriteLock.writeLock().unlock();
+		if (outermost) {
+			JaxrsMetamodelEventBus.getInstance().endTransaction();
+		}
+	}
+
+	/**
+	 * Publishes an immutable copy of the current elements, endpoints and index
+	 * for the readers. The caller must hold a lock on this metamodel.
+	 */
+	private void publishView() {
+		try {
+			this.publishedView = JaxrsMetamodelView.copyOf(elements, endpoints, indexationService.getIndexSnapshot());
+			this.viewChanged = false;
+		} catch (IOException e) {
+			Logger.error("Failed to publish the changes in the JAX-RS Metamodel for project "
+					+ javaProject.getElementName(), e);
+		}
+	}
+
 	// ********************************************************************************
 	// Processing JavaElementDelta (after ElementChangedEvent)
 	// ********************************************************************************
@@ -373,9 +511,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 			throws CoreException {
 		try {
 			Logger.debug("Processing {}", delta);
-			readWriteLock.writeLock().lock();
+			acquireWriteLock();
+			indexationService.beginBatch();
 			final IJavaElement element = delta.getElement();
 			final CompilationUnit ast = delta.getCompilationUnitAST();
+			// make the AST available to the next lookups if it matches the
+			// saved content of its compilation unit
+			CompilationUnitsRepository.getInstance().putAST(JdtUtils.getCompilationUnit(element), ast);
 			final int deltaKind = delta.getKind();
 			switch(element.getElementType()) {
 			case IJavaElement.JAVA_PROJECT:
@@ -383,12 +525,14 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 				processProject(progressMonitor);
 				break;
 			case IJavaElement.ANNOTATION:
+				updateModificationStamps(element, deltaKind);
 				processJavaAnnotationChange((IAnnotation) element, deltaKind, ast, progressMonitor);
 				break;
 			case IJavaElement.COMPILATION_UNIT:
 			case IJavaElement.TYPE:
 			case IJavaElement.METHOD:
 			case IJavaElement.FIELD:
+				updateModificationStamps(element, deltaKind);
 				processJavaElementChange(element, deltaKind, ast, progressMonitor);
 				break;
 			default:
@@ -398,9 +542,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		} finally {
 			this.initializing = false;
 			progressMonitor.done();
-			readWriteLock.writeLock().unlock();
+			indexationService.endBatch();
+			releaseWriteLock();
 			setBuildStatus(Status.OK_STATUS);
-			Logger.debug("Done processing Java changes: " + getStatus());
+			Logger.debug("Done processing Java changes: {}", getStatus());
 		}
 	}
 
@@ -486,8 +631,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @throws CoreException
 	 */
 	public void processProject(final IProgressMonitor progressMonitor) throws CoreException {
-		final WriteLock writeLock = readWriteLock.writeLock();
-		writeLock.lock();
+		final long start = Metrics.start();
+		acquireWriteLock();
+		indexationService.beginBatch();
 		try {
 			progressMonitor.beginTask("Processing project '" + getProject().getName() + "'...", 1);
 			Logger.debug("Processing full project '{}'", getProject().getName());
@@ -496,9 +642,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 			// start with a fresh new metamodel
 			this.elements.clear();
 			this.endpoints.clear();
+			this.endpointMatcher.clear();
 			this.indexationService.clear();
+			this.dependencyGraph.clear();
+			this.processedModificationStamps.clear();
+			this.processedModificationStamps.putAll(JaxrsMetamodelSnapshot.computeModificationStamps(getJavaProject()));
 			addBuiltinHttpMethods();
-			Logger.debug("Processing project '" + getProject().getName() + "'...");
+			Logger.debug("Processing project '{}'...", getProject().getName());
 			if (WtpUtils.hasWebDeploymentDescriptor(getProject())) {
 				processWebDeploymentDescriptorChange(
 						new ResourceDelta(WtpUtils.getWebDeploymentDescriptor(getProject()), ADDED, Flags.NONE));
@@ -508,11 +658,115 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		} catch (CoreException e) {
 			Logger.error("Failed while processing resource results", e);
 		} finally {
+			dependencyGraph.index(this);
 			this.initializing = false;
 			progressMonitor.done();
-			writeLock.unlock();
+			indexationService.endBatch();
+			releaseWriteLock();
 			setBuildStatus(Status.OK_STATUS);
 			Logger.debug("Done processing resource results.");
+			Metrics.PROJECT_BUILD.stop(start);
+			final Runtime runtime = Runtime.getRuntime();
+			Logger.tracePerf("Processed project '{}' ({} bytes of heap in use, {})", getProject().getName(),
+					(runtime.totalMemory() - runtime.freeMemory()), ASTProvider.getInstance());
+		}
+	}
+
+	/**
+	 * Process the entire project by restoring the JAX-RS elements from the
+	 * snapshot that was saved during the previous session (if available) and
+	 * then only processing the compilation units that changed since that
+	 * snapshot was saved. Falls back to {@link #processProject(IProgressMonitor)}
+	 * if no usable snapshot exists.
+	 * 
+	 * @param progressMonitor
+	 *            the progress monitor
+	 * @throws CoreException
+	 */
+	public void processProjectFromSnapshot(final IProgressMonitor progressMonitor) throws CoreException {
+		final File snapshotFile = JaxrsMetamodelSnapshot.getSnapshotFile(getProject());
+		if (snapshotFile == null || !snapshotFile.exists()) {
+			processProject(progressMonitor);
+			return;
+		}
+		acquireWriteLock();
+		indexationService.beginBatch();
+		boolean restored = false;
+		try {
+			progressMonitor.beginTask("Restoring project '" + getProject().getName() + "'...", 1);
+			Logger.debug("Restoring project '{}' from snapshot", getProject().getName());
+			// start with a fresh new metamodel, keeping the markers of the previous session
+			this.elements.clear();
+			this.endpoints.clear();
+			this.endpointMatcher.clear();
+			this.indexationService.clear();
+			this.dependencyGraph.clear();
+			this.processedModificationStamps.clear();
+			this.processedModificationStamps.putAll(JaxrsMetamodelSnapshot.computeModificationStamps(getJavaProject()));
+			addBuiltinHttpMethods();
+			if (WtpUtils.hasWebDeploymentDescriptor(getProject())) {
+				processWebDeploymentDescriptorChange(
+						new ResourceDelta(WtpUtils.getWebDeploymentDescriptor(getProject()), ADDED, Flags.NONE));
+			}
+			final List<ResourceDelta> changes = JaxrsMetamodelSnapshot.restore(this, snapshotFile);
+			if (changes != null) {
+				for (ResourceDelta change : changes) {
+					processResourceChange(change, progressMonitor);
+				}
+				dependencyGraph.index(this);
+				restored = true;
+			}
+			progressMonitor.worked(1);
+		} catch (IOException e) {
+			Logger.warn("Failed to restore JAX-RS Metamodel for project " + getProject().getName()
+					+ " from snapshot, processing the whole project instead", e);
+		} catch (CoreException e) {
+			Logger.warn("Failed to restore JAX-RS Metamodel for project " + getProject().getName()
+					+ " from snapshot, processing the whole project instead", e);
+		} catch (RuntimeException e) {
+			// eg: corrupted snapshot content
+			Logger.warn("Failed to restore JAX-RS Metamodel for project " + getProject().getName()
+					+ " from snapshot, processing the whole project instead", e);
+		} finally {
+			try {
+				if (!restored) {
+					snapshotFile.delete();
+					processProject(progressMonitor);
+				}
+			} finally {
+				this.initializing = false;
+				progressMonitor.done();
+				indexationService.endBatch();
+				releaseWriteLock();
+				setBuildStatus(Status.OK_STATUS);
+				Logger.debug("Done restoring project from snapshot.");
+			}
+		}
+	}
+
+	/**
+	 * Saves a snapshot of this metamodel in the plugin state location, so that
+	 * it can be restored during the next session with
+	 * {@link #processProjectFromSnapshot(IProgressMonitor)}. Nothing is saved
+	 * while the metamodel is still initializing.
+	 */
+	public void saveSnapshot() {
+		final File snapshotFile = JaxrsMetamodelSnapshot.getSnapshotFile(getProject());
+		if (snapshotFile == null) {
+			return;
+		}
+		try {
+			readWriteLock.readLock().lock();
+			if (this.initializing) {
+				return;
+			}
+			JaxrsMetamodelSnapshot.write(this, snapshotFile);
+		} catch (IOException e) {
+			Logger.error("Failed to save JAX-RS Metamodel snapshot for project " + getProject().getName(), e);
+		} catch (CoreException e) {
+			Logger.error("Failed to save JAX-RS Metamodel snapshot for project " + getProject().getName(), e);
+		} finally {
+			readWriteLock.readLock().unlock();
 		}
 	}
 
@@ -561,12 +815,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	public void processAffectedResources(final List<ResourceDelta> affectedResources,
 			final IProgressMonitor progressMonitor) {
-		final WriteLock writeLock = readWriteLock.writeLock();
-		writeLock.lock();
+		acquireWriteLock();
+		indexationService.beginBatch();
 		try {
 			progressMonitor.beginTask("Processing Resource " + affectedResources.size() + " change(s)...",
 					affectedResources.size());
 			Logger.debug("Processing {} Resource change(s)...", affectedResources.size());
+			prefetchASTs(affectedResources, progressMonitor);
 			for (ResourceDelta event : affectedResources) {
 				if (event.getResource().getType() == IResource.PROJECT) {
 					processProject(progressMonitor);
@@ -580,9 +835,37 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		} finally {
 			this.initializing = false;
 			progressMonitor.done();
-			writeLock.unlock();
+			indexationService.endBatch();
+			releaseWriteLock();
 			setBuildStatus(Status.OK_STATUS);
-			Logger.debug("Done processing Resource results.");
+			Logger.debug("Done processing Resource results ({}).", ASTProvider.getInstance());
+		}
+	}
+
+	/**
+	 * Parses the compilation units of the given added or changed resources in
+	 * a single batch (unless their AST is already available), so that they
+	 * don't need to be parsed one after the other while they are processed.
+	 * 
+	 * @param affectedResources
+	 *            the affected resources, all in the same project
+	 * @param progressMonitor
+	 *            the progress monitor
+	 * @throws JavaModelException
+	 */
+	private void prefetchASTs(final List<ResourceDelta> affectedResources, final IProgressMonitor progressMonitor)
+			throws JavaModelException {
+		final List<ICompilationUnit> compilationUnits = new ArrayList<ICompilationUnit>();
+		for (ResourceDelta event : affectedResources) {
+			if (event.getDeltaKind() == ADDED || event.getDeltaKind() == CHANGED) {
+				final ICompilationUnit compilationUnit = JdtUtils.getCompilationUnit(event.getResource());
+				if (compilationUnit != null) {
+					compilationUnits.add(compilationUnit);
+				}
+			}
+		}
+		if (compilationUnits.size() > 1) {
+			ASTProvider.getInstance().getASTs(compilationUnits, progressMonitor);
 		}
 	}
 
@@ -605,6 +888,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		// builder performances)
 		final IJavaElement javaElement = JavaCore.create(resource);
 		if (javaElement != null && !JdtUtils.isArchive(javaElement)) {
+			updateModificationStamps(javaElement, event.getDeltaKind());
 			processJavaElement(javaElement, event.getDeltaKind(), progressMonitor);
 		} else if (WtpUtils.isWebDeploymentDescriptor(resource)) {
 			processWebDeploymentDescriptorChange(new ResourceDelta(resource, event.getDeltaKind(), Flags.NONE));
@@ -612,6 +896,52 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 
 	}
 
+	/**
+	 * Records the modification stamp of the compilation unit of the given
+	 * {@link IJavaElement} before it is processed (or forgets it if the
+	 * compilation unit was removed). Compilation units with unsaved changes get
+	 * a {@link IResource#NULL_STAMP}, since this metamodel then reflects
+	 * content that is not on disk. Stamps are not recorded for the compilation
+	 * units of an added or changed folder, so that they are processed again
+	 * when a snapshot is restored.
+	 * 
+	 * @param javaElement
+	 *            the Java element about to be processed
+	 * @param deltaKind
+	 *            the kind of change
+	 * @throws CoreException
+	 */
+	private void updateModificationStamps(final IJavaElement javaElement, final int deltaKind)
+			throws CoreException {
+		final IResource resource = javaElement.getResource();
+		if (resource == null) {
+			return;
+		}
+		if (resource.getType() == IResource.FILE) {
+			final ICompilationUnit compilationUnit = JdtUtils.getCompilationUnit(javaElement);
+			final int compilationUnitDeltaKind = (javaElement.getElementType() == IJavaElement.COMPILATION_UNIT) ? deltaKind
+					: CHANGED;
+			if (compilationUnitDeltaKind != REMOVED && compilationUnit != null && compilationUnit.hasUnsavedChanges()) {
+				processedModificationStamps.put(resource.getFullPath().toPortableString(),
+						Long.valueOf(IResource.NULL_STAMP));
+			} else {
+				JaxrsMetamodelSnapshot.updateModificationStamps(resource, compilationUnitDeltaKind,
+						processedModificationStamps);
+			}
+		} else if (deltaKind == REMOVED) {
+			JaxrsMetamodelSnapshot.updateModificationStamps(resource, REMOVED, processedModificationStamps);
+		}
+	}
+
+	/**
+	 * @return a copy of the modification stamps of the compilation units when
+	 *         they were last processed, indexed by their portable full path.
+	 *         The caller must hold a lock on this metamodel.
+	 */
+	Map<String, Long> getProcessedModificationStamps() {
+		return new HashMap<String, Long>(processedModificationStamps);
+	}
+
 	/**
 	 * Process the givne {@link IJavaElement} to see if it can be a JAX-RS element
 	 * @param javaElement
@@ -625,11 +955,11 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		final Set<JaxrsJavaElement<?>> matchingElements = findElements(javaElement);
 		switch (deltaKind) {
 		case ADDED:
-			JaxrsElementFactory.createElements(javaElement, JdtUtils.parse(javaElement, progressMonitor), this,
+			JaxrsElementFactory.createElements(javaElement, ASTProvider.getInstance().getAST(javaElement, progressMonitor), this,
 					progressMonitor);
 			break;
 		case CHANGED:
-			final CompilationUnit ast = JdtUtils.parse(javaElement, progressMonitor);
+			final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, progressMonitor);
 			if (matchingElements.isEmpty()) {
 				JaxrsElementFactory.createElements(javaElement, ast, this, progressMonitor);
 			} else {
@@ -667,7 +997,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	private void processWebDeploymentDescriptorChange(final ResourceDelta delta)
 			throws CoreException {
-		final long start = System.currentTimeMillis(); 
+		final long start = Metrics.start();
 		try {
 			final IResource webxmlResource = delta.getResource();
 			final JaxrsWebxmlApplication webxmlElement = (JaxrsWebxmlApplication) findElement(webxmlResource);
@@ -689,8 +1019,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 				break;
 			}
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Processed web.xml in {}ms", (end - start));
+			Metrics.WEBXML_CHANGE.stop(start);
 		}
 	}
 
@@ -707,19 +1036,19 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @throws CoreException
 	 */
 	public void add(final JaxrsBaseElement element) throws CoreException {
-		final WriteLock writeLock = readWriteLock.writeLock();
-		writeLock.lock();
+		acquireWriteLock();
 		try {
 			if (element == null || findElementByIdentifier(element) != null) {
 				return;
 			}
 			this.elements.put(element.getIdentifier(), element);
 			indexationService.indexElement(element);
+			dependencyGraph.update(this, element.getResource());
 			final JaxrsElementDelta delta = new JaxrsElementDelta(element, ADDED, FlagsUtils.computeElementFlags(element));
 			notifyListeners(delta);
 			processElementChange(delta);
 		} finally {
-			writeLock.unlock();
+			releaseWriteLock();
 		}
 	}
 	
@@ -744,16 +1073,14 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @throws CoreException
 	 */
 	public void processElementChange(final JaxrsElementDelta delta) throws CoreException {
-		final long start = System.currentTimeMillis();
-		final WriteLock writeLock = readWriteLock.writeLock();
-		writeLock.lock();
+		final long start = Metrics.start();
+		acquireWriteLock();
 		try {
 			JaxrsElementChangedProcessorDelegate.processEvent(delta);
 		} finally {
-			writeLock.unlock();
+			releaseWriteLock();
 			this.initializing = false;
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("JAX-RS Element change processed in {}ms", (end - start));
+			Metrics.ELEMENT_CHANGE.stop(start);
 		}
 	}
 
@@ -767,14 +1094,14 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	public void update(final JaxrsElementDelta delta) throws CoreException {
 		if (delta.isRelevant()) {
-			final WriteLock writeLock = readWriteLock.writeLock();
-			writeLock.lock();
+			acquireWriteLock();
 			try {
 				indexationService.reindexElement(delta.getElement());
+				dependencyGraph.update(this, delta.getElement().getResource());
 				notifyListeners(delta);
 				processElementChange(delta);
 			} finally {
-				writeLock.unlock();
+				releaseWriteLock();
 			}
 		} else {
 			Logger.trace("{} is not relevant. No propagation amongst other elements is happening", delta);
@@ -792,13 +1119,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (endpoint == null) {
 			return;
 		}
-		final WriteLock writeLock = readWriteLock.writeLock();
-		writeLock.lock();
+		acquireWriteLock();
 		try {
 			indexationService.reindexElement(endpoint);
+			endpointMatcher.add(endpoint.getMatchingPathTemplate(), endpoint);
 			JBossJaxrsCorePlugin.notifyEndpointChanged(endpoint, CHANGED);
 		} finally {
-			writeLock.unlock();
+			releaseWriteLock();
 		}
 	}
 
@@ -816,16 +1143,17 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 			return;
 		}
 		try {
-			readWriteLock.writeLock().lock();
+			acquireWriteLock();
 			processElementChange(new JaxrsElementDelta(element, REMOVED, flags));
 			// actual removal and unindexing should be done at the end
 			elements.remove(element.getIdentifier());
 			indexationService.unindexElement(element);
+			dependencyGraph.update(this, element.getResource());
 			// index the element in the validation cache because we may need it during validation
 			shadowElementsCache.index(element);
 			notifyListeners(new JaxrsElementDelta(element, REMOVED, flags));
 		} finally {
-			readWriteLock.writeLock().unlock();
+			releaseWriteLock();
 		}
 	}
 
@@ -842,12 +1170,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 			return;
 		}
 		try {
-			readWriteLock.writeLock().lock();
+			acquireWriteLock();
 			endpoints.remove(endpoint.getIdentifier());
 			indexationService.unindexEndpoint(endpoint);
+			endpointMatcher.remove(endpoint);
 			JBossJaxrsCorePlugin.notifyEndpointChanged(endpoint, REMOVED);
 		} finally {
-			readWriteLock.writeLock().unlock();
+			releaseWriteLock();
 		}
 	}
 
@@ -869,38 +1198,33 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (element == null) {
 			return Collections.emptyList();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final List<IJaxrsElement> result = new ArrayList<IJaxrsElement>();
-			final Term javaElementTerm = new Term(FIELD_JAVA_ELEMENT, Boolean.TRUE.toString());
-			switch (element.getElementType()) {
-			case IJavaElement.JAVA_PROJECT:
-				final Term javaProjectIdentifier = new Term(FIELD_JAVA_PROJECT_IDENTIFIER,
-						element.getHandleIdentifier());
-				result.addAll(searchJaxrsElements(javaElementTerm, javaProjectIdentifier));
-				break;
-			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
-				final Term packageFragmentRootIdentifier = new Term(FIELD_PACKAGE_FRAGMENT_ROOT_IDENTIFIER,
-						element.getHandleIdentifier());
-				result.addAll(searchJaxrsElements(javaElementTerm, packageFragmentRootIdentifier));
-				break;
-			case IJavaElement.COMPILATION_UNIT:
-				final Term compilationUnitTerm = new Term(FIELD_COMPILATION_UNIT_IDENTIFIER, element.getHandleIdentifier());
-				result.addAll(searchJaxrsElements(javaElementTerm, compilationUnitTerm));
-				break;
-			case IJavaElement.TYPE:
-			case IJavaElement.FIELD:
-			case IJavaElement.METHOD:
-				final IJaxrsElement foundElement = this.elements.get(element.getHandleIdentifier());
-				if (foundElement != null) {
-					result.add(foundElement);
-				}
-				break;
+		final List<IJaxrsElement> result = new ArrayList<IJaxrsElement>();
+		final Term javaElementTerm = new Term(FIELD_JAVA_ELEMENT, Boolean.TRUE.toString());
+		switch (element.getElementType()) {
+		case IJavaElement.JAVA_PROJECT:
+			final Term javaProjectIdentifier = new Term(FIELD_JAVA_PROJECT_IDENTIFIER,
+					element.getHandleIdentifier());
+			result.addAll(searchJaxrsElements(javaElementTerm, javaProjectIdentifier));
+			break;
+		case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			final Term packageFragmentRootIdentifier = new Term(FIELD_PACKAGE_FRAGMENT_ROOT_IDENTIFIER,
+					element.getHandleIdentifier());
+			result.addAll(searchJaxrsElements(javaElementTerm, packageFragmentRootIdentifier));
+			break;
+		case IJavaElement.COMPILATION_UNIT:
+			final Term compilationUnitTerm = new Term(FIELD_COMPILATION_UNIT_IDENTIFIER, element.getHandleIdentifier());
+			result.addAll(searchJaxrsElements(javaElementTerm, compilationUnitTerm));
+			break;
+		case IJavaElement.TYPE:
+		case IJavaElement.FIELD:
+		case IJavaElement.METHOD:
+			final IJaxrsElement foundElement = getView().getElement(element.getHandleIdentifier());
+			if (foundElement != null) {
+				result.add(foundElement);
 			}
-			return result;
-		} finally {
-			readWriteLock.readLock().unlock();
+			break;
 		}
+		return result;
 
 	}
 
@@ -913,12 +1237,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the JAX-RS Elements or empty list if none was found.
 	 */
 	private <T extends IJaxrsElement> Set<T> searchJaxrsElements(final Term... terms) {
-		try {
-			readWriteLock.readLock().lock();
-			return indexationService.searchElements(terms);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		return indexationService.searchElements(getView(), terms);
 	}
 
 	/**
@@ -930,13 +1249,14 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	private Set<JaxrsEndpoint> searchJaxrsEndpoints(Term... terms) {
 		Logger.debugIndexing("Searching for Endpoints with using: {}", Arrays.asList(terms));
-		return indexationService.searchEndpoints(terms);
+		return indexationService.searchEndpoints(getView(), terms);
 	}
 
 	@SuppressWarnings("unchecked")
 	private <T extends IJaxrsStatus> T searchJaxrsElement(Term... terms) {
-		final String matchingIdentifier = indexationService.searchElement(terms);
-		final T element = (T) this.elements.get(matchingIdentifier);
+		final JaxrsMetamodelView view = getView();
+		final String matchingIdentifier = indexationService.searchElement(view, terms);
+		final T element = (T) view.getElement(matchingIdentifier);
 		if (element == null) {
 			Logger.traceIndexing("No element matching terms", (Object[]) terms);
 		}
@@ -950,7 +1270,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	@Override
 	public List<IJaxrsElement> getAllElements() {
-		return new ArrayList<IJaxrsElement>(elements.values());
+		return new ArrayList<IJaxrsElement>(getView().getElements());
 	}
 
 	/**
@@ -961,8 +1281,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	@SuppressWarnings("unchecked")
 	public <T extends IJavaElement> List<T> getAllJavaElements(int elementType) {
 		final List<T> javaElements = new ArrayList<T>();
-		for(Entry<String, JaxrsBaseElement> entry : this.elements.entrySet()) {
-			final IJaxrsElement jaxrsElement = entry.getValue();
+		for(JaxrsBaseElement jaxrsElement : getView().getElements()) {
 			if(jaxrsElement instanceof JaxrsJavaElement) {
 				final IMember javaElement = ((JaxrsJavaElement<?>)jaxrsElement).getJavaElement();
 				if(javaElement != null && javaElement.getElementType() == elementType) {
@@ -977,7 +1296,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return {@code true} if the metamodel has custom {@link IJaxrsElement}s (ie any element, except the 6 built-in {@link JaxrsBuiltinHttpMethod}), {@code  false} otherwise.
 	 */
 	public boolean hasCustomElements() {
-		return this.elements.size() > 6;
+		return getView().getElements().size() > 6;
 	}
 
 	/**
@@ -987,7 +1306,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the matching element or {@code null} if none matched.
 	 */
 	public IJaxrsElement getElement(final String identifier) {
-		return this.elements.get(identifier);
+		return getView().getElement(identifier);
 	}
 
 	
@@ -1003,13 +1322,8 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (resource == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term resourcePathTerm = new Term(FIELD_RESOURCE_PATH, resource.getFullPath().toPortableString());
-			return searchJaxrsElements(resourcePathTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term resourcePathTerm = new Term(FIELD_RESOURCE_PATH, resource.getFullPath().toPortableString());
+		return searchJaxrsElements(resourcePathTerm);
 	}
 
 	/**
@@ -1040,6 +1354,21 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		shadowElementsCache.index(changedElement);
 	}
 
+	/**
+	 * Returns the resources whose validation may be affected by the changes in
+	 * the given {@link IResource}, as recorded in the inner
+	 * {@link JaxrsDependencyGraph} when the JAX-RS elements of that resource
+	 * were added, changed or removed.
+	 * 
+	 * @param changedResource
+	 *            the resource that changed
+	 * @return the resources that depend on the given resource, before or after
+	 *         its changes
+	 */
+	public Set<IResource> getDependentResources(final IResource changedResource) {
+		return dependencyGraph.getDependentResources(changedResource);
+	}
+
 	/**
 	 * Searches and returns the JAX-RS Element matching the given
 	 * Identifier, or null if no element with the same identifier already exists in the Metamodel
@@ -1068,21 +1397,16 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (javaElement == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final String identifier = javaElement.getHandleIdentifier();
-			switch (javaElement.getElementType()) {
-			case IJavaElement.JAVA_PROJECT:
-				return searchJaxrsElements(new Term(FIELD_JAVA_PROJECT_IDENTIFIER, identifier));
-			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
-				return searchJaxrsElements(new Term(FIELD_PACKAGE_FRAGMENT_ROOT_IDENTIFIER, identifier));
-			case IJavaElement.COMPILATION_UNIT:
-				return searchJaxrsElements(new Term(FIELD_COMPILATION_UNIT_IDENTIFIER, identifier));
-			default:
-				return searchJaxrsElements(LuceneDocumentFactory.getIdentifierTerm(javaElement));
-			}
-		} finally {
-			readWriteLock.readLock().unlock();
+		final String identifier = javaElement.getHandleIdentifier();
+		switch (javaElement.getElementType()) {
+		case IJavaElement.JAVA_PROJECT:
+			return searchJaxrsElements(new Term(FIELD_JAVA_PROJECT_IDENTIFIER, identifier));
+		case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			return searchJaxrsElements(new Term(FIELD_PACKAGE_FRAGMENT_ROOT_IDENTIFIER, identifier));
+		case IJavaElement.COMPILATION_UNIT:
+			return searchJaxrsElements(new Term(FIELD_COMPILATION_UNIT_IDENTIFIER, identifier));
+		default:
+			return searchJaxrsElements(LuceneDocumentFactory.getIdentifierTerm(javaElement));
 		}
 	}
 	
@@ -1100,12 +1424,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (resource == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			return searchJaxrsElement(LuceneDocumentFactory.getResourcePathTerm(resource));
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		return searchJaxrsElement(LuceneDocumentFactory.getResourcePathTerm(resource));
 	}
 	
 	/**
@@ -1124,12 +1443,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (javaElement == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			return searchJaxrsElement(LuceneDocumentFactory.getIdentifierTerm(javaElement));
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		return searchJaxrsElement(LuceneDocumentFactory.getIdentifierTerm(javaElement));
 	}
 
 	/**
@@ -1138,12 +1452,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return a matching {@link IJaxrsElement} or {@code null} if none was found.
 	 */
 	public IJaxrsElement findElement(final String className, final EnumElementCategory expectedCategory) {
-		try {
-			readWriteLock.readLock().lock();
-			return searchJaxrsElement(LuceneDocumentFactory.getJavaClassNameTerm(className), LuceneDocumentFactory.getElementCategoryTerm(expectedCategory));
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		return searchJaxrsElement(LuceneDocumentFactory.getJavaClassNameTerm(className), LuceneDocumentFactory.getElementCategoryTerm(expectedCategory));
 	}
 
 	/**
@@ -1156,12 +1465,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if(element == null) {
 			return false;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			return this.elements.containsKey(element.getIdentifier());
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		return getView().containsElement(element.getIdentifier());
 	}
 
 	/**
@@ -1169,13 +1473,8 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 *         separate unmodifiable list
 	 */
 	public final Set<IJaxrsApplication> findAllApplications() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			return searchJaxrsElements(categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		return searchJaxrsElements(categoryTerm);
 	}
 	/**
 	 * Search for a JAX-RS Java Application annotated with the given annotation class name.
@@ -1188,15 +1487,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (annotationClassName == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
-			return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
+		return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
 	}
 	
 	/**
@@ -1212,24 +1506,19 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the application or null if none exist yet.
 	 */
 	public final IJaxrsApplication findApplication() {
-		try {
-			readWriteLock.readLock().lock();
-			// try to return pure web.xml first
-			final JaxrsWebxmlApplication webxmlApplication = findWebxmlApplication();
-			if (webxmlApplication != null && webxmlApplication.exists()) {
-				return webxmlApplication;
-			}
-			// otherwise, return first existing java-based application
-			final Set<JaxrsJavaApplication> javaApplications = findJavaApplications();
-			for (JaxrsJavaApplication application : javaApplications) {
-				if (application.exists()) {
-					return application;
-				}
+		// try to return pure web.xml first
+		final JaxrsWebxmlApplication webxmlApplication = findWebxmlApplication();
+		if (webxmlApplication != null && webxmlApplication.exists()) {
+			return webxmlApplication;
+		}
+		// otherwise, return first existing java-based application
+		final Set<JaxrsJavaApplication> javaApplications = findJavaApplications();
+		for (JaxrsJavaApplication application : javaApplications) {
+			if (application.exists()) {
+				return application;
 			}
-			return null;
-		} finally {
-			readWriteLock.readLock().unlock();
 		}
+		return null;
 	}
 
 	@Override
@@ -1242,14 +1531,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 *         overrides, or an empty collection if none exist in the metamodel.
 	 */
 	public final Set<JaxrsJavaApplication> findJavaApplications() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			final Term kindTerm = new Term(FIELD_JAVA_APPLICATION, Boolean.TRUE.toString());
-			return searchJaxrsElements(categoryTerm, kindTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		final Term kindTerm = new Term(FIELD_JAVA_APPLICATION, Boolean.TRUE.toString());
+		return searchJaxrsElements(categoryTerm, kindTerm);
 	}
 
 	/**
@@ -1260,16 +1544,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if(typeName == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, typeName);
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			final Term kindTerm = new Term(FIELD_JAVA_APPLICATION, Boolean.TRUE.toString());
-			final String matchingIdentifier = indexationService.searchElement(classNameTerm, categoryTerm, kindTerm);
-			return (JaxrsJavaApplication) elements.get(matchingIdentifier);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, typeName);
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		final Term kindTerm = new Term(FIELD_JAVA_APPLICATION, Boolean.TRUE.toString());
+		return searchJaxrsElement(classNameTerm, categoryTerm, kindTerm);
 	}
 
 	/**
@@ -1277,14 +1555,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 *         overrides, or an empty collection if none exist in the metamodel.
 	 */
 	public final Set<JaxrsWebxmlApplication> findWebxmlApplications() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			final Term kindTerm = new Term(FIELD_WEBXML_APPLICATION, Boolean.TRUE.toString());
-			return searchJaxrsElements(categoryTerm, kindTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		final Term kindTerm = new Term(FIELD_WEBXML_APPLICATION, Boolean.TRUE.toString());
+		return searchJaxrsElements(categoryTerm, kindTerm);
 	}
 
 	/**
@@ -1296,15 +1569,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 *         <strong>will not be returned</strong> by this method.
 	 */
 	public final JaxrsWebxmlApplication findWebxmlApplication() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			final Term kindTerm = new Term(FIELD_WEBXML_APPLICATION, Boolean.TRUE.toString());
-			final String elementIdentifier = indexationService.searchElement(categoryTerm, kindTerm);
-			return (JaxrsWebxmlApplication) elements.get(elementIdentifier);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		final Term kindTerm = new Term(FIELD_WEBXML_APPLICATION, Boolean.TRUE.toString());
+		return searchJaxrsElement(categoryTerm, kindTerm);
 	}
 
 	/**
@@ -1315,29 +1582,18 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if(className == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
-			final Term kindTerm = new Term(FIELD_WEBXML_APPLICATION, Boolean.TRUE.toString());
-			final String matchingIdentifier = indexationService.searchElement(classNameTerm, categoryTerm, kindTerm);
-			return (JaxrsWebxmlApplication) elements.get(matchingIdentifier);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.APPLICATION.toString());
+		final Term kindTerm = new Term(FIELD_WEBXML_APPLICATION, Boolean.TRUE.toString());
+		return searchJaxrsElement(classNameTerm, categoryTerm, kindTerm);
 	}
 
 	/**
 	 * @return all the JAX-RS HTTP Methods in the Metamodel.
 	 */
 	public final Set<IJaxrsHttpMethod> findAllHttpMethods() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.HTTP_METHOD.toString());
-			return searchJaxrsElements(categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.HTTP_METHOD.toString());
+		return searchJaxrsElements(categoryTerm);
 	}
 	
 	/**
@@ -1357,13 +1613,8 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return all the JAX-RS Name Bindings in the Metamodel.
 	 */
 	public final Set<IJaxrsNameBinding> findAllNameBindings() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.NAME_BINDING.toString());
-			return searchJaxrsElements(categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.NAME_BINDING.toString());
+		return searchJaxrsElements(categoryTerm);
 	}
 
 	/**
@@ -1376,14 +1627,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @throws CoreException
 	 */
 	public IJaxrsNameBinding findNameBinding(final String className) {
-		try {
-			readWriteLock.readLock().lock();
-			final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.NAME_BINDING.toString());
-			return searchJaxrsElement(classNameTerm, categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.NAME_BINDING.toString());
+		return searchJaxrsElement(classNameTerm, categoryTerm);
 	}
 	
 	
@@ -1397,14 +1643,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @throws CoreException
 	 */
 	public JaxrsParameterAggregator findParameterAggregator(final String className) {
-		try {
-			readWriteLock.readLock().lock();
-			final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PARAMETER_AGGREGATOR.toString());
-			return searchJaxrsElement(classNameTerm, categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term classNameTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PARAMETER_AGGREGATOR.toString());
+		return searchJaxrsElement(classNameTerm, categoryTerm);
 	}
 
 
@@ -1422,14 +1663,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (className == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.HTTP_METHOD.toString());
-			final Term typeTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
-			return searchJaxrsElement(categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.HTTP_METHOD.toString());
+		final Term typeTerm = new Term(FIELD_JAVA_CLASS_NAME, className);
+		return searchJaxrsElement(categoryTerm, typeTerm);
 	}
 
 	
@@ -1460,15 +1696,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (providerName == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
-			final Term typeTerm = new Term(FIELD_JAVA_CLASS_NAME, providerName);
-			return searchJaxrsElement(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
+		final Term typeTerm = new Term(FIELD_JAVA_CLASS_NAME, providerName);
+		return searchJaxrsElement(projectTerm, categoryTerm, typeTerm);
 	}
 	
 	/**
@@ -1482,15 +1713,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (annotationClassName == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
-			final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
-			return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
+		final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
+		return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
 	}
 
 	/**
@@ -1504,14 +1730,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (annotationClassName == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
-			return searchJaxrsElements(projectTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
+		return searchJaxrsElements(projectTerm, typeTerm);
 	}
 
 
@@ -1535,15 +1756,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (providerKind == null || providedClassName == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
-			final Term providerKindTerm = new Term(FIELD_PROVIDER_KIND + providerKind.toString(), providedClassName);
-			return searchJaxrsElements(projectTerm, categoryTerm, providerKindTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
+		final Term providerKindTerm = new Term(FIELD_PROVIDER_KIND + providerKind.toString(), providedClassName);
+		return searchJaxrsElements(projectTerm, categoryTerm, providerKindTerm);
 	}
 
 	/**
@@ -1552,14 +1768,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the JAX-RS Providers or empty list if none found
 	 */
 	public Set<IJaxrsProvider> findAllProviders() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
-			return searchJaxrsElements(projectTerm, categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PROVIDER.toString());
+		return searchJaxrsElements(projectTerm, categoryTerm);
 	}
 	
 	/**
@@ -1568,14 +1779,9 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the JAX-RS ParamConverterProviders or empty list if none found
 	 */
 	public Set<IJaxrsParamConverterProvider> findAllParamConverterProviders() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PARAM_CONVERTER_PROVIDER.toString());
-			return searchJaxrsElements(projectTerm, categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.PARAM_CONVERTER_PROVIDER.toString());
+		return searchJaxrsElements(projectTerm, categoryTerm);
 	}
 
 	/**
@@ -1589,15 +1795,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (resourceType == null) {
 			return null;
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE.toString());
-			final Term typeTerm = new Term(FIELD_JAVA_CLASS_NAME, resourceType.getFullyQualifiedName());
-			return searchJaxrsElement(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE.toString());
+		final Term typeTerm = new Term(FIELD_JAVA_CLASS_NAME, resourceType.getFullyQualifiedName());
+		return searchJaxrsElement(projectTerm, categoryTerm, typeTerm);
 	}
 
 	/**
@@ -1611,15 +1812,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (returnedType == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE_METHOD.toString());
-			final Term typeTerm = new Term(FIELD_RETURNED_TYPE_NAME, returnedType.getFullyQualifiedName());
-			return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE_METHOD.toString());
+		final Term typeTerm = new Term(FIELD_RETURNED_TYPE_NAME, returnedType.getFullyQualifiedName());
+		return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
 	}
 	
 	/**
@@ -1633,15 +1829,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (annotationClassName == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE_METHOD.toString());
-			final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
-			return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE_METHOD.toString());
+		final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
+		return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
 	}
 
 	/**
@@ -1655,15 +1846,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (annotationClassName == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE.toString());
-			final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
-			return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE.toString());
+		final Term typeTerm = new Term(FIELD_ANNOTATION_NAME, annotationClassName);
+		return searchJaxrsElements(projectTerm, categoryTerm, typeTerm);
 	}
 
 	/**
@@ -1679,15 +1865,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (element == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.ENDPOINT.toString());
-			final Term jaxrsElementTerm = new Term(FIELD_JAXRS_ELEMENT, element.getIdentifier());
-			return searchJaxrsEndpoints(projectTerm, categoryTerm, jaxrsElementTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.ENDPOINT.toString());
+		final Term jaxrsElementTerm = new Term(FIELD_JAXRS_ELEMENT, element.getIdentifier());
+		return searchJaxrsEndpoints(projectTerm, categoryTerm, jaxrsElementTerm);
 	}
 
 	/**
@@ -1703,15 +1884,10 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 		if (element == null) {
 			return Collections.emptySet();
 		}
-		try {
-			readWriteLock.readLock().lock();
-			final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.ENDPOINT.toString());
-			final Term javaElementTerm = new Term(FIELD_JAVA_ELEMENT, element.getHandleIdentifier());
-			return searchJaxrsEndpoints(projectTerm, categoryTerm, javaElementTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term projectTerm = new Term(FIELD_JAVA_PROJECT_IDENTIFIER, getJavaProject().getHandleIdentifier());
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.ENDPOINT.toString());
+		final Term javaElementTerm = new Term(FIELD_JAVA_ELEMENT, element.getHandleIdentifier());
+		return searchJaxrsEndpoints(projectTerm, categoryTerm, javaElementTerm);
 	}
 
 	/**
@@ -1720,36 +1896,41 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the JAX-RS Resources
 	 */
 	public final Set<IJaxrsResource> findAllResources() {
-		try {
-			readWriteLock.readLock().lock();
-			final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE.toString());
-			return searchJaxrsElements(categoryTerm);
-		} finally {
-			readWriteLock.readLock().unlock();
-		}
+		final Term categoryTerm = new Term(FIELD_TYPE, EnumElementCategory.RESOURCE.toString());
+		return searchJaxrsElements(categoryTerm);
 	}
 
 	public boolean add(JaxrsEndpoint endpoint) {
 		try {
-			readWriteLock.writeLock().lock();
+			acquireWriteLock();
 			// skip
 			if (endpoint == null || this.endpoints.containsValue(endpoint)) {
 				return false;
 			}
 			this.endpoints.put(endpoint.getIdentifier(), endpoint);
 			indexationService.indexElement(endpoint);
+			endpointMatcher.add(endpoint.getMatchingPathTemplate(), endpoint);
 			JBossJaxrsCorePlugin.notifyEndpointChanged(endpoint, ADDED);
 			return true;
 		} finally {
-			readWriteLock.writeLock().unlock();
+			releaseWriteLock();
 		}
 	}
 
 	@Override
 	public List<IJaxrsEndpoint> getAllEndpoints() {
-		return new ArrayList<IJaxrsEndpoint>(this.endpoints.values());
+		return new ArrayList<IJaxrsEndpoint>(getView().getEndpoints());
 	}
 	
+	/**
+	 * {@inheritDoc} The endpoints are matched using a precompiled structure
+	 * over all the URI Path Templates of this metamodel.
+	 */
+	@Override
+	public List<IJaxrsEndpoint> findEndpointsByPath(final String requestPath) {
+		return new ArrayList<IJaxrsEndpoint>(endpointMatcher.match(requestPath));
+	}
+
 	/**
 	 * Returns the endpoint identified by the given identifier.
 	 * 
@@ -1758,7 +1939,7 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 * @return the endpoint or {@code null} if none exists.
 	 */
 	public JaxrsEndpoint getEndpoint(String identifier) {
-		return this.endpoints.get(identifier);
+		return getView().getEndpoint(identifier);
 	}
 
 
@@ -1771,13 +1952,13 @@ public class JaxrsMetamodel implements IJaxrsMetamodel {
 	 */
 	public void removeEndpoints(final IJaxrsElement removedElement) {
 		try {
-			readWriteLock.writeLock().lock();
+			acquireWriteLock();
 			final Set<JaxrsEndpoint> elementEndpoints = findEndpoints(removedElement);
 			for (JaxrsEndpoint endpoint : elementEndpoints) {
 				endpoint.remove();
 			}
 		} finally {
-			readWriteLock.writeLock().unlock();
+			releaseWriteLock();
 		}
 	}
 
@@ -0,0 +1,790 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
+
+import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.SourceRange;
+import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.ResourceDelta;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
+import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
+import org.jboss.tools.ws.jaxrs.core.jdt.SourceType;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJavaMethodParameter;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+
+/**
+ * Persistent snapshot of a {@link JaxrsMetamodel}, stored in the plugin state
+ * location. The snapshot contains the JAX-RS elements of the metamodel along
+ * with the modification stamps of all the compilation units of the project at
+ * the time it was saved, so that the metamodel can be restored without parsing
+ * the compilation units again at workspace startup. Only the compilation units
+ * that changed since the snapshot was saved need to be processed after the
+ * restoration.
+ *
+ * The JAX-RS Endpoints are not part of the snapshot: they are computed when the
+ * restored elements join the metamodel. The elements of the web deployment
+ * descriptor are not part of the snapshot either, since they can be built
+ * without any Java parsing.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsMetamodelSnapshot {
+
+	/** Version of the snapshot format. Must be incremented each time the format changes. */
+	private static final int VERSION = 1;
+
+	/** Name of the folder containing the snapshots in the plugin state location. */
+	private static final String SNAPSHOTS_FOLDER = "metamodels";
+
+	/** Extension of the snapshot files. */
+	private static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+	/**
+	 * The categories of elements that are stored in a snapshot, in the order in
+	 * which they are restored (this is the same order as the one used by the
+	 * {@link JaxrsElementFactory} during a full build).
+	 */
+	private static final List<EnumElementCategory> CATEGORIES = Arrays.asList(EnumElementCategory.APPLICATION,
+			EnumElementCategory.HTTP_METHOD, EnumElementCategory.NAME_BINDING, EnumElementCategory.RESOURCE,
+			EnumElementCategory.PARAM_CONVERTER_PROVIDER, EnumElementCategory.PARAMETER_AGGREGATOR,
+			EnumElementCategory.PROVIDER);
+
+	/** Private constructor of this utility class. */
+	private JaxrsMetamodelSnapshot() {
+	}
+
+	/**
+	 * @param project
+	 *            the project
+	 * @return the file in which the snapshot of the metamodel for the given
+	 *         project is stored, or {@code null} if the plugin is not running.
+	 */
+	public static File getSnapshotFile(final IResource project) {
+		final File snapshotsFolder = getSnapshotsFolder();
+		if (snapshotsFolder == null) {
+			return null;
+		}
+		return new File(snapshotsFolder, project.getName() + SNAPSHOT_EXTENSION);
+	}
+
+	/**
+	 * @return the folder containing all the snapshot files, or {@code null} if
+	 *         the plugin is not running.
+	 */
+	public static File getSnapshotsFolder() {
+		final JBossJaxrsCorePlugin plugin = JBossJaxrsCorePlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		return plugin.getStateLocation().append(SNAPSHOTS_FOLDER).toFile();
+	}
+
+	/**
+	 * Deletes the snapshot files whose project does not exist anymore in the
+	 * workspace.
+	 */
+	public static void deleteObsoleteSnapshots() {
+		final File snapshotsFolder = getSnapshotsFolder();
+		if (snapshotsFolder == null || !snapshotsFolder.exists()) {
+			return;
+		}
+		final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		for (File snapshotFile : snapshotsFolder.listFiles()) {
+			final String fileName = snapshotFile.getName();
+			if (fileName.endsWith(SNAPSHOT_EXTENSION)
+					&& !workspaceRoot.getProject(
+							fileName.substring(0, fileName.length() - SNAPSHOT_EXTENSION.length())).exists()) {
+				snapshotFile.delete();
+			}
+		}
+	}
+
+	// ********************************************************************************
+	// Write
+	// ********************************************************************************
+
+	/**
+	 * Writes a snapshot of the given metamodel in the given file. The caller
+	 * must hold a lock on the metamodel to make sure it is not modified while
+	 * the snapshot is being written.
+	 *
+	 * @param metamodel
+	 *            the metamodel to save
+	 * @param snapshotFile
+	 *            the target file
+	 * @throws IOException
+	 * @throws CoreException
+	 */
+	static void write(final JaxrsMetamodel metamodel, final File snapshotFile) throws IOException, CoreException {
+		final long start = Metrics.start();
+		final IJavaProject javaProject = metamodel.getJavaProject();
+		final File parentFolder = snapshotFile.getParentFile();
+		if (!parentFolder.exists() && !parentFolder.mkdirs()) {
+			throw new IOException("Failed to create folder " + parentFolder.getAbsolutePath());
+		}
+		final File tmpFile = new File(parentFolder, snapshotFile.getName() + ".tmp");
+		final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+		try {
+			output.writeInt(VERSION);
+			writeString(output, computeClasspathSignature(javaProject));
+			output.writeInt(metamodel.getMetamodelProblemLevel());
+			// the stamps of the compilation units when they were last processed,
+			// not their current stamps, so that the changes that were not
+			// processed yet are processed when the snapshot is restored.
+			final Map<String, Long> modificationStamps = metamodel.getProcessedModificationStamps();
+			markUnsavedWorkingCopies(javaProject, modificationStamps);
+			output.writeInt(modificationStamps.size());
+			for (Entry<String, Long> entry : modificationStamps.entrySet()) {
+				writeString(output, entry.getKey());
+				output.writeLong(entry.getValue());
+			}
+			final List<JaxrsJavaElement<?>> elements = getElementsToWrite(metamodel);
+			output.writeInt(elements.size());
+			for (JaxrsJavaElement<?> element : elements) {
+				writeElement(output, element);
+			}
+		} finally {
+			output.close();
+		}
+		if (snapshotFile.exists() && !snapshotFile.delete()) {
+			throw new IOException("Failed to replace file " + snapshotFile.getAbsolutePath());
+		}
+		if (!tmpFile.renameTo(snapshotFile)) {
+			throw new IOException("Failed to rename file " + tmpFile.getAbsolutePath());
+		}
+		Metrics.SNAPSHOT_SAVE.stop(start);
+	}
+
+	/**
+	 * @return the top-level Java-based elements of the given metamodel, sorted
+	 *         in the order in which they will be restored. Built-in HTTP
+	 *         Methods and children elements (resource methods, etc.) are
+	 *         excluded.
+	 */
+	private static List<JaxrsJavaElement<?>> getElementsToWrite(final JaxrsMetamodel metamodel) {
+		final List<JaxrsJavaElement<?>> elementsToWrite = new ArrayList<JaxrsJavaElement<?>>();
+		final List<IJaxrsElement> allElements = metamodel.getAllElements();
+		for (EnumElementCategory category : CATEGORIES) {
+			for (IJaxrsElement element : allElements) {
+				if (element.getElementKind().getCategory() != category || !(element instanceof JaxrsJavaElement)) {
+					continue;
+				}
+				if (element instanceof JaxrsHttpMethod && ((JaxrsHttpMethod) element).isBuiltIn()) {
+					continue;
+				}
+				elementsToWrite.add((JaxrsJavaElement<?>) element);
+			}
+		}
+		return elementsToWrite;
+	}
+
+	private static void writeElement(final DataOutputStream output, final JaxrsJavaElement<?> element)
+			throws IOException {
+		final EnumElementCategory category = element.getElementKind().getCategory();
+		output.writeInt(CATEGORIES.indexOf(category));
+		writeJavaElement(output, element.getJavaElement());
+		writeAnnotations(output, element.getAnnotations());
+		output.writeInt(element.getProblemSeverity());
+		switch (category) {
+		case APPLICATION:
+			output.writeBoolean(((JaxrsJavaApplication) element).isJaxrsCoreApplicationSubclass());
+			break;
+		case PARAM_CONVERTER_PROVIDER:
+			output.writeBoolean(((JaxrsParamConverterProvider) element).isParamConvertProviderImpl());
+			break;
+		case PROVIDER:
+			final Map<EnumElementKind, IType> providedTypes = ((JaxrsProvider) element).getProvidedTypes();
+			output.writeInt(providedTypes.size());
+			for (Entry<EnumElementKind, IType> entry : providedTypes.entrySet()) {
+				writeString(output, entry.getKey().name());
+				writeJavaElement(output, entry.getValue());
+			}
+			break;
+		case RESOURCE:
+			writeResourceChildren(output, (JaxrsResource) element);
+			break;
+		case PARAMETER_AGGREGATOR:
+			writeParameterAggregatorChildren(output, (JaxrsParameterAggregator) element);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static void writeResourceChildren(final DataOutputStream output, final JaxrsResource resource)
+			throws IOException {
+		output.writeInt(resource.getFields().size());
+		for (JaxrsResourceField field : resource.getFields().values()) {
+			writeJavaElement(output, field.getJavaElement());
+			writeAnnotations(output, field.getAnnotations());
+			output.writeInt(field.getProblemSeverity());
+			writeSourceType(output, field.getType());
+		}
+		output.writeInt(resource.getProperties().size());
+		for (JaxrsResourceProperty property : resource.getProperties().values()) {
+			writeJavaElement(output, property.getJavaElement());
+			writeAnnotations(output, property.getAnnotations());
+			output.writeInt(property.getProblemSeverity());
+			writeSourceType(output, property.getType());
+			writeSourceType(output, property.getMethodSignature().getReturnedType());
+			writeMethodParameters(output, property.getMethodSignature().getMethodParameters());
+		}
+		output.writeInt(resource.getMethods().size());
+		for (JaxrsResourceMethod method : resource.getMethods().values()) {
+			writeJavaElement(output, method.getJavaElement());
+			writeAnnotations(output, method.getAnnotations());
+			output.writeInt(method.getProblemSeverity());
+			writeSourceType(output, method.getReturnedType());
+			writeMethodParameters(output, method.getJavaMethodParameters());
+		}
+	}
+
+	private static void writeParameterAggregatorChildren(final DataOutputStream output,
+			final JaxrsParameterAggregator parameterAggregator) throws IOException {
+		output.writeInt(parameterAggregator.getFields().size());
+		for (JaxrsParameterAggregatorField field : parameterAggregator.getFields().values()) {
+			writeJavaElement(output, field.getJavaElement());
+			writeAnnotations(output, field.getAnnotations());
+			output.writeInt(field.getProblemSeverity());
+			writeSourceType(output, field.getType());
+		}
+		output.writeInt(parameterAggregator.getProperties().size());
+		for (JaxrsParameterAggregatorProperty property : parameterAggregator.getProperties().values()) {
+			writeJavaElement(output, property.getJavaElement());
+			writeAnnotations(output, property.getAnnotations());
+			output.writeInt(property.getProblemSeverity());
+			writeSourceType(output, property.getType());
+		}
+	}
+
+	private static void writeMethodParameters(final DataOutputStream output,
+			final List<IJavaMethodParameter> methodParameters) throws IOException {
+		output.writeInt(methodParameters.size());
+		for (IJavaMethodParameter methodParameter : methodParameters) {
+			final JavaMethodParameter javaMethodParameter = (JavaMethodParameter) methodParameter;
+			writeString(output, javaMethodParameter.getName());
+			writeSourceType(output, javaMethodParameter.getType());
+			writeAnnotations(output, javaMethodParameter.getAnnotations());
+		}
+	}
+
+	private static void writeSourceType(final DataOutputStream output, final SourceType sourceType)
+			throws IOException {
+		output.writeBoolean(sourceType != null);
+		if (sourceType == null) {
+			return;
+		}
+		writeString(output, sourceType.getErasureName());
+		writeJavaElement(output, sourceType.getErasureType());
+		output.writeInt(sourceType.getTypeArguments().size());
+		for (IType typeArgument : sourceType.getTypeArguments()) {
+			writeJavaElement(output, typeArgument);
+		}
+		output.writeBoolean(sourceType.isPrimitive());
+		output.writeInt(sourceType.getNameRange().getOffset());
+		output.writeInt(sourceType.getNameRange().getLength());
+	}
+
+	private static void writeAnnotations(final DataOutputStream output, final Map<String, Annotation> annotations)
+			throws IOException {
+		output.writeInt(annotations.size());
+		for (Annotation annotation : annotations.values()) {
+			writeJavaElement(output, annotation.getJavaAnnotation());
+			writeString(output, annotation.getFullyQualifiedName());
+			final Map<String, List<String>> annotationElements = annotation.getJavaAnnotationElements();
+			output.writeInt(annotationElements.size());
+			for (Entry<String, List<String>> entry : annotationElements.entrySet()) {
+				writeString(output, entry.getKey());
+				output.writeInt(entry.getValue().size());
+				for (String value : entry.getValue()) {
+					writeString(output, value);
+				}
+			}
+		}
+	}
+
+	private static void writeJavaElement(final DataOutputStream output, final IJavaElement javaElement)
+			throws IOException {
+		writeString(output, javaElement != null ? javaElement.getHandleIdentifier() : null);
+	}
+
+	/**
+	 * Writes the given (nullable) String. {@link DataOutputStream#writeUTF(String)} is not used here since it is
+	 * limited to 64KB.
+	 */
+	private static void writeString(final DataOutputStream output, final String value) throws IOException {
+		if (value == null) {
+			output.writeInt(-1);
+			return;
+		}
+		final byte[] bytes = value.getBytes("UTF-8");
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	// ********************************************************************************
+	// Read
+	// ********************************************************************************
+
+	/**
+	 * Restores the elements stored in the given snapshot file into the given
+	 * metamodel. The snapshot is only used if it was written with the current
+	 * format and if the classpath of the project did not change since it was
+	 * saved. The caller must hold the write lock of the metamodel.
+	 *
+	 * @param metamodel
+	 *            the metamodel in which the elements should be restored
+	 * @param snapshotFile
+	 *            the snapshot file
+	 * @return the resource deltas for the compilation units that were added,
+	 *         changed or removed since the snapshot was saved, or {@code null}
+	 *         if the snapshot could not be used (in which case no element was
+	 *         restored).
+	 * @throws IOException
+	 *             if the snapshot could not be read, in which case the
+	 *             metamodel may contain a part of the restored elements.
+	 * @throws CoreException
+	 */
+	static List<ResourceDelta> restore(final JaxrsMetamodel metamodel, final File snapshotFile) throws IOException,
+			CoreException {
+		final long start = System.currentTimeMillis();
+		final IJavaProject javaProject = metamodel.getJavaProject();
+		final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+		try {
+			if (input.readInt() != VERSION) {
+				Logger.debug("Ignoring JAX-RS Metamodel snapshot for project {}: incompatible version",
+						javaProject.getElementName());
+				return null;
+			}
+			if (!computeClasspathSignature(javaProject).equals(readString(input))) {
+				Logger.debug("Ignoring JAX-RS Metamodel snapshot for project {}: classpath changed",
+						javaProject.getElementName());
+				return null;
+			}
+			metamodel.setProblemSeverity(input.readInt());
+			final int stampsCount = input.readInt();
+			final Map<String, Long> previousModificationStamps = new HashMap<String, Long>(stampsCount * 2);
+			for (int i = 0; i < stampsCount; i++) {
+				previousModificationStamps.put(readString(input), input.readLong());
+			}
+			final int elementsCount = input.readInt();
+			for (int i = 0; i < elementsCount; i++) {
+				readElement(input, metamodel);
+			}
+			final List<ResourceDelta> changes = computeChanges(javaProject, previousModificationStamps);
+			Logger.tracePerf(
+					"Restored {} JAX-RS elements for project {} from snapshot in {}ms ({} compilation unit(s) changed since)",
+					elementsCount, javaProject.getElementName(), (System.currentTimeMillis() - start), changes.size());
+			return changes;
+		} finally {
+			input.close();
+		}
+	}
+
+	private static void readElement(final DataInputStream input, final JaxrsMetamodel metamodel)
+			throws IOException, CoreException {
+		final int categoryIndex = input.readInt();
+		if (categoryIndex < 0 || categoryIndex >= CATEGORIES.size()) {
+			throw new IOException("Invalid element category index: " + categoryIndex);
+		}
+		final IType javaType = readJavaElement(input, IType.class);
+		final Map<String, Annotation> annotations = readAnnotations(input);
+		final int problemSeverity = input.readInt();
+		final JaxrsJavaElement<?> element;
+		switch (CATEGORIES.get(categoryIndex)) {
+		case APPLICATION:
+			element = new JaxrsJavaApplication(javaType, annotations, metamodel, input.readBoolean(), null);
+			break;
+		case HTTP_METHOD:
+			element = new JaxrsHttpMethod(javaType, annotations, metamodel, null);
+			break;
+		case NAME_BINDING:
+			element = new JaxrsNameBinding(javaType, annotations, metamodel, null);
+			break;
+		case PARAM_CONVERTER_PROVIDER:
+			element = new JaxrsParamConverterProvider(javaType, annotations, input.readBoolean(), metamodel, null);
+			break;
+		case PROVIDER:
+			final int providedTypesCount = input.readInt();
+			final Map<EnumElementKind, IType> providedTypes = new HashMap<EnumElementKind, IType>();
+			for (int i = 0; i < providedTypesCount; i++) {
+				providedTypes.put(EnumElementKind.valueOf(readString(input)), readJavaElement(input, IType.class));
+			}
+			element = new JaxrsProvider(javaType, annotations, metamodel, providedTypes, null);
+			break;
+		case RESOURCE:
+			element = readResource(input, metamodel, javaType, annotations);
+			break;
+		case PARAMETER_AGGREGATOR:
+			element = readParameterAggregator(input, metamodel, javaType, annotations);
+			break;
+		default:
+			throw new IOException("Unexpected element category: " + CATEGORIES.get(categoryIndex));
+		}
+		element.setProblemSeverity(problemSeverity);
+		// resources and parameter aggregators join the metamodel along with their children elements
+		if (!element.getMetamodel().containsElement(element)) {
+			element.joinMetamodel();
+		}
+	}
+
+	/**
+	 * Reads a {@link JaxrsResource} and its children elements. As in
+	 * {@link JaxrsResource.Builder}, the children elements join the metamodel
+	 * before their parent resource.
+	 */
+	private static JaxrsResource readResource(final DataInputStream input, final JaxrsMetamodel metamodel,
+			final IType javaType, final Map<String, Annotation> annotations) throws IOException, CoreException {
+		final JaxrsResource resource = new JaxrsResource(javaType, annotations, metamodel, null);
+		final int fieldsCount = input.readInt();
+		for (int i = 0; i < fieldsCount; i++) {
+			final IField javaField = readJavaElement(input, IField.class);
+			final Map<String, Annotation> fieldAnnotations = readAnnotations(input);
+			final int problemSeverity = input.readInt();
+			final JaxrsResourceField field = new JaxrsResourceField(javaField, fieldAnnotations, metamodel,
+					readSourceType(input), resource, null);
+			field.setProblemSeverity(problemSeverity);
+			field.joinMetamodel();
+		}
+		final int propertiesCount = input.readInt();
+		for (int i = 0; i < propertiesCount; i++) {
+			final IMethod javaMethod = readJavaElement(input, IMethod.class);
+			final Map<String, Annotation> propertyAnnotations = readAnnotations(input);
+			final int problemSeverity = input.readInt();
+			final SourceType propertyType = readSourceType(input);
+			final SourceType returnedType = readSourceType(input);
+			final JavaMethodSignature methodSignature = new JavaMethodSignature(javaMethod, returnedType,
+					readMethodParameters(input, javaMethod));
+			final JaxrsResourceProperty property = new JaxrsResourceProperty(javaMethod, propertyAnnotations,
+					metamodel, propertyType, methodSignature, resource, null);
+			property.setProblemSeverity(problemSeverity);
+			property.joinMetamodel();
+		}
+		final int methodsCount = input.readInt();
+		for (int i = 0; i < methodsCount; i++) {
+			final IMethod javaMethod = readJavaElement(input, IMethod.class);
+			final Map<String, Annotation> methodAnnotations = readAnnotations(input);
+			final int problemSeverity = input.readInt();
+			final SourceType returnedType = readSourceType(input);
+			final JaxrsResourceMethod method = new JaxrsResourceMethod(javaMethod, methodAnnotations, metamodel,
+					resource, returnedType, readMethodParameters(input, javaMethod), null);
+			method.setProblemSeverity(problemSeverity);
+			method.joinMetamodel();
+		}
+		return resource;
+	}
+
+	/**
+	 * Reads a {@link JaxrsParameterAggregator} and its children elements. As in
+	 * {@link JaxrsParameterAggregator.Builder}, the parameter aggregator joins the
+	 * metamodel before its children elements.
+	 */
+	private static JaxrsParameterAggregator readParameterAggregator(final DataInputStream input,
+			final JaxrsMetamodel metamodel, final IType javaType, final Map<String, Annotation> annotations)
+			throws IOException, CoreException {
+		final JaxrsParameterAggregator parameterAggregator = new JaxrsParameterAggregator(javaType, annotations,
+				metamodel, null);
+		parameterAggregator.joinMetamodel();
+		final int fieldsCount = input.readInt();
+		for (int i = 0; i < fieldsCount; i++) {
+			final IField javaField = readJavaElement(input, IField.class);
+			final Map<String, Annotation> fieldAnnotations = readAnnotations(input);
+			final int problemSeverity = input.readInt();
+			final JaxrsParameterAggregatorField field = new JaxrsParameterAggregatorField(javaField,
+					fieldAnnotations, metamodel, readSourceType(input), parameterAggregator, null);
+			field.setProblemSeverity(problemSeverity);
+			field.joinMetamodel();
+		}
+		final int propertiesCount = input.readInt();
+		for (int i = 0; i < propertiesCount; i++) {
+			final IMethod javaMethod = readJavaElement(input, IMethod.class);
+			final Map<String, Annotation> propertyAnnotations = readAnnotations(input);
+			final int problemSeverity = input.readInt();
+			final JaxrsParameterAggregatorProperty property = new JaxrsParameterAggregatorProperty(javaMethod,
+					propertyAnnotations, metamodel, readSourceType(input), parameterAggregator, null);
+			property.setProblemSeverity(problemSeverity);
+			property.joinMetamodel();
+		}
+		return parameterAggregator;
+	}
+
+	private static List<IJavaMethodParameter> readMethodParameters(final DataInputStream input,
+			final IMethod javaMethod) throws IOException {
+		final int parametersCount = input.readInt();
+		final List<IJavaMethodParameter> methodParameters = new ArrayList<IJavaMethodParameter>(parametersCount);
+		for (int i = 0; i < parametersCount; i++) {
+			final String name = readString(input);
+			final SourceType type = readSourceType(input);
+			final Map<String, Annotation> annotations = readAnnotations(input);
+			methodParameters.add(new JavaMethodParameter(name, type, new ArrayList<Annotation>(annotations.values()),
+					javaMethod.getResource()));
+		}
+		return methodParameters;
+	}
+
+	private static SourceType readSourceType(final DataInputStream input) throws IOException {
+		if (!input.readBoolean()) {
+			return null;
+		}
+		final String erasureName = readString(input);
+		final IType erasureType = readJavaElement(input, IType.class);
+		final int typeArgumentsCount = input.readInt();
+		final List<IType> typeArguments = new ArrayList<IType>(typeArgumentsCount);
+		for (int i = 0; i < typeArgumentsCount; i++) {
+			typeArguments.add(readJavaElement(input, IType.class));
+		}
+		final boolean isPrimitive = input.readBoolean();
+		final int offset = input.readInt();
+		final int length = input.readInt();
+		return SourceType.from(erasureName, erasureType, typeArguments, isPrimitive, new SourceRange(offset, length));
+	}
+
+	private static Map<String, Annotation> readAnnotations(final DataInputStream input) throws IOException {
+		final int annotationsCount = input.readInt();
+		final Map<String, Annotation> annotations = new HashMap<String, Annotation>(annotationsCount * 2);
+		for (int i = 0; i < annotationsCount; i++) {
+			final IAnnotation javaAnnotation = readJavaElement(input, IAnnotation.class);
+			final String annotationName = readString(input);
+			final int annotationElementsCount = input.readInt();
+			final Map<String, List<String>> annotationElements = new HashMap<String, List<String>>(
+					annotationElementsCount * 2);
+			for (int j = 0; j < annotationElementsCount; j++) {
+				final String key = readString(input);
+				final int valuesCount = input.readInt();
+				final List<String> values = new ArrayList<String>(valuesCount);
+				for (int k = 0; k < valuesCount; k++) {
+					values.add(readString(input));
+				}
+				annotationElements.put(key, values);
+			}
+			annotations.put(annotationName, new Annotation(javaAnnotation, annotationName, annotationElements));
+		}
+		return annotations;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends IJavaElement> T readJavaElement(final DataInputStream input, final Class<T> expectedType)
+			throws IOException {
+		final String handleIdentifier = readString(input);
+		if (handleIdentifier == null) {
+			return null;
+		}
+		final IJavaElement javaElement = JavaCore.create(handleIdentifier);
+		if (!expectedType.isInstance(javaElement)) {
+			throw new IOException("Invalid handle identifier: " + handleIdentifier);
+		}
+		return (T) javaElement;
+	}
+
+	private static String readString(final DataInputStream input) throws IOException {
+		final int length = input.readInt();
+		if (length == -1) {
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	// ********************************************************************************
+	// Utilities
+	// ********************************************************************************
+
+	/**
+	 * Computes the changes on the compilation units of the given project by
+	 * comparing their current modification stamps with the given ones.
+	 *
+	 * @return the deltas of the compilation units that were added, changed or
+	 *         removed
+	 * @throws CoreException
+	 */
+	private static List<ResourceDelta> computeChanges(final IJavaProject javaProject,
+			final Map<String, Long> previousModificationStamps) throws CoreException {
+		final List<ResourceDelta> changes = new ArrayList<ResourceDelta>();
+		final IWorkspaceRoot workspaceRoot = javaProject.getProject().getWorkspace().getRoot();
+		final Map<String, Long> currentModificationStamps = computeModificationStamps(javaProject);
+		for (Entry<String, Long> entry : currentModificationStamps.entrySet()) {
+			final Long previousModificationStamp = previousModificationStamps.get(entry.getKey());
+			if (previousModificationStamp == null) {
+				changes.add(new ResourceDelta(workspaceRoot.getFile(Path.fromPortableString(entry.getKey())), ADDED,
+						Flags.NONE));
+			} else if (previousModificationStamp.longValue() != entry.getValue().longValue()
+					|| previousModificationStamp.longValue() == IResource.NULL_STAMP) {
+				changes.add(new ResourceDelta(workspaceRoot.getFile(Path.fromPortableString(entry.getKey())), CHANGED,
+						Flags.NONE));
+			}
+		}
+		for (String path : previousModificationStamps.keySet()) {
+			if (!currentModificationStamps.containsKey(path)) {
+				changes.add(new ResourceDelta(workspaceRoot.getFile(Path.fromPortableString(path)), REMOVED,
+						Flags.NONE));
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * Computes the modification stamps of all the compilation units in the
+	 * source folders of the given project, indexed by their portable full path.
+	 * The compilation units that have unsaved changes in a working copy get a
+	 * {@link IResource#NULL_STAMP} so that they are always processed when the
+	 * snapshot is restored.
+	 *
+	 * @throws CoreException
+	 */
+	static Map<String, Long> computeModificationStamps(final IJavaProject javaProject)
+			throws CoreException {
+		final Map<String, Long> modificationStamps = new HashMap<String, Long>();
+		for (IPackageFragmentRoot packageFragmentRoot : javaProject.getPackageFragmentRoots()) {
+			if (packageFragmentRoot.getKind() != IPackageFragmentRoot.K_SOURCE
+					|| packageFragmentRoot.getResource() == null) {
+				continue;
+			}
+			collectModificationStamps(packageFragmentRoot.getResource(), modificationStamps);
+		}
+		markUnsavedWorkingCopies(javaProject, modificationStamps);
+		return modificationStamps;
+	}
+
+	/**
+	 * Updates the given modification stamps after the given resource was
+	 * processed: the stamps of the compilation units in a removed resource are
+	 * removed, the other ones are updated with the current stamps of the
+	 * compilation units. This method must be called before the resource is
+	 * processed, so that any change that occurs in the meantime is processed
+	 * again when a snapshot is restored.
+	 * 
+	 * @param resource
+	 *            the resource (compilation unit, folder, etc.) to process
+	 * @param deltaKind
+	 *            the kind of change on the resource
+	 * @param modificationStamps
+	 *            the stamps to update, indexed by their portable full path
+	 * @throws CoreException
+	 */
+	static void updateModificationStamps(final IResource resource, final int deltaKind,
+			final Map<String, Long> modificationStamps) throws CoreException {
+		if (deltaKind == REMOVED || !resource.exists()) {
+			final String removedPath = resource.getFullPath().toPortableString();
+			for (Iterator<String> iterator = modificationStamps.keySet().iterator(); iterator.hasNext();) {
+				final String path = iterator.next();
+				if (path.equals(removedPath) || path.startsWith(removedPath + IPath.SEPARATOR)) {
+					iterator.remove();
+				}
+			}
+		} else {
+			collectModificationStamps(resource, modificationStamps);
+		}
+	}
+
+	/**
+	 * Collects the current modification stamps of all the compilation units
+	 * in the given resource.
+	 */
+	private static void collectModificationStamps(final IResource resource,
+			final Map<String, Long> modificationStamps) throws CoreException {
+		resource.accept(new IResourceProxyVisitor() {
+			@Override
+			public boolean visit(final IResourceProxy proxy) throws CoreException {
+				if (proxy.getType() == IResource.FILE && JavaCore.isJavaLikeFileName(proxy.getName())) {
+					modificationStamps.put(proxy.requestFullPath().toPortableString(), proxy.getModificationStamp());
+				}
+				return true;
+			}
+		}, IResource.NONE);
+	}
+
+	/**
+	 * Replaces the modification stamps of the compilation units of the given
+	 * project that have unsaved changes in a working copy with a
+	 * {@link IResource#NULL_STAMP}, so that they are always processed when the
+	 * snapshot is restored.
+	 */
+	private static void markUnsavedWorkingCopies(final IJavaProject javaProject,
+			final Map<String, Long> modificationStamps) throws CoreException {
+		for (ICompilationUnit workingCopy : JavaCore.getWorkingCopies(null)) {
+			if (javaProject.equals(workingCopy.getJavaProject()) && workingCopy.hasUnsavedChanges()
+					&& workingCopy.getResource() != null) {
+				modificationStamps.put(workingCopy.getResource().getFullPath().toPortableString(),
+						Long.valueOf(IResource.NULL_STAMP));
+			}
+		}
+	}
+
+	/**
+	 * Computes a signature of the resolved classpath of the given project, so
+	 * that a snapshot is not used if a library was added, removed or updated
+	 * since it was saved.
+	 *
+	 * @throws CoreException
+	 */
+	private static String computeClasspathSignature(final IJavaProject javaProject) throws CoreException {
+		final StringBuilder signature = new StringBuilder();
+		final IWorkspaceRoot workspaceRoot = javaProject.getProject().getWorkspace().getRoot();
+		for (IClasspathEntry classpathEntry : javaProject.getResolvedClasspath(true)) {
+			signature.append(classpathEntry.getEntryKind()).append(':')
+					.append(classpathEntry.getPath().toPortableString());
+			if (classpathEntry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+				final IResource library = workspaceRoot.findMember(classpathEntry.getPath());
+				final IPath libraryLocation = (library != null) ? library.getLocation() : classpathEntry.getPath();
+				if (libraryLocation != null) {
+					signature.append('@').append(libraryLocation.toFile().lastModified());
+				}
+			}
+			signature.append(';');
+		}
+		return signature.toString();
+	}
+
+}
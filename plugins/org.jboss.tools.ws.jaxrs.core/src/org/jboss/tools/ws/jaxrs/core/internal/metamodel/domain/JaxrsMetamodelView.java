@@ -0,0 +1,167 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.index.Term;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.IJaxrsIndexSnapshot;
+
+/**
+ * A consistent view of the JAX-RS elements, the JAX-RS endpoints and the
+ * associated index of a {@link JaxrsMetamodel} at a given point in time.
+ *
+ * The {@link JaxrsMetamodel} publishes a new immutable view after a set of
+ * changes has been processed (lazily, on the first lookup that follows), so
+ * that readers can perform their searches on the last known state of the
+ * metamodel without waiting for the changes that are being processed in the
+ * meantime. The thread processing the changes uses
+ * a view on the live state instead, so that it can see its own changes.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsMetamodelView {
+
+	/** An empty view, used once the metamodel has been removed. */
+	static final JaxrsMetamodelView EMPTY = new JaxrsMetamodelView(Collections.<String, JaxrsBaseElement> emptyMap(),
+			Collections.<String, JaxrsEndpoint> emptyMap(), new IJaxrsIndexSnapshot() {
+
+				@Override
+				public String searchIdentifier(final Term... terms) {
+					return null;
+				}
+
+				@Override
+				public Set<String> searchIdentifiers(final Term... terms) {
+					return Collections.emptySet();
+				}
+
+				@Override
+				public int count(final Term... terms) {
+					return 0;
+				}
+
+				@Override
+				public int numDocs() {
+					return 0;
+				}
+			});
+
+	/** The JAX-RS elements, indexed by their identifier. */
+	private final Map<String, JaxrsBaseElement> elements;
+
+	/** The JAX-RS endpoints, indexed by their identifier. */
+	private final Map<String, JaxrsEndpoint> endpoints;
+
+	/** The snapshot of the index of the JAX-RS elements and endpoints above. */
+	private final IJaxrsIndexSnapshot indexSnapshot;
+
+	/**
+	 * Creates a view on the given maps, which are used as-is.
+	 *
+	 * @param elements
+	 *            the JAX-RS elements indexed by their identifier
+	 * @param endpoints
+	 *            the JAX-RS endpoints indexed by their identifier
+	 * @param indexSnapshot
+	 *            the snapshot of the index matching the given elements and
+	 *            endpoints
+	 */
+	JaxrsMetamodelView(final Map<String, JaxrsBaseElement> elements, final Map<String, JaxrsEndpoint> endpoints,
+			final IJaxrsIndexSnapshot indexSnapshot) {
+		this.elements = elements;
+		this.endpoints = endpoints;
+		this.indexSnapshot = indexSnapshot;
+	}
+
+	/**
+	 * Creates an immutable view on copies of the given maps.
+	 *
+	 * @param elements
+	 *            the JAX-RS elements indexed by their identifier
+	 * @param endpoints
+	 *            the JAX-RS endpoints indexed by their identifier
+	 * @param indexSnapshot
+	 *            the point-in-time snapshot of the index matching the given
+	 *            elements and endpoints
+	 * @return the immutable view
+	 */
+	static JaxrsMetamodelView copyOf(final Map<String, JaxrsBaseElement> elements,
+			final Map<String, JaxrsEndpoint> endpoints, final IJaxrsIndexSnapshot indexSnapshot) {
+		return new JaxrsMetamodelView(Collections.unmodifiableMap(new HashMap<String, JaxrsBaseElement>(elements)),
+				Collections.unmodifiableMap(new HashMap<String, JaxrsEndpoint>(endpoints)), indexSnapshot);
+	}
+
+	/**
+	 * @param identifier
+	 *            the element identifier
+	 * @return the JAX-RS element matching the given identifier or {@code null}
+	 *         if none matched.
+	 */
+	public JaxrsBaseElement getElement(final String identifier) {
+		if (identifier == null) {
+			return null;
+		}
+		return elements.get(identifier);
+	}
+
+	/**
+	 * @param identifier
+	 *            the endpoint identifier
+	 * @return the JAX-RS endpoint matching the given identifier or
+	 *         {@code null} if none matched.
+	 */
+	public JaxrsEndpoint getEndpoint(final String identifier) {
+		if (identifier == null) {
+			return null;
+		}
+		return endpoints.get(identifier);
+	}
+
+	/**
+	 * @param identifier
+	 *            the element identifier
+	 * @return {@code true} if this view contains an element with the given
+	 *         identifier, {@code false} otherwise.
+	 */
+	public boolean containsElement(final String identifier) {
+		return elements.containsKey(identifier);
+	}
+
+	/**
+	 * @return all the JAX-RS elements of this view.
+	 */
+	public Collection<JaxrsBaseElement> getElements() {
+		return elements.values();
+	}
+
+	/**
+	 * @return all the JAX-RS endpoints of this view.
+	 */
+	public Collection<JaxrsEndpoint> getEndpoints() {
+		return endpoints.values();
+	}
+
+	/**
+	 * @return the snapshot of the index of the elements and endpoints of this
+	 *         view.
+	 */
+	public IJaxrsIndexSnapshot getIndexSnapshot() {
+		return indexSnapshot;
+	}
+
+}
@@ -25,7 +25,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -61,7 +62,7 @@ public class JaxrsNameBinding extends JaxrsJavaElement<IType> implements IJaxrsN
 	 * @throws JavaModelException
 	 */
 	public static Builder from(final IJavaElement javaElement) throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		switch (javaElement.getElementType()) {
 		case IJavaElement.COMPILATION_UNIT:
 			return new Builder(((ICompilationUnit) javaElement).findPrimaryType(), ast);
@@ -120,7 +121,7 @@ public class JaxrsNameBinding extends JaxrsJavaElement<IType> implements IJaxrsN
 		}
 		
 		JaxrsNameBinding build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				if (javaType == null || !javaType.exists() || !javaType.isStructureKnown()) {
 					return null;
@@ -139,8 +140,7 @@ public class JaxrsNameBinding extends JaxrsJavaElement<IType> implements IJaxrsN
 				}
 				return nameBinding;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Name Binding in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 
 		}
@@ -172,7 +172,7 @@ public class JaxrsNameBinding extends JaxrsJavaElement<IType> implements IJaxrsN
 	 *            instance is already the primary element
 	 * 
 	 */
-	private JaxrsNameBinding(final IType javaType, final Map<String, Annotation> annotations,
+	JaxrsNameBinding(final IType javaType, final Map<String, Annotation> annotations,
 			final JaxrsMetamodel metamodel, final JaxrsNameBinding primaryCopy) {
 		super(javaType, annotations, metamodel, primaryCopy);
 	}
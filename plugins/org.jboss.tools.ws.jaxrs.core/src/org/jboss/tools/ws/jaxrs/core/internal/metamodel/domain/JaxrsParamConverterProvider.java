@@ -23,7 +23,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -52,7 +53,7 @@ public class JaxrsParamConverterProvider extends JaxrsJavaElement<IType> impleme
 	 * @throws JavaModelException
 	 */
 	public static Builder from(final IJavaElement javaElement) throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		switch (javaElement.getElementType()) {
 		case IJavaElement.COMPILATION_UNIT:
 			return new Builder(((ICompilationUnit) javaElement).findPrimaryType(), ast);
@@ -112,7 +113,7 @@ public class JaxrsParamConverterProvider extends JaxrsJavaElement<IType> impleme
 		}
 		
 		JaxrsParamConverterProvider build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				if (javaType == null || !javaType.exists() || !javaType.isStructureKnown()) {
 					return null;
@@ -132,8 +133,7 @@ public class JaxrsParamConverterProvider extends JaxrsJavaElement<IType> impleme
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS JaxrsParamConverterProvider in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 	}
@@ -167,7 +167,7 @@ public class JaxrsParamConverterProvider extends JaxrsJavaElement<IType> impleme
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsParamConverterProvider(final IType javaType, final Map<String, Annotation> annotations,
+	JaxrsParamConverterProvider(final IType javaType, final Map<String, Annotation> annotations,
 			final boolean isParamConvertProviderImpl, final JaxrsMetamodel metamodel, final JaxrsParamConverterProvider primaryCopy) {
 		super(javaType, annotations, metamodel, primaryCopy);
 		this.isParamConvertProviderImpl = isParamConvertProviderImpl;
@@ -37,7 +37,8 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -67,7 +68,7 @@ public class JaxrsParameterAggregator extends JaxrsJavaElement<IType> implements
 	 * @throws JavaModelException
 	 */
 	public static Builder from(final IJavaElement javaElement) throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		return from(javaElement, ast);
 	}
 	
@@ -114,7 +115,7 @@ public class JaxrsParameterAggregator extends JaxrsJavaElement<IType> implements
 		}
 		
 		public JaxrsParameterAggregator buildInMetamodel(final JaxrsMetamodel metamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaType == null || !javaType.exists() || !javaType.isStructureKnown()) {
@@ -164,8 +165,7 @@ public class JaxrsParameterAggregator extends JaxrsJavaElement<IType> implements
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Parameter Aggreagator in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -200,7 +200,7 @@ public class JaxrsParameterAggregator extends JaxrsJavaElement<IType> implements
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsParameterAggregator(final IType javaType, Map<String, Annotation> annotations, final JaxrsMetamodel metamodel, final JaxrsParameterAggregator primaryCopy) {
+	JaxrsParameterAggregator(final IType javaType, Map<String, Annotation> annotations, final JaxrsMetamodel metamodel, final JaxrsParameterAggregator primaryCopy) {
 		super(javaType, annotations, metamodel, primaryCopy);
 	}
 
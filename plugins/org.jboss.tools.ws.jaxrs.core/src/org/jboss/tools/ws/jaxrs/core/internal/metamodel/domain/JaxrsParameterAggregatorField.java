@@ -22,6 +22,7 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -85,7 +86,7 @@ public class JaxrsParameterAggregatorField extends JaxrsParameterAggregatorEleme
 		}
 		
 		JaxrsParameterAggregatorField buildInParentAggregator(final JaxrsParameterAggregator parentParameterAggregator) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaField == null || !javaField.exists() || !javaField.isStructureKnown()) {
@@ -115,8 +116,7 @@ public class JaxrsParameterAggregatorField extends JaxrsParameterAggregatorEleme
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Resource Method in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -150,7 +150,7 @@ public class JaxrsParameterAggregatorField extends JaxrsParameterAggregatorEleme
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsParameterAggregatorField(final IField javaField, final Map<String, Annotation> annotations,
+	JaxrsParameterAggregatorField(final IField javaField, final Map<String, Annotation> annotations,
 			final JaxrsMetamodel metamodel, final SourceType javaFieldType,
 			final JaxrsParameterAggregator parentParameterAggregator, final JaxrsParameterAggregatorField primaryCopy) {
 		super(javaField, annotations, metamodel, javaFieldType, parentParameterAggregator, primaryCopy);
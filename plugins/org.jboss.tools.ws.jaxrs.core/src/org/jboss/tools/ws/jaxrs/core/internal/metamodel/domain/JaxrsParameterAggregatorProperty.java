@@ -26,6 +26,7 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -90,7 +91,7 @@ public class JaxrsParameterAggregatorProperty extends JaxrsParameterAggregatorEl
 		}
 		
 		public JaxrsParameterAggregatorProperty buildInParentAggregator(final JaxrsParameterAggregator parentParameterAggregator) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaMethod == null || !javaMethod.exists() || !javaMethod.isStructureKnown()) {
@@ -121,8 +122,7 @@ public class JaxrsParameterAggregatorProperty extends JaxrsParameterAggregatorEl
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Resource Method in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -156,7 +156,7 @@ public class JaxrsParameterAggregatorProperty extends JaxrsParameterAggregatorEl
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsParameterAggregatorProperty(final IMethod javaMethod, final Map<String, Annotation> annotations,
+	JaxrsParameterAggregatorProperty(final IMethod javaMethod, final Map<String, Annotation> annotations,
 			final JaxrsMetamodel metamodel, final SourceType javaMethodParameterType,
 			final JaxrsParameterAggregator parentParameterAggregator, final JaxrsParameterAggregatorProperty primaryCopy) {
 		super(javaMethod, annotations, metamodel, javaMethodParameterType, parentParameterAggregator, primaryCopy);
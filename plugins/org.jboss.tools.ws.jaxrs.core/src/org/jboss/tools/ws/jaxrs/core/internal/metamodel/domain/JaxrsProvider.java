@@ -29,7 +29,8 @@ import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -97,7 +98,7 @@ public class JaxrsProvider extends JaxrsJavaElement<IType> implements IJaxrsProv
 	 * @throws JavaModelException
 	 */
 	public static Builder from(final IJavaElement javaElement) throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		switch (javaElement.getElementType()) {
 		case IJavaElement.COMPILATION_UNIT:
 			return new Builder(((ICompilationUnit) javaElement).findPrimaryType(), ast);
@@ -181,7 +182,7 @@ public class JaxrsProvider extends JaxrsJavaElement<IType> implements IJaxrsProv
 		}
 		
 		JaxrsProvider build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaType == null || !javaType.exists() || !javaType.isStructureKnown()) {
@@ -220,8 +221,7 @@ public class JaxrsProvider extends JaxrsJavaElement<IType> implements IJaxrsProv
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Provider in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -299,7 +299,7 @@ public class JaxrsProvider extends JaxrsJavaElement<IType> implements IJaxrsProv
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsProvider(final IType javaType, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
+	JaxrsProvider(final IType javaType, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
 			final Map<EnumElementKind, IType> providedKinds, final JaxrsProvider primaryCopy) {
 		super(javaType, annotations, metamodel, primaryCopy);
 		this.providedTypes = providedKinds;
@@ -39,6 +39,8 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JavaElementsSearcher;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -81,7 +83,7 @@ public final class JaxrsResource extends JaxrsJavaElement<IType> implements IJax
 	 */
 	public static Builder from(final IJavaElement javaElement, final Set<String> httpMethodNames)
 			throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(javaElement, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(javaElement, new NullProgressMonitor());
 		switch (javaElement.getElementType()) {
 		case IJavaElement.COMPILATION_UNIT:
 			return new Builder(((ICompilationUnit) javaElement).findPrimaryType(), ast, httpMethodNames);
@@ -143,7 +145,7 @@ public final class JaxrsResource extends JaxrsJavaElement<IType> implements IJax
 		}
 
 		JaxrsResource build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				if (javaType == null || !javaType.exists()) {
 					return null;
@@ -182,8 +184,7 @@ public final class JaxrsResource extends JaxrsJavaElement<IType> implements IJax
 				}
 				return resource;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Resource in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 
 		}
@@ -215,7 +216,7 @@ public final class JaxrsResource extends JaxrsJavaElement<IType> implements IJax
 	 *            instance is already the primary element
 	 * 
 	 */
-	private JaxrsResource(final IType javaType, final Map<String, Annotation> annotations,
+	JaxrsResource(final IType javaType, final Map<String, Annotation> annotations,
 			final JaxrsMetamodel metamodel, final JaxrsResource primaryCopy) {
 		super(javaType, annotations, metamodel, primaryCopy);
 	}
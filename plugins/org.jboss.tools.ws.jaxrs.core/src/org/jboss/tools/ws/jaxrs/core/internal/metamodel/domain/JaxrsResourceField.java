@@ -27,6 +27,7 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -101,7 +102,7 @@ public class JaxrsResourceField extends JaxrsResourceElement<IField> implements
 		}
 		
 		JaxrsResourceField build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaField == null || !javaField.exists() || !javaField.isStructureKnown()) {
@@ -134,8 +135,7 @@ public class JaxrsResourceField extends JaxrsResourceElement<IField> implements
 				}
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Resource Method in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -169,7 +169,7 @@ public class JaxrsResourceField extends JaxrsResourceElement<IField> implements
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsResourceField(final IField javaField, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
+	JaxrsResourceField(final IField javaField, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
 			final SourceType javaFieldType, final JaxrsResource parentResource, final JaxrsResourceField primaryCopy) {
 		super(javaField, annotations, metamodel, javaFieldType, parentResource, primaryCopy);
 		if(getParentResource() != null) {
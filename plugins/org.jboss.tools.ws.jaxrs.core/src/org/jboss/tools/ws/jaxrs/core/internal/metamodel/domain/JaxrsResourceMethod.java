@@ -39,6 +39,8 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils.CollectionComparison;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -69,7 +71,7 @@ public class JaxrsResourceMethod extends JaxrsJavaElement<IMethod> implements IJ
 	 */
 	public static Builder from(final IMethod method, final Set<String> httpMethodNames)
 			throws JavaModelException {
-		final CompilationUnit ast = JdtUtils.parse(method, new NullProgressMonitor());
+		final CompilationUnit ast = ASTProvider.getInstance().getAST(method, new NullProgressMonitor());
 		return new Builder(method, ast, httpMethodNames); 
 	}
 
@@ -138,7 +140,7 @@ public class JaxrsResourceMethod extends JaxrsJavaElement<IMethod> implements IJ
 		 * @throws CoreException
 		 */
 		public JaxrsResourceMethod buildInResource(final JaxrsResource parentResource) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaMethod == null || !javaMethod.exists() || !javaMethod.isStructureKnown()) {
@@ -182,8 +184,7 @@ public class JaxrsResourceMethod extends JaxrsJavaElement<IMethod> implements IJ
 				}
 				return resourceMethod;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Resource Method in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -261,7 +262,7 @@ public class JaxrsResourceMethod extends JaxrsJavaElement<IMethod> implements IJ
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsResourceMethod(final IMethod javaMethod, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
+	JaxrsResourceMethod(final IMethod javaMethod, final Map<String, Annotation> annotations, final JaxrsMetamodel metamodel,
 			final JaxrsResource parentResource, final SourceType returnedJavaType,
 			final List<IJavaMethodParameter> javaMethodParameters, final JaxrsResourceMethod primaryCopy) {
 		super(javaMethod, annotations, metamodel, primaryCopy);
@@ -28,7 +28,7 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
 import org.jboss.tools.ws.jaxrs.core.jdt.AnnotationUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
@@ -98,7 +98,7 @@ public class JaxrsResourceProperty extends JaxrsResourceElement<IMethod> impleme
 		}
 		
 		JaxrsResourceProperty buildInResource(final JaxrsResource parentResource) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				// skip if element does not exist or if it has compilation errors
 				if (javaMethod == null || !javaMethod.exists() || !javaMethod.isStructureKnown()) {
@@ -135,8 +135,7 @@ public class JaxrsResourceProperty extends JaxrsResourceElement<IMethod> impleme
 				}
 				return resourceProperty;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS Resource Method in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 
@@ -178,7 +177,7 @@ public class JaxrsResourceProperty extends JaxrsResourceElement<IMethod> impleme
 	 *            the associated primary copy element, or {@code null} if this
 	 *            instance is already the primary element
 	 */
-	private JaxrsResourceProperty(final IMethod javaMethod, final Map<String, Annotation> annotations,
+	JaxrsResourceProperty(final IMethod javaMethod, final Map<String, Annotation> annotations,
 			final JaxrsMetamodel metamodel, final SourceType javaPropertyType,
 			final JavaMethodSignature methodSignature, final JaxrsResource parentResource,
 			final JaxrsResourceProperty primaryCopy) {
@@ -25,7 +25,7 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
 import org.jboss.tools.ws.jaxrs.core.jdt.FlagsUtils;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
@@ -81,7 +81,7 @@ public class JaxrsWebxmlApplication extends JaxrsBaseElement implements IJaxrsAp
 		}
 			
 		public JaxrsWebxmlApplication build(final boolean joinMetamodel) throws CoreException {
-			final long start = System.currentTimeMillis();
+			final long start = Metrics.start();
 			try {
 				final IType applicationType = JdtUtils.resolveType(APPLICATION, javaProject,
 						new NullProgressMonitor());
@@ -111,8 +111,7 @@ public class JaxrsWebxmlApplication extends JaxrsBaseElement implements IJaxrsAp
 				// no match found
 				return null;
 			} finally {
-				final long end = System.currentTimeMillis();
-				Logger.tracePerf("Built JAX-RS WebXmlApplication in {}ms", (end - start));
+				Metrics.ELEMENT_CREATION.stop(start);
 			}
 		}
 	}
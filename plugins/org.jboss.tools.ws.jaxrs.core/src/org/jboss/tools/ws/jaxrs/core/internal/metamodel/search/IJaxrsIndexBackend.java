@@ -0,0 +1,91 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.io.IOException;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+
+/**
+ * Storage of the documents indexed by the
+ * {@link JaxrsElementsIndexationDelegate}. All searches are performed on
+ * {@link IJaxrsIndexSnapshot}s, which are not affected by the subsequent
+ * changes in the index.
+ * 
+ * @author xcoulon
+ * 
+ */
+public interface IJaxrsIndexBackend {
+
+	/**
+	 * Adds the given document into the index.
+	 * 
+	 * @param document
+	 *            the document to add
+	 * @throws IOException
+	 */
+	public void addDocument(final Document document) throws IOException;
+
+	/**
+	 * Replaces the document(s) matching the given identifier {@link Term} with
+	 * the given document.
+	 * 
+	 * @param identifierTerm
+	 *            the identifier of the document to replace
+	 * @param document
+	 *            the new document
+	 * @throws IOException
+	 */
+	public void updateDocument(final Term identifierTerm, final Document document) throws IOException;
+
+	/**
+	 * Removes the document(s) matching the given identifier {@link Term}.
+	 * 
+	 * @param identifierTerm
+	 *            the identifier of the document to remove
+	 * @throws IOException
+	 */
+	public void deleteDocuments(final Term identifierTerm) throws IOException;
+
+	/**
+	 * Removes all documents from the index.
+	 * 
+	 * @throws IOException
+	 */
+	public void deleteAll() throws IOException;
+
+	/**
+	 * Commits all pending changes in the index.
+	 * 
+	 * @throws IOException
+	 */
+	public void commit() throws IOException;
+
+	/**
+	 * Returns a point-in-time snapshot of the current state of the index,
+	 * including the changes that were not committed yet. Further changes in the
+	 * index will not be visible from the returned snapshot, which can thus be
+	 * safely used by other threads while the index keeps changing.
+	 * 
+	 * @return the snapshot of the current state of the index.
+	 * @throws IOException
+	 */
+	public IJaxrsIndexSnapshot getSnapshot() throws IOException;
+
+	/**
+	 * Releases all resources held by this index.
+	 * 
+	 * @throws IOException
+	 */
+	public void close() throws IOException;
+
+}
@@ -0,0 +1,61 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.lucene.index.Term;
+
+/**
+ * Read-only, point-in-time view of an {@link IJaxrsIndexBackend}. All searches
+ * match the documents that contain <strong>all</strong> the given
+ * {@link Term}s, and return the document identifiers, ie, the values of their
+ * {@link LuceneFields#FIELD_IDENTIFIER} field without the
+ * {@link IndexedObjectType} prefix.
+ * 
+ * @author xcoulon
+ * 
+ */
+public interface IJaxrsIndexSnapshot {
+
+	/**
+	 * @param terms
+	 *            the search terms
+	 * @return the identifier of a single document matching the given terms,
+	 *         or {@code null} if no document matched.
+	 * @throws IOException
+	 */
+	public String searchIdentifier(final Term... terms) throws IOException;
+
+	/**
+	 * @param terms
+	 *            the search terms
+	 * @return the identifiers of all documents matching the given terms, or
+	 *         an empty set if no document matched.
+	 * @throws IOException
+	 */
+	public Set<String> searchIdentifiers(final Term... terms) throws IOException;
+
+	/**
+	 * @param terms
+	 *            the search terms
+	 * @return the number of documents matching the given terms.
+	 * @throws IOException
+	 */
+	public int count(final Term... terms) throws IOException;
+
+	/**
+	 * @return the total number of documents in this snapshot.
+	 */
+	public int numDocs();
+
+}
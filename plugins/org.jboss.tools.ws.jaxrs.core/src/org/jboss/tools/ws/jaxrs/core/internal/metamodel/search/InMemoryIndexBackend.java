@@ -0,0 +1,309 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Fieldable;
+import org.apache.lucene.index.Term;
+
+/**
+ * {@link IJaxrsIndexBackend} that keeps the indexed documents in hash-based
+ * postings, ie, for each field name and field value, the set of documents
+ * having this value. Since all fields of the JAX-RS documents are indexed
+ * without analysis and all searches are conjunctions of exact {@link Term}s,
+ * a search is the intersection of the postings of its terms, starting with
+ * the smallest one.
+ * 
+ * Snapshots share the postings with the index: the postings are copied on the
+ * first write after a snapshot was taken, so that taking a snapshot is cheap
+ * and the snapshots are never affected by subsequent changes.
+ * 
+ * @author xcoulon
+ * 
+ */
+public class InMemoryIndexBackend implements IJaxrsIndexBackend {
+
+	/** The documents, indexed by field name and field value. */
+	private Map<String, Map<String, Set<IndexedDocument>>> postings = new HashMap<String, Map<String, Set<IndexedDocument>>>();
+
+	/** Whether the {@link #postings} map itself is shared with the last snapshot. */
+	private boolean postingsShared = false;
+
+	/**
+	 * The value maps and document sets in {@link #postings} that were created
+	 * or copied after the last snapshot, and can thus be modified in place.
+	 */
+	private final Set<Object> ownedPostings = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+	/** The number of documents in the index. */
+	private int numDocs = 0;
+
+	/** The last snapshot, or {@code null} if the index changed since then. */
+	private InMemoryIndexSnapshot snapshot = null;
+
+	@Override
+	public synchronized void addDocument(final Document document) throws IOException {
+		final IndexedDocument indexedDocument = new IndexedDocument(document);
+		for (int i = 0; i < indexedDocument.fieldNames.length; i++) {
+			getMutableDocuments(indexedDocument.fieldNames[i], indexedDocument.fieldValues[i], true).add(
+					indexedDocument);
+		}
+		numDocs++;
+		snapshot = null;
+	}
+
+	@Override
+	public synchronized void updateDocument(final Term identifierTerm, final Document document) throws IOException {
+		deleteDocuments(identifierTerm);
+		addDocument(document);
+	}
+
+	@Override
+	public synchronized void deleteDocuments(final Term identifierTerm) throws IOException {
+		final Map<String, Set<IndexedDocument>> values = postings.get(identifierTerm.field());
+		if (values == null || !values.containsKey(identifierTerm.text())) {
+			return;
+		}
+		final List<IndexedDocument> deletedDocuments = new ArrayList<IndexedDocument>(values.get(identifierTerm
+				.text()));
+		for (IndexedDocument deletedDocument : deletedDocuments) {
+			for (int i = 0; i < deletedDocument.fieldNames.length; i++) {
+				final Set<IndexedDocument> documents = getMutableDocuments(deletedDocument.fieldNames[i],
+						deletedDocument.fieldValues[i], false);
+				if (documents != null) {
+					documents.remove(deletedDocument);
+					if (documents.isEmpty()) {
+						removeEmptyPostings(deletedDocument.fieldNames[i], deletedDocument.fieldValues[i]);
+					}
+				}
+			}
+			numDocs--;
+		}
+		snapshot = null;
+	}
+
+	@Override
+	public synchronized void deleteAll() throws IOException {
+		postings = new HashMap<String, Map<String, Set<IndexedDocument>>>();
+		postingsShared = false;
+		ownedPostings.clear();
+		numDocs = 0;
+		snapshot = null;
+	}
+
+	@Override
+	public void commit() throws IOException {
+		// nothing to do: changes are immediately visible to new snapshots
+	}
+
+	@Override
+	public synchronized IJaxrsIndexSnapshot getSnapshot() throws IOException {
+		if (snapshot == null) {
+			snapshot = new InMemoryIndexSnapshot(postings, numDocs);
+			// from now on, the current postings belong to the snapshot
+			postingsShared = true;
+			ownedPostings.clear();
+		}
+		return snapshot;
+	}
+
+	@Override
+	public void close() throws IOException {
+		deleteAll();
+	}
+
+	/**
+	 * Returns the set of documents for the given field name and value, copying
+	 * the enclosing maps and set if they are shared with a snapshot.
+	 * 
+	 * @param create
+	 *            whether the set should be created if it does not exist yet
+	 * @return the set of documents that can be modified in place, or
+	 *         {@code null} if it does not exist and {@code create} is
+	 *         {@code false}
+	 */
+	private Set<IndexedDocument> getMutableDocuments(final String fieldName, final String fieldValue,
+			final boolean create) {
+		if (postingsShared) {
+			postings = new HashMap<String, Map<String, Set<IndexedDocument>>>(postings);
+			postingsShared = false;
+		}
+		Map<String, Set<IndexedDocument>> values = postings.get(fieldName);
+		if (values == null) {
+			if (!create) {
+				return null;
+			}
+			values = new HashMap<String, Set<IndexedDocument>>();
+			ownedPostings.add(values);
+			postings.put(fieldName, values);
+		} else if (!ownedPostings.contains(values)) {
+			values = new HashMap<String, Set<IndexedDocument>>(values);
+			ownedPostings.add(values);
+			postings.put(fieldName, values);
+		}
+		Set<IndexedDocument> documents = values.get(fieldValue);
+		if (documents == null) {
+			if (!create) {
+				return null;
+			}
+			documents = new LinkedHashSet<IndexedDocument>();
+			ownedPostings.add(documents);
+			values.put(fieldValue, documents);
+		} else if (!ownedPostings.contains(documents)) {
+			documents = new LinkedHashSet<IndexedDocument>(documents);
+			ownedPostings.add(documents);
+			values.put(fieldValue, documents);
+		}
+		return documents;
+	}
+
+	/**
+	 * Removes the (mutable) empty set of documents for the given field name
+	 * and value, as well as the enclosing map if it becomes empty, too.
+	 */
+	private void removeEmptyPostings(final String fieldName, final String fieldValue) {
+		final Map<String, Set<IndexedDocument>> values = postings.get(fieldName);
+		ownedPostings.remove(values.remove(fieldValue));
+		if (values.isEmpty()) {
+			ownedPostings.remove(postings.remove(fieldName));
+		}
+	}
+
+	/**
+	 * An immutable copy of the indexed fields of a {@link Document}. Uses
+	 * identity equality, since multiple documents may have the same fields.
+	 */
+	static class IndexedDocument {
+
+		/** The document identifier, without its type prefix. */
+		final String identifier;
+
+		final String[] fieldNames;
+
+		final String[] fieldValues;
+
+		IndexedDocument(final Document document) {
+			final List<Fieldable> fields = document.getFields();
+			final String documentIdentifier = document.get(LuceneFields.FIELD_IDENTIFIER);
+			this.identifier = (documentIdentifier != null) ? IndexedObjectType.removePrefix(documentIdentifier) : null;
+			this.fieldNames = new String[fields.size()];
+			this.fieldValues = new String[fields.size()];
+			for (int i = 0; i < fields.size(); i++) {
+				fieldNames[i] = fields.get(i).name();
+				fieldValues[i] = fields.get(i).stringValue();
+			}
+		}
+	}
+
+	/**
+	 * {@link IJaxrsIndexSnapshot} on postings that are not modified anymore.
+	 */
+	static class InMemoryIndexSnapshot implements IJaxrsIndexSnapshot {
+
+		private final Map<String, Map<String, Set<IndexedDocument>>> postings;
+
+		private final int numDocs;
+
+		InMemoryIndexSnapshot(final Map<String, Map<String, Set<IndexedDocument>>> postings, final int numDocs) {
+			this.postings = postings;
+			this.numDocs = numDocs;
+		}
+
+		@Override
+		public String searchIdentifier(final Term... terms) throws IOException {
+			final List<IndexedDocument> matches = search(terms, 1);
+			if (matches.isEmpty()) {
+				return null;
+			}
+			return matches.get(0).identifier;
+		}
+
+		@Override
+		public Set<String> searchIdentifiers(final Term... terms) throws IOException {
+			final Set<String> identifiers = new HashSet<String>();
+			for (IndexedDocument match : search(terms, Integer.MAX_VALUE)) {
+				if (match.identifier != null) {
+					identifiers.add(match.identifier);
+				}
+			}
+			return Collections.unmodifiableSet(identifiers);
+		}
+
+		@Override
+		public int count(final Term... terms) throws IOException {
+			return search(terms, Integer.MAX_VALUE).size();
+		}
+
+		@Override
+		public int numDocs() {
+			return numDocs;
+		}
+
+		/**
+		 * Intersects the postings of the given terms, iterating over the
+		 * smallest one.
+		 * 
+		 * @param maxResults
+		 *            the maximum number of documents to return
+		 * @return the documents matching all the given terms
+		 */
+		private List<IndexedDocument> search(final Term[] terms, final int maxResults) {
+			if (terms == null || terms.length == 0) {
+				return Collections.emptyList();
+			}
+			final List<Set<IndexedDocument>> termDocuments = new ArrayList<Set<IndexedDocument>>(terms.length);
+			Set<IndexedDocument> smallestTermDocuments = null;
+			for (Term term : terms) {
+				final Map<String, Set<IndexedDocument>> values = postings.get(term.field());
+				final Set<IndexedDocument> documents = (values != null) ? values.get(term.text()) : null;
+				if (documents == null) {
+					return Collections.emptyList();
+				}
+				termDocuments.add(documents);
+				if (smallestTermDocuments == null || documents.size() < smallestTermDocuments.size()) {
+					smallestTermDocuments = documents;
+				}
+			}
+			final List<IndexedDocument> matches = new ArrayList<IndexedDocument>();
+			for (IndexedDocument document : smallestTermDocuments) {
+				if (containsAll(termDocuments, document)) {
+					matches.add(document);
+					if (matches.size() == maxResults) {
+						break;
+					}
+				}
+			}
+			return matches;
+		}
+
+		private static boolean containsAll(final List<Set<IndexedDocument>> termDocuments,
+				final IndexedDocument document) {
+			for (Set<IndexedDocument> documents : termDocuments) {
+				if (!documents.contains(document)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+}
@@ -35,4 +35,19 @@ public enum IndexedObjectType {
 		return prefix;
 	}
 
+	/**
+	 * @param documentIdentifier
+	 *            the value of the {@link LuceneFields#FIELD_IDENTIFIER} field
+	 *            of an indexed document
+	 * @return the given identifier without its type prefix.
+	 */
+	public static String removePrefix(final String documentIdentifier) {
+		for (IndexedObjectType type : values()) {
+			if (documentIdentifier.startsWith(type.prefix)) {
+				return documentIdentifier.substring(type.prefix.length());
+			}
+		}
+		return documentIdentifier;
+	}
+
 }
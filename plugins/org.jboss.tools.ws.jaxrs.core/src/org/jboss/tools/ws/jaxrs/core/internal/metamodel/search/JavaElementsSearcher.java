@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
@@ -48,8 +49,9 @@ import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsParamAnnotations;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
-import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
 
 /**
  * Class that scan the projec's classpath to find Java Elements that have JAX-RS annotations or supertypes/superinterfaces.
@@ -61,6 +63,70 @@ public final class JavaElementsSearcher {
 
 	}
 
+	/**
+	 * Returns all candidate types for JAX-RS Applications, HTTP Methods, Name
+	 * Bindings, Resources, ParamConverter Providers, Parameter Aggregators and
+	 * Providers in the given scope, using a single search on all relevant
+	 * annotations instead of one search per kind of element. The result is the
+	 * same as the one of the individual {@code find*Types} methods, bucketed
+	 * by {@link EnumElementCategory}.
+	 * 
+	 * @param scope
+	 *            the search scope (project, compilation unit, type, etc.)
+	 * @param progressMonitor
+	 *            the progress monitor
+	 * @return the candidate types indexed by the category of JAX-RS element
+	 *         they may be associated with
+	 * @throws CoreException
+	 *             in case of exception
+	 */
+	public static Map<EnumElementCategory, Set<IType>> findJaxrsTypes(final IJavaElement scope,
+			final IProgressMonitor progressMonitor) throws CoreException {
+		final long start = Metrics.start();
+		try {
+			final IJavaSearchScope searchScope = createSearchScope(scope);
+			final JaxrsTypesSearchResultCollector collector = new JaxrsTypesSearchResultCollector(searchScope);
+			collector.addTypeAnnotation(APPLICATION_PATH, EnumElementCategory.APPLICATION);
+			collector.addTypeAnnotation(HTTP_METHOD, EnumElementCategory.HTTP_METHOD);
+			collector.addTypeAnnotation(NAME_BINDING, EnumElementCategory.NAME_BINDING);
+			collector.addTypeAnnotation(PATH, EnumElementCategory.RESOURCE);
+			collector.addTypeAnnotation(PROVIDER, EnumElementCategory.PARAM_CONVERTER_PROVIDER);
+			collector.addTypeAnnotation(PROVIDER, EnumElementCategory.PROVIDER);
+			for (String paramAnnotation : JaxrsParamAnnotations.PARAM_ANNOTATIONS) {
+				collector.addMemberAnnotation(paramAnnotation, EnumElementCategory.PARAMETER_AGGREGATOR);
+			}
+			SearchPattern pattern = null;
+			for (String annotationName : collector.getAnnotationNames()) {
+				final SearchPattern subPattern = SearchPattern.createPattern(annotationName,
+						IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+						SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+				if (pattern == null) {
+					pattern = subPattern;
+				} else {
+					pattern = SearchPattern.createOrPattern(pattern, subPattern);
+				}
+			}
+			new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+					searchScope, collector, progressMonitor);
+			final Map<EnumElementCategory, Set<IType>> types = collector.getResults();
+			// the search result also includes all subtypes of the relevant
+			// JAX-RS types (while avoiding duplicate results)
+			final Set<IType> applicationTypes = types.get(EnumElementCategory.APPLICATION);
+			applicationTypes.addAll(findSubtypes(scope, APPLICATION, progressMonitor));
+			final Set<IType> paramConverterProviderTypes = types.get(EnumElementCategory.PARAM_CONVERTER_PROVIDER);
+			paramConverterProviderTypes.addAll(findSubtypes(scope, PARAM_CONVERTER_PROVIDER, progressMonitor));
+			final Set<IType> providerTypes = types.get(EnumElementCategory.PROVIDER);
+			for (String providerSupertype : Arrays.asList(MESSAGE_BODY_READER, MESSAGE_BODY_WRITER, EXCEPTION_MAPPER,
+					CONTAINER_REQUEST_FILTER, CONTAINER_RESPONSE_FILTER, ENTITY_READER_INTERCEPTOR,
+					ENTITY_WRITER_INTERCEPTOR)) {
+				providerTypes.addAll(findSubtypes(scope, providerSupertype, progressMonitor));
+			}
+			return types;
+		} finally {
+			Metrics.JAVA_SEARCH.stop(start);
+		}
+	}
+
 	/**
 	 * Returns all JAX-RS Applications types in the given scope (ex. : javaProject), ie., types annotated with
 	 * <code>javax.ws.rs.ApplicationPath</code> annotation and subtypes of
@@ -77,7 +143,7 @@ public final class JavaElementsSearcher {
 	 */
 	public static Set<IType> findApplicationTypes(final IJavaElement scope, final IProgressMonitor progressMonitor)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			// FIXME: need correct usage of progressmonitor/subprogress monitor
 
@@ -92,8 +158,7 @@ public final class JavaElementsSearcher {
 			applicationTypes.addAll(CollectionUtils.difference(applicationSubtypes, applicationTypes));
 			return applicationTypes;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found Application types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 
@@ -114,7 +179,7 @@ public final class JavaElementsSearcher {
 	 */
 	public static Set<IType> findProviderTypes(final IJavaElement scope, final IProgressMonitor progressMonitor)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final Set<IType> providerTypes = new HashSet<IType>();
 			final IJavaSearchScope searchScope = createSearchScope(scope);
@@ -131,8 +196,7 @@ public final class JavaElementsSearcher {
 			providerTypes.addAll(findSubtypes(scope, ENTITY_WRITER_INTERCEPTOR, progressMonitor));
 			return providerTypes;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found Provider types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 
@@ -153,7 +217,7 @@ public final class JavaElementsSearcher {
 	 */
 	public static Set<IType> findParamConverterProviderTypes(final IJavaElement scope, final IProgressMonitor progressMonitor)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final Set<IType> paramConverterTypes = new HashSet<IType>();
 			final IJavaSearchScope searchScope = createSearchScope(scope);
@@ -166,8 +230,7 @@ public final class JavaElementsSearcher {
 			paramConverterTypes.addAll(CollectionUtils.difference(paramConverterProviderSubtypes, paramConverterTypes));
 			return paramConverterTypes;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found Provider types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 	
@@ -186,7 +249,7 @@ public final class JavaElementsSearcher {
 	 *             in case of exception
 	 */
 	public static Set<IType> findParameterAggregatorTypes(IJavaElement scope, IProgressMonitor progressMonitor) throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final Set<IType> types = new HashSet<IType>();
 			final IJavaSearchScope searchScope = createSearchScope(scope);
@@ -200,8 +263,7 @@ public final class JavaElementsSearcher {
 			}
 			return types;
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found Provider types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 	
@@ -234,13 +296,12 @@ public final class JavaElementsSearcher {
 	 */
 	public static Set<IType> findResourceTypes(final IJavaElement scope, final IProgressMonitor progressMonitor)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final IJavaSearchScope searchScope = createSearchScope(scope);
 			return searchForAnnotatedTypes(PATH, searchScope, progressMonitor);
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found Resource types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 
@@ -258,13 +319,12 @@ public final class JavaElementsSearcher {
 	 */
 	public static Set<IType> findHttpMethodTypes(final IJavaElement scope, final IProgressMonitor progressMonitor)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final IJavaSearchScope searchScope = createSearchScope(scope);
 			return searchForAnnotatedTypes(HTTP_METHOD, searchScope, progressMonitor);
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found HTTP Method types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 	
@@ -282,13 +342,12 @@ public final class JavaElementsSearcher {
 	 */
 	public static Set<IType> findNameBindingTypes(final IJavaElement scope, final IProgressMonitor progressMonitor)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final IJavaSearchScope searchScope = createSearchScope(scope);
 			return searchForAnnotatedTypes(NAME_BINDING, searchScope, progressMonitor);
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found NameBinding types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 	
@@ -300,13 +359,12 @@ public final class JavaElementsSearcher {
 	 * @throws CoreException 
 	 */
 	public static Set<IMethod> findAnnotatedMethods(final IJavaProject scope, final String fullyQualifiedName, final IProgressMonitor progressMonitor) throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final IJavaSearchScope searchScope = createSearchScope(scope);
 			return searchForAnnotatedMethods(Arrays.asList(fullyQualifiedName), searchScope, progressMonitor);
 		} finally {
-			final long end = System.currentTimeMillis();
-			Logger.tracePerf("Found HTTP Method types in scope {} in {}ms", scope.getElementName(), (end - start));
+			Metrics.JAVA_SEARCH.stop(start);
 		}
 	}
 
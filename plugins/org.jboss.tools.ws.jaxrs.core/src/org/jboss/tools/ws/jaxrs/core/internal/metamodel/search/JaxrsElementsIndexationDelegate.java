@@ -16,76 +16,95 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.TreeSet;
 
-import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field;
 import org.apache.lucene.index.CorruptIndexException;
-import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
-import org.apache.lucene.search.BooleanClause;
-import org.apache.lucene.search.BooleanClause.Occur;
-import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.Collector;
-import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.Query;
-import org.apache.lucene.search.Scorer;
-import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.search.TotalHitCountCollector;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.LockObtainFailedException;
-import org.apache.lucene.store.RAMDirectory;
-import org.apache.lucene.util.Version;
-import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsEndpoint;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodelView;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
 
 /**
+ * Indexes the JAX-RS elements and endpoints of a {@link JaxrsMetamodel} and
+ * performs the searches on them. The documents are stored in an
+ * {@link IJaxrsIndexBackend}, which is a Lucene index unless the
+ * {@link JaxrsElementsIndexationDelegate#INDEX_BACKEND_PROPERTY} system
+ * property is set to {@link JaxrsElementsIndexationDelegate#IN_MEMORY_INDEX_BACKEND}.
+ * 
  * @author xcoulon
  * 
  */
 public class JaxrsElementsIndexationDelegate {
 
+	/** System property to select the index backend. */
+	public static final String INDEX_BACKEND_PROPERTY = "org.jboss.tools.ws.jaxrs.core.indexBackend";
+
+	/** Value of the {@link #INDEX_BACKEND_PROPERTY} to select the Lucene index backend (default). */
+	public static final String LUCENE_INDEX_BACKEND = "lucene";
+
+	/** Value of the {@link #INDEX_BACKEND_PROPERTY} to select the in-memory index backend. */
+	public static final String IN_MEMORY_INDEX_BACKEND = "memory";
+
 	/** The metamodel associated with this indexation delegate.*/
 	private final JaxrsMetamodel metamodel;
 	
-	private final Directory index;
-	private final StandardAnalyzer analyzer;
-	private final IndexWriterConfig config;
-	private IndexWriter indexWriter;
-	private IndexReader indexReader;
-	private IndexSearcher indexSearcher;
+	/** The storage of the indexed documents. */
+	private final IJaxrsIndexBackend backend;
+	/**
+	 * Number of nested batches currently opened. While this counter is greater
+	 * than {@code 0}, changes are not committed in the index but remain
+	 * visible to searches thanks to the near-real-time snapshots.
+	 */
+	private int batchDepth = 0;
+	/** Indicates if some changes were made in the index since the last commit. */
+	private boolean uncommittedChanges = false;
 
 	/**
-	 * Default constructor
+	 * Default constructor, using the index backend selected with the
+	 * {@link #INDEX_BACKEND_PROPERTY} system property.
 	 * 
 	 * @throws CoreException
-	 * 
-	 * @throws CorruptIndexException
-	 * @throws LockObtainFailedException
-	 * @throws IOException
 	 */
 	public JaxrsElementsIndexationDelegate(final JaxrsMetamodel metamodel) throws CoreException {
+		this(metamodel, createBackend());
+	}
+
+	/**
+	 * Full constructor
+	 * 
+	 * @param metamodel
+	 *            the associated metamodel
+	 * @param backend
+	 *            the storage of the indexed documents
+	 */
+	public JaxrsElementsIndexationDelegate(final JaxrsMetamodel metamodel, final IJaxrsIndexBackend backend) {
+		this.metamodel = metamodel;
+		this.backend = backend;
+	}
+
+	/**
+	 * @return a new {@link IJaxrsIndexBackend} of the kind selected with the
+	 *         {@link #INDEX_BACKEND_PROPERTY} system property.
+	 * @throws CoreException
+	 */
+	private static IJaxrsIndexBackend createBackend() throws CoreException {
+		final String backendName = System.getProperty(INDEX_BACKEND_PROPERTY, LUCENE_INDEX_BACKEND);
+		if (IN_MEMORY_INDEX_BACKEND.equals(backendName)) {
+			return new InMemoryIndexBackend();
+		}
+		if (!LUCENE_INDEX_BACKEND.equals(backendName)) {
+			Logger.warn("Unknown JAX-RS index backend '" + backendName + "', using '" + LUCENE_INDEX_BACKEND
+					+ "' instead");
+		}
 		try {
-			this.metamodel = metamodel;
-			analyzer = new StandardAnalyzer(Version.LUCENE_35);
-			config = new IndexWriterConfig(Version.LUCENE_35, analyzer);
-			config.setMaxBufferedDeleteTerms(1);
-			index = new RAMDirectory();
-			indexWriter = new IndexWriter(index, config);
-			indexReader = IndexReader.open(indexWriter, true);
-			indexSearcher = new IndexSearcher(indexReader);
+			return new LuceneIndexBackend();
 		} catch (Exception e) {
 			throw new CoreException(new Status(Status.ERROR, JBossJaxrsCorePlugin.PLUGIN_ID,
 					"Failed to initialize JAX-RS Elements Indexer", e));
@@ -99,8 +118,7 @@ public class JaxrsElementsIndexationDelegate {
 	 * @throws IOException
 	 */
 	public void dispose() throws CorruptIndexException, IOException {
-		indexWriter.close(true);
-		index.close();
+		backend.close();
 	}
 
 	/**
@@ -110,28 +128,93 @@ public class JaxrsElementsIndexationDelegate {
 	 */
 	public void clear() throws CoreException {
 		try {
-			indexWriter.deleteAll();
-			indexWriter.commit();
+			backend.deleteAll();
+			commitIfNeeded();
 		} catch (IOException e) {
 			final Status message = Logger.error("Failed to delete all documents in the JAX-RS Index", e);
 			throw new CoreException(message);
 		}
 	}
 
+	/**
+	 * Starts a batch of changes in the index: all subsequent additions, updates
+	 * and removals are kept uncommitted until the matching call to
+	 * {@link JaxrsElementsIndexationDelegate#endBatch()}, while remaining
+	 * visible to the searches performed in the meantime. Batches can be
+	 * nested, in which case the changes are committed when the outermost batch
+	 * ends.
+	 */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * Ends the current batch of changes and commits all pending changes in the
+	 * index if this was the outermost batch.
+	 * 
+	 * @see JaxrsElementsIndexationDelegate#beginBatch()
+	 */
+	public void endBatch() {
+		if (batchDepth == 0) {
+			Logger.warn("Attempted to end a batch of changes in the JAX-RS index while none was started");
+			return;
+		}
+		batchDepth--;
+		if (batchDepth == 0 && uncommittedChanges) {
+			commit();
+		}
+	}
+
+	/**
+	 * @return {@code true} if a batch of changes is in progress, {@code false}
+	 *         otherwise.
+	 */
+	public boolean isInBatch() {
+		return batchDepth > 0;
+	}
+
+	/**
+	 * Commits the changes in the index, unless a batch is in progress, in which
+	 * case the commit is deferred until the end of the batch.
+	 * 
+	 * @throws IOException
+	 */
+	private void commitIfNeeded() throws IOException {
+		if (batchDepth > 0) {
+			uncommittedChanges = true;
+		} else {
+			backend.commit();
+		}
+	}
+
+	/**
+	 * Commits all pending changes in the index.
+	 */
+	private void commit() {
+		final long start = Metrics.start();
+		try {
+			backend.commit();
+			uncommittedChanges = false;
+		} catch (IOException e) {
+			Logger.error("Failed to commit changes in the JAX-RS Index", e);
+		} finally {
+			Metrics.INDEX_COMMIT.stop(start);
+		}
+	}
+
 	public void indexElement(final IJaxrsElement element) {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			Logger.traceIndexing("Indexing {} after addition...", element.getName());
 			final Document doc = LuceneDocumentFactory.createDocument(element);
 			Logger.debugIndexing("Adding JAX-RS Element into index with following fields: {}", doc.getFields());
-			indexWriter.addDocument(doc);
-			indexWriter.commit();
+			backend.addDocument(doc);
+			commitIfNeeded();
 		} catch (IOException e) {
 			Logger.error("Failed to index the JAX-RS Element " + element, e);
 		} finally {
 			Logger.traceIndexing(" Done indexing {}.", element.getName());
-			final long end = System.currentTimeMillis();
-			Logger.traceIndexingPerf("Element indexed in {}ms", (end - start));
+			Metrics.INDEX_ELEMENT.stop(start);
 		}
 	}
 
@@ -140,8 +223,8 @@ public class JaxrsElementsIndexationDelegate {
 			Logger.traceIndexing("Indexing {} after addition...", endpoint);
 			final Document doc = LuceneDocumentFactory.createDocument(endpoint);
 			Logger.debugIndexing("Adding JAX-RS Endpoint into index with following fields: {}", doc.getFields());
-			indexWriter.addDocument(doc);
-			indexWriter.commit();
+			backend.addDocument(doc);
+			commitIfNeeded();
 		} catch (IOException e) {
 			Logger.error("Failed to index the JAX-RS Endpoint " + endpoint, e);
 		} finally {
@@ -154,10 +237,9 @@ public class JaxrsElementsIndexationDelegate {
 			Logger.traceIndexing("Re-indexing {} after some internal change...", element.getName());
 			final Document doc = LuceneDocumentFactory.createDocument(element);
 			final Term identifierTerm = LuceneDocumentFactory.getIdentifierTerm(element);
-			indexWriter.updateDocument(identifierTerm, doc);
-			indexWriter.commit();
-			Logger.debugIndexing("Updated JAX-RS Element index with following fields: {}. Writer.hasDeletions={}",
-					doc.getFields(), indexWriter.hasDeletions());
+			backend.updateDocument(identifierTerm, doc);
+			commitIfNeeded();
+			Logger.debugIndexing("Updated JAX-RS Element index with following fields: {}", doc.getFields());
 		} catch (IOException e) {
 			Logger.error("Failed to re-index the JAX-RS Element " + element, e);
 		} finally {
@@ -170,10 +252,9 @@ public class JaxrsElementsIndexationDelegate {
 			Logger.traceIndexing("Re-indexing {} after some internal change...", endpoint);
 			final Document doc = LuceneDocumentFactory.createDocument(endpoint);
 			final Term identifierTerm = LuceneDocumentFactory.getIdentifierTerm(endpoint);
-			indexWriter.updateDocument(identifierTerm, doc);
-			indexWriter.commit();
-			Logger.debugIndexing("Updated JAX-RS Endpoint index with following fields: {}. Writer.hasDeletions={}",
-					doc.getFields(), indexWriter.hasDeletions());
+			backend.updateDocument(identifierTerm, doc);
+			commitIfNeeded();
+			Logger.debugIndexing("Updated JAX-RS Endpoint index with following fields: {}", doc.getFields());
 		} catch (IOException e) {
 			Logger.error("Failed to re-index the JAX-RS Endpoint " + endpoint, e);
 		} finally {
@@ -189,20 +270,12 @@ public class JaxrsElementsIndexationDelegate {
 	public void unindexElement(final IJaxrsElement element) {
 		try {
 			final Term identifierTerm = LuceneDocumentFactory.getIdentifierTerm(element);
-			final Term markerTypeTerm = LuceneDocumentFactory.getMarkerTypeTerm();
 			if(Logger.isDebugIndexingEnabled()) {
 				Logger.debugIndexing("Unindexing {} after removal...", identifierTerm);
-				
+				Logger.debugIndexing("Removing {} documents from index", count(identifierTerm));
 			}
-			final BooleanQuery deleteResourceMarkersQuery = new BooleanQuery();
-			deleteResourceMarkersQuery.add(new BooleanClause(new TermQuery(identifierTerm), Occur.MUST));
-			deleteResourceMarkersQuery.add(new BooleanClause(new TermQuery(markerTypeTerm), Occur.MUST_NOT));
-			
-			if(Logger.isDebugIndexingEnabled()) {
-				Logger.debugIndexing("Removing {} documents from index", count(deleteResourceMarkersQuery));
-			}
-			indexWriter.deleteDocuments(deleteResourceMarkersQuery);
-			indexWriter.commit();
+			backend.deleteDocuments(identifierTerm);
+			commitIfNeeded();
 		} catch (IOException e) {
 			Logger.error("Failed to unindex the JAX-RS Element " + element, e);
 		} finally {
@@ -220,8 +293,8 @@ public class JaxrsElementsIndexationDelegate {
 		try {
 			Logger.debugIndexing("Unindexing {} after removal...", endpoint);
 			final Term identifierTerm = LuceneDocumentFactory.getIdentifierTerm(endpoint);
-			indexWriter.deleteDocuments(identifierTerm);
-			indexWriter.commit();
+			backend.deleteDocuments(identifierTerm);
+			commitIfNeeded();
 		} catch (IOException e) {
 			Logger.error("Failed to unindex the JAX-RS Element " + endpoint, e);
 		} finally {
@@ -230,293 +303,203 @@ public class JaxrsElementsIndexationDelegate {
 	}
 
 	/**
-	 * Join the given {@link Term}s using the {@link Occur#MUST} clause into a
-	 * {@link BooleanQuery}.
+	 * Searches for a single document matching all the given {@link Term}s.
+	 * This method returns a single document identifier for an
+	 * {@link IJaxrsElement}, or null if no document matched.
 	 * 
 	 * @param terms
-	 *            the search terms to join
-	 * @return the result query.
+	 *            the search terms
+	 * @return the document identifier matching the query, or null if no
+	 *         document matched
 	 */
-	public static BooleanQuery joinTerms(final Term... terms) {
-		final BooleanQuery query = new BooleanQuery();
-		if (terms != null) {
-			for (Term term : terms) {
-				query.add(new BooleanClause(new TermQuery(term), Occur.MUST));
-			}
+	public String searchElement(final Term... terms) {
+		try {
+			return searchSingle(getIndexSnapshot(), terms);
+		} catch (IOException e) {
+			Logger.error("Failed to search for JAX-RS element in index", e);
 		}
-		return query;
+		return null;
 	}
-	
+
 	/**
-	 * Performs a {@link BooleanQuery} based on the given {@link TermQuery},
-	 * assuming that each query element is mandatory. This method returns a
-	 * single document identifier for an {@link IJaxrsElement}, or null if no
-	 * document matched.
+	 * Same as {@link JaxrsElementsIndexationDelegate#searchElement(Term...)},
+	 * but performs the search using the index snapshot of the given
+	 * {@link JaxrsMetamodelView}.
 	 * 
-	 * @param queries
+	 * @param view
+	 *            the metamodel view to search in
+	 * @param terms
+	 *            the search terms
 	 * @return the document identifier matching the query, or null if no
 	 *         document matched
 	 */
-	public String searchElement(final Term... terms) {
-		final BooleanQuery query = joinTerms(terms);
-		return searchSingle(query, IndexedObjectType.JAX_RS_ELEMENT);
+	public String searchElement(final JaxrsMetamodelView view, final Term... terms) {
+		return searchSingle(view.getIndexSnapshot(), terms);
 	}
 
-	private String searchSingle(final Query query, final IndexedObjectType type) {
+	private String searchSingle(final IJaxrsIndexSnapshot snapshot, final Term... terms) {
+		final long start = Metrics.start();
 		try {
-			final IndexSearcher searcher = getNewIndexSearcherIfNeeded();
-			Logger.traceIndexing("Using IndexReader (current={} / hasDeletions={}) containing {} documents",
-					indexReader.isCurrent(), indexReader.hasDeletions(), indexReader.numDocs());
-			Logger.traceIndexing("Searching single document matching {}", query.toString());
-			final TopDocs result = searcher.search(query, 1);
-			if (result.totalHits >= 1) {
-				int docIndex = result.scoreDocs[0].doc;
-				final Document doc = searcher.doc(docIndex);
-				final String docIdentifier = doc.get(LuceneFields.FIELD_IDENTIFIER);
-				return docIdentifier.substring(type.getPrefix().length());
+			final String identifier = snapshot.searchIdentifier(terms);
+			if (identifier != null) {
+				return identifier;
 			}
 		} catch (IOException e) {
 			Logger.error("Failed to search for JAX-RS element in index", e);
+		} finally {
+			Metrics.INDEX_SEARCH.stop(start);
 		}
 		Logger.traceIndexing(" Not document matched the query.");
 		return null;
 	}
 
 	/**
-	 * Searches and returns a collection of elements matching the
-	 * {@link BooleanQuery} based on the given {@link TermQuery}, assuming that
-	 * each query term is MUST match.
+	 * Searches and returns a collection of elements matching all the given
+	 * {@link Term}s.
 	 * 
-	 * @param clazz the expected JAX-RS element type
 	 * @param terms the search terms
 	 * 
-	 * @return the {@link IJaxrsElement}s matching the query, or null if no
+	 * @return the {@link IJaxrsElement}s matching the query, or empty set if no
 	 *         document matched
 	 */
 	public <T> Set<T> searchElements(final Term... terms) {
 		try {
-			final IndexSearcher searcher = getNewIndexSearcherIfNeeded();
-			Logger.traceIndexing("Using IndexReader (current={} / hasDeletions={}) containing {} documents",
-					indexReader.isCurrent(), indexReader.hasDeletions(), indexReader.numDocs());
-			final BooleanQuery query = joinTerms(terms);
-			Logger.traceIndexing("Searching documents matching {}", query.toString());
-			final JaxrsElementsCollector<T> collector = new JaxrsElementsCollector<T>();
-			searcher.search(query, collector);
-			final Set<T> elements = collector.getResults();
+			return searchElements(getIndexSnapshot(), metamodel.getView(), terms);
+		} catch (IOException e) {
+			Logger.error("Failed to search for JAX-RS element in index", e);
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Same as {@link JaxrsElementsIndexationDelegate#searchElements(Term...)},
+	 * but performs the search using the index snapshot and the elements of the
+	 * given {@link JaxrsMetamodelView}.
+	 * 
+	 * @param view
+	 *            the metamodel view to search in
+	 * @param terms
+	 *            the search terms
+	 * @return the {@link IJaxrsElement}s matching the query, or empty set if no
+	 *         document matched
+	 */
+	public <T> Set<T> searchElements(final JaxrsMetamodelView view, final Term... terms) {
+		return searchElements(view.getIndexSnapshot(), view, terms);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Set<T> searchElements(final IJaxrsIndexSnapshot snapshot, final JaxrsMetamodelView view,
+			final Term... terms) {
+		final long start = Metrics.start();
+		try {
+			final Set<T> elements = new HashSet<T>();
+			for (String identifier : snapshot.searchIdentifiers(terms)) {
+				final IJaxrsElement element = view.getElement(identifier);
+				if (element != null) {
+					elements.add((T) element);
+				}
+			}
 			Logger.traceIndexing(" Found {} matching elements", elements.size());
 			return elements;
 		} catch (IOException e) {
 			Logger.error("Failed to search for JAX-RS element in index", e);
+		} finally {
+			Metrics.INDEX_SEARCH.stop(start);
 		}
 		return Collections.emptySet();
 	}
 	
 	/**
-	 * Searches and returns a collection of {@link JaxrsEndpoint}s matching the
-	 * {@link BooleanQuery} based on the given {@link TermQuery}, assuming that
-	 * each query term is MUST match.
+	 * Searches and returns a collection of {@link JaxrsEndpoint}s matching all
+	 * the given {@link Term}s.
 	 * 
-	 * @param queries
-	 * @return the {@link JaxrsEndpoint}s matching the query, or null if no
-	 *         document matched
+	 * @param terms
+	 *            the search terms
+	 * @return the {@link JaxrsEndpoint}s matching the query, or empty set if
+	 *         no document matched
 	 */
 	public Set<JaxrsEndpoint> searchEndpoints(final Term... terms) {
 		try {
-			Logger.debugIndexing("Searching for Endpoints with using: {}", Arrays.asList(terms));
-			final IndexSearcher searcher = getNewIndexSearcherIfNeeded();
-			Logger.traceIndexing("Using IndexReader (current={} / hasDeletions={}) containing {} documents",
-					indexReader.isCurrent(), indexReader.hasDeletions(), indexReader.numDocs());
-			final BooleanQuery query = joinTerms(terms);
-			Logger.traceIndexing("Searching documents matching {}", query.toString());
-			final JaxrsEndpointsCollector collector = new JaxrsEndpointsCollector();
-			searcher.search(query, collector);
-			final Set<JaxrsEndpoint> endpoints = collector.getResults();
+			return searchEndpoints(getIndexSnapshot(), metamodel.getView(), terms);
+		} catch (IOException e) {
+			Logger.error("Failed to search for JAX-RS element in index", e);
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Same as {@link JaxrsElementsIndexationDelegate#searchEndpoints(Term...)},
+	 * but performs the search using the index snapshot and the endpoints of the
+	 * given {@link JaxrsMetamodelView}.
+	 * 
+	 * @param view
+	 *            the metamodel view to search in
+	 * @param terms
+	 *            the search terms
+	 * @return the {@link JaxrsEndpoint}s matching the query, or empty set if no
+	 *         document matched
+	 */
+	public Set<JaxrsEndpoint> searchEndpoints(final JaxrsMetamodelView view, final Term... terms) {
+		return searchEndpoints(view.getIndexSnapshot(), view, terms);
+	}
+
+	private Set<JaxrsEndpoint> searchEndpoints(final IJaxrsIndexSnapshot snapshot, final JaxrsMetamodelView view,
+			final Term... terms) {
+		final long start = Metrics.start();
+		try {
+			if (Logger.isDebugIndexingEnabled()) {
+				Logger.debugIndexing("Searching for Endpoints with using: {}", Arrays.asList(terms));
+			}
+			final Set<JaxrsEndpoint> endpoints = new HashSet<JaxrsEndpoint>();
+			for (String identifier : snapshot.searchIdentifiers(terms)) {
+				final JaxrsEndpoint endpoint = view.getEndpoint(identifier);
+				if (endpoint != null) {
+					endpoints.add(endpoint);
+				}
+			}
 			Logger.traceIndexing(" Found {} matching endpoints", endpoints.size());
 			return endpoints;
 		} catch (IOException e) {
 			Logger.error("Failed to search for JAX-RS element in index", e);
+		} finally {
+			Metrics.INDEX_SEARCH.stop(start);
 		}
 		return Collections.emptySet();
 	}
 	
 	/**
-	 * Performs a {@link BooleanQuery} based on the given {@link TermQuery},
-	 * assuming that each element MUST occur, and return the number of matches.
+	 * Counts the documents matching all the given {@link Term}s.
 	 * 
 	 * @param terms
+	 *            the search terms
 	 * @return the number of matching documents
 	 */
-	public int count(final Query query) {
+	public int count(final Term... terms) {
+		final long start = Metrics.start();
 		try {
-			Logger.traceIndexing("Using IndexReader (current={} / hasDeletions={}) containing {} documents",
-					indexReader.isCurrent(), indexReader.hasDeletions(), indexReader.numDocs());
-			final IndexSearcher searcher = getNewIndexSearcherIfNeeded();
-			final TotalHitCountCollector collector = new TotalHitCountCollector();
-			Logger.traceIndexing("Counting documents matching {}...", query.toString());
-			searcher.search(query, collector);
-			final int totalHits = collector.getTotalHits();
+			final int totalHits = getIndexSnapshot().count(terms);
 			Logger.traceIndexing(" Found {} matching documents", totalHits);
 			return totalHits;
 		} catch (IOException e) {
 			Logger.error("Failed to search for JAX-RS element in index", e);
+		} finally {
+			Metrics.INDEX_SEARCH.stop(start);
 		}
 		return 0;
 	}
 
-	private IndexSearcher getNewIndexSearcherIfNeeded() throws IOException {
-		final IndexReader newIndexReader = IndexReader.openIfChanged(indexReader, indexWriter, true);
-		if (newIndexReader != null) {
-			this.indexReader = newIndexReader;
-			Logger.traceIndexing("Reopening IndexReader (current={} / hasDeletions={}) now containing {} documents",
-					indexReader.isCurrent(), indexReader.hasDeletions(), indexReader.numDocs());
-			this.indexSearcher = new IndexSearcher(indexReader);
-		}
-		return this.indexSearcher;
-	}
-
 	/**
-	 * Document IDs Collector. Collectd the mathcing {@link Document}'s
-	 * {@code LuceneDocumentFactory#FIELD_IDENTIFIER} {@link Field} in a
-	 * {@link Set} to avoid duplicate results.
-	 * 
-	 * @author xcoulon
+	 * Returns a snapshot of the current state of the index, including the
+	 * changes that were not committed yet. Further changes in the index will
+	 * not be visible from the returned snapshot, which can thus be safely used
+	 * by other threads while the index keeps changing.
 	 * 
+	 * @return the {@link IJaxrsIndexSnapshot} on the current state of the
+	 *         index
+	 * @throws IOException
 	 */
-	static abstract class AnyResultsCollector<T> extends Collector {
-
-		/** The current Lucene {@link IndexReader}. */
-		private IndexReader indexReader;
-		
-		/**
-		 * Set of doc identifiers matching the query. Using a {@link TreeSet} to
-		 * keep order of returned elements.
-		 */
-		final Set<T> results;
-
-		private int docBase;
-
-		public AnyResultsCollector(final Set<T> results) {
-			this.results = results;
-		}
-		
-		@Override
-		public void setScorer(Scorer scorer) throws IOException {
-		}
-
-		@Override
-		public void setNextReader(IndexReader indexReader, int docBase) throws IOException {
-			this.setIndexReader(indexReader);
-			this.setDocBase(docBase);
-		}
-
-		@Override
-		public boolean acceptsDocsOutOfOrder() {
-			return true;
-		}
-
-		public Set<T> getResults() throws CorruptIndexException, IOException {
-			return results;
-		}
-
-		/**
-		 * @return the indexReader
-		 */
-		public IndexReader getIndexReader() {
-			return indexReader;
-		}
-
-		/**
-		 * @param indexReader the indexReader to set
-		 */
-		public void setIndexReader(IndexReader indexReader) {
-			this.indexReader = indexReader;
-		}
-
-		/**
-		 * @return the docBase
-		 */
-		public int getDocBase() {
-			return docBase;
-		}
-
-		/**
-		 * @param docBase the docBase to set
-		 */
-		public void setDocBase(int docBase) {
-			this.docBase = docBase;
-		}
-
-	}
-	
-	class JaxrsElementsCollector<T> extends AnyResultsCollector<T> {
-
-		/** The prefix to strip off the result identifiers. */
-		private final String identifierPrefix;
-
-		public JaxrsElementsCollector() {
-			super(new HashSet<T>());
-			this.identifierPrefix = IndexedObjectType.JAX_RS_ELEMENT.getPrefix();
-		}
-		
-		@SuppressWarnings("unchecked")
-		@Override
-		public void collect(int docId) throws IOException {
-			Logger.traceIndexing("  Adding doc#{} (deleted={}) to search results", (getDocBase() + docId),
-					getIndexReader().isDeleted(docId));
-			final Document document = getIndexReader().document(docId);
-			final String docIdentifier = document.get(LuceneFields.FIELD_IDENTIFIER);
-			final String docCategory = document.get(LuceneFields.FIELD_TYPE);
-			Logger.traceIndexing("  Retrieved document #{} ({})", docIdentifier, docCategory);
-			final IJaxrsElement element = metamodel.getElement(docIdentifier.substring(identifierPrefix.length()));
-			if(element != null) {
-				results.add((T) element);
-			}
-		}
-	}
-
-	class JaxrsEndpointsCollector extends AnyResultsCollector<JaxrsEndpoint> {
-		
-		/** The prefix to strip off the result identifiers. */
-		private final String identifierPrefix;
-		
-		public JaxrsEndpointsCollector() {
-			super(new HashSet<JaxrsEndpoint>());
-			this.identifierPrefix = IndexedObjectType.JAX_RS_ENDPOINT.getPrefix();
-		}
-		
-		@Override
-		public void collect(int docId) throws IOException {
-			Logger.traceIndexing("  Adding doc#{} (deleted={}) to search results", (getDocBase() + docId),
-					getIndexReader().isDeleted(docId));
-			final Document document = getIndexReader().document(docId);
-			final String docIdentifier = document.get(LuceneFields.FIELD_IDENTIFIER);
-			final String docCategory = document.get(LuceneFields.FIELD_TYPE);
-			Logger.traceIndexing("  Retrieved document #{} ({})", docIdentifier, docCategory);
-			final JaxrsEndpoint endpoint = metamodel.getEndpoint(docIdentifier.substring(identifierPrefix.length()));
-			if(endpoint != null) {
-				results.add(endpoint);
-			}
-		}
-	}
-	
-	class ResourcesCollector extends AnyResultsCollector<IResource> {
-
-		public ResourcesCollector() {
-			super(new HashSet<IResource>());
-		}
-		@Override
-		public void collect(int docId) throws IOException {
-			Logger.traceIndexing("  Adding doc#{} (deleted={}) to search results", (getDocBase() + docId),
-					getIndexReader().isDeleted(docId));
-			final Document document = getIndexReader().document(docId);
-			final String identifier = document.get(LuceneFields.FIELD_IDENTIFIER);
-			final String resourcePath = document.get(LuceneFields.FIELD_RESOURCE_PATH);
-			Logger.traceIndexing("  Retrieved document #{} for resource at {}", identifier, resourcePath);
-			final IResource resource = metamodel.getProject().getWorkspace().getRoot().findMember(new Path(resourcePath));
-			if(resource != null) {
-				results.add(resource);
-			}
-		}
+	public IJaxrsIndexSnapshot getIndexSnapshot() throws IOException {
+		return backend.getSnapshot();
 	}
 
 }
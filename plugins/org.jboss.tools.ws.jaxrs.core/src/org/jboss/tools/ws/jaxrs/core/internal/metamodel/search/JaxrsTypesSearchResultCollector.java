@@ -0,0 +1,241 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IAnnotatable;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.ReferenceMatch;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
+
+/**
+ * Java Search results collector for a single search on multiple annotation
+ * types at once. Each match is bucketed by {@link EnumElementCategory}
+ * depending on the annotation that was referenced, so that all candidate types
+ * for JAX-RS elements can be retrieved in a single traversal of the search
+ * index.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsTypesSearchResultCollector extends SearchRequestor {
+
+	/**
+	 * The categories of JAX-RS elements indexed by the simple name of the
+	 * annotations on types that they are associated with.
+	 */
+	private final Map<String, List<EnumElementCategory>> typeAnnotationCategories = new HashMap<String, List<EnumElementCategory>>();
+
+	/**
+	 * The categories of JAX-RS elements indexed by the simple name of the
+	 * annotations on methods or fields that they are associated with.
+	 */
+	private final Map<String, List<EnumElementCategory>> memberAnnotationCategories = new HashMap<String, List<EnumElementCategory>>();
+
+	/** The fully qualified names of the registered annotations, indexed by their simple name. */
+	private final Map<String, String> qualifiedNames = new HashMap<String, String>();
+
+	/** The types found during the search, by category. */
+	private final Map<EnumElementCategory, Set<IType>> results = new HashMap<EnumElementCategory, Set<IType>>();
+
+	/** The search scope. */
+	private final IJavaSearchScope searchScope;
+
+	/**
+	 * Full constructor.
+	 *
+	 * @param scope
+	 *            the scope of the search
+	 */
+	public JaxrsTypesSearchResultCollector(final IJavaSearchScope scope) {
+		this.searchScope = scope;
+	}
+
+	/**
+	 * Registers the given annotation: all types annotated with it (or having
+	 * members annotated with it) will be collected in the given category.
+	 *
+	 * @param annotationName
+	 *            the fully qualified name of the annotation
+	 * @param category
+	 *            the category of JAX-RS element that matching types should be
+	 *            collected in
+	 */
+	public void addTypeAnnotation(final String annotationName, final EnumElementCategory category) {
+		register(typeAnnotationCategories, annotationName, category);
+	}
+
+	/**
+	 * Registers the given annotation: all types having methods or fields
+	 * annotated with it will be collected in the given category.
+	 *
+	 * @param annotationName
+	 *            the fully qualified name of the annotation
+	 * @param category
+	 *            the category of JAX-RS element that matching types should be
+	 *            collected in
+	 */
+	public void addMemberAnnotation(final String annotationName, final EnumElementCategory category) {
+		register(memberAnnotationCategories, annotationName, category);
+	}
+
+	/**
+	 * @return the fully qualified names of all the annotations registered in
+	 *         this collector.
+	 */
+	public Set<String> getAnnotationNames() {
+		return new HashSet<String>(qualifiedNames.values());
+	}
+
+	private void register(final Map<String, List<EnumElementCategory>> annotationCategories,
+			final String annotationName, final EnumElementCategory category) {
+		final String simpleName = getSimpleName(annotationName);
+		qualifiedNames.put(simpleName, annotationName);
+		if (!annotationCategories.containsKey(simpleName)) {
+			annotationCategories.put(simpleName, new ArrayList<EnumElementCategory>(2));
+		}
+		annotationCategories.get(simpleName).add(category);
+		if (!results.containsKey(category)) {
+			results.put(category, new HashSet<IType>());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final void acceptSearchMatch(final SearchMatch match) throws CoreException {
+		final IMember element = (IMember) match.getElement();
+		if (!searchScope.encloses(element)) {
+			return;
+		}
+		final IType type = (IType) element.getAncestor(IJavaElement.TYPE);
+		if (type == null) {
+			return;
+		}
+		final boolean onMethodOrField = element.getAncestor(IJavaElement.METHOD) != null
+				|| element.getAncestor(IJavaElement.FIELD) != null;
+		for (String annotationName : getReferencedAnnotationNames(match, element)) {
+			collect(typeAnnotationCategories.get(annotationName), type);
+			if (onMethodOrField) {
+				collect(memberAnnotationCategories.get(annotationName), type);
+			}
+		}
+	}
+
+	private void collect(final List<EnumElementCategory> categories, final IType type) {
+		if (categories == null) {
+			return;
+		}
+		for (EnumElementCategory category : categories) {
+			results.get(category).add(type);
+		}
+	}
+
+	/**
+	 * Retrieves the simple name of the annotation referenced in the given
+	 * {@link SearchMatch}, first by looking at the local element of the match,
+	 * then by reading the source code at the match location. If none of these
+	 * options succeeds, all known annotations on the given element are
+	 * returned.
+	 *
+	 * @param match
+	 *            the search match
+	 * @param element
+	 *            the element in which the match occurred
+	 * @return the simple name(s) of the referenced annotation(s)
+	 * @throws CoreException
+	 */
+	private Set<String> getReferencedAnnotationNames(final SearchMatch match, final IMember element)
+			throws CoreException {
+		final Set<String> annotationNames = new HashSet<String>();
+		if (match instanceof ReferenceMatch) {
+			final IJavaElement localElement = ((ReferenceMatch) match).getLocalElement();
+			if (localElement != null && localElement.getElementType() == IJavaElement.ANNOTATION) {
+				annotationNames.add(getSimpleName(localElement.getElementName()));
+				return annotationNames;
+			}
+		}
+		final ICompilationUnit compilationUnit = element.getCompilationUnit();
+		if (compilationUnit != null && match.getOffset() >= 0 && match.getLength() > 0) {
+			final IBuffer buffer = compilationUnit.getBuffer();
+			if (buffer != null && match.getOffset() + match.getLength() <= buffer.getLength()) {
+				final String simpleName = getSimpleName(buffer.getText(match.getOffset(), match.getLength()));
+				if (qualifiedNames.containsKey(simpleName)) {
+					annotationNames.add(simpleName);
+					return annotationNames;
+				}
+			}
+		}
+		if (element instanceof IAnnotatable) {
+			for (IAnnotation annotation : ((IAnnotatable) element).getAnnotations()) {
+				final String simpleName = getSimpleName(annotation.getElementName());
+				if (qualifiedNames.containsKey(simpleName)) {
+					annotationNames.add(simpleName);
+				}
+			}
+		}
+		return annotationNames;
+	}
+
+	/**
+	 * @param annotationName
+	 *            the simple or fully qualified annotation name
+	 * @return the simple name of the given annotation name
+	 */
+	private static String getSimpleName(final String annotationName) {
+		final String name = annotationName.trim();
+		final int lastDot = name.lastIndexOf('.');
+		final String simpleName = (lastDot == -1) ? name : name.substring(lastDot + 1);
+		if (simpleName.startsWith("@")) {
+			return simpleName.substring(1);
+		}
+		return simpleName;
+	}
+
+	/**
+	 * @param category
+	 *            the category of JAX-RS elements
+	 * @return the types collected for the given category, or an empty set if
+	 *         none was found.
+	 */
+	public Set<IType> getResult(final EnumElementCategory category) {
+		final Set<IType> types = results.get(category);
+		if (types == null) {
+			return new HashSet<IType>();
+		}
+		return types;
+	}
+
+	/**
+	 * @return all the collected types, indexed by category.
+	 */
+	public Map<EnumElementCategory, Set<IType>> getResults() {
+		return results;
+	}
+
+}
@@ -0,0 +1,292 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
+import org.apache.lucene.index.TermEnum;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+
+/**
+ * {@link IJaxrsIndexBackend} based on a Lucene {@link RAMDirectory}. Snapshots
+ * are backed by near-real-time {@link IndexReader}s, which are reopened only
+ * when the index changed.
+ * 
+ * @author xcoulon
+ * 
+ */
+public class LuceneIndexBackend implements IJaxrsIndexBackend {
+
+	/**
+	 * The identifiers of the documents of each segment, indexed by segment
+	 * core key. Entries are released along with their segment.
+	 */
+	private static final Map<Object, String[]> identifiersCache = new WeakHashMap<Object, String[]>();
+
+	private final Directory index;
+	private final IndexWriter indexWriter;
+	private IndexReader indexReader;
+	private LuceneIndexSnapshot snapshot;
+
+	/**
+	 * Constructor
+	 * 
+	 * @throws IOException
+	 */
+	public LuceneIndexBackend() throws IOException {
+		final StandardAnalyzer analyzer = new StandardAnalyzer(Version.LUCENE_35);
+		final IndexWriterConfig config = new IndexWriterConfig(Version.LUCENE_35, analyzer);
+		config.setMaxBufferedDeleteTerms(1);
+		index = new RAMDirectory();
+		indexWriter = new IndexWriter(index, config);
+		indexReader = IndexReader.open(indexWriter, true);
+		snapshot = new LuceneIndexSnapshot(new IndexSearcher(indexReader));
+	}
+
+	@Override
+	public void addDocument(final Document document) throws IOException {
+		indexWriter.addDocument(document);
+	}
+
+	@Override
+	public void updateDocument(final Term identifierTerm, final Document document) throws IOException {
+		indexWriter.updateDocument(identifierTerm, document);
+		Logger.debugIndexing("Writer.hasDeletions={}", indexWriter.hasDeletions());
+	}
+
+	@Override
+	public void deleteDocuments(final Term identifierTerm) throws IOException {
+		final BooleanQuery deleteQuery = new BooleanQuery();
+		deleteQuery.add(new BooleanClause(new TermQuery(identifierTerm), Occur.MUST));
+		deleteQuery.add(new BooleanClause(new TermQuery(LuceneDocumentFactory.getMarkerTypeTerm()), Occur.MUST_NOT));
+		indexWriter.deleteDocuments(deleteQuery);
+	}
+
+	@Override
+	public void deleteAll() throws IOException {
+		indexWriter.deleteAll();
+	}
+
+	@Override
+	public void commit() throws IOException {
+		indexWriter.commit();
+	}
+
+	@Override
+	public synchronized IJaxrsIndexSnapshot getSnapshot() throws IOException {
+		final IndexReader newIndexReader = IndexReader.openIfChanged(indexReader, indexWriter, true);
+		if (newIndexReader != null) {
+			this.indexReader = newIndexReader;
+			Logger.traceIndexing("Reopening IndexReader (current={} / hasDeletions={}) now containing {} documents",
+					indexReader.isCurrent(), indexReader.hasDeletions(), indexReader.numDocs());
+			this.snapshot = new LuceneIndexSnapshot(new IndexSearcher(indexReader));
+		}
+		return this.snapshot;
+	}
+
+	@Override
+	public void close() throws IOException {
+		indexWriter.close(true);
+		index.close();
+	}
+
+	/**
+	 * Join the given {@link Term}s using the {@link Occur#MUST} clause into a
+	 * {@link BooleanQuery}.
+	 * 
+	 * @param terms
+	 *            the search terms to join
+	 * @return the result query.
+	 */
+	public static BooleanQuery joinTerms(final Term... terms) {
+		final BooleanQuery query = new BooleanQuery();
+		if (terms != null) {
+			for (Term term : terms) {
+				query.add(new BooleanClause(new TermQuery(term), Occur.MUST));
+			}
+		}
+		return query;
+	}
+
+	/**
+	 * {@link IJaxrsIndexSnapshot} on an {@link IndexSearcher}.
+	 */
+	static class LuceneIndexSnapshot implements IJaxrsIndexSnapshot {
+
+		private final IndexSearcher searcher;
+
+		LuceneIndexSnapshot(final IndexSearcher searcher) {
+			this.searcher = searcher;
+		}
+
+		@Override
+		public String searchIdentifier(final Term... terms) throws IOException {
+			traceIndexReader();
+			final BooleanQuery query = joinTerms(terms);
+			Logger.traceIndexing("Searching single document matching {}", query.toString());
+			final IdentifiersCollector collector = new IdentifiersCollector(1);
+			searcher.search(query, collector);
+			final Set<String> results = collector.getResults();
+			return results.isEmpty() ? null : results.iterator().next();
+		}
+
+		@Override
+		public Set<String> searchIdentifiers(final Term... terms) throws IOException {
+			traceIndexReader();
+			final BooleanQuery query = joinTerms(terms);
+			Logger.traceIndexing("Searching documents matching {}", query.toString());
+			final IdentifiersCollector collector = new IdentifiersCollector(Integer.MAX_VALUE);
+			searcher.search(query, collector);
+			return collector.getResults();
+		}
+
+		@Override
+		public int count(final Term... terms) throws IOException {
+			traceIndexReader();
+			final BooleanQuery query = joinTerms(terms);
+			final TotalHitCountCollector collector = new TotalHitCountCollector();
+			Logger.traceIndexing("Counting documents matching {}...", query.toString());
+			searcher.search(query, collector);
+			return collector.getTotalHits();
+		}
+
+		@Override
+		public int numDocs() {
+			return searcher.getIndexReader().numDocs();
+		}
+
+		private void traceIndexReader() throws IOException {
+			final IndexReader reader = searcher.getIndexReader();
+			Logger.traceIndexing("Using IndexReader (current={} / hasDeletions={}) containing {} documents",
+					reader.isCurrent(), reader.hasDeletions(), reader.numDocs());
+		}
+	}
+
+	/**
+	 * Returns the identifiers (without their type prefix) of all documents in
+	 * the given segment reader, indexed by document number. The identifiers are
+	 * read from the {@link LuceneFields#FIELD_IDENTIFIER} terms rather than
+	 * from the stored documents, and are computed once per segment, since the
+	 * documents of a segment never change (only their deletion status does).
+	 * 
+	 * @param segmentReader
+	 *            the segment reader
+	 * @return the document identifiers, with {@code null} values for the
+	 *         documents without identifier.
+	 * @throws IOException
+	 */
+	static String[] getIdentifiers(final IndexReader segmentReader) throws IOException {
+		final Object cacheKey = segmentReader.getCoreCacheKey();
+		synchronized (identifiersCache) {
+			final String[] identifiers = identifiersCache.get(cacheKey);
+			if (identifiers != null) {
+				return identifiers;
+			}
+		}
+		final String[] identifiers = new String[segmentReader.maxDoc()];
+		final TermEnum termEnum = segmentReader.terms(new Term(LuceneFields.FIELD_IDENTIFIER, ""));
+		final TermDocs termDocs = segmentReader.termDocs();
+		try {
+			do {
+				final Term term = termEnum.term();
+				if (term == null || !LuceneFields.FIELD_IDENTIFIER.equals(term.field())) {
+					break;
+				}
+				final String identifier = IndexedObjectType.removePrefix(term.text());
+				termDocs.seek(termEnum);
+				while (termDocs.next()) {
+					identifiers[termDocs.doc()] = identifier;
+				}
+			} while (termEnum.next());
+		} finally {
+			termDocs.close();
+			termEnum.close();
+		}
+		synchronized (identifiersCache) {
+			identifiersCache.put(cacheKey, identifiers);
+		}
+		return identifiers;
+	}
+
+	/**
+	 * Collects the identifiers of the matching {@link Document}s in a
+	 * {@link Set} to avoid duplicate results. The identifiers are retrieved
+	 * from the per-segment cache of identifiers, without loading the stored
+	 * documents.
+	 */
+	static class IdentifiersCollector extends Collector {
+
+		/** The maximum number of results to collect. */
+		private final int maxResults;
+
+		/** The identifiers of the documents in the current segment. */
+		private String[] identifiers;
+
+		private final Set<String> results = new LinkedHashSet<String>();
+
+		IdentifiersCollector(final int maxResults) {
+			this.maxResults = maxResults;
+		}
+
+		@Override
+		public void setScorer(Scorer scorer) throws IOException {
+		}
+
+		@Override
+		public void setNextReader(IndexReader indexReader, int docBase) throws IOException {
+			this.identifiers = getIdentifiers(indexReader);
+		}
+
+		/**
+		 * Documents are collected in order, so that a search limited to a
+		 * single result returns the first matching document in the index.
+		 */
+		@Override
+		public boolean acceptsDocsOutOfOrder() {
+			return false;
+		}
+
+		@Override
+		public void collect(int docId) throws IOException {
+			if (results.size() < maxResults && identifiers[docId] != null) {
+				results.add(identifiers[docId]);
+			}
+		}
+
+		public Set<String> getResults() {
+			return Collections.unmodifiableSet(results);
+		}
+	}
+
+}
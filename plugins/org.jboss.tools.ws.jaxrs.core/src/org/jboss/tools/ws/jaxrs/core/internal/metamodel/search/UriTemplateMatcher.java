@@ -0,0 +1,534 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+
+/**
+ * Precompiled structure to match concrete request paths against a set of JAX-RS
+ * URI Path Templates (eg: {@code /api/customers/{id}/orders/{orderId: \d+}}).
+ *
+ * Templates are stored in a trie of path segments:
+ * <ul>
+ * <li>literal segments are matched with a single map lookup,</li>
+ * <li>segments containing template parameters with the default regexp
+ * ({@code [^/]+}) are matched with a compiled pattern for the segment only,</li>
+ * <li>the remainder of a template, starting at the first segment with a custom
+ * regexp, is compiled as a single pattern since a custom regexp may span
+ * multiple segments.</li>
+ * </ul>
+ * When a request path matches multiple templates, the results are sorted by
+ * JAX-RS precedence: templates with the most literal characters first, then
+ * with the most template parameters, then with the most template parameters
+ * having a custom regexp.
+ *
+ * This class is thread-safe.
+ *
+ * @author xcoulon
+ *
+ * @param <T>
+ *            the type of values associated with the templates
+ */
+public class UriTemplateMatcher<T> {
+
+	/** The default regexp for template parameters. */
+	private static final String DEFAULT_PARAM_REGEX = "[^/]+";
+
+	/** Sorts the matches by JAX-RS precedence. */
+	@SuppressWarnings("rawtypes")
+	private static final Comparator<Entry> PRECEDENCE = new Comparator<Entry>() {
+		@Override
+		public int compare(final Entry entry, final Entry otherEntry) {
+			if (entry.literalCharacters != otherEntry.literalCharacters) {
+				return otherEntry.literalCharacters - entry.literalCharacters;
+			}
+			if (entry.parameters != otherEntry.parameters) {
+				return otherEntry.parameters - entry.parameters;
+			}
+			if (entry.regexParameters != otherEntry.regexParameters) {
+				return otherEntry.regexParameters - entry.regexParameters;
+			}
+			return entry.template.compareTo(otherEntry.template);
+		}
+	};
+
+	/** The root of the trie. */
+	private final Node<T> root = new Node<T>();
+
+	/** The entries indexed by value, to support updates and removals. */
+	private final Map<T, Entry<T>> entries = new HashMap<T, Entry<T>>();
+
+	private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Adds the given URI Path Template associated with the given value, or
+	 * replaces the template previously associated with this value.
+	 *
+	 * @param template
+	 *            the URI Path Template
+	 * @param value
+	 *            the associated value
+	 */
+	public void add(final String template, final T value) {
+		if (template == null || value == null) {
+			return;
+		}
+		readWriteLock.writeLock().lock();
+		try {
+			final Entry<T> previousEntry = entries.get(value);
+			if (previousEntry != null) {
+				if (previousEntry.template.equals(template)) {
+					return;
+				}
+				unlink(previousEntry);
+				entries.remove(value);
+			}
+			final Entry<T> entry = compile(template, value);
+			if (entry != null) {
+				entries.put(value, entry);
+			}
+		} finally {
+			readWriteLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the template associated with the given value.
+	 *
+	 * @param value
+	 *            the value
+	 */
+	public void remove(final T value) {
+		readWriteLock.writeLock().lock();
+		try {
+			final Entry<T> entry = entries.remove(value);
+			if (entry != null) {
+				unlink(entry);
+			}
+		} finally {
+			readWriteLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all templates.
+	 */
+	public void clear() {
+		readWriteLock.writeLock().lock();
+		try {
+			entries.clear();
+			root.clear();
+		} finally {
+			readWriteLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of templates in this matcher.
+	 */
+	public int size() {
+		readWriteLock.readLock().lock();
+		try {
+			return entries.size();
+		} finally {
+			readWriteLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the values whose template matches the given request path. The
+	 * query string and the matrix parameters of the given path are ignored.
+	 *
+	 * @param requestPath
+	 *            the concrete request path (eg: {@code /api/customers/1})
+	 * @return the matching values, sorted by JAX-RS precedence, or an empty
+	 *         list if there is no match.
+	 */
+	public List<T> match(final String requestPath) {
+		if (requestPath == null) {
+			return Collections.emptyList();
+		}
+		final String[] segments = splitRequestPath(requestPath);
+		final List<Entry<T>> matches = new ArrayList<Entry<T>>();
+		readWriteLock.readLock().lock();
+		try {
+			collectMatches(root, segments, 0, matches);
+		} finally {
+			readWriteLock.readLock().unlock();
+		}
+		Collections.sort(matches, PRECEDENCE);
+		final List<T> values = new ArrayList<T>(matches.size());
+		for (Entry<T> match : matches) {
+			values.add(match.value);
+		}
+		return values;
+	}
+
+	private void collectMatches(final Node<T> node, final String[] segments, final int index,
+			final List<Entry<T>> matches) {
+		for (Entry<T> tail : node.tails) {
+			if (tail.tailPattern.matcher(join(segments, index)).matches()) {
+				matches.add(tail);
+			}
+		}
+		if (index == segments.length) {
+			matches.addAll(node.values);
+			return;
+		}
+		final String segment = segments[index];
+		final Node<T> literalChild = node.literalChildren.get(segment);
+		if (literalChild != null) {
+			collectMatches(literalChild, segments, index + 1, matches);
+		}
+		for (Node<T> parameterChild : node.parameterChildren.values()) {
+			if (parameterChild.segmentPattern.matcher(segment).matches()) {
+				collectMatches(parameterChild, segments, index + 1, matches);
+			}
+		}
+	}
+
+	/**
+	 * Parses the given template and links a new entry into the trie. The trie
+	 * is left untouched if the template is not valid.
+	 *
+	 * @return the new entry, or {@code null} if the template is not valid.
+	 */
+	private Entry<T> compile(final String template, final T value) {
+		final List<String> templateSegments = splitTemplate(template);
+		final List<Segment> segments = new ArrayList<Segment>(templateSegments.size());
+		final Entry<T> entry = new Entry<T>(template, value);
+		int tailIndex = -1;
+		for (String templateSegment : templateSegments) {
+			final Segment segment = parseSegment(templateSegment);
+			if (segment == null) {
+				return null;
+			}
+			entry.literalCharacters += segment.literalCharacters + 1;
+			entry.parameters += segment.parameters;
+			entry.regexParameters += segment.regexParameters;
+			if (tailIndex == -1 && segment.regexParameters > 0) {
+				tailIndex = segments.size();
+			}
+			segments.add(segment);
+		}
+		if (tailIndex != -1) {
+			// custom regexps may span multiple segments: compile the remainder of the template as a whole
+			final StringBuilder tailRegex = new StringBuilder(segments.get(tailIndex).regex);
+			for (int i = tailIndex + 1; i < segments.size(); i++) {
+				tailRegex.append('/').append(segments.get(i).regex);
+			}
+			try {
+				entry.tailPattern = Pattern.compile(tailRegex.toString());
+			} catch (PatternSyntaxException e) {
+				Logger.debug("Ignoring URI Path Template with invalid regexp: {}", template);
+				return null;
+			}
+		}
+		final int depth = tailIndex == -1 ? segments.size() : tailIndex;
+		Node<T> node = root;
+		for (int i = 0; i < depth; i++) {
+			final Segment segment = segments.get(i);
+			if (segment.parameters == 0) {
+				Node<T> child = node.literalChildren.get(segment.literal);
+				if (child == null) {
+					child = new Node<T>(node, segment.literal);
+					node.literalChildren.put(segment.literal, child);
+				}
+				node = child;
+			} else {
+				Node<T> child = node.parameterChildren.get(segment.regex);
+				if (child == null) {
+					child = new Node<T>(node, segment.regex);
+					child.segmentPattern = Pattern.compile(segment.regex);
+					node.parameterChildren.put(segment.regex, child);
+				}
+				node = child;
+			}
+		}
+		entry.node = node;
+		if (entry.tailPattern != null) {
+			node.tails.add(entry);
+		} else {
+			node.values.add(entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes the given entry from the trie, along with the nodes that do not
+	 * lead to any other entry.
+	 */
+	private static <T> void unlink(final Entry<T> entry) {
+		Node<T> node = entry.node;
+		if (entry.tailPattern != null) {
+			node.tails.remove(entry);
+		} else {
+			node.values.remove(entry);
+		}
+		while (node.parent != null && node.isEmpty()) {
+			if (node.segmentPattern == null) {
+				node.parent.literalChildren.remove(node.key);
+			} else {
+				node.parent.parameterChildren.remove(node.key);
+			}
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * @return the number of nodes in the trie, including its root.
+	 */
+	int getNodeCount() {
+		readWriteLock.readLock().lock();
+		try {
+			return root.count();
+		} finally {
+			readWriteLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Splits the given template into segments, ignoring the slashes within
+	 * curly brackets (which may be part of a regexp), the empty segments and
+	 * the query string.
+	 */
+	static List<String> splitTemplate(final String template) {
+		final List<String> segments = new ArrayList<String>();
+		final StringBuilder segment = new StringBuilder();
+		int depth = 0;
+		for (int i = 0; i < template.length(); i++) {
+			final char c = template.charAt(i);
+			if (depth == 0 && c == '?') {
+				break;
+			} else if (depth == 0 && c == '/') {
+				if (segment.length() > 0) {
+					segments.add(segment.toString());
+					segment.setLength(0);
+				}
+				continue;
+			} else if (c == '{') {
+				depth++;
+			} else if (c == '}') {
+				depth--;
+			}
+			segment.append(c);
+		}
+		if (segment.length() > 0) {
+			segments.add(segment.toString());
+		}
+		return segments;
+	}
+
+	/**
+	 * Splits the given request path into segments, ignoring the empty
+	 * segments, the matrix parameters and the query string.
+	 */
+	static String[] splitRequestPath(final String requestPath) {
+		String path = requestPath;
+		final int queryIndex = path.indexOf('?');
+		if (queryIndex >= 0) {
+			path = path.substring(0, queryIndex);
+		}
+		final List<String> segments = new ArrayList<String>();
+		for (String segment : path.split("/")) {
+			final int matrixIndex = segment.indexOf(';');
+			if (matrixIndex >= 0) {
+				segment = segment.substring(0, matrixIndex);
+			}
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		return segments.toArray(new String[segments.size()]);
+	}
+
+	private static String join(final String[] segments, final int fromIndex) {
+		if (fromIndex >= segments.length) {
+			return "";
+		}
+		final StringBuilder builder = new StringBuilder(segments[fromIndex]);
+		for (int i = fromIndex + 1; i < segments.length; i++) {
+			builder.append('/').append(segments[i]);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Parses a single template segment into its regexp, counting its literal
+	 * characters and template parameters.
+	 *
+	 * @return the parsed segment or {@code null} if the segment is invalid (eg:
+	 *         missing closing bracket).
+	 */
+	static Segment parseSegment(final String templateSegment) {
+		final Segment segment = new Segment();
+		final StringBuilder regex = new StringBuilder();
+		int index = 0;
+		while (index < templateSegment.length()) {
+			final int beginIndex = templateSegment.indexOf('{', index);
+			if (beginIndex == -1) {
+				appendLiteral(segment, regex, templateSegment.substring(index));
+				break;
+			}
+			appendLiteral(segment, regex, templateSegment.substring(index, beginIndex));
+			// find the matching closing bracket (regexps may contain brackets, too)
+			int depth = 0;
+			int endIndex = -1;
+			for (int i = beginIndex; i < templateSegment.length(); i++) {
+				if (templateSegment.charAt(i) == '{') {
+					depth++;
+				} else if (templateSegment.charAt(i) == '}' && --depth == 0) {
+					endIndex = i;
+					break;
+				}
+			}
+			if (endIndex == -1) {
+				return null;
+			}
+			final String parameter = templateSegment.substring(beginIndex + 1, endIndex);
+			final int colonIndex = parameter.indexOf(':');
+			segment.parameters++;
+			if (colonIndex >= 0 && !parameter.substring(colonIndex + 1).trim().isEmpty()) {
+				segment.regexParameters++;
+				regex.append('(').append(parameter.substring(colonIndex + 1).trim()).append(')');
+			} else {
+				regex.append('(').append(DEFAULT_PARAM_REGEX).append(')');
+			}
+			index = endIndex + 1;
+		}
+		segment.regex = regex.toString();
+		if (segment.parameters == 0) {
+			segment.literal = templateSegment;
+		}
+		return segment;
+	}
+
+	private static void appendLiteral(final Segment segment, final StringBuilder regex, final String literal) {
+		if (!literal.isEmpty()) {
+			segment.literalCharacters += literal.length();
+			regex.append(Pattern.quote(literal));
+		}
+	}
+
+	/**
+	 * A parsed template segment.
+	 */
+	static class Segment {
+
+		/** The segment value if it has no template parameter, {@code null} otherwise. */
+		String literal;
+
+		/** The regexp to match the segment. */
+		String regex;
+
+		int literalCharacters;
+
+		int parameters;
+
+		int regexParameters;
+	}
+
+	/**
+	 * A node in the trie.
+	 */
+	private static class Node<T> {
+
+		/** The parent node, {@code null} for the root of the trie. */
+		final Node<T> parent;
+
+		/** The key of this node in its parent's children. */
+		final String key;
+
+		/** The children for literal segments, indexed by segment value. */
+		final Map<String, Node<T>> literalChildren = new HashMap<String, Node<T>>();
+
+		/** The children for segments with template parameters, indexed by segment regexp. */
+		final Map<String, Node<T>> parameterChildren = new HashMap<String, Node<T>>();
+
+		/** The pattern of the segment leading to this node, if it has template parameters. */
+		Pattern segmentPattern;
+
+		/** The entries whose template ends at this node. */
+		final List<Entry<T>> values = new ArrayList<Entry<T>>();
+
+		/** The entries whose remaining template is matched by a single pattern. */
+		final List<Entry<T>> tails = new ArrayList<Entry<T>>();
+
+		Node() {
+			this(null, null);
+		}
+
+		Node(final Node<T> parent, final String key) {
+			this.parent = parent;
+			this.key = key;
+		}
+
+		boolean isEmpty() {
+			return values.isEmpty() && tails.isEmpty() && literalChildren.isEmpty() && parameterChildren.isEmpty();
+		}
+
+		int count() {
+			int count = 1;
+			for (Node<T> child : literalChildren.values()) {
+				count += child.count();
+			}
+			for (Node<T> child : parameterChildren.values()) {
+				count += child.count();
+			}
+			return count;
+		}
+
+		void clear() {
+			literalChildren.clear();
+			parameterChildren.clear();
+			values.clear();
+			tails.clear();
+		}
+	}
+
+	/**
+	 * A template with its associated value.
+	 */
+	private static class Entry<T> {
+
+		final String template;
+
+		final T value;
+
+		/** The node holding this entry. */
+		Node<T> node;
+
+		/** The pattern for the remainder of the template, if it contains a custom regexp. */
+		Pattern tailPattern;
+
+		int literalCharacters;
+
+		int parameters;
+
+		int regexParameters;
+
+		Entry(final String template, final T value) {
+			this.template = template;
+			this.value = value;
+		}
+	}
+
+}
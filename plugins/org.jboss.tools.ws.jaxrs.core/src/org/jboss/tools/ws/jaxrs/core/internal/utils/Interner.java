@@ -0,0 +1,67 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A thread-safe canonicalizer which returns a single shared instance for all
+ * equal values it is given. Values are only weakly referenced, so that
+ * instances which are no longer used elsewhere can be reclaimed by the garbage
+ * collector. Unlike {@link String#intern()}, the interned instances live in
+ * the regular heap.
+ *
+ * @author xcoulon
+ *
+ * @param <T>
+ *            the type of values (which must be immutable)
+ */
+public class Interner<T> {
+
+	/** The canonical instances, indexed by themselves. */
+	private final Map<T, WeakReference<T>> instances = new WeakHashMap<T, WeakReference<T>>();
+
+	/**
+	 * Returns the canonical instance that is equal to the given value, or the
+	 * value itself if it is the first of its kind.
+	 *
+	 * @param value
+	 *            the value to intern (may be {@code null})
+	 * @return the canonical instance, or {@code null} if the given value was
+	 *         {@code null}
+	 */
+	public T intern(final T value) {
+		if (value == null) {
+			return null;
+		}
+		synchronized (instances) {
+			final WeakReference<T> reference = instances.get(value);
+			final T instance = (reference != null) ? reference.get() : null;
+			if (instance != null) {
+				return instance;
+			}
+			instances.put(value, new WeakReference<T>(value));
+			return value;
+		}
+	}
+
+	/**
+	 * @return the number of canonical instances currently held.
+	 */
+	public int size() {
+		synchronized (instances) {
+			return instances.size();
+		}
+	}
+
+}
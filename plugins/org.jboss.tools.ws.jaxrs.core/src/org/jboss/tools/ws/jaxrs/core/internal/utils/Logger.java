@@ -252,8 +252,7 @@ public final class Logger {
 		try {
 			if (isOptionEnabled(level)) {
 				final String valuedMessage = getMessage(message, items);
-				final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-				final StackTraceElement caller = stackTrace[stackTrace.length - 2];
+				final StackTraceElement caller = getCaller();
 				System.out.println(dateFormatter.get().format(new Date()) + " [" + Thread.currentThread().getName()
 						+ "] [" + caller.getClassName() + "." + caller.getMethodName() + ":" + caller.getLineNumber() +"] " + toLevel(level) + " " + valuedMessage);
 			}
@@ -270,15 +269,37 @@ public final class Logger {
 	 * @param items the items to substitute in the template
 	 * @return the actual message to print in the console
 	 */
-	private static String getMessage(final String message, final Object... items) {
-		String valuedMessage = message;
-		if (items != null) {
-			for (Object item : items) {
-				valuedMessage = valuedMessage.replaceFirst("\\{\\}", (item != null ? item.toString()
-						.replaceAll("\\$", ".") : "null"));
+	static String getMessage(final String message, final Object... items) {
+		if (items == null || items.length == 0) {
+			return message;
+		}
+		final StringBuilder valuedMessage = new StringBuilder(message.length() + 16 * items.length);
+		int index = 0;
+		int itemIndex = 0;
+		while (true) {
+			final int placeholderIndex = message.indexOf("{}", index);
+			if (placeholderIndex < 0 || itemIndex >= items.length) {
+				break;
 			}
+			final Object item = items[itemIndex++];
+			valuedMessage.append(message, index, placeholderIndex).append(
+					item != null ? item.toString().replace('$', '.') : "null");
+			index = placeholderIndex + 2;
 		}
-		return valuedMessage;
+		return valuedMessage.append(message, index, message.length()).toString();
+	}
+
+	/**
+	 * @return the stack trace element of the method which called this logger.
+	 */
+	private static StackTraceElement getCaller() {
+		final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+		for (StackTraceElement element : stackTrace) {
+			if (!element.getClassName().equals(Logger.class.getName())) {
+				return element;
+			}
+		}
+		return stackTrace[stackTrace.length - 1];
 	}
 
 	private static String toLevel(final String level) {
@@ -300,6 +321,9 @@ public final class Logger {
 		if(level.equals(TRACE_PERF)) {
 			return "TRACE_PERF";
 		}
+		if(level.equals(TRACE_INDEXING_PERF)) {
+			return "TRACE_INDEXING_PERF";
+		}
 		return "UNKNOWN_LEVEL";
 	}
 
@@ -0,0 +1,268 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.utils;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * A thread-safe cache with a maximum number of entries, which evicts the
+ * least recently used entry when this maximum is reached. Values can
+ * optionally be held through {@link SoftReference}s, so that the garbage
+ * collector can reclaim them under memory pressure before the cache is full.
+ * A value that was reclaimed this way is reported as a miss (and counted as an
+ * eviction).
+ *
+ * @author xcoulon
+ *
+ * @param <K>
+ *            the type of keys
+ * @param <V>
+ *            the type of values
+ */
+public class LruCache<K, V> {
+
+	/** The underlying map, in access order. */
+	private final LinkedHashMap<K, ValueHolder<V>> entries;
+
+	/** The maximum number of entries in this cache. */
+	private final int maxSize;
+
+	/** Whether the values are softly referenced or not. */
+	private final boolean softValues;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	private long evictions = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSize
+	 *            the maximum number of entries in this cache
+	 * @param softValues
+	 *            {@code true} if the values should be softly referenced,
+	 *            {@code false} if they should be strongly referenced
+	 */
+	public LruCache(final int maxSize, final boolean softValues) {
+		this.maxSize = maxSize;
+		this.softValues = softValues;
+		this.entries = new LinkedHashMap<K, ValueHolder<V>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Entry<K, ValueHolder<V>> eldest) {
+				if (size() > LruCache.this.maxSize) {
+					evictions++;
+					notifyRemoval(eldest.getKey(), eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @param key
+	 *            the key
+	 * @return the value associated with the given key, or {@code null} if
+	 *         there is none (or if it was reclaimed by the garbage collector)
+	 */
+	public synchronized V get(final K key) {
+		final ValueHolder<V> holder = entries.get(key);
+		if (holder == null) {
+			misses++;
+			return null;
+		}
+		final V value = holder.get();
+		if (value == null) {
+			entries.remove(key);
+			evictions++;
+			misses++;
+			return null;
+		}
+		hits++;
+		return value;
+	}
+
+	/**
+	 * @param key
+	 *            the key
+	 * @return {@code true} if this cache contains a value for the given key,
+	 *         {@code false} otherwise. This method does not change the
+	 *         recency of the entry, nor the hit/miss counters.
+	 */
+	public synchronized boolean containsKey(final K key) {
+		final ValueHolder<V> holder = entries.get(key);
+		return holder != null && holder.get() != null;
+	}
+
+	/**
+	 * Associates the given value with the given key, possibly evicting the
+	 * least recently used entry.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	public synchronized void put(final K key, final V value) {
+		if (value == null) {
+			remove(key);
+			return;
+		}
+		final ValueHolder<V> previousHolder = entries.put(key, softValues ? new SoftValueHolder<V>(value)
+				: new StrongValueHolder<V>(value));
+		if (previousHolder != null && previousHolder.get() != value) {
+			notifyRemoval(key, previousHolder);
+		}
+	}
+
+	/**
+	 * Removes the entry associated with the given key.
+	 *
+	 * @param key
+	 *            the key
+	 */
+	public synchronized void remove(final K key) {
+		final ValueHolder<V> holder = entries.remove(key);
+		if (holder != null) {
+			notifyRemoval(key, holder);
+		}
+	}
+
+	/**
+	 * @return a copy of the keys of this cache, least recently used first.
+	 *         This method does not change the recency of the entries.
+	 */
+	public synchronized List<K> keys() {
+		return new ArrayList<K>(entries.keySet());
+	}
+
+	/**
+	 * Removes all entries from this cache. The counters are left unchanged.
+	 */
+	public synchronized void clear() {
+		for (Entry<K, ValueHolder<V>> entry : entries.entrySet()) {
+			notifyRemoval(entry.getKey(), entry.getValue());
+		}
+		entries.clear();
+	}
+
+	private void notifyRemoval(final K key, final ValueHolder<V> holder) {
+		final V value = holder.get();
+		if (value != null) {
+			entryRemoved(key, value);
+		}
+	}
+
+	/**
+	 * Called (with the lock on this cache held) when a value is evicted,
+	 * replaced or removed from this cache, unless it was already reclaimed by
+	 * the garbage collector. Does nothing by default: subclasses may override
+	 * this method to release the resources held by the value.
+	 * 
+	 * @param key
+	 *            the key of the removed entry
+	 * @param value
+	 *            the removed value
+	 */
+	protected void entryRemoved(final K key, final V value) {
+	}
+
+	/**
+	 * @return the current number of entries in this cache (including the ones
+	 *         whose value may have been reclaimed by the garbage collector)
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/** @return the maximum number of entries in this cache. */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** @return the number of successful lookups. */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/** @return the number of unsuccessful lookups. */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the number of entries that were evicted because the cache was
+	 *         full or because their value was reclaimed by the garbage
+	 *         collector.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "LruCache [size=" + entries.size() + "/" + maxSize + ", hits=" + hits + ", misses=" + misses
+				+ ", evictions=" + evictions + "]";
+	}
+
+	/**
+	 * Holds a value in the cache.
+	 */
+	private static abstract class ValueHolder<T> {
+
+		/** @return the value, or {@code null} if it was reclaimed by the garbage collector. */
+		abstract T get();
+	}
+
+	/**
+	 * Holds a value through a strong reference.
+	 */
+	private static class StrongValueHolder<T> extends ValueHolder<T> {
+
+		private final T value;
+
+		StrongValueHolder(final T value) {
+			this.value = value;
+		}
+
+		@Override
+		T get() {
+			return value;
+		}
+	}
+
+	/**
+	 * Holds a value through a {@link SoftReference}.
+	 */
+	private static class SoftValueHolder<T> extends ValueHolder<T> {
+
+		private final SoftReference<T> reference;
+
+		SoftValueHolder(final T value) {
+			this.reference = new SoftReference<T>(value);
+		}
+
+		@Override
+		T get() {
+			return reference.get();
+		}
+	}
+
+}
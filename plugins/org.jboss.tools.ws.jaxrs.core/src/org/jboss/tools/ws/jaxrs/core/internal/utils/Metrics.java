@@ -0,0 +1,551 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
+
+/**
+ * In-process registry of the performance metrics of the JAX-RS tooling:
+ * counters, histograms and timers for the build jobs, the index operations,
+ * the searches, the parses, the validations and the listener dispatches.
+ * <p>
+ * Collection is disabled by default, in which case recording a value is a
+ * single volatile read. It can be enabled with the
+ * {@code org.jboss.tools.ws.jaxrs.core/metrics} tracing option, with the
+ * {@code -Dorg.jboss.tools.ws.jaxrs.metrics=true} system property or with
+ * {@link #setEnabled(boolean)}. Recording a value never allocates, so that
+ * metrics can be collected in a production IDE, and then exported in JSON or
+ * CSV with {@link #export(Writer, Format)}.
+ * </p>
+ * Timers are used as follows:
+ *
+ * <pre>
+ * final long start = Metrics.start();
+ * try {
+ * 	...
+ * } finally {
+ * 	Metrics.SOME_TIMER.stop(start);
+ * }
+ * </pre>
+ *
+ * @author xcoulon
+ *
+ */
+public final class Metrics {
+
+	/** The 'metrics' tracing option name, matching the .options file. */
+	public static final String OPTION = JBossJaxrsCorePlugin.PLUGIN_ID + "/metrics";
+
+	/** The system property to enable the metrics collection at startup. */
+	public static final String SYSTEM_PROPERTY = "org.jboss.tools.ws.jaxrs.metrics";
+
+	/** The supported export formats. */
+	public enum Format {
+		JSON, CSV;
+	}
+
+	/** All metrics, in the order of their registration. */
+	private static final List<Metric> registry = new CopyOnWriteArrayList<Metric>();
+
+	private static volatile boolean enabled = Boolean.getBoolean(SYSTEM_PROPERTY);
+
+	/** Duration of the Java element changes build jobs. */
+	public static final Timer JAVA_ELEMENT_CHANGED_BUILD_JOB = timer("build.javaElementChangedJob");
+
+	/** Duration of the resource changes build jobs. */
+	public static final Timer RESOURCE_CHANGED_BUILD_JOB = timer("build.resourceChangedJob");
+
+	/** Number of Java element changes processed per build job, after coalescing. */
+	public static final Histogram BUILD_JOB_CHANGES = histogram("build.changesPerJob");
+
+	/** Duration of the (re)build of a whole project. */
+	public static final Timer PROJECT_BUILD = timer("build.project");
+
+	/** Duration of the processing of the web deployment descriptor changes. */
+	public static final Timer WEBXML_CHANGE = timer("build.webxmlChange");
+
+	/** Duration of the processing of a JAX-RS element change. */
+	public static final Timer ELEMENT_CHANGE = timer("build.elementChange");
+
+	/** Duration of the creation of a JAX-RS element from its Java element. */
+	public static final Timer ELEMENT_CREATION = timer("build.elementCreation");
+
+	/** Duration of the creation of a JAX-RS endpoint. */
+	public static final Timer ENDPOINT_CREATION = timer("build.endpointCreation");
+
+	/** Duration of the save of a metamodel snapshot. */
+	public static final Timer SNAPSHOT_SAVE = timer("build.snapshotSave");
+
+	/** Duration of the indexation of a JAX-RS element. */
+	public static final Timer INDEX_ELEMENT = timer("index.element");
+
+	/** Duration of a commit in the JAX-RS index. */
+	public static final Timer INDEX_COMMIT = timer("index.commit");
+
+	/** Duration of a search in the JAX-RS index. */
+	public static final Timer INDEX_SEARCH = timer("index.search");
+
+	/** Duration of a search with the JDT search engine. */
+	public static final Timer JAVA_SEARCH = timer("search.java");
+
+	/** Duration of a type hierarchy lookup. */
+	public static final Timer TYPE_HIERARCHY = timer("search.typeHierarchy");
+
+	/** Duration of the parsing of a single compilation unit. */
+	public static final Timer AST_PARSE = timer("parse.ast");
+
+	/** Duration of the parsing of a batch of compilation units. */
+	public static final Timer AST_BATCH_PARSE = timer("parse.astBatch");
+
+	/** Number of compilation units parsed, alone or in batches. */
+	public static final Counter PARSED_ASTS = counter("parse.parsedASTs");
+
+	/** Number of ASTs served from the cache instead of being parsed. */
+	public static final Counter REUSED_ASTS = counter("parse.reusedASTs");
+
+	/** Duration of the parsing of a web deployment descriptor. */
+	public static final Timer WEBXML_PARSE = timer("parse.webxml");
+
+	/** Duration of the validation of a JAX-RS metamodel. */
+	public static final Timer VALIDATION = timer("validation.metamodel");
+
+	/** Latency of the delivery of the metamodel changes to a listener. */
+	public static final Timer LISTENER_DISPATCH = timer("dispatch.listener");
+
+	/** Number of listeners which failed to process a notification. */
+	public static final Counter LISTENER_FAILURES = counter("dispatch.failures");
+
+	/**
+	 * The private constructor of the static class.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * Registers a new {@link Counter}.
+	 *
+	 * @param name
+	 *            the metric name
+	 * @return the counter
+	 */
+	public static Counter counter(final String name) {
+		return register(new Counter(name));
+	}
+
+	/**
+	 * Registers a new {@link Histogram}.
+	 *
+	 * @param name
+	 *            the metric name
+	 * @return the histogram
+	 */
+	public static Histogram histogram(final String name) {
+		return register(new Histogram(name));
+	}
+
+	/**
+	 * Registers a new {@link Timer}.
+	 *
+	 * @param name
+	 *            the metric name
+	 * @return the timer
+	 */
+	public static Timer timer(final String name) {
+		return register(new Timer(name));
+	}
+
+	private static <T extends Metric> T register(final T metric) {
+		registry.add(metric);
+		return metric;
+	}
+
+	/**
+	 * @return {@code true} if the metrics are being collected, {@code false}
+	 *         otherwise.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the metrics collection. The values collected so far
+	 * are kept.
+	 *
+	 * @param enabled
+	 *            the new collection status
+	 */
+	public static void setEnabled(final boolean enabled) {
+		Metrics.enabled = enabled;
+	}
+
+	/**
+	 * Resets all metrics.
+	 */
+	public static void reset() {
+		for (Metric metric : registry) {
+			metric.reset();
+		}
+	}
+
+	/**
+	 * @return all the registered metrics, in the order of their registration.
+	 */
+	public static List<Metric> getMetrics() {
+		return Collections.unmodifiableList(new ArrayList<Metric>(registry));
+	}
+
+	/**
+	 * @return the start time to pass to {@link Timer#stop(long)}, or {@code 0}
+	 *         if the metrics collection is disabled.
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Writes all metrics in the given format.
+	 *
+	 * @param writer
+	 *            the target writer
+	 * @param format
+	 *            the output format
+	 * @throws IOException
+	 */
+	public static void export(final Writer writer, final Format format) throws IOException {
+		final List<Metric> metrics = getMetrics();
+		if (format == Format.CSV) {
+			writer.write("name,type,unit,count,total,min,mean,max,p50,p90,p99\n");
+			for (Metric metric : metrics) {
+				writer.write(metric.toCSV());
+				writer.write('\n');
+			}
+		} else {
+			writer.write("{\n  \"enabled\": " + enabled + ",\n  \"timestamp\": " + System.currentTimeMillis()
+					+ ",\n  \"metrics\": [");
+			for (int i = 0; i < metrics.size(); i++) {
+				writer.write(i == 0 ? "\n    " : ",\n    ");
+				writer.write(metrics.get(i).toJSON());
+			}
+			writer.write("\n  ]\n}\n");
+		}
+		writer.flush();
+	}
+
+	/**
+	 * @param format
+	 *            the output format
+	 * @return all metrics in the given format.
+	 */
+	public static String export(final Format format) {
+		final StringWriter writer = new StringWriter();
+		try {
+			export(writer, format);
+		} catch (IOException e) {
+			// does not happen with a StringWriter
+		}
+		return writer.toString();
+	}
+
+	private static String format(final double value) {
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	/**
+	 * Base class of all metrics.
+	 */
+	public static abstract class Metric {
+
+		private final String name;
+
+		Metric(final String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return the name of this metric
+		 */
+		public String getName() {
+			return name;
+		}
+
+		abstract void reset();
+
+		abstract String toJSON();
+
+		abstract String toCSV();
+	}
+
+	/**
+	 * A monotonic counter.
+	 */
+	public static class Counter extends Metric {
+
+		private final AtomicLong count = new AtomicLong();
+
+		Counter(final String name) {
+			super(name);
+		}
+
+		/**
+		 * Increments this counter by one, if the metrics collection is enabled.
+		 */
+		public void increment() {
+			add(1);
+		}
+
+		/**
+		 * Increments this counter by the given amount, if the metrics
+		 * collection is enabled.
+		 */
+		public void add(final long amount) {
+			if (enabled) {
+				count.addAndGet(amount);
+			}
+		}
+
+		/**
+		 * @return the current value of this counter.
+		 */
+		public long getCount() {
+			return count.get();
+		}
+
+		@Override
+		void reset() {
+			count.set(0);
+		}
+
+		@Override
+		String toJSON() {
+			return "{\"name\": \"" + getName() + "\", \"type\": \"counter\", \"count\": " + getCount() + "}";
+		}
+
+		@Override
+		String toCSV() {
+			return getName() + ",counter,," + getCount() + ",,,,,,,";
+		}
+
+		@Override
+		public String toString() {
+			return getName() + "=" + getCount();
+		}
+	}
+
+	/**
+	 * Distribution of recorded values. The values are counted in buckets
+	 * whose bounds are the powers of 2, which gives percentiles within a
+	 * factor of 2 for a fixed memory footprint.
+	 */
+	public static class Histogram extends Metric {
+
+		/** Bucket {@code i} counts the values in {@code [2^(i-1), 2^i - 1]}. */
+		private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong total = new AtomicLong();
+
+		private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+		private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+		Histogram(final String name) {
+			super(name);
+		}
+
+		/**
+		 * Records the given value, if the metrics collection is enabled.
+		 *
+		 * @param value
+		 *            the value to record
+		 */
+		public void record(final long value) {
+			if (!enabled) {
+				return;
+			}
+			buckets.incrementAndGet(value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value));
+			count.incrementAndGet();
+			total.addAndGet(value);
+			long current = min.get();
+			while (value < current && !min.compareAndSet(current, value)) {
+				current = min.get();
+			}
+			current = max.get();
+			while (value > current && !max.compareAndSet(current, value)) {
+				current = max.get();
+			}
+		}
+
+		/**
+		 * @return the number of recorded values.
+		 */
+		public long getCount() {
+			return count.get();
+		}
+
+		/**
+		 * @return the sum of the recorded values.
+		 */
+		public long getTotal() {
+			return total.get();
+		}
+
+		/**
+		 * @return the smallest recorded value, or 0 if none was recorded.
+		 */
+		public long getMin() {
+			return getCount() == 0 ? 0 : min.get();
+		}
+
+		/**
+		 * @return the largest recorded value, or 0 if none was recorded.
+		 */
+		public long getMax() {
+			return getCount() == 0 ? 0 : max.get();
+		}
+
+		/**
+		 * @return the average of the recorded values, or 0 if none was
+		 *         recorded.
+		 */
+		public double getMean() {
+			final long currentCount = getCount();
+			return currentCount == 0 ? 0 : (double) getTotal() / currentCount;
+		}
+
+		/**
+		 * @param percentile
+		 *            the percentile, between 0 and 1
+		 * @return an upper bound of the given percentile of the recorded
+		 *         values, or 0 if none was recorded.
+		 */
+		public long getPercentile(final double percentile) {
+			final long currentCount = getCount();
+			if (currentCount == 0) {
+				return 0;
+			}
+			final long rank = Math.max(1, (long) Math.ceil(percentile * currentCount));
+			long cumulatedCount = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				cumulatedCount += buckets.get(i);
+				if (cumulatedCount >= rank) {
+					final long upperBound = i == 0 ? 0 : (i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1);
+					return Math.max(getMin(), Math.min(upperBound, getMax()));
+				}
+			}
+			return getMax();
+		}
+
+		@Override
+		void reset() {
+			for (int i = 0; i < buckets.length(); i++) {
+				buckets.set(i, 0);
+			}
+			count.set(0);
+			total.set(0);
+			min.set(Long.MAX_VALUE);
+			max.set(Long.MIN_VALUE);
+		}
+
+		String getType() {
+			return "histogram";
+		}
+
+		String getUnit() {
+			return "";
+		}
+
+		/**
+		 * @return the given recorded value, converted in the unit of this
+		 *         histogram.
+		 */
+		double convert(final double value) {
+			return value;
+		}
+
+		@Override
+		String toJSON() {
+			return "{\"name\": \"" + getName() + "\", \"type\": \"" + getType() + "\", \"unit\": \"" + getUnit()
+					+ "\", \"count\": " + getCount() + ", \"total\": " + format(convert(getTotal())) + ", \"min\": "
+					+ format(convert(getMin())) + ", \"mean\": " + format(convert(getMean())) + ", \"max\": "
+					+ format(convert(getMax())) + ", \"p50\": " + format(convert(getPercentile(0.5)))
+					+ ", \"p90\": " + format(convert(getPercentile(0.9))) + ", \"p99\": "
+					+ format(convert(getPercentile(0.99))) + "}";
+		}
+
+		@Override
+		String toCSV() {
+			return getName() + "," + getType() + "," + getUnit() + "," + getCount() + ","
+					+ format(convert(getTotal())) + "," + format(convert(getMin())) + ","
+					+ format(convert(getMean())) + "," + format(convert(getMax())) + ","
+					+ format(convert(getPercentile(0.5))) + "," + format(convert(getPercentile(0.9))) + ","
+					+ format(convert(getPercentile(0.99)));
+		}
+
+		@Override
+		public String toString() {
+			return getName() + " [count=" + getCount() + ", mean=" + format(convert(getMean())) + getUnit()
+					+ ", max=" + format(convert(getMax())) + getUnit() + "]";
+		}
+	}
+
+	/**
+	 * Distribution of durations, recorded in nanoseconds and exported in
+	 * milliseconds.
+	 */
+	public static class Timer extends Histogram {
+
+		Timer(final String name) {
+			super(name);
+		}
+
+		/**
+		 * Records the time elapsed since the given start time.
+		 *
+		 * @param startTime
+		 *            the value returned by {@link Metrics#start()}: nothing is
+		 *            recorded if it is 0 (ie, the metrics collection was
+		 *            disabled when the operation started).
+		 */
+		public void stop(final long startTime) {
+			if (startTime != 0L) {
+				record(System.nanoTime() - startTime);
+			}
+		}
+
+		@Override
+		String getType() {
+			return "timer";
+		}
+
+		@Override
+		String getUnit() {
+			return "ms";
+		}
+
+		@Override
+		double convert(final double value) {
+			return value / 1000000d;
+		}
+	}
+
+}
@@ -0,0 +1,301 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.jdt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+
+/**
+ * Provides the (binding-resolved) ASTs of the compilation units processed
+ * during a build. An AST is taken from the {@link CompilationUnitsRepository}
+ * when the underlying resource did not change since it was recorded (eg: it
+ * was produced by the reconciler or by a previous lookup during the same
+ * build) and no change occurred since then in the types or classpath its
+ * bindings were resolved against, and the compilation units that must be parsed anyway are parsed
+ * together, so that they share the same lookup environment.
+ * 
+ * @author xcoulon
+ *
+ */
+public class ASTProvider {
+
+	/**
+	 * Maximum number of compilation units parsed together. Must not exceed
+	 * the size of the AST cache, otherwise the first ASTs of a batch would be
+	 * evicted before they are used.
+	 */
+	static final int MAX_BATCH_SIZE = CompilationUnitsRepository.MAX_AST_CACHE_SIZE;
+
+	private static final ASTProvider instance = new ASTProvider();
+
+	private final CompilationUnitsRepository compilationUnitsRepository = CompilationUnitsRepository.getInstance();
+
+	private long reusedASTs = 0;
+
+	private long parsedASTs = 0;
+
+	/** Singleton constructor */
+	private ASTProvider() {
+		super();
+	}
+
+	public static ASTProvider getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the AST of the compilation unit of the given {@link IJavaElement}
+	 * if it is a {@link IMember}, an {@link IAnnotation} or a
+	 * {@link ICompilationUnit}, null otherwise.
+	 * 
+	 * @param javaElement
+	 *            the java element
+	 * @param progressMonitor
+	 *            the progress monitor
+	 * @return the AST or null if the given java element has no compilation
+	 *         unit (ex: package fragment root or binary type).
+	 * @throws JavaModelException
+	 */
+	public CompilationUnit getAST(final IJavaElement javaElement, final IProgressMonitor progressMonitor)
+			throws JavaModelException {
+		final ICompilationUnit compilationUnit = getCompilationUnit(javaElement);
+		if (compilationUnit == null || !compilationUnit.exists()) {
+			return null;
+		}
+		final CompilationUnit cachedAST = compilationUnitsRepository.getCachedAST(compilationUnit);
+		if (cachedAST != null) {
+			reused(1);
+			return cachedAST;
+		}
+		final long start = Metrics.start();
+		final CompilationUnit ast = JdtUtils.parse(compilationUnit, progressMonitor);
+		Metrics.AST_PARSE.stop(start);
+		parsed(1);
+		compilationUnitsRepository.putAST(compilationUnit, ast);
+		return ast;
+	}
+
+	/**
+	 * Returns the ASTs of the given compilation units. The compilation units
+	 * whose AST is not available in the {@link CompilationUnitsRepository} are
+	 * parsed in batches of (at most) {@link #MAX_BATCH_SIZE} compilation units
+	 * from the same project.
+	 * 
+	 * @param compilationUnits
+	 *            the compilation units
+	 * @param progressMonitor
+	 *            the progress monitor
+	 * @return the ASTs indexed by compilation unit, in the order of the given
+	 *         compilation units (the compilation units that do not exist are
+	 *         skipped)
+	 * @throws JavaModelException
+	 */
+	public Map<ICompilationUnit, CompilationUnit> getASTs(final Collection<ICompilationUnit> compilationUnits,
+			final IProgressMonitor progressMonitor) throws JavaModelException {
+		final Map<ICompilationUnit, CompilationUnit> asts = new LinkedHashMap<ICompilationUnit, CompilationUnit>();
+		final Map<IJavaProject, Set<ICompilationUnit>> unitsToParse = new LinkedHashMap<IJavaProject, Set<ICompilationUnit>>();
+		for (ICompilationUnit compilationUnit : compilationUnits) {
+			if (compilationUnit == null || !compilationUnit.exists()) {
+				continue;
+			}
+			final CompilationUnit cachedAST = compilationUnitsRepository.getCachedAST(compilationUnit);
+			if (cachedAST != null) {
+				reused(1);
+				asts.put(compilationUnit, cachedAST);
+				continue;
+			}
+			// keep the position of the compilation unit in the resulting map
+			asts.put(compilationUnit, null);
+			final IJavaProject javaProject = compilationUnit.getJavaProject();
+			if (!unitsToParse.containsKey(javaProject)) {
+				unitsToParse.put(javaProject, new LinkedHashSet<ICompilationUnit>());
+			}
+			unitsToParse.get(javaProject).add(compilationUnit);
+		}
+		for (Set<ICompilationUnit> projectUnits : unitsToParse.values()) {
+			final List<ICompilationUnit> batch = new ArrayList<ICompilationUnit>(Math.min(projectUnits.size(),
+					MAX_BATCH_SIZE));
+			for (ICompilationUnit compilationUnit : projectUnits) {
+				batch.add(compilationUnit);
+				if (batch.size() == MAX_BATCH_SIZE) {
+					asts.putAll(parse(batch, progressMonitor));
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) {
+				asts.putAll(parse(batch, progressMonitor));
+			}
+		}
+		return asts;
+	}
+
+	/**
+	 * Returns an {@link Iterable} over the given members which parses the
+	 * compilation units of the next {@link #MAX_BATCH_SIZE} members together
+	 * before they are iterated over, so that their ASTs are available when the
+	 * members are processed, without keeping the ASTs of all members at the
+	 * same time.
+	 * 
+	 * @param members
+	 *            the members to iterate over
+	 * @param progressMonitor
+	 *            the progress monitor
+	 * @return the members, in the same order
+	 */
+	public <T extends IMember> Iterable<T> withASTs(final Collection<T> members,
+			final IProgressMonitor progressMonitor) {
+		final List<T> allMembers = new ArrayList<T>(members);
+		return new Iterable<T>() {
+			@Override
+			public Iterator<T> iterator() {
+				return new Iterator<T>() {
+
+					private int index = 0;
+
+					@Override
+					public boolean hasNext() {
+						return index < allMembers.size();
+					}
+
+					@Override
+					public T next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						if (index % MAX_BATCH_SIZE == 0) {
+							prefetchASTs(allMembers.subList(index, Math.min(index + MAX_BATCH_SIZE, allMembers.size())),
+									progressMonitor);
+						}
+						return allMembers.get(index++);
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+
+	private void prefetchASTs(final List<? extends IMember> members, final IProgressMonitor progressMonitor) {
+		final Set<ICompilationUnit> compilationUnits = new LinkedHashSet<ICompilationUnit>();
+		for (IMember member : members) {
+			if (member.getCompilationUnit() != null) {
+				compilationUnits.add(member.getCompilationUnit());
+			}
+		}
+		try {
+			getASTs(compilationUnits, progressMonitor);
+		} catch (JavaModelException e) {
+			// the ASTs will be computed one after the other
+			Logger.warn("Failed to parse " + compilationUnits.size() + " compilation units in a single batch", e);
+		}
+	}
+
+	/**
+	 * Parses the given compilation units (which all belong to the same
+	 * project) together and stores their ASTs in the
+	 * {@link CompilationUnitsRepository}.
+	 */
+	private Map<ICompilationUnit, CompilationUnit> parse(final List<ICompilationUnit> compilationUnits,
+			final IProgressMonitor progressMonitor) throws JavaModelException {
+		final long start = Metrics.start();
+		final Map<ICompilationUnit, CompilationUnit> asts = new HashMap<ICompilationUnit, CompilationUnit>();
+		final ASTParser parser = ASTParser.newParser(AST.JLS8);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setResolveBindings(true);
+		parser.setBindingsRecovery(true);
+		parser.createASTs(compilationUnits.toArray(new ICompilationUnit[compilationUnits.size()]), new String[0],
+				new ASTRequestor() {
+					@Override
+					public void acceptAST(final ICompilationUnit source, final CompilationUnit ast) {
+						asts.put(source, ast);
+					}
+				}, progressMonitor);
+		Metrics.AST_BATCH_PARSE.stop(start);
+		parsed(asts.size());
+		Logger.tracePerf("Parsed {} compilation units in a single batch", asts.size());
+		for (Entry<ICompilationUnit, CompilationUnit> entry : asts.entrySet()) {
+			compilationUnitsRepository.putAST(entry.getKey(), entry.getValue());
+		}
+		return asts;
+	}
+
+	/**
+	 * @return the compilation unit of the given element, or {@code null} if
+	 *         the element is not part of a compilation unit.
+	 */
+	private static ICompilationUnit getCompilationUnit(final IJavaElement javaElement) {
+		if (javaElement instanceof IMember) {
+			return ((IMember) javaElement).getCompilationUnit();
+		} else if (javaElement instanceof IAnnotation) {
+			return (ICompilationUnit) javaElement.getAncestor(IJavaElement.COMPILATION_UNIT);
+		} else if (javaElement instanceof ICompilationUnit) {
+			return (ICompilationUnit) javaElement;
+		}
+		return null;
+	}
+
+	private synchronized void reused(final int count) {
+		reusedASTs += count;
+		Metrics.REUSED_ASTS.add(count);
+	}
+
+	private synchronized void parsed(final int count) {
+		parsedASTs += count;
+		Metrics.PARSED_ASTS.add(count);
+	}
+
+	/**
+	 * @return the number of ASTs that were taken from the
+	 *         {@link CompilationUnitsRepository}.
+	 */
+	public synchronized long getReusedASTs() {
+		return reusedASTs;
+	}
+
+	/**
+	 * @return the number of ASTs that had to be parsed.
+	 */
+	public synchronized long getParsedASTs() {
+		return parsedASTs;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ASTProvider [reused=" + reusedASTs + ", parsed=" + parsedASTs + "]";
+	}
+
+}
@@ -10,9 +10,7 @@
  ******************************************************************************/
 package org.jboss.tools.ws.jaxrs.core.jdt;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -52,8 +50,12 @@ public class Annotation {
 	/** The Java annotation fully qualified name. */
 	private final String javaAnnotationName;
 
-	/** The java annotation member value pairs. */
-	private final Map<String, List<String>> javaAnnotationElements;
+	/**
+	 * The java annotation member value pairs, which are immutable and shared
+	 * with all equal annotations (including the working copy of this
+	 * annotation). Updates replace the whole instance.
+	 */
+	private volatile AnnotationElements javaAnnotationElements;
 	
 	/** the primary copy of this annotation, or {@code this}. */
 	private final Annotation primaryCopy;
@@ -75,8 +77,8 @@ public class Annotation {
 	public Annotation(final IAnnotation javaAnnotation, final String javaAnnotationName,
 			final Map<String, List<String>> javaAnnotationElements) {
 		this.javaAnnotation = javaAnnotation;
-		this.javaAnnotationName = javaAnnotationName;
-		this.javaAnnotationElements = new HashMap<String, List<String>>(javaAnnotationElements);
+		this.javaAnnotationName = AnnotationElements.intern(javaAnnotationName);
+		this.javaAnnotationElements = AnnotationElements.of(javaAnnotationElements);
 		this.primaryCopy = null;
 		this.isWorkingCopy = false;
 	}
@@ -91,10 +93,10 @@ public class Annotation {
 	 * @throws JavaModelException
 	 */
 	private Annotation(final IAnnotation javaAnnotation, final String javaAnnotationName,
-			final Map<String, List<String>> javaAnnotationElements, final Annotation primaryCopy) {
+			final AnnotationElements javaAnnotationElements, final Annotation primaryCopy) {
 		this.javaAnnotation = javaAnnotation;
 		this.javaAnnotationName = javaAnnotationName;
-		this.javaAnnotationElements = new HashMap<String, List<String>>(javaAnnotationElements);
+		this.javaAnnotationElements = javaAnnotationElements;
 		this.primaryCopy = primaryCopy;
 		this.isWorkingCopy = true;
 		this.workingCopy = this;
@@ -115,15 +117,13 @@ public class Annotation {
 	}
 
 	/**
-	 * @return a working copy of this Annotation.
+	 * @return a working copy of this Annotation, which shares the (immutable)
+	 *         member value pairs of this annotation until one of them is
+	 *         updated.
 	 */
 	public Annotation createWorkingCopy() {
 		synchronized (this) {
-			final Map<String, List<String>> duplicateJavaAnnotationElements = new HashMap<String, List<String>>();
-			for(Entry<String, List<String>> entry : javaAnnotationElements.entrySet()) {
-				duplicateJavaAnnotationElements.put(entry.getKey(), new ArrayList<String>(entry.getValue()));
-			}
-			return new Annotation(javaAnnotation, javaAnnotationName, duplicateJavaAnnotationElements, this);
+			return new Annotation(javaAnnotation, javaAnnotationName, javaAnnotationElements, this);
 		}
 	}
 
@@ -152,8 +152,7 @@ public class Annotation {
 			if (otherAnnotation == null || !hasChanges(otherAnnotation)) {
 				return false;
 			}
-			this.javaAnnotationElements.clear();
-			this.javaAnnotationElements.putAll(otherAnnotation.getJavaAnnotationElements());
+			this.javaAnnotationElements = AnnotationElements.of(otherAnnotation.getJavaAnnotationElements());
 			return true;
 		}
 	}
@@ -166,7 +165,8 @@ public class Annotation {
 	 * @return
 	 */
 	public boolean hasChanges(final Annotation otherAnnotation) {
-		if (this.javaAnnotationElements.equals(otherAnnotation.getJavaAnnotationElements())) {
+		final Map<String, List<String>> otherElements = otherAnnotation.getJavaAnnotationElements();
+		if (this.javaAnnotationElements == otherElements || this.javaAnnotationElements.equals(otherElements)) {
 			return false;
 		}
 		return true;
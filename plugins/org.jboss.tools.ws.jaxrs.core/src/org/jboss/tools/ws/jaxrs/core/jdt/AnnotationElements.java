@@ -0,0 +1,206 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.jdt;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Interner;
+
+/**
+ * Compact and immutable representation of the member value pairs of an
+ * {@link Annotation}. Element names are kept in a small sorted array and
+ * looked-up with a linear scan (annotations rarely have more than a couple of
+ * members), single values are held in singleton lists and all names, values,
+ * value lists and instances are interned, so that equal annotations in a
+ * project (eg: {@code @Produces("application/json")}) share the same
+ * instance. Since instances are immutable, they can also be shared between
+ * the primary copy and the working copy of an {@link Annotation}.
+ * 
+ * @author xcoulon
+ * 
+ */
+public final class AnnotationElements extends AbstractMap<String, List<String>> {
+
+	/** Canonical names and values. */
+	private static final Interner<String> STRINGS = new Interner<String>();
+
+	/** Canonical value lists. */
+	private static final Interner<List<String>> VALUES = new Interner<List<String>>();
+
+	/** Canonical instances. */
+	private static final Interner<AnnotationElements> INSTANCES = new Interner<AnnotationElements>();
+
+	/** The shared instance for annotations without any member. */
+	public static final AnnotationElements EMPTY = new AnnotationElements(new String[0], new Object[0]);
+
+	/** The element names, in alphabetical order. */
+	private final String[] names;
+
+	/** The element values (as unmodifiable {@code List<String>}), in the same order as the names. */
+	private final Object[] values;
+
+	/** The hash code, computed once for all as in {@link AbstractMap#hashCode()}. */
+	private final int hashCode;
+
+	private AnnotationElements(final String[] names, final Object[] values) {
+		this.names = names;
+		this.values = values;
+		int hash = 0;
+		for (int i = 0; i < names.length; i++) {
+			hash += names[i].hashCode() ^ (values[i] == null ? 0 : values[i].hashCode());
+		}
+		this.hashCode = hash;
+	}
+
+	/**
+	 * Returns the canonical {@link AnnotationElements} instance with the same
+	 * content as the given member value pairs.
+	 * 
+	 * @param elements
+	 *            the annotation member value pairs, indexed by their name (may
+	 *            be {@code null})
+	 * @return the shared instance (never {@code null})
+	 */
+	public static AnnotationElements of(final Map<String, List<String>> elements) {
+		if (elements instanceof AnnotationElements) {
+			return (AnnotationElements) elements;
+		}
+		if (elements == null || elements.isEmpty()) {
+			return EMPTY;
+		}
+		final String[] names = elements.keySet().toArray(new String[elements.size()]);
+		Arrays.sort(names);
+		final Object[] values = new Object[names.length];
+		for (int i = 0; i < names.length; i++) {
+			values[i] = internValues(elements.get(names[i]));
+			names[i] = intern(names[i]);
+		}
+		return INSTANCES.intern(new AnnotationElements(names, values));
+	}
+
+	/**
+	 * @return the canonical instance of the given String.
+	 */
+	static String intern(final String value) {
+		return STRINGS.intern(value);
+	}
+
+	private static List<String> internValues(final List<String> values) {
+		if (values == null) {
+			return null;
+		}
+		switch (values.size()) {
+		case 0:
+			return Collections.emptyList();
+		case 1:
+			return VALUES.intern(Collections.singletonList(intern(values.get(0))));
+		default:
+			final String[] internedValues = new String[values.size()];
+			int i = 0;
+			for (String value : values) {
+				internedValues[i++] = intern(value);
+			}
+			return VALUES.intern(Collections.unmodifiableList(Arrays.asList(internedValues)));
+		}
+	}
+
+	private int indexOf(final Object name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return names.length;
+	}
+
+	@Override
+	public boolean containsKey(final Object name) {
+		return indexOf(name) >= 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> get(final Object name) {
+		final int index = indexOf(name);
+		return index >= 0 ? (List<String>) values[index] : null;
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		return new AbstractSet<Entry<String, List<String>>>() {
+
+			@Override
+			public int size() {
+				return names.length;
+			}
+
+			@Override
+			public Iterator<Entry<String, List<String>>> iterator() {
+				return new Iterator<Entry<String, List<String>>>() {
+
+					private int index = 0;
+
+					@Override
+					public boolean hasNext() {
+						return index < names.length;
+					}
+
+					@SuppressWarnings("unchecked")
+					@Override
+					public Entry<String, List<String>> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						final Entry<String, List<String>> entry = new SimpleImmutableEntry<String, List<String>>(
+								names[index], (List<String>) values[index]);
+						index++;
+						return entry;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj instanceof AnnotationElements && ((AnnotationElements) obj).hashCode != hashCode) {
+			return false;
+		}
+		return super.equals(obj);
+	}
+
+}
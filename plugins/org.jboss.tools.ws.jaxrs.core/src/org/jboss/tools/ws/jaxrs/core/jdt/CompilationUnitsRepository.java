@@ -10,6 +10,8 @@
  ******************************************************************************/
 package org.jboss.tools.ws.jaxrs.core.jdt;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,22 +30,43 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JavaMethodSignature;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.CollectionUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.LruCache;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJavaMethodSignature;
 
 /**
+ * Cache of the Compilation Units ASTs and method signatures. Both caches are
+ * bounded and evict their least recently used entries, and the ASTs are only
+ * softly referenced, so that they can be reclaimed under memory pressure. An
+ * AST or a set of method signatures that was evicted is simply computed again
+ * on the next lookup. Each AST is recorded along with the modification stamp
+ * of its underlying resource, and is only returned as long as this stamp did
+ * not change. Since the bindings of an AST also depend on other compilation
+ * units and on the classpath, the ASTs of a project and of the projects that
+ * depend on it are discarded when a type of this project is added, removed or
+ * changes its declaration, when a field changes (eg: a constant used in an
+ * annotation value), or when its classpath changes (see
+ * {@link #removeASTs(Collection)}).
  * 
  * @author xcoulon
  *
  */
 public class CompilationUnitsRepository {
 
+	/** Maximum number of (binding-resolved) ASTs kept in the cache. */
+	static final int MAX_AST_CACHE_SIZE = 50;
+
+	/** Maximum number of compilation units whose method signatures are kept in the cache. */
+	static final int MAX_METHOD_DECLARATIONS_CACHE_SIZE = 500;
+
 	private static final CompilationUnitsRepository instance = new CompilationUnitsRepository();
 
-	private final Map<ICompilationUnit, Map<String, JavaMethodSignature>> methodDeclarationsMap = new HashMap<ICompilationUnit, Map<String, JavaMethodSignature>>();
+	private final LruCache<ICompilationUnit, Map<String, JavaMethodSignature>> methodDeclarationsMap = new LruCache<ICompilationUnit, Map<String, JavaMethodSignature>>(
+			MAX_METHOD_DECLARATIONS_CACHE_SIZE, false);
 
-	private final Map<IPath, CompilationUnit> astMap = new HashMap<IPath, CompilationUnit>();
+	private final LruCache<IPath, StampedAST> astMap = new LruCache<IPath, StampedAST>(MAX_AST_CACHE_SIZE, true);
 
-	private final Map<ICompilationUnit, Map<Integer, Problem>> problemsMap = new HashMap<ICompilationUnit, Map<Integer, Problem>>();
+	private final Map<ICompilationUnit, Map<Integer, Problem>> problemsMap = Collections
+			.synchronizedMap(new HashMap<ICompilationUnit, Map<Integer, Problem>>());
 
 	/** Singleton constructor */
 	private CompilationUnitsRepository() {
@@ -54,12 +77,47 @@ public class CompilationUnitsRepository {
 		return instance;
 	}
 
+	/**
+	 * @return the cache of ASTs, indexed by the full path of their underlying
+	 *         resource.
+	 */
+	LruCache<IPath, StampedAST> getASTCache() {
+		return astMap;
+	}
+
+	/**
+	 * @return the cache of method signatures, indexed by their compilation
+	 *         unit.
+	 */
+	LruCache<ICompilationUnit, Map<String, JavaMethodSignature>> getMethodDeclarationsCache() {
+		return methodDeclarationsMap;
+	}
+
 	public void clear() {
 		methodDeclarationsMap.clear();
 		astMap.clear();
 		problemsMap.clear();
 	}
 
+	/**
+	 * Removes the ASTs of the compilation units of the given projects from
+	 * this repository, since their bindings may not be resolved against the
+	 * current types or classpath anymore (eg: an annotation referencing a type
+	 * that was just created would remain unresolved in an AST parsed before
+	 * the type creation).
+	 * 
+	 * @param projectNames
+	 *            the names of the projects whose ASTs should be removed
+	 */
+	public void removeASTs(final Collection<String> projectNames) {
+		Logger.trace("Removing the ASTs of projects {} from CompilationUnitsRepository", projectNames);
+		for (IPath fullPath : astMap.keys()) {
+			if (fullPath.segmentCount() > 0 && projectNames.contains(fullPath.segment(0))) {
+				astMap.remove(fullPath);
+			}
+		}
+	}
+
 	/**
 	 * @param compilationUnit
 	 * @param methodsVisitor
@@ -70,17 +128,73 @@ public class CompilationUnitsRepository {
 		if (compilationUnit == null || compilationUnit.getResource() == null) {
 			return null;
 		}
-		final IResource resource = compilationUnit.getResource();
-		final IPath resourcePath = resource.getFullPath();
-		if (!astMap.containsKey(resourcePath)) {
+		final CompilationUnit compilationUnitAST = getCachedAST(compilationUnit);
+		if (compilationUnitAST == null) {
 			Logger.trace("Adding {}'s AST in CompilationUnitsRepository cache.", compilationUnit.getElementName());
-			recordAST(compilationUnit);
-		} else {
-			Logger.trace("CompilationUnitsRepository cache contains {}'s AST.", compilationUnit.getElementName());
+			return recordAST(compilationUnit);
 		}
+		Logger.trace("CompilationUnitsRepository cache contains {}'s AST.", compilationUnit.getElementName());
+		return compilationUnitAST;
 
-		return astMap.get(resourcePath);
+	}
 
+	/**
+	 * Returns the AST of the given compilation unit if it is in this repository
+	 * and if the underlying resource did not change since it was recorded.
+	 * Never parses the compilation unit.
+	 * 
+	 * @param compilationUnit
+	 *            the compilation unit
+	 * @return the cached AST or {@code null} if none is up-to-date
+	 * @throws JavaModelException
+	 */
+	public CompilationUnit getCachedAST(final ICompilationUnit compilationUnit) throws JavaModelException {
+		if (compilationUnit == null || compilationUnit.getResource() == null) {
+			return null;
+		}
+		final StampedAST stampedAST = astMap.get(compilationUnit.getResource().getFullPath());
+		final long modificationStamp = getModificationStamp(compilationUnit);
+		if (stampedAST == null || modificationStamp == IResource.NULL_STAMP
+				|| stampedAST.modificationStamp != modificationStamp) {
+			return null;
+		}
+		return stampedAST.ast;
+	}
+
+	/**
+	 * Stores the given AST for the given compilation unit, unless the
+	 * compilation unit has unsaved changes (in which case the AST does not
+	 * match the content of the underlying resource).
+	 * 
+	 * @param compilationUnit
+	 *            the compilation unit
+	 * @param compilationUnitAST
+	 *            the AST of the compilation unit
+	 * @throws JavaModelException
+	 */
+	public void putAST(final ICompilationUnit compilationUnit, final CompilationUnit compilationUnitAST)
+			throws JavaModelException {
+		if (compilationUnit == null || compilationUnit.getResource() == null || compilationUnitAST == null) {
+			return;
+		}
+		final long modificationStamp = getModificationStamp(compilationUnit);
+		if (modificationStamp == IResource.NULL_STAMP) {
+			return;
+		}
+		astMap.put(compilationUnit.getResource().getFullPath(), new StampedAST(compilationUnitAST, modificationStamp));
+	}
+
+	/**
+	 * @return the modification stamp of the resource underlying the given
+	 *         compilation unit, or {@link IResource#NULL_STAMP} if the
+	 *         compilation unit has unsaved changes.
+	 * @throws JavaModelException
+	 */
+	private static long getModificationStamp(final ICompilationUnit compilationUnit) throws JavaModelException {
+		if (compilationUnit.hasUnsavedChanges()) {
+			return IResource.NULL_STAMP;
+		}
+		return compilationUnit.getResource().getModificationStamp();
 	}
 
 	/**
@@ -109,9 +223,11 @@ public class CompilationUnitsRepository {
 			return null;
 		}
 		CompilationUnit compilationUnitAST = JdtUtils.parse(compilationUnit, new NullProgressMonitor());
-		astMap.put(compilationUnit.getResource().getFullPath(), compilationUnitAST);
+		putAST(compilationUnit, compilationUnitAST);
 		final Map<String, JavaMethodSignature> methodSignatures = JdtUtils.resolveMethodSignatures(compilationUnit.findPrimaryType(), compilationUnitAST);
 		methodDeclarationsMap.put(compilationUnit, methodSignatures);
+		Logger.tracePerf("CompilationUnitsRepository AST cache: {}, method signatures cache: {}", astMap,
+				methodDeclarationsMap);
 		return compilationUnitAST;
 	}
 
@@ -138,7 +254,7 @@ public class CompilationUnitsRepository {
 			}
 		}
 		// replace old values in "cache" if the compilation is a working copy only
-		astMap.put(compilationUnit.getResource().getFullPath(), compilationUnitAST);
+		putAST(compilationUnit, compilationUnitAST);
 		// TODO : improve performances here : do not override all method
 		// declaration, but only those that changed, because reparsing method
 		// signatures (annotated parameters, etc.) may be expensive.
@@ -154,10 +270,14 @@ public class CompilationUnitsRepository {
 	 */
 	public IJavaMethodSignature getMethodSignature(final IMethod javaMethod) throws JavaModelException {
 		final ICompilationUnit compilationUnit = javaMethod.getCompilationUnit();
-		if (!methodDeclarationsMap.containsKey(compilationUnit)) {
+		Map<String, JavaMethodSignature> methodSignatures = methodDeclarationsMap.get(compilationUnit);
+		if (methodSignatures == null) {
 			recordAST(compilationUnit);
+			methodSignatures = methodDeclarationsMap.get(compilationUnit);
+			if (methodSignatures == null) {
+				return null;
+			}
 		}
-		final Map<String, JavaMethodSignature> methodSignatures = methodDeclarationsMap.get(compilationUnit);
 		return methodSignatures.get(javaMethod.getHandleIdentifier());
 	}
 
@@ -208,6 +328,22 @@ public class CompilationUnitsRepository {
 		return fixedProblems;
 	}
 
+	/**
+	 * An AST along with the modification stamp of the resource it was parsed
+	 * from.
+	 */
+	static class StampedAST {
+
+		final CompilationUnit ast;
+
+		final long modificationStamp;
+
+		StampedAST(final CompilationUnit ast, final long modificationStamp) {
+			this.ast = ast;
+			this.modificationStamp = modificationStamp;
+		}
+	}
+
 	static class Problem {
 
 		private final IProblem problem;
@@ -63,12 +63,10 @@ import org.eclipse.jdt.core.dom.NormalAnnotation;
 import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
-import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
-import org.eclipse.jdt.internal.core.CreateTypeHierarchyOperation;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JavaMethodParameter;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JavaMethodSignature;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJavaMethodParameter;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJavaMethodSignature;
 
@@ -817,7 +815,8 @@ public final class JdtUtils {
 
 	/**
 	 * Returns the hierarchy for the given type, or null if it could not be
-	 * 'computed'.
+	 * 'computed'. The hierarchy is shared through the
+	 * {@link TypeHierarchyCache} and is only computed again after it changed.
 	 * 
 	 * @param baseType
 	 *            the base type for the hierarchy
@@ -833,26 +832,8 @@ public final class JdtUtils {
 	public static ITypeHierarchy resolveTypeHierarchy(final IType baseType,
 			final IJavaElement scope, final boolean includeLibraries,
 			final IProgressMonitor progressMonitor) throws CoreException {
-		// create type hierarchy
-		// FIXME : restrict operation scope to sources only, exclude application
-		// libraries.
-		int appLibs = 0;
-		if (includeLibraries) {
-			appLibs = IJavaSearchScope.APPLICATION_LIBRARIES;
-		}
-		IJavaSearchScope searchScope = SearchEngine.createJavaSearchScope(
-				new IJavaElement[] { scope }, IJavaSearchScope.SOURCES
-						| appLibs | IJavaSearchScope.REFERENCED_PROJECTS);
-		CreateTypeHierarchyOperation operation = new CreateTypeHierarchyOperation(
-				baseType, null, searchScope, true);
-		ITypeHierarchy hierarchy = operation.getResult();
-		if (hierarchy != null && hierarchy.exists()) {
-			hierarchy.refresh(progressMonitor);
-			return hierarchy;
-		}
-		Logger.warn("No type hierarchy found for "
-				+ baseType.getFullyQualifiedName());
-		return null;
+		return TypeHierarchyCache.getInstance().getTypeHierarchy(baseType,
+				scope, includeLibraries, progressMonitor);
 	}
 
 	/**
@@ -897,7 +878,7 @@ public final class JdtUtils {
 	 */
 	public static List<IType> findSubtypes(final IType type)
 			throws CoreException {
-		final long start = System.currentTimeMillis();
+		final long start = Metrics.start();
 		try {
 			final List<IType> types = new ArrayList<IType>();
 			final ITypeHierarchy returnTypeHierarchy = JdtUtils.resolveTypeHierarchy(type, type.getJavaProject(),
@@ -906,8 +887,7 @@ public final class JdtUtils {
 			types.add(type);
 			return types;
 		} finally {
-			Logger.tracePerf("Found subtypes of {} in {}ms", type.getFullyQualifiedName(),
-					(System.currentTimeMillis() - start));
+			Metrics.TYPE_HIERARCHY.stop(start);
 		}
 	}
 
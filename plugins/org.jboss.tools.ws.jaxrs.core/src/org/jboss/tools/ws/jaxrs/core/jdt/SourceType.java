@@ -83,7 +83,21 @@ public class SourceType {
 		}
 		return null;
 	}
-	
+
+	/**
+	 * Factory method for the {@link SourceType}, when all values are already known (eg: when restoring a metamodel snapshot)
+	 * @param erasureName the fully qualified name of the type's erasure
+	 * @param erasureType the type's erasure
+	 * @param typeArguments the types of the type's arguments (or empty list)
+	 * @param isPrimitive flag to indicate if the type is a primitive type
+	 * @param nameRange the name range of the type in the source
+	 * @return the {@link SourceType}
+	 */
+	public static SourceType from(final String erasureName, final IType erasureType, final List<IType> typeArguments,
+			final boolean isPrimitive, final ISourceRange nameRange) {
+		return new SourceType(erasureName, erasureType, typeArguments, isPrimitive, nameRange);
+	}
+
 	public SourceType createWorkingCopy() {
 		synchronized (this) {
 			return new SourceType(erasureName, erasureType, new ArrayList<IType>(typeArguments), isPrimitive,
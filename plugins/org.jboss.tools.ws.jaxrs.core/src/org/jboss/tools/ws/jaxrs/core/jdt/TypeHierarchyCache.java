@@ -0,0 +1,378 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.jdt;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.internal.core.CreateTypeHierarchyOperation;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.LruCache;
+import org.jboss.tools.ws.jaxrs.core.utils.JaxrsClassnames;
+
+/**
+ * Cache of the {@link ITypeHierarchy}s computed by
+ * {@link JdtUtils#resolveTypeHierarchy(IType, IJavaElement, boolean, IProgressMonitor)}
+ * , indexed by base type, scope and inclusion of the libraries.
+ * 
+ * Each cached hierarchy listens to the changes in the Java Model through an
+ * {@link ITypeHierarchyChangedListener}, and is computed again on the next
+ * lookup after it changed. The project-wide hierarchies of the JAX-RS types
+ * that are looked up during every full build (eg:
+ * {@code javax.ws.rs.core.Application} or
+ * {@code javax.ws.rs.ext.MessageBodyReader}) are kept as long as their project
+ * is open, while the other ones (including the hierarchies of these types
+ * within a narrower scope, such as a single compilation unit during an
+ * incremental build) are evicted when they are the least recently used.
+ * 
+ * @author xcoulon
+ *
+ */
+public class TypeHierarchyCache {
+
+	/** Maximum number of hierarchies kept in the cache, besides the pinned ones. */
+	static final int MAX_CACHE_SIZE = 50;
+
+	/**
+	 * Fully qualified names of the base types whose project-wide hierarchies
+	 * are never evicted.
+	 */
+	static final Set<String> PINNED_TYPE_NAMES = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+			JaxrsClassnames.APPLICATION, JaxrsClassnames.MESSAGE_BODY_READER, JaxrsClassnames.MESSAGE_BODY_WRITER,
+			JaxrsClassnames.EXCEPTION_MAPPER, JaxrsClassnames.CONTAINER_REQUEST_FILTER,
+			JaxrsClassnames.CONTAINER_RESPONSE_FILTER, JaxrsClassnames.ENTITY_READER_INTERCEPTOR,
+			JaxrsClassnames.ENTITY_WRITER_INTERCEPTOR, JaxrsClassnames.PARAM_CONVERTER_PROVIDER)));
+
+	private static final TypeHierarchyCache instance = new TypeHierarchyCache();
+
+	/** The hierarchies of the pinned types. */
+	private final Map<HierarchyKey, CachedTypeHierarchy> pinnedHierarchies = new HashMap<HierarchyKey, CachedTypeHierarchy>();
+
+	/** The other hierarchies, least recently used first. */
+	private final LruCache<HierarchyKey, CachedTypeHierarchy> hierarchies = new LruCache<HierarchyKey, CachedTypeHierarchy>(
+			MAX_CACHE_SIZE, false) {
+		@Override
+		protected void entryRemoved(final HierarchyKey key, final CachedTypeHierarchy value) {
+			value.dispose();
+		}
+	};
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	private long invalidations = 0;
+
+	/** Singleton constructor */
+	private TypeHierarchyCache() {
+		super();
+	}
+
+	public static TypeHierarchyCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the hierarchy for the given type, or null if it could not be
+	 * 'computed'. The hierarchy is taken from this cache unless it changed
+	 * since it was computed.
+	 * 
+	 * @param baseType
+	 *            the base type for the hierarchy
+	 * @param scope
+	 *            the scope of the hierarchy
+	 * @param includeLibraries
+	 *            should the hierarchy include type from libraries
+	 * @param progressMonitor
+	 *            a progress monitor (or null)
+	 * @return the SourceType Hierarchy for the base type
+	 * @throws CoreException
+	 *             the underlying CoreException thrown by the manipulated JDT
+	 *             APIs
+	 */
+	public ITypeHierarchy getTypeHierarchy(final IType baseType, final IJavaElement scope,
+			final boolean includeLibraries, final IProgressMonitor progressMonitor) throws CoreException {
+		final HierarchyKey key = new HierarchyKey(baseType, scope, includeLibraries);
+		final CachedTypeHierarchy cachedHierarchy = get(key);
+		if (cachedHierarchy != null) {
+			if (!cachedHierarchy.isStale()) {
+				synchronized (this) {
+					hits++;
+				}
+				return cachedHierarchy.hierarchy;
+			}
+			synchronized (this) {
+				invalidations++;
+			}
+		}
+		synchronized (this) {
+			misses++;
+		}
+		Logger.trace("Computing type hierarchy of {}", baseType.getFullyQualifiedName());
+		// the hierarchy is built and put in the cache again rather than
+		// refreshed in place, so that it is never modified while another
+		// thread is reading it.
+		final CachedTypeHierarchy computedHierarchy = computeTypeHierarchy(baseType, scope, includeLibraries,
+				progressMonitor);
+		if (computedHierarchy == null) {
+			remove(key);
+			return null;
+		}
+		put(key, computedHierarchy);
+		return computedHierarchy.hierarchy;
+	}
+
+	private static CachedTypeHierarchy computeTypeHierarchy(final IType baseType, final IJavaElement scope,
+			final boolean includeLibraries, final IProgressMonitor progressMonitor) throws CoreException {
+		// FIXME : restrict operation scope to sources only, exclude application
+		// libraries.
+		int appLibs = 0;
+		if (includeLibraries) {
+			appLibs = IJavaSearchScope.APPLICATION_LIBRARIES;
+		}
+		final IJavaSearchScope searchScope = SearchEngine.createJavaSearchScope(new IJavaElement[] { scope },
+				IJavaSearchScope.SOURCES | appLibs | IJavaSearchScope.REFERENCED_PROJECTS);
+		final CreateTypeHierarchyOperation operation = new CreateTypeHierarchyOperation(baseType, null, searchScope,
+				true);
+		final ITypeHierarchy hierarchy = operation.getResult();
+		if (hierarchy != null && hierarchy.exists()) {
+			// listen to the changes before the hierarchy is computed, so that
+			// none is missed
+			final CachedTypeHierarchy cachedHierarchy = new CachedTypeHierarchy(hierarchy);
+			try {
+				hierarchy.refresh(progressMonitor);
+			} catch (CoreException e) {
+				cachedHierarchy.dispose();
+				throw e;
+			}
+			return cachedHierarchy;
+		}
+		Logger.warn("No type hierarchy found for " + baseType.getFullyQualifiedName());
+		return null;
+	}
+
+	private synchronized CachedTypeHierarchy get(final HierarchyKey key) {
+		if (key.isPinned()) {
+			return pinnedHierarchies.get(key);
+		}
+		return hierarchies.get(key);
+	}
+
+	private synchronized void put(final HierarchyKey key, final CachedTypeHierarchy cachedHierarchy) {
+		if (key.isPinned()) {
+			final CachedTypeHierarchy previousHierarchy = pinnedHierarchies.put(key, cachedHierarchy);
+			if (previousHierarchy != null) {
+				previousHierarchy.dispose();
+			}
+		} else {
+			hierarchies.put(key, cachedHierarchy);
+		}
+	}
+
+	private synchronized void remove(final HierarchyKey key) {
+		if (key.isPinned()) {
+			final CachedTypeHierarchy previousHierarchy = pinnedHierarchies.remove(key);
+			if (previousHierarchy != null) {
+				previousHierarchy.dispose();
+			}
+		} else {
+			hierarchies.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all the hierarchies computed within the given project from this
+	 * cache.
+	 * 
+	 * @param javaProject
+	 *            the project that was closed or removed
+	 */
+	public synchronized void remove(final IJavaProject javaProject) {
+		for (Iterator<Entry<HierarchyKey, CachedTypeHierarchy>> iterator = pinnedHierarchies.entrySet().iterator(); iterator
+				.hasNext();) {
+			final Entry<HierarchyKey, CachedTypeHierarchy> entry = iterator.next();
+			if (entry.getKey().belongsTo(javaProject)) {
+				entry.getValue().dispose();
+				iterator.remove();
+			}
+		}
+		for (HierarchyKey key : hierarchies.keys()) {
+			if (key.belongsTo(javaProject)) {
+				hierarchies.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the hierarchies from this cache. The counters are left
+	 * unchanged.
+	 */
+	public synchronized void clear() {
+		for (CachedTypeHierarchy cachedHierarchy : pinnedHierarchies.values()) {
+			cachedHierarchy.dispose();
+		}
+		pinnedHierarchies.clear();
+		hierarchies.clear();
+	}
+
+	/**
+	 * @return the number of hierarchies in this cache.
+	 */
+	public synchronized int size() {
+		return pinnedHierarchies.size() + hierarchies.size();
+	}
+
+	/**
+	 * @return the number of lookups that returned a cached hierarchy.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of lookups that required to compute the hierarchy.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the number of lookups that found a cached hierarchy that had
+	 *         changed in the meantime (these lookups are counted as misses,
+	 *         too).
+	 */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "TypeHierarchyCache [size=" + size() + ", hits=" + hits + ", misses=" + misses + ", invalidations="
+				+ invalidations + "]";
+	}
+
+	/**
+	 * A computed {@link ITypeHierarchy} that becomes stale as soon as it
+	 * changes.
+	 */
+	static class CachedTypeHierarchy implements ITypeHierarchyChangedListener {
+
+		final ITypeHierarchy hierarchy;
+
+		private volatile boolean stale = false;
+
+		CachedTypeHierarchy(final ITypeHierarchy hierarchy) {
+			this.hierarchy = hierarchy;
+			hierarchy.addTypeHierarchyChangedListener(this);
+		}
+
+		@Override
+		public void typeHierarchyChanged(final ITypeHierarchy typeHierarchy) {
+			this.stale = true;
+		}
+
+		boolean isStale() {
+			return stale || !hierarchy.exists();
+		}
+
+		void dispose() {
+			this.stale = true;
+			hierarchy.removeTypeHierarchyChangedListener(this);
+		}
+	}
+
+	/**
+	 * The key of a hierarchy in the cache.
+	 */
+	static class HierarchyKey {
+
+		private final String baseTypeIdentifier;
+
+		private final String baseTypeName;
+
+		private final String scopeIdentifier;
+
+		/** the identifier of the project of the scope. */
+		private final String projectIdentifier;
+
+		/** whether the scope is the whole project or a narrower element. */
+		private final boolean projectScope;
+
+		private final boolean includeLibraries;
+
+		HierarchyKey(final IType baseType, final IJavaElement scope, final boolean includeLibraries) {
+			this.baseTypeIdentifier = baseType.getHandleIdentifier();
+			this.baseTypeName = baseType.getFullyQualifiedName();
+			this.scopeIdentifier = scope.getHandleIdentifier();
+			this.projectIdentifier = scope.getJavaProject().getHandleIdentifier();
+			this.projectScope = scope.getElementType() == IJavaElement.JAVA_PROJECT;
+			this.includeLibraries = includeLibraries;
+		}
+
+		/**
+		 * @return {@code true} if the hierarchy is computed within a whole
+		 *         project for one of the {@link TypeHierarchyCache#PINNED_TYPE_NAMES},
+		 *         {@code false} otherwise. Hierarchies within a narrower scope
+		 *         are never pinned, since each incremental build uses its own
+		 *         scope.
+		 */
+		boolean isPinned() {
+			return projectScope && PINNED_TYPE_NAMES.contains(baseTypeName);
+		}
+
+		/**
+		 * @return {@code true} if the scope of the hierarchy is (or is within)
+		 *         the given project, {@code false} otherwise.
+		 */
+		boolean belongsTo(final IJavaProject javaProject) {
+			return projectIdentifier.equals(javaProject.getHandleIdentifier());
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + baseTypeIdentifier.hashCode();
+			result = prime * result + scopeIdentifier.hashCode();
+			result = prime * result + (includeLibraries ? 1231 : 1237);
+			return result;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			final HierarchyKey other = (HierarchyKey) obj;
+			return includeLibraries == other.includeLibraries && baseTypeIdentifier.equals(other.baseTypeIdentifier)
+					&& scopeIdentifier.equals(other.scopeIdentifier);
+		}
+	}
+
+}
@@ -43,6 +43,18 @@ public interface IJaxrsMetamodel extends IJaxrsStatus {
 	 */
 	public abstract Collection<IJaxrsEndpoint> getAllEndpoints();
 
+	/**
+	 * Returns the {@link IJaxrsEndpoint}s whose URI Path Template matches the
+	 * given concrete request path (eg: {@code /api/customers/1}), without
+	 * comparing the path with each endpoint.
+	 * 
+	 * @param requestPath
+	 *            the request path, including the application path
+	 * @return the matching endpoints (for all HTTP methods), sorted by JAX-RS
+	 *         precedence, or an empty list if none matches.
+	 */
+	public abstract List<IJaxrsEndpoint> findEndpointsByPath(final String requestPath);
+
 	/**
 	 * Searches and returns a single JAX-RS Java-based Element matching the given
 	 * {@link IJavaElement}
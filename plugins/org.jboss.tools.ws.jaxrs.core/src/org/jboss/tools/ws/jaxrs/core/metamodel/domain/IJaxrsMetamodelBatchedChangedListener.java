@@ -0,0 +1,38 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.metamodel.domain;
+
+/**
+ * Interface to get notified of the JAX-RS Metamodel changes once per build,
+ * rather than once per endpoint change.
+ * 
+ * The changes to the endpoints and to their problem levels are not notified
+ * through {@link #notifyEndpointChanged(JaxrsEndpointDelta)},
+ * {@link #notifyEndpointProblemLevelChanged(IJaxrsEndpoint)} and
+ * {@link #notifyMetamodelProblemLevelChanged(IJaxrsMetamodel)} to the
+ * listeners implementing this interface.
+ * 
+ * @author xcoulon
+ * 
+ */
+public interface IJaxrsMetamodelBatchedChangedListener extends IJaxrsMetamodelChangedListener {
+
+	/**
+	 * Method called (outside of the build) with all the changes that occurred
+	 * in a JAX-RS Metamodel during a single build.
+	 * 
+	 * @param delta
+	 *            the {@code CHANGED} delta of the
+	 *            metamodel, including the endpoint deltas.
+	 */
+	public void notifyMetamodelChanges(final JaxrsMetamodelDelta delta);
+
+}
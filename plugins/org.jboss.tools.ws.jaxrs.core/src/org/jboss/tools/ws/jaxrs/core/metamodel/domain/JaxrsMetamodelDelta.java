@@ -10,11 +10,16 @@
  ******************************************************************************/
 package org.jboss.tools.ws.jaxrs.core.metamodel.domain;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.eclipse.jdt.core.IJavaElementDelta;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.ConstantUtils;
 
 /**
- * Delta in a given {@link IJaxrsMetamodel}.
+ * Delta in a given {@link IJaxrsMetamodel}. A delta delivered to an
+ * {@link IJaxrsMetamodelBatchedChangedListener} also carries all the endpoint
+ * changes that occurred in the metamodel during a single build.
  * @author xcoulon
  *
  */
@@ -24,16 +29,42 @@ public class JaxrsMetamodelDelta {
 
 	private final int deltaKind;
 
+	private final List<JaxrsEndpointDelta> endpointDeltas;
+
+	private final List<IJaxrsEndpoint> endpointProblemLevelChanges;
+
+	private final boolean problemLevelChanged;
+
 	/**
-	 * Full constructor.
+	 * Constructor.
 	 * 
 	 * @param metamodel the {@link IJaxrsMetamodel} that changed
 	 * @param deltaKind the kind of change
 	 * @see {@link IJavaElementDelta.ADDED}, {@link IJavaElementDelta.CHANGED}, {@link IJavaElementDelta.REMOVED}
 	 */
 	public JaxrsMetamodelDelta(final IJaxrsMetamodel metamodel, final int deltaKind) {
+		this(metamodel, deltaKind, Collections.<JaxrsEndpointDelta> emptyList(), Collections
+				.<IJaxrsEndpoint> emptyList(), false);
+	}
+
+	/**
+	 * Full constructor.
+	 * 
+	 * @param metamodel the {@link IJaxrsMetamodel} that changed
+	 * @param deltaKind the kind of change
+	 * @param endpointDeltas the endpoints that were added, changed or removed
+	 * @param endpointProblemLevelChanges the endpoints whose problem level changed
+	 * @param problemLevelChanged whether the problem level of the metamodel itself changed
+	 * @see {@link IJavaElementDelta.ADDED}, {@link IJavaElementDelta.CHANGED}, {@link IJavaElementDelta.REMOVED}
+	 */
+	public JaxrsMetamodelDelta(final IJaxrsMetamodel metamodel, final int deltaKind,
+			final List<JaxrsEndpointDelta> endpointDeltas, final List<IJaxrsEndpoint> endpointProblemLevelChanges,
+			final boolean problemLevelChanged) {
 		this.metamodel = metamodel;
 		this.deltaKind = deltaKind;
+		this.endpointDeltas = Collections.unmodifiableList(endpointDeltas);
+		this.endpointProblemLevelChanges = Collections.unmodifiableList(endpointProblemLevelChanges);
+		this.problemLevelChanged = problemLevelChanged;
 	}
 
 	public IJaxrsMetamodel getMetamodel() {
@@ -49,6 +80,29 @@ public class JaxrsMetamodelDelta {
 		return deltaKind;
 	}
 
+	/**
+	 * @return the endpoints that were added, changed or removed (at most one
+	 *         delta per endpoint), in the order in which they first changed.
+	 */
+	public List<JaxrsEndpointDelta> getEndpointDeltas() {
+		return endpointDeltas;
+	}
+
+	/**
+	 * @return the endpoints whose problem level changed.
+	 */
+	public List<IJaxrsEndpoint> getEndpointProblemLevelChanges() {
+		return endpointProblemLevelChanges;
+	}
+
+	/**
+	 * @return {@code true} if the problem level of the metamodel changed,
+	 *         {@code false} otherwise.
+	 */
+	public boolean isProblemLevelChanged() {
+		return problemLevelChanged;
+	}
+
 	/**
 	 * {@inheritDoc} (non-Javadoc)
 	 * 
@@ -0,0 +1,277 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.wtp;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.SourceRange;
+
+/**
+ * A minimal model of a web deployment descriptor ({@code web.xml}) which only
+ * records its {@code <servlet-mapping>} elements, along with their location in
+ * the source file. The model is built in a single StAX pass over the file
+ * content, and is associated with the modification stamp of the file it was
+ * built from, so that it can be cached until the file changes.
+ *
+ * @author xcoulon
+ *
+ */
+public class WebDeploymentDescriptor {
+
+	private static final String SERVLET_MAPPING = "servlet-mapping";
+
+	private static final String SERVLET_NAME = "servlet-name";
+
+	private static final String URL_PATTERN = "url-pattern";
+
+	/** Shared StAX factory, created on first use. */
+	private static XMLInputFactory xmlInputFactory;
+
+	/** The modification stamp of the file this model was built from. */
+	private final long modificationStamp;
+
+	/** The servlet mappings, in the order of the file. */
+	private final List<ServletMapping> servletMappings;
+
+	WebDeploymentDescriptor(final long modificationStamp, final List<ServletMapping> servletMappings) {
+		this.modificationStamp = modificationStamp;
+		this.servletMappings = Collections.unmodifiableList(servletMappings);
+	}
+
+	/**
+	 * Builds a model from the given web deployment descriptor content.
+	 *
+	 * @param contents
+	 *            the content of the web deployment descriptor
+	 * @param modificationStamp
+	 *            the modification stamp of the underlying file
+	 * @return the model
+	 * @throws XMLStreamException
+	 *             if the content is not well-formed
+	 */
+	static WebDeploymentDescriptor parse(final String contents, final long modificationStamp)
+			throws XMLStreamException {
+		final List<ServletMapping> servletMappings = new ArrayList<ServletMapping>();
+		final XMLStreamReader reader = createXMLStreamReader(contents);
+		try {
+			// the offsets reported by StAX parsers are not reliable (some report the start of the
+			// current event, others read ahead), so the tags are located in the content instead
+			int servletMappingOffset = -1;
+			int searchOffset = 0;
+			String servletName = null;
+			String urlPattern = null;
+			while (reader.hasNext()) {
+				final int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					final String elementName = reader.getLocalName();
+					if (SERVLET_MAPPING.equals(elementName)) {
+						servletMappingOffset = indexOfTag(contents, '<' + getQualifiedName(reader), searchOffset);
+						servletName = null;
+						urlPattern = null;
+					} else if (servletMappingOffset >= 0 && SERVLET_NAME.equals(elementName) && servletName == null) {
+						servletName = reader.getElementText().trim();
+					} else if (servletMappingOffset >= 0 && URL_PATTERN.equals(elementName) && urlPattern == null) {
+						urlPattern = reader.getElementText().trim();
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT && servletMappingOffset >= 0
+						&& SERVLET_MAPPING.equals(reader.getLocalName())) {
+					final int end = getEndOfElement(contents, getQualifiedName(reader), servletMappingOffset);
+					servletMappings.add(new ServletMapping(servletName, urlPattern, new SourceRange(servletMappingOffset,
+							end - servletMappingOffset)));
+					servletMappingOffset = -1;
+					searchOffset = end;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return new WebDeploymentDescriptor(modificationStamp, servletMappings);
+	}
+
+	/**
+	 * @return the qualified name of the current element, as written in the
+	 *         source file.
+	 */
+	private static String getQualifiedName(final XMLStreamReader reader) {
+		final String prefix = reader.getPrefix();
+		return (prefix == null || prefix.isEmpty()) ? reader.getLocalName() : prefix + ':' + reader.getLocalName();
+	}
+
+	/**
+	 * @return the offset right after the end tag of the element starting at
+	 *         the given offset, or right after its start tag if the element is
+	 *         empty.
+	 */
+	private static int getEndOfElement(final String contents, final String qualifiedName, final int startOffset) {
+		final int endOfStartTag = contents.indexOf('>', startOffset);
+		if (endOfStartTag == -1) {
+			return contents.length();
+		}
+		if (contents.charAt(endOfStartTag - 1) == '/') {
+			return endOfStartTag + 1;
+		}
+		final int endTagOffset = indexOfTag(contents, "</" + qualifiedName, endOfStartTag);
+		final int endOfTag = endTagOffset >= 0 ? contents.indexOf('>', endTagOffset) : -1;
+		return endOfTag >= 0 ? endOfTag + 1 : contents.length();
+	}
+
+	/**
+	 * @return the offset of the first occurrence of the given tag opening
+	 *         (eg: {@code <servlet-mapping} or {@code </servlet-mapping})
+	 *         after the given offset, ignoring comments and longer element
+	 *         names, or {@code -1} if there is none.
+	 */
+	private static int indexOfTag(final String contents, final String tagOpening, final int fromOffset) {
+		int offset = fromOffset;
+		while (true) {
+			final int index = contents.indexOf(tagOpening, offset);
+			if (index == -1) {
+				return -1;
+			}
+			final int commentStart = indexOfComment(contents, offset, index);
+			if (commentStart >= 0) {
+				final int commentEnd = contents.indexOf("-->", commentStart);
+				if (commentEnd == -1) {
+					return -1;
+				}
+				offset = commentEnd;
+				continue;
+			}
+			final int nextCharOffset = index + tagOpening.length();
+			if (nextCharOffset < contents.length()) {
+				final char nextChar = contents.charAt(nextCharOffset);
+				if (nextChar == '>' || nextChar == '/' || Character.isWhitespace(nextChar)) {
+					return index;
+				}
+			}
+			offset = index + 1;
+		}
+	}
+
+	/**
+	 * @return the offset of the first comment starting between the given
+	 *         offsets, or {@code -1} if there is none.
+	 */
+	private static int indexOfComment(final String contents, final int fromOffset, final int toOffset) {
+		for (int i = contents.indexOf('<', fromOffset); i >= 0 && i < toOffset; i = contents.indexOf('<', i + 1)) {
+			if (contents.startsWith("<!--", i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Creates a StAX reader on the given content, which does not load the
+	 * DTD nor resolve external entities.
+	 */
+	private static XMLStreamReader createXMLStreamReader(final String contents) throws XMLStreamException {
+		synchronized (WebDeploymentDescriptor.class) {
+			if (xmlInputFactory == null) {
+				xmlInputFactory = XMLInputFactory.newInstance();
+				xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+				xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			}
+			return xmlInputFactory.createXMLStreamReader(new StringReader(contents));
+		}
+	}
+
+	/**
+	 * @return the modification stamp of the file this model was built from.
+	 */
+	public long getModificationStamp() {
+		return modificationStamp;
+	}
+
+	/**
+	 * @return the servlet mappings, in the order of the file.
+	 */
+	public List<ServletMapping> getServletMappings() {
+		return servletMappings;
+	}
+
+	/**
+	 * @param servletName
+	 *            the name of the servlet
+	 * @return the first servlet mapping for the given servlet name, or
+	 *         {@code null} if none exists.
+	 */
+	public ServletMapping getServletMapping(final String servletName) {
+		for (ServletMapping servletMapping : servletMappings) {
+			if (servletName != null && servletName.equals(servletMapping.getServletName())) {
+				return servletMapping;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "WebDeploymentDescriptor [stamp=" + modificationStamp + ", servletMappings=" + servletMappings + "]";
+	}
+
+	/**
+	 * A {@code <servlet-mapping>} element of a web deployment descriptor.
+	 */
+	public static class ServletMapping {
+
+		private final String servletName;
+
+		private final String urlPattern;
+
+		private final ISourceRange sourceRange;
+
+		ServletMapping(final String servletName, final String urlPattern, final ISourceRange sourceRange) {
+			this.servletName = servletName;
+			this.urlPattern = urlPattern;
+			this.sourceRange = sourceRange;
+		}
+
+		/**
+		 * @return the content of the {@code <servlet-name>} element, or
+		 *         {@code null} if there is none.
+		 */
+		public String getServletName() {
+			return servletName;
+		}
+
+		/**
+		 * @return the content of the first {@code <url-pattern>} element, or
+		 *         {@code null} if there is none.
+		 */
+		public String getUrlPattern() {
+			return urlPattern;
+		}
+
+		/**
+		 * @return the location of the whole {@code <servlet-mapping>} element
+		 *         in the source file.
+		 */
+		public ISourceRange getSourceRange() {
+			return sourceRange;
+		}
+
+		@Override
+		public String toString() {
+			return "ServletMapping [" + servletName + " -> " + urlPattern + "]";
+		}
+	}
+
+}
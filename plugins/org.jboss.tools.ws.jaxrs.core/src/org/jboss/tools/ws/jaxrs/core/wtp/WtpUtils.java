@@ -10,43 +10,36 @@
  ******************************************************************************/
 package org.jboss.tools.ws.jaxrs.core.wtp;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringWriter;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.ISourceRange;
-import org.eclipse.jdt.core.SourceRange;
 import org.eclipse.jst.j2ee.web.componentcore.util.WebArtifactEdit;
 import org.eclipse.wst.common.componentcore.ComponentCore;
 import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
 import org.eclipse.wst.common.componentcore.resources.IVirtualFolder;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.Logger;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.xml.sax.InputSource;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.LruCache;
+import org.jboss.tools.ws.jaxrs.core.wtp.WebDeploymentDescriptor.ServletMapping;
 
 public class WtpUtils {
 
+	/** Maximum number of web deployment descriptor models kept in the cache. */
+	static final int MAX_WEB_DEPLOYMENT_DESCRIPTORS_CACHE_SIZE = 20;
+
+	/** The models of the web deployment descriptors, indexed by the full path of their file. */
+	private static final LruCache<IPath, WebDeploymentDescriptor> webDeploymentDescriptors = new LruCache<IPath, WebDeploymentDescriptor>(
+			MAX_WEB_DEPLOYMENT_DESCRIPTORS_CACHE_SIZE, false);
+
 	public static IFolder getWebInfFolder(IProject project) {
 		final IVirtualComponent component = ComponentCore.createComponent(project);
 		if (component == null) {
@@ -78,30 +71,19 @@ public class WtpUtils {
 	 * @throws CoreException
 	 */
 	public static String getApplicationPath(IResource webxmlResource, String applicationTypeName) throws CoreException {
-		final long startTime = System.currentTimeMillis();
-		try {
-			if (webxmlResource == null) {
-				return null;
-			}
-			final String expression = "//servlet-mapping[servlet-name=\"" + applicationTypeName
-					+ "\"]/url-pattern/text()";
-			final Node urlPattern = evaluateXPathExpression(webxmlResource, expression);
-			if (urlPattern != null) {
-				Logger.debug("Found matching url-pattern: {} for class {}", urlPattern.getTextContent(),
-						applicationTypeName);
-				return urlPattern.getTextContent();
-			}
-			Logger.debug("No servlet mapping found for class '{}' in file '{}'", applicationTypeName,
-					webxmlResource.getProjectRelativePath());
-			return null;
-		} catch (Exception e) {
-			Logger.error("Unable to parse file '" + webxmlResource.getProjectRelativePath().toOSString()
-					+ "' to find <servlet-mapping> elements", e);
+		final WebDeploymentDescriptor webDeploymentDescriptor = getWebDeploymentDescriptorModel(webxmlResource);
+		if (webDeploymentDescriptor == null) {
 			return null;
-		} finally {
-			Logger.tracePerf("Found application path for {} in web.xml in {}ms", applicationTypeName,
-					(System.currentTimeMillis() - startTime));
 		}
+		final ServletMapping servletMapping = webDeploymentDescriptor.getServletMapping(applicationTypeName);
+		if (servletMapping != null && servletMapping.getUrlPattern() != null) {
+			Logger.debug("Found matching url-pattern: {} for class {}", servletMapping.getUrlPattern(),
+					applicationTypeName);
+			return servletMapping.getUrlPattern();
+		}
+		Logger.debug("No servlet mapping found for class '{}' in file '{}'", applicationTypeName,
+				webxmlResource.getProjectRelativePath());
+		return null;
 	}
 
 	/**
@@ -133,118 +115,74 @@ public class WtpUtils {
 			Logger.debug("No deployment descriptor '{}' does not exists", webxmlResource.getLocation());
 			return null;
 		}
-		try {
-			final String expression = "//servlet-mapping[servlet-name=\"" + applicationTypeName + "\"]";
-			final Node servletMappingNode = evaluateXPathExpression(webxmlResource, expression);
-			if (servletMappingNode != null) {
-				StringWriter writer = new StringWriter();
-				Transformer transformer = TransformerFactory.newInstance().newTransformer();
-				transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-				transformer.transform(new DOMSource(servletMappingNode), new StreamResult(writer));
-				String servletMappingXml = writer.toString();
-				Logger.debug("Found matching servlet-mapping: {}", servletMappingXml);
-				final InputStream contents = ((IFile) webxmlResource).getContents();
-				int offset = findLocation(contents, servletMappingXml);
-				if (offset != -1) {
-					int length = servletMappingXml.length();
-					return new SourceRange(offset - length + 1, length);
-				}
-				return new SourceRange(0, 0);
-			}
-		} catch (Exception e) {
-			Logger.error("Unable to parse file '" + webxmlResource.getProjectRelativePath().toOSString()
-					+ "' to find <servlet-mapping> elements", e);
+		final WebDeploymentDescriptor webDeploymentDescriptor = getWebDeploymentDescriptorModel(webxmlResource);
+		final ServletMapping servletMapping = webDeploymentDescriptor != null ? webDeploymentDescriptor
+				.getServletMapping(applicationTypeName) : null;
+		if (servletMapping != null) {
+			Logger.debug("Found matching servlet-mapping: {}", servletMapping);
+			return servletMapping.getSourceRange();
 		}
-
 		Logger.debug("No servlet mapping found for class '{}' in file '{}'", applicationTypeName,
 				webxmlResource.getProjectRelativePath());
 		return null;
 	}
 
 	/**
-	 * Return the searchString location in the input source
+	 * Returns the model of the given web deployment descriptor, which is parsed
+	 * again only if the file was modified since the last call.
 	 * 
-	 * @param reader
-	 * @param searchString
-	 * @return the matching location or -1 if not found
-	 * @throws IOException
+	 * @param webxmlResource
+	 *            the web deployment descriptor
+	 * @return the model or null if the given webxmlresource is null or does
+	 *         not exist, or if an error occurred while reading it.
 	 */
-	private static int findLocation(InputStream stream, String searchString) throws IOException {
-		char[] buffer = new char[1024];
-		int location = -1;
-		int numCharsRead;
-		int count = 0;
-		Reader reader = null;
+	public static WebDeploymentDescriptor getWebDeploymentDescriptorModel(final IResource webxmlResource) {
+		if (!(webxmlResource instanceof IFile) || !webxmlResource.exists()) {
+			return null;
+		}
+		final IFile webxmlFile = (IFile) webxmlResource;
+		final long modificationStamp = webxmlFile.getModificationStamp();
+		final WebDeploymentDescriptor cachedWebDeploymentDescriptor = webDeploymentDescriptors.get(webxmlFile
+				.getFullPath());
+		if (cachedWebDeploymentDescriptor != null
+				&& cachedWebDeploymentDescriptor.getModificationStamp() == modificationStamp) {
+			return cachedWebDeploymentDescriptor;
+		}
+		final long start = Metrics.start();
+		WebDeploymentDescriptor webDeploymentDescriptor = null;
 		try {
-			reader = new InputStreamReader(stream);
-			// reading the stream
-			while ((numCharsRead = reader.read(buffer)) > 0) {
-				// reading the buffer
-				for (int c = 0; c < numCharsRead; c++) {
-					location++;
-					// character matching -> keep counting
-					if (buffer[c] == searchString.charAt(count)) {
-						count++;
-					}
-					// character mismatch -> reset counter
-					else {
-						count = 0;
-					}
-					// whole match -> \o/
-					if (count == searchString.length()) {
-						return location;
-					}
-				}
-			}
-			return -1;
+			webDeploymentDescriptor = WebDeploymentDescriptor.parse(readContents(webxmlFile), modificationStamp);
+		} catch (Exception e) {
+			Logger.error("Error while analyzing web deployment descriptor", e);
+			// keep an empty model until the file changes again, rather than
+			// failing on each lookup
+			webDeploymentDescriptor = new WebDeploymentDescriptor(modificationStamp,
+					new ArrayList<ServletMapping>());
 		} finally {
-			if (reader != null) {
-				reader.close();
-			}
+			Metrics.WEBXML_PARSE.stop(start);
 		}
+		webDeploymentDescriptors.put(webxmlFile.getFullPath(), webDeploymentDescriptor);
+		return webDeploymentDescriptor;
 	}
 
 	/**
-	 * Evaluate the (XPath) expression on the given resource.
-	 * 
-	 * @param webxmlResource
-	 * @param applicationTypeName
-	 * @return the xpath expression evalutation or null if the given
-	 *         webxmlresource is null or does not exist, or if an error
-	 *         occurred.
+	 * @return the content of the given file, decoded with the file's charset.
+	 * @throws CoreException
+	 * @throws IOException
 	 */
-	private static Node evaluateXPathExpression(final IResource webxmlResource, final String expression) {
-		if(webxmlResource == null || !webxmlResource.exists()) {
-			return null;
-		}
-		FileInputStream fileInputStream = null;
+	private static String readContents(final IFile file) throws CoreException, IOException {
+		final StringBuilder contents = new StringBuilder();
+		final Reader reader = new InputStreamReader(file.getContents(true), file.getCharset());
 		try {
-			DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-			dbf.setNamespaceAware(false); // never forget this!
-			dbf.setValidating(false);
-			dbf.setFeature("http://xml.org/sax/features/namespaces", false);
-			dbf.setFeature("http://xml.org/sax/features/validation", false);
-			dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-			dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-			DocumentBuilder builder = dbf.newDocumentBuilder();
-			fileInputStream = new FileInputStream(webxmlResource.getLocation().toFile());
-			InputSource inputSource = new InputSource(fileInputStream);
-			Document doc = builder.parse(inputSource);
-			XPath xpath = XPathFactory.newInstance().newXPath();
-			XPathExpression expr = xpath.compile(expression);
-			Node servletMapping = (Node) expr.evaluate(doc, XPathConstants.NODE);
-			return servletMapping;
-		} catch (Exception e) {
-			Logger.error("Error while analyzing web deployment descriptor", e);
-		} finally {
-			if (fileInputStream != null) {
-				try {
-					fileInputStream.close();
-				} catch (IOException e) {
-				}
+			final char[] buffer = new char[8192];
+			int numCharsRead;
+			while ((numCharsRead = reader.read(buffer)) > 0) {
+				contents.append(buffer, 0, numCharsRead);
 			}
+			return contents.toString();
+		} finally {
+			reader.close();
 		}
-		return null;
 	}
 
 	/**
@@ -19,10 +19,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jface.viewers.ITreeContentProvider;
-import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
-import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.navigator.resources.ProjectExplorer;
 import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.configuration.ProjectNatureUtils;
@@ -35,7 +33,8 @@ import org.jboss.tools.ws.jaxrs.ui.internal.utils.Logger;
 
 public class UriMappingsContentProvider implements ITreeContentProvider, IJaxrsMetamodelChangedListener {
 
-	private TreeViewer viewer;
+	/** Coalesces the refreshes and updates of the viewer. */
+	private final UriMappingsRefreshScheduler refreshScheduler = new UriMappingsRefreshScheduler();
 
 	private Map<IProject, UriPathTemplateCategory> uriPathTemplateCategories = new HashMap<IProject, UriPathTemplateCategory>();
 
@@ -102,12 +101,13 @@ public class UriMappingsContentProvider implements ITreeContentProvider, IJaxrsM
 
 	@Override
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
-		this.viewer = (TreeViewer) viewer;
+		refreshScheduler.setViewer((TreeViewer) viewer);
 	}
 
 	@Override
 	public void dispose() {
 		JBossJaxrsCorePlugin.getDefault().removeListener(this);
+		refreshScheduler.dispose();
 		uriPathTemplateCategories = null;
 	}
 
@@ -138,9 +138,7 @@ public class UriMappingsContentProvider implements ITreeContentProvider, IJaxrsM
 			final UriPathTemplateCategory uriPathTemplateCategory = uriPathTemplateCategories.get(project);
 			final UriPathTemplateElement target = uriPathTemplateCategory.getUriPathTemplateElement(endpoint);
 			if(target != null) {
-				Logger.debug("Refreshing navigator view at level: '{}'", target.getClass().getName());
-				// this piece of code must run in an async manner to avoid reentrant
-				// call while viewer is busy.
+				Logger.debug("Updating navigator view at level: '{}'", target.getClass().getName());
 				updateContent(target);
 			}
 		}
@@ -224,9 +222,6 @@ public class UriMappingsContentProvider implements ITreeContentProvider, IJaxrsM
 			// during initialization, UI may not be available yet.
 			if (target != null) {
 				Logger.debug("Refreshing navigator view at level: '{}'", target.getClass().getName());
-				// this piece of code must run in an async manner to avoid
-				// reentrant
-				// call while viewer is busy.
 				refreshTarget(target);
 			}
 		}
@@ -234,54 +229,25 @@ public class UriMappingsContentProvider implements ITreeContentProvider, IJaxrsM
 
 	/**
 	 * Refresh the whole JAX-RS Content tree for the <strong>given target node and all
-	 * its subelements</strong>.
+	 * its subelements</strong>. The refresh is coalesced with the other pending
+	 * refreshes and updates.
 	 * 
 	 * @param target
 	 *            the node to refresh
 	 */
 	private void refreshTarget(final Object target) {
-		// this piece of code must run in an async manner to avoid reentrant
-		// call while viewer is busy.
-		Display.getDefault().asyncExec(new Runnable() {
-			@Override
-			public void run() {
-				if (viewer != null) {
-					TreePath[] treePaths = viewer.getExpandedTreePaths();
-					Logger.debug("*** Refreshing the viewer (busy: {}) ***", viewer.isBusy());
-					viewer.refresh(target, true);
-					viewer.setExpandedTreePaths(treePaths);
-					Logger.debug("*** Refreshing the viewer... done ***");
-				} else {
-					Logger.debug("*** Cannot refresh: viewer is null :-( ***");
-				}
-			}
-		});
+		refreshScheduler.scheduleRefresh(target);
 	}
 
 	/**
 	 * Updates only the JAX-RS tree node for the given <strong>target node only, but skips its subelements</strong>.
+	 * The update is coalesced with the other pending refreshes and updates.
 	 * 
 	 * @param target
 	 *            the node to refresh
 	 */
 	protected void updateContent(final Object target) {
-		// this piece of code must run in an async manner to avoid reentrant
-		// call while viewer is busy.
-		Display.getDefault().asyncExec(new Runnable() {
-			@Override
-			public void run() {
-				if (viewer != null && target != null) {
-					TreePath[] treePaths = viewer.getExpandedTreePaths();
-					Logger.debug("*** Updating the viewer at target level: {} (viewer busy: {}) ***", target,
-							viewer.isBusy());
-					viewer.update(target, null);
-					viewer.setExpandedTreePaths(treePaths);
-					Logger.debug("*** Refreshing the viewer... done ***");
-				} else {
-					Logger.debug("*** Cannot refresh: viewer is null :-( ***");
-				}
-			}
-		});
+		refreshScheduler.scheduleUpdate(target);
 	}
 	
 	public static class LoadingStub {
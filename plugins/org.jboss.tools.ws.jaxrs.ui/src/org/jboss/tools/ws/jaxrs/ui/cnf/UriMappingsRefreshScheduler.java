@@ -0,0 +1,209 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.ui.cnf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Display;
+import org.jboss.tools.ws.jaxrs.ui.internal.utils.Logger;
+
+/**
+ * Collects the nodes of the JAX-RS Web Services tree that need to be refreshed
+ * (including their sub-elements) or updated (label only) during a short
+ * window, then refreshes the viewer with a minimal set of calls on the UI
+ * thread:
+ * <ul>
+ * <li>a node is not refreshed if one of its ancestors is refreshed, too,</li>
+ * <li>a node is not updated if it or one of its ancestors is refreshed, since
+ * the refresh also updates the labels,</li>
+ * <li>all remaining nodes to update are updated in a single call.</li>
+ * </ul>
+ * 
+ * @author xcoulon
+ *
+ */
+public class UriMappingsRefreshScheduler {
+
+	/** The delay (in milliseconds) during which the targets are collected before the viewer is refreshed. */
+	static final int REFRESH_DELAY = 150;
+
+	private TreeViewer viewer;
+
+	/** The nodes to refresh along with all their sub-elements. */
+	private final Set<Object> refreshTargets = new LinkedHashSet<Object>();
+
+	/** The nodes whose label only needs to be updated. */
+	private final Set<Object> updateTargets = new LinkedHashSet<Object>();
+
+	/** Whether a refresh of the viewer is already scheduled. */
+	private boolean scheduled = false;
+
+	private boolean disposed = false;
+
+	/**
+	 * Sets the viewer to refresh
+	 * 
+	 * @param viewer
+	 *            the viewer
+	 */
+	public synchronized void setViewer(final TreeViewer viewer) {
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Schedules a refresh of the given node and all its sub-elements.
+	 * 
+	 * @param target
+	 *            the node to refresh
+	 */
+	public void scheduleRefresh(final Object target) {
+		if (target != null) {
+			schedule(target, refreshTargets);
+		}
+	}
+
+	/**
+	 * Schedules an update of the given node's label (without its
+	 * sub-elements).
+	 * 
+	 * @param target
+	 *            the node to update
+	 */
+	public void scheduleUpdate(final Object target) {
+		if (target != null) {
+			schedule(target, updateTargets);
+		}
+	}
+
+	private void schedule(final Object target, final Set<Object> targets) {
+		synchronized (this) {
+			if (disposed) {
+				return;
+			}
+			targets.add(target);
+			if (scheduled) {
+				return;
+			}
+			scheduled = true;
+		}
+		// timers can only be set from the UI thread
+		final Display display = Display.getDefault();
+		display.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				display.timerExec(REFRESH_DELAY, new Runnable() {
+					@Override
+					public void run() {
+						flush();
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Refreshes and updates the collected targets in the viewer. Must be
+	 * called from the UI thread.
+	 */
+	void flush() {
+		final TreeViewer currentViewer;
+		final List<Object> refreshes;
+		final List<Object> updates;
+		synchronized (this) {
+			scheduled = false;
+			currentViewer = this.viewer;
+			refreshes = getMinimalRefreshTargets(refreshTargets);
+			updates = getMinimalUpdateTargets(updateTargets, refreshTargets);
+			refreshTargets.clear();
+			updateTargets.clear();
+		}
+		if (currentViewer == null || currentViewer.getControl() == null || currentViewer.getControl().isDisposed()) {
+			Logger.debug("*** Cannot refresh: viewer is null or disposed :-( ***");
+			return;
+		}
+		Logger.debug("*** Refreshing {} and updating {} node(s) in the viewer (busy: {}) ***", refreshes.size(),
+				updates.size(), currentViewer.isBusy());
+		final TreePath[] treePaths = currentViewer.getExpandedTreePaths();
+		for (Object target : refreshes) {
+			currentViewer.refresh(target, true);
+		}
+		if (!updates.isEmpty()) {
+			currentViewer.update(updates.toArray(), null);
+		}
+		currentViewer.setExpandedTreePaths(treePaths);
+		Logger.debug("*** Refreshing the viewer... done ***");
+	}
+
+	/**
+	 * Discards the pending targets and ignores all further targets.
+	 */
+	public synchronized void dispose() {
+		this.disposed = true;
+		this.viewer = null;
+		this.refreshTargets.clear();
+		this.updateTargets.clear();
+	}
+
+	/**
+	 * @return the given targets to refresh, except those that have an ancestor
+	 *         in the given targets, too.
+	 */
+	static List<Object> getMinimalRefreshTargets(final Collection<Object> refreshTargets) {
+		final List<Object> minimalRefreshTargets = new ArrayList<Object>(refreshTargets.size());
+		for (Object target : refreshTargets) {
+			if (!hasAncestorIn(target, refreshTargets)) {
+				minimalRefreshTargets.add(target);
+			}
+		}
+		return minimalRefreshTargets;
+	}
+
+	/**
+	 * @return the given targets to update, except those that are refreshed,
+	 *         either directly or via one of their ancestors.
+	 */
+	static List<Object> getMinimalUpdateTargets(final Collection<Object> updateTargets,
+			final Collection<Object> refreshTargets) {
+		final List<Object> minimalUpdateTargets = new ArrayList<Object>(updateTargets.size());
+		for (Object target : updateTargets) {
+			if (!refreshTargets.contains(target) && !hasAncestorIn(target, refreshTargets)) {
+				minimalUpdateTargets.add(target);
+			}
+		}
+		return minimalUpdateTargets;
+	}
+
+	private static boolean hasAncestorIn(final Object target, final Collection<Object> candidates) {
+		Object ancestor = getParent(target);
+		while (ancestor != null) {
+			if (candidates.contains(ancestor)) {
+				return true;
+			}
+			ancestor = getParent(ancestor);
+		}
+		return false;
+	}
+
+	private static Object getParent(final Object element) {
+		if (element instanceof ITreeContentProvider) {
+			return ((ITreeContentProvider) element).getParent(element);
+		}
+		return null;
+	}
+
+}
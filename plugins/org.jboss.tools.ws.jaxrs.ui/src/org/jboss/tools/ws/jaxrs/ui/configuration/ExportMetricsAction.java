@@ -0,0 +1,89 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.ui.configuration;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.IObjectActionDelegate;
+import org.eclipse.ui.IWorkbenchPart;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics.Format;
+import org.jboss.tools.ws.jaxrs.ui.internal.utils.Logger;
+
+/**
+ * Action to export the metrics collected by the JAX-RS tooling in a JSON or
+ * CSV file (depending on the chosen file extension), so that they can be
+ * attached to a bug report. If the metrics collection is disabled, the user is
+ * offered to enable it instead.
+ * 
+ * @author xcoulon
+ * 
+ */
+public class ExportMetricsAction implements IObjectActionDelegate {
+
+	private static final String TITLE = "JAX-RS Tooling Metrics";
+
+	/** the part in which the action was triggered. */
+	private IWorkbenchPart targetPart = null;
+
+	@Override
+	public void run(final IAction action) {
+		final Shell shell = targetPart != null ? targetPart.getSite().getShell() : null;
+		if (!Metrics.isEnabled()) {
+			if (MessageDialog.openQuestion(shell, TITLE,
+					"The JAX-RS tooling metrics are not collected. Do you want to start collecting them now?")) {
+				Metrics.setEnabled(true);
+			}
+			return;
+		}
+		final FileDialog fileDialog = new FileDialog(shell, SWT.SAVE);
+		fileDialog.setText(TITLE);
+		fileDialog.setFilterExtensions(new String[] { "*.json", "*.csv" });
+		fileDialog.setFileName("jaxrs-metrics.json");
+		fileDialog.setOverwrite(true);
+		final String fileName = fileDialog.open();
+		if (fileName == null) {
+			return;
+		}
+		final Format format = fileName.toLowerCase().endsWith(".csv") ? Format.CSV : Format.JSON;
+		try {
+			final Writer writer = new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8");
+			try {
+				Metrics.export(writer, format);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			Logger.error("Failed to export the JAX-RS tooling metrics in " + fileName, e);
+			MessageDialog.openError(shell, TITLE, "Failed to export the metrics: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void selectionChanged(final IAction action, final ISelection selection) {
+	}
+
+	@Override
+	public void setActivePart(final IAction action, final IWorkbenchPart targetPart) {
+		this.targetPart = targetPart;
+	}
+
+}
@@ -0,0 +1,150 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.ui.internal.validation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ISourceRange;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsBaseElement;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
+
+/**
+ * {@link IMarkerManager} that only records the problems reported by the
+ * validator delegates, grouped by JAX-RS element (or metamodel), so that the
+ * delegates can run concurrently and the actual markers can be created later
+ * on, in a single workspace operation. This class is thread-safe.
+ *
+ * @author Xavier Coulon
+ *
+ */
+class JaxrsMarkerCollector implements IMarkerManager {
+
+	/** The recorded problems, indexed by JAX-RS element or metamodel, in reporting order. */
+	private final Map<Object, List<Problem>> problems = new LinkedHashMap<Object, List<Problem>>();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IMarker addMarker(final JaxrsMetamodel metamodel, final String message, final String[] messageArguments,
+			final String preferenceKey) throws CoreException {
+		record(metamodel, new Problem(null, message, messageArguments, preferenceKey, 0));
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IMarker addMarker(final JaxrsBaseElement element, final ISourceRange range, final String message,
+			final String[] messageArguments, final String preferenceKey) throws CoreException {
+		record(element, new Problem(range, message, messageArguments, preferenceKey, -1));
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IMarker addMarker(final JaxrsBaseElement element, final ISourceRange range, final String message,
+			final String[] messageArguments, final String preferenceKey, final int quickFixId) throws CoreException {
+		record(element, new Problem(range, message, messageArguments, preferenceKey, quickFixId));
+		return null;
+	}
+
+	private synchronized void record(final Object target, final Problem problem) {
+		if (target == null) {
+			return;
+		}
+		if (!problems.containsKey(target)) {
+			problems.put(target, new ArrayList<Problem>());
+		}
+		problems.get(target).add(problem);
+	}
+
+	/**
+	 * @return the number of recorded problems.
+	 */
+	synchronized int size() {
+		int size = 0;
+		for (List<Problem> elementProblems : problems.values()) {
+			size += elementProblems.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Reports all recorded problems to the given {@link IMarkerManager}, element
+	 * after element.
+	 *
+	 * @param markerManager
+	 *            the marker manager that will actually create the markers
+	 * @param excludedResources
+	 *            the resources whose problems should not be reported (eg:
+	 *            because their validation failed)
+	 * @throws CoreException
+	 */
+	synchronized void replay(final IMarkerManager markerManager, final Set<IResource> excludedResources)
+			throws CoreException {
+		for (Entry<Object, List<Problem>> entry : problems.entrySet()) {
+			if (entry.getKey() instanceof JaxrsBaseElement
+					&& excludedResources.contains(((JaxrsBaseElement) entry.getKey()).getResource())) {
+				continue;
+			}
+			for (Problem problem : entry.getValue()) {
+				if (entry.getKey() instanceof JaxrsMetamodel) {
+					markerManager.addMarker((JaxrsMetamodel) entry.getKey(), problem.message, problem.messageArguments,
+							problem.preferenceKey);
+				} else if (problem.quickFixId < 0) {
+					markerManager.addMarker((JaxrsBaseElement) entry.getKey(), problem.range, problem.message,
+							problem.messageArguments, problem.preferenceKey);
+				} else {
+					markerManager.addMarker((JaxrsBaseElement) entry.getKey(), problem.range, problem.message,
+							problem.messageArguments, problem.preferenceKey, problem.quickFixId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A problem reported by a validator delegate.
+	 */
+	static class Problem {
+
+		final ISourceRange range;
+
+		final String message;
+
+		final String[] messageArguments;
+
+		final String preferenceKey;
+
+		final int quickFixId;
+
+		Problem(final ISourceRange range, final String message, final String[] messageArguments,
+				final String preferenceKey, final int quickFixId) {
+			this.range = range;
+			this.message = message;
+			this.messageArguments = messageArguments;
+			this.preferenceKey = preferenceKey;
+			this.quickFixId = quickFixId;
+		}
+	}
+
+}
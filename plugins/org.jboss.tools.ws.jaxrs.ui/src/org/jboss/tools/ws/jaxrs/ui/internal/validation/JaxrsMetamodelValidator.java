@@ -12,18 +12,7 @@ package org.jboss.tools.ws.jaxrs.ui.internal.validation;
 
 import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.APPLICATION_JAVA;
 import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.APPLICATION_WEBXML;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.CONTAINER_FILTER;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.CONTAINER_REQUEST_FILTER;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.CONTAINER_RESPONSE_FILTER;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.ENTITY_INTERCEPTOR;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.ENTITY_READER_INTERCEPTOR;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.ENTITY_WRITER_INTERCEPTOR;
 import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.NAME_BINDING;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.ROOT_RESOURCE;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.SUBRESOURCE;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.SUBRESOURCE_LOCATOR;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.UNDEFINED_PROVIDER;
-import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind.UNDEFINED_RESOURCE;
 import static org.jboss.tools.ws.jaxrs.core.validation.IJaxrsValidation.JAXRS_PROBLEM_MARKER_ID;
 
 import java.util.ArrayList;
@@ -36,12 +25,24 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
@@ -50,7 +51,6 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.ISourceRange;
-import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jface.text.IRegion;
@@ -73,18 +73,17 @@ import org.jboss.tools.common.validation.ValidatorManager;
 import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.configuration.ProjectNatureUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelBuilder;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelEventBus;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsBaseElement;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsJavaElement;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsShadowElementsCache;
-import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JavaElementsSearcher;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementKind;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsApplication;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
-import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsProvider;
-import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsResource;
 import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelLocator;
 import org.jboss.tools.ws.jaxrs.ui.JBossJaxrsUIPlugin;
 import org.jboss.tools.ws.jaxrs.ui.internal.utils.Logger;
@@ -112,12 +111,30 @@ public class JaxrsMetamodelValidator extends TempMarkerManager implements IValid
 	public static final String JAXRS_PROBLEM_TYPE = "problemType";
 	/** No quickfix */
 	private static final int NO_QUICKFIX = -1;
+	/** Minimum number of elements per worker thread, below which elements are validated sequentially. */
+	private static final int MIN_ELEMENTS_PER_WORKER = 25;
+	/** Maximum number of worker threads used to validate the elements. */
+	private final int maxWorkers;
+	/** The pool of worker threads shared by all validations, created on first use. */
+	private static ExecutorService workerPool;
 	
 	/**
 	 * Constructor.
 	 */
 	public JaxrsMetamodelValidator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor (visible for testing).
+	 * 
+	 * @param maxWorkers
+	 *            the maximum number of worker threads used to validate the
+	 *            elements ({@code 1} to validate them sequentially)
+	 */
+	public JaxrsMetamodelValidator(final int maxWorkers) {
 		super.setProblemType(JAXRS_PROBLEM_MARKER_ID);
+		this.maxWorkers = maxWorkers;
 	}
 	
 	/**
@@ -201,10 +218,6 @@ public class JaxrsMetamodelValidator extends TempMarkerManager implements IValid
 		resources.addAll(Arrays.asList(changedResources));
 		final Set<EnumElementKind> elementKindChanges = analyzeChangeResources(metamodel, changedResources);
 		boolean applicationsChanged = elementKindChanges.contains(APPLICATION_JAVA) || elementKindChanges.contains(APPLICATION_WEBXML);
-		boolean resourcesChanged = elementKindChanges.contains(ROOT_RESOURCE) || elementKindChanges.contains(SUBRESOURCE) || elementKindChanges.contains(SUBRESOURCE_LOCATOR) || elementKindChanges.contains(UNDEFINED_RESOURCE);
-		boolean filtersChanged = elementKindChanges.contains(CONTAINER_FILTER) || elementKindChanges.contains(CONTAINER_REQUEST_FILTER) || elementKindChanges.contains(CONTAINER_RESPONSE_FILTER) || elementKindChanges.contains(UNDEFINED_PROVIDER);
-		boolean interceptorsChanged = elementKindChanges.contains(ENTITY_INTERCEPTOR) || elementKindChanges.contains(ENTITY_READER_INTERCEPTOR) || elementKindChanges.contains(ENTITY_WRITER_INTERCEPTOR);
-		boolean nameBindingChanged = elementKindChanges.contains(NAME_BINDING);
 		
 		// if there was an Application, add all other Applications and the
 		// project (to check for
@@ -213,40 +226,14 @@ public class JaxrsMetamodelValidator extends TempMarkerManager implements IValid
 			resources.addAll(getApplicationUnderlyingResources(metamodel));
 			resources.add(project);
 		}
-		// if there are Applications, Resources (incl. ResourceMethods), then
-		// also include Filters and Interceptors (to check for NameBindings).
-		if (applicationsChanged || resourcesChanged) {
-			resources.addAll(getFiltersAndInterceptorsUnderlyingResources(metamodel));
-		}
-		// if there are Filters or Interceptors, add all Applications, Resources
-		// (incl. ResourceMethods) (to check for NameBindings).
-		if (filtersChanged || interceptorsChanged) {
-			resources.addAll(getApplicationUnderlyingResources(metamodel));
-			resources.addAll(getResourceUnderlyingResources(metamodel));
-		}
-		// if there was a NameBinding, add all Applications, Resources (incl.
-		// ResourceMethods), Filters and Interceptors (to check for
-		// NameBindings).
-		if (nameBindingChanged) {
-			resources.addAll(getApplicationUnderlyingResources(metamodel));
-			resources.addAll(getFiltersAndInterceptorsUnderlyingResources(metamodel));
-			resources.addAll(getResourceUnderlyingResources(metamodel));
-		}
-		// check if the given changedFile is *referenced* in JAX-RS elements of the metamodel (for cross-type validation)
-		final List<IType> knownTypes = metamodel.getAllJavaElements(IJavaElement.TYPE);
-		for(IFile changedResource : changedResources) {
-			final ICompilationUnit changedCompilationUnit = JdtUtils.getCompilationUnit(changedResource);
-			if(changedCompilationUnit != null) {
-				final Collection<IType> foundRelatedTypes = JavaElementsSearcher.findRelatedTypes(changedCompilationUnit.findPrimaryType(), knownTypes, new NullProgressMonitor());
-				for(IType relatedType : foundRelatedTypes) {
-					resources.add(relatedType.getResource());
-				}
-			}
-		}
-		// if the given changedFile matches a ParamConverterProvider, add all JAX-RS resources (naive approach).
-		if(elementKindChanges.contains(EnumElementKind.PARAM_CONVERTER_PROVIDER)) {
-			resources.addAll(getResourceUnderlyingResources(metamodel));
+		// add the resources that depend on the changed ones (through
+		// NameBindings, ParamConverterProviders, Parameter Aggregators or any
+		// other referenced type), before and after the change.
+		for (IFile changedResource : changedResources) {
+			resources.addAll(metamodel.getDependentResources(changedResource));
 		}
+		Logger.debug("Validation set completed with {} resource(s) after {} file(s) changed", resources.size(),
+				changedResources.length);
 		// check if there are JAX-RS element changes in the given resources 
 		if(!elementKindChanges.isEmpty()) {
 			resources.add(project);
@@ -293,33 +280,6 @@ public class JaxrsMetamodelValidator extends TempMarkerManager implements IValid
 		return elementKindChanges;
 	}
 
-	/**
-	 * @return all underlying {@link IResource}s of the {@link IJaxrsProvider}s
-	 *         in the given {@link JaxrsMetamodel}, if they are
-	 *         {@code Container Filters} or {@code Interceptors}.
-	 * @param metamodel
-	 *            the metamodel to use
-	 */
-	private Set<IResource> getFiltersAndInterceptorsUnderlyingResources(final JaxrsMetamodel metamodel) {
-		final Set<IResource> providerResources = new HashSet<IResource>();
-		final Collection<IJaxrsProvider> providers = metamodel.findAllProviders();
-		for (IJaxrsProvider provider : providers) {
-			switch (provider.getElementKind()) {
-			case CONTAINER_REQUEST_FILTER:
-			case CONTAINER_RESPONSE_FILTER:
-			case CONTAINER_FILTER:
-			case ENTITY_READER_INTERCEPTOR:
-			case ENTITY_WRITER_INTERCEPTOR:
-			case ENTITY_INTERCEPTOR:
-				providerResources.add(provider.getResource());
-				break;
-			default:
-				break;
-			}
-		}
-		return providerResources;
-	}
-
 	/**
 	 * @return all underlying {@link IResource}s of the
 	 *         {@link IJaxrsApplication}s in the given {@link JaxrsMetamodel}.
@@ -336,22 +296,6 @@ public class JaxrsMetamodelValidator extends TempMarkerManager implements IValid
 		return applicationResources;
 	}
 
-	/**
-	 * @return all underlying {@link IResource}s of the {@link IJaxrsResource}s
-	 *         in the given {@link JaxrsMetamodel}.
-	 * @param metamodel
-	 *            the metamodel to use
-	 */
-	private Set<IResource> getResourceUnderlyingResources(final JaxrsMetamodel metamodel) {
-		Logger.debug("Adding all JAX-RS Resources (and children) and project in the set of files to validate...");
-		final Set<IResource> resourceResources = new HashSet<IResource>();
-		final Collection<IJaxrsResource> resources = metamodel.findAllResources();
-		for (IJaxrsResource resource : resources) {
-			resourceResources.add(resource.getResource());
-		}
-		return resourceResources;
-	}
-
 	/** 
 	 * 
 	 * @param element the {@link IJaxrsElement}
@@ -480,85 +424,258 @@ public class JaxrsMetamodelValidator extends TempMarkerManager implements IValid
 				continue;
 			}
 			elementsToValidate.add(element);
-			removeMarkers(element);
-		}
-		// perform the validation
-		for(IJaxrsElement element : elementsToValidate) {
-			@SuppressWarnings("unchecked")
-			final IJaxrsElementValidator<IJaxrsElement> validator = (IJaxrsElementValidator<IJaxrsElement>) getValidator(element);
-			if (validator != null) {
-				validator.validate(element, getAST(element));
-			}
 		}
-		if(validateMetamodel) {
-			validate(metamodel);
+		// perform the validation, collecting the problems instead of creating the markers right away
+		final JaxrsMarkerCollector markerCollector = new JaxrsMarkerCollector();
+		final Set<IResource> failedResources;
+		final long start = Metrics.start();
+		try {
+			failedResources = validate(elementsToValidate, new ValidatorDelegates(markerCollector));
+			if(validateMetamodel) {
+				new JaxrsMetamodelValidatorDelegate(markerCollector).validate(metamodel);
+			}
+		} finally {
+			Metrics.VALIDATION.stop(start);
 		}
+		// replace the previous markers with the new ones in a single workspace operation,
+		// except on the resources whose validation failed, which keep their previous markers
+		final IWorkspaceRunnable markersUpdate = new IWorkspaceRunnable() {
+			@Override
+			public void run(final IProgressMonitor monitor) throws CoreException {
+				if (validateMetamodel) {
+					removeJaxrsMarkers(metamodel.getProject());
+					metamodel.resetProblemLevel();
+				}
+				for (IJaxrsElement element : elementsToValidate) {
+					if (!failedResources.contains(element.getResource())) {
+						removeMarkers(element);
+					}
+				}
+				markerCollector.replay(JaxrsMetamodelValidator.this, failedResources);
+			}
+		};
+		Logger.debug("Reporting {} problem(s) after validating {} element(s)", markerCollector.size(), elementsToValidate.size());
+		ResourcesPlugin.getWorkspace().run(markersUpdate, null, IWorkspace.AVOID_UPDATE, null);
 		// check if problem level changed on endpoints, notify the UI if changes occurred
-		for(IJaxrsEndpoint endpoint : endpoints) {
-			final int previousProblemLevel = endpointProblemSeverities.get(endpoint.getIdentifier());
-			final int currentProblemLevel = endpoint.getProblemLevel();
-			if(currentProblemLevel != previousProblemLevel) {
-				JBossJaxrsCorePlugin.notifyEndpointProblemLevelChanged(endpoint);
+		// (all changes are delivered together at the end of the transaction)
+		final JaxrsMetamodelEventBus eventBus = JaxrsMetamodelEventBus.getInstance();
+		eventBus.beginTransaction();
+		try {
+			for(IJaxrsEndpoint endpoint : endpoints) {
+				final int previousProblemLevel = endpointProblemSeverities.get(endpoint.getIdentifier());
+				final int currentProblemLevel = endpoint.getProblemLevel();
+				if(currentProblemLevel != previousProblemLevel) {
+					JBossJaxrsCorePlugin.notifyEndpointProblemLevelChanged(endpoint);
+				}
 			}
-		}
-		// check if problem level changed at the metamodel level, too
-		final int currentMetamodelProblemSeverity = metamodel.getProblemSeverity();
-		if(currentMetamodelProblemSeverity != previousMetamodelProblemSeverity) {
-			JBossJaxrsCorePlugin.notifyMetamodelProblemLevelChanged(metamodel);
+			// check if problem level changed at the metamodel level, too
+			final int currentMetamodelProblemSeverity = metamodel.getProblemSeverity();
+			if(currentMetamodelProblemSeverity != previousMetamodelProblemSeverity) {
+				JBossJaxrsCorePlugin.notifyMetamodelProblemLevelChanged(metamodel);
+			}
+		} finally {
+			eventBus.endTransaction();
 		}
 				
 		
 	}
 
-	private IJaxrsElementValidator<? extends IJaxrsElement> getValidator(final IJaxrsElement element) {
-		switch (element.getElementKind().getCategory()) {
-		case APPLICATION:
-			final IJaxrsApplication application = (IJaxrsApplication) element;
-			if (application.isJavaApplication()) {
-				return new JaxrsJavaApplicationValidatorDelegate(this);
-			} else {
-				return new JaxrsWebxmlApplicationValidatorDelegate(this);
+	/**
+	 * Validates the given JAX-RS elements with the given validator delegates,
+	 * in parallel if there are enough elements to validate. The validation of
+	 * each element is independent: a failure is logged and does not prevent
+	 * the other elements from being validated.
+	 * 
+	 * @param elements
+	 *            the elements to validate
+	 * @param validatorDelegates
+	 *            the validator delegates to use
+	 * @return the resources of the elements whose validation failed (or did
+	 *         not complete)
+	 */
+	private Set<IResource> validate(final List<IJaxrsElement> elements, final ValidatorDelegates validatorDelegates) {
+		final Set<IResource> failedResources = new HashSet<IResource>();
+		final int workers = Math.min(maxWorkers, elements.size() / MIN_ELEMENTS_PER_WORKER);
+		if (workers <= 1) {
+			for (IJaxrsElement element : elements) {
+				if (!validate(element, validatorDelegates)) {
+					failedResources.add(element.getResource());
+				}
+			}
+			return failedResources;
+		}
+		final long startTime = System.currentTimeMillis();
+		// each worker picks the next element to validate until all of them were processed
+		final AtomicInteger nextElement = new AtomicInteger();
+		final boolean[] validated = new boolean[elements.size()];
+		final List<Future<?>> results = new ArrayList<Future<?>>(workers);
+		for (int i = 0; i < workers; i++) {
+			results.add(getWorkerPool().submit(new Runnable() {
+				@Override
+				public void run() {
+					for (int index = nextElement.getAndIncrement(); index < validated.length
+							&& !Thread.currentThread().isInterrupted(); index = nextElement.getAndIncrement()) {
+						validated[index] = validate(elements.get(index), validatorDelegates);
+					}
+				}
+			}));
+		}
+		try {
+			// wait for all workers, even if the validation of some elements failed
+			for (Future<?> result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					Logger.error("Failed to validate JAX-RS elements", e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (Future<?> result : results) {
+				result.cancel(true);
+			}
+		} finally {
+			Logger.debug("Validated {} elements with {} workers in {} ms.", elements.size(), workers,
+					(System.currentTimeMillis() - startTime));
+		}
+		for (int i = 0; i < validated.length; i++) {
+			if (!validated[i]) {
+				failedResources.add(elements.get(i).getResource());
 			}
-		case HTTP_METHOD:
-			return new JaxrsHttpMethodValidatorDelegate(this);
-		case NAME_BINDING:
-			return new JaxrsNameBindingValidatorDelegate(this);
-		case PARAM_CONVERTER_PROVIDER:
-			return new JaxrsParamConverterProviderValidatorDelegate(this);
-		case PROVIDER:
-			return new JaxrsProviderValidatorDelegate(this);
-		case RESOURCE:
-			// this validator delegate also deals with ResourceMethods and
-			// ResourceFields when validating a whole resource
-			return new JaxrsResourceValidatorDelegate(this); 
-		case RESOURCE_FIELD:
-			return new JaxrsResourceFieldValidatorDelegate(this);
-		case RESOURCE_PROPERTY:
-			return new JaxrsResourcePropertyValidatorDelegate(this);
-		case RESOURCE_METHOD:
-			return new JaxrsResourceMethodValidatorDelegate(this);
-		case PARAMETER_AGGREGATOR:
-			return new JaxrsParameterAggregatorValidatorDelegate(this);
-		case PARAMETER_AGGREGATOR_FIELD:
-			return new JaxrsParameterAggregatorFieldValidatorDelegate(this);
-		case PARAMETER_AGGREGATOR_PROPERTY:
-			return new JaxrsParameterAggregatorPropertyValidatorDelegate(this);
-		default:
-			// skipping other categories of elements at this validator level.
-			// (see above)
-			return null;
 		}
+		return failedResources;
 	}
 
 	/**
-	 * Uses the appropriate validator to validate the given JAX-RS element, or
-	 * does nothing if no validator could be found.
+	 * @return the pool of daemon worker threads shared by all validations.
+	 *         Its threads are released after a minute of inactivity.
+	 */
+	private static synchronized ExecutorService getWorkerPool() {
+		if (workerPool == null) {
+			final int poolSize = Runtime.getRuntime().availableProcessors();
+			final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60L,
+					TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						private final AtomicInteger threadCounter = new AtomicInteger();
+						@Override
+						public Thread newThread(final Runnable runnable) {
+							final Thread thread = new Thread(runnable, "JAX-RS Validation Worker #"
+									+ threadCounter.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			threadPoolExecutor.allowCoreThreadTimeOut(true);
+			workerPool = threadPoolExecutor;
+		}
+		return workerPool;
+	}
+
+	/**
+	 * Uses the appropriate validator delegate to validate the given JAX-RS
+	 * element, or does nothing if no validator could be found.
 	 * 
 	 * @param element
-	 * @throws CoreException
+	 *            the element to validate
+	 * @param validatorDelegates
+	 *            the validator delegates to use
+	 * @return {@code true} if the element was validated (or did not need to),
+	 *         {@code false} if its validation failed.
+	 */
+	private static boolean validate(final IJaxrsElement element, final ValidatorDelegates validatorDelegates) {
+		@SuppressWarnings("unchecked")
+		final IJaxrsElementValidator<IJaxrsElement> validator = (IJaxrsElementValidator<IJaxrsElement>) validatorDelegates
+				.get(element);
+		if (validator == null) {
+			return true;
+		}
+		try {
+			validator.validate(element, getAST(element));
+			return true;
+		} catch (CoreException e) {
+			Logger.error("Failed to validate JAX-RS element " + element.getName(), e);
+		} catch (RuntimeException e) {
+			Logger.error("Failed to validate JAX-RS element " + element.getName(), e);
+		}
+		return false;
+	}
+
+	/**
+	 * The validator delegates for each category of JAX-RS elements, created
+	 * once per validation and shared by all the elements to validate (the
+	 * delegates are stateless).
 	 */
-	private void validate(JaxrsMetamodel metamodel) throws CoreException {
-		new JaxrsMetamodelValidatorDelegate(this).validate(metamodel);
+	private static class ValidatorDelegates {
+
+		private final JaxrsJavaApplicationValidatorDelegate javaApplicationValidator;
+		private final JaxrsWebxmlApplicationValidatorDelegate webxmlApplicationValidator;
+		private final JaxrsHttpMethodValidatorDelegate httpMethodValidator;
+		private final JaxrsNameBindingValidatorDelegate nameBindingValidator;
+		private final JaxrsParamConverterProviderValidatorDelegate paramConverterProviderValidator;
+		private final JaxrsProviderValidatorDelegate providerValidator;
+		private final JaxrsResourceValidatorDelegate resourceValidator;
+		private final JaxrsResourceFieldValidatorDelegate resourceFieldValidator;
+		private final JaxrsResourcePropertyValidatorDelegate resourcePropertyValidator;
+		private final JaxrsResourceMethodValidatorDelegate resourceMethodValidator;
+		private final JaxrsParameterAggregatorValidatorDelegate parameterAggregatorValidator;
+		private final JaxrsParameterAggregatorFieldValidatorDelegate parameterAggregatorFieldValidator;
+		private final JaxrsParameterAggregatorPropertyValidatorDelegate parameterAggregatorPropertyValidator;
+
+		ValidatorDelegates(final IMarkerManager markerManager) {
+			this.javaApplicationValidator = new JaxrsJavaApplicationValidatorDelegate(markerManager);
+			this.webxmlApplicationValidator = new JaxrsWebxmlApplicationValidatorDelegate(markerManager);
+			this.httpMethodValidator = new JaxrsHttpMethodValidatorDelegate(markerManager);
+			this.nameBindingValidator = new JaxrsNameBindingValidatorDelegate(markerManager);
+			this.paramConverterProviderValidator = new JaxrsParamConverterProviderValidatorDelegate(markerManager);
+			this.providerValidator = new JaxrsProviderValidatorDelegate(markerManager);
+			this.resourceValidator = new JaxrsResourceValidatorDelegate(markerManager);
+			this.resourceFieldValidator = new JaxrsResourceFieldValidatorDelegate(markerManager);
+			this.resourcePropertyValidator = new JaxrsResourcePropertyValidatorDelegate(markerManager);
+			this.resourceMethodValidator = new JaxrsResourceMethodValidatorDelegate(markerManager);
+			this.parameterAggregatorValidator = new JaxrsParameterAggregatorValidatorDelegate(markerManager);
+			this.parameterAggregatorFieldValidator = new JaxrsParameterAggregatorFieldValidatorDelegate(markerManager);
+			this.parameterAggregatorPropertyValidator = new JaxrsParameterAggregatorPropertyValidatorDelegate(
+					markerManager);
+		}
+
+		IJaxrsElementValidator<? extends IJaxrsElement> get(final IJaxrsElement element) {
+			switch (element.getElementKind().getCategory()) {
+			case APPLICATION:
+				final IJaxrsApplication application = (IJaxrsApplication) element;
+				if (application.isJavaApplication()) {
+					return javaApplicationValidator;
+				} else {
+					return webxmlApplicationValidator;
+				}
+			case HTTP_METHOD:
+				return httpMethodValidator;
+			case NAME_BINDING:
+				return nameBindingValidator;
+			case PARAM_CONVERTER_PROVIDER:
+				return paramConverterProviderValidator;
+			case PROVIDER:
+				return providerValidator;
+			case RESOURCE:
+				// this validator delegate also deals with ResourceMethods and
+				// ResourceFields when validating a whole resource
+				return resourceValidator;
+			case RESOURCE_FIELD:
+				return resourceFieldValidator;
+			case RESOURCE_PROPERTY:
+				return resourcePropertyValidator;
+			case RESOURCE_METHOD:
+				return resourceMethodValidator;
+			case PARAMETER_AGGREGATOR:
+				return parameterAggregatorValidator;
+			case PARAMETER_AGGREGATOR_FIELD:
+				return parameterAggregatorFieldValidator;
+			case PARAMETER_AGGREGATOR_PROPERTY:
+				return parameterAggregatorPropertyValidator;
+			default:
+				// skipping other categories of elements at this validator level.
+				// (see above)
+				return null;
+			}
+		}
 	}
 
 	@Override
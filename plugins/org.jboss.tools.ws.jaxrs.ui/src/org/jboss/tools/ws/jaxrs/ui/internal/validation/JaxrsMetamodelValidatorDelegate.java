@@ -51,8 +51,6 @@ public class JaxrsMetamodelValidatorDelegate {
 	 */
 	void validate(final JaxrsMetamodel metamodel) throws CoreException {
 		Logger.debug("Validating element {}", metamodel);
-		JaxrsMetamodelValidator.removeJaxrsMarkers(metamodel.getProject());
-		metamodel.resetProblemLevel();
 		final Collection<JaxrsJavaApplication> javaApplications = metamodel.findJavaApplications();
 		final Collection<JaxrsWebxmlApplication> webxmlApplications = metamodel.findWebxmlApplications();
 		if (javaApplications.isEmpty() && webxmlApplications.isEmpty() && metamodel.hasCustomElements()) {
@@ -24,22 +24,30 @@ import org.jboss.tools.ws.jaxrs.ui.internal.utils.Logger;
  */
 public class JaxrsParameterAggregatorValidatorDelegate extends AbstractJaxrsElementValidatorDelegate<JaxrsParameterAggregator> {
 
+	/** The delegate to validate the parameter aggregator fields. */
+	private final JaxrsParameterAggregatorFieldValidatorDelegate fieldValidator;
+
+	/** The delegate to validate the parameter aggregator properties. */
+	private final JaxrsParameterAggregatorPropertyValidatorDelegate propertyValidator;
+
 	/**
 	 * Constructor
 	 * @param markerManager the underlying marker manager to use
 	 */
-	public JaxrsParameterAggregatorValidatorDelegate(final JaxrsMetamodelValidator markerManager) {
+	public JaxrsParameterAggregatorValidatorDelegate(final IMarkerManager markerManager) {
 		super(markerManager);
+		this.fieldValidator = new JaxrsParameterAggregatorFieldValidatorDelegate(markerManager);
+		this.propertyValidator = new JaxrsParameterAggregatorPropertyValidatorDelegate(markerManager);
 	}
 
 	@Override
 	void internalValidate(final JaxrsParameterAggregator parameterAggregator, final CompilationUnit ast) throws CoreException {
 		Logger.debug("Validating element {}", parameterAggregator);
 		for (JaxrsParameterAggregatorField parameterAggregatorField : parameterAggregator.getAllFields()) {
-			new JaxrsParameterAggregatorFieldValidatorDelegate(markerManager).validate(parameterAggregatorField, ast);
+			fieldValidator.validate(parameterAggregatorField, ast);
 		}
 		for (JaxrsParameterAggregatorProperty parameterAggregatorProperty : parameterAggregator.getAllProperties()) {
-			new JaxrsParameterAggregatorPropertyValidatorDelegate(markerManager).validate(parameterAggregatorProperty, ast);
+			propertyValidator.validate(parameterAggregatorProperty, ast);
 		}
 	}
 
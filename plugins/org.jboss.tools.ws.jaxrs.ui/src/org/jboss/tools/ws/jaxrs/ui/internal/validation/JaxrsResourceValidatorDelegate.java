@@ -45,6 +45,15 @@ import org.jboss.tools.ws.jaxrs.ui.preferences.JaxrsPreferences;
  */
 public class JaxrsResourceValidatorDelegate extends AbstractJaxrsElementValidatorDelegate<JaxrsResource> {
 
+	/** The delegate to validate the resource methods. */
+	private final JaxrsResourceMethodValidatorDelegate resourceMethodValidator;
+
+	/** The delegate to validate the resource fields. */
+	private final JaxrsResourceFieldValidatorDelegate resourceFieldValidator;
+
+	/** The delegate to validate the resource properties. */
+	private final JaxrsResourcePropertyValidatorDelegate resourcePropertyValidator;
+
 	/**
 	 * Constructor
 	 * 
@@ -53,6 +62,9 @@ public class JaxrsResourceValidatorDelegate extends AbstractJaxrsElementValidato
 	 */
 	public JaxrsResourceValidatorDelegate(final IMarkerManager markerManager) {
 		super(markerManager);
+		this.resourceMethodValidator = new JaxrsResourceMethodValidatorDelegate(markerManager);
+		this.resourceFieldValidator = new JaxrsResourceFieldValidatorDelegate(markerManager);
+		this.resourcePropertyValidator = new JaxrsResourcePropertyValidatorDelegate(markerManager);
 	}
 
 	/**
@@ -64,14 +76,13 @@ public class JaxrsResourceValidatorDelegate extends AbstractJaxrsElementValidato
 		validatePathAnnotationValue(resource, ast);
 		validateAtLeastOneProviderWithBinding(resource);
 		for (IJaxrsResourceMethod resourceMethod : resource.getAllMethods()) {
-			new JaxrsResourceMethodValidatorDelegate(markerManager).validate((JaxrsResourceMethod) resourceMethod, ast);
+			resourceMethodValidator.validate((JaxrsResourceMethod) resourceMethod, ast);
 		}
 		for (IJaxrsResourceField resourceField : resource.getAllFields()) {
-			new JaxrsResourceFieldValidatorDelegate(markerManager).validate((JaxrsResourceField) resourceField, ast);
+			resourceFieldValidator.validate((JaxrsResourceField) resourceField, ast);
 		}
 		for (IJaxrsResourceProperty resourceProperty : resource.getAllProperties()) {
-			new JaxrsResourcePropertyValidatorDelegate(markerManager).validate(
-					(JaxrsResourceProperty) resourceProperty, ast);
+			resourcePropertyValidator.validate((JaxrsResourceProperty) resourceProperty, ast);
 		}
 	}
 
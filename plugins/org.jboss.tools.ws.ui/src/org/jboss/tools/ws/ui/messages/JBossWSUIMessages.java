@@ -149,6 +149,7 @@ public class JBossWSUIMessages extends NLS {
 	public static String JAXRSWSTestView_JAXRS_Success_Status;
 	public static String JAXRSWSTestView_JAXWS_Success_Status;
 	public static String JAXRSWSTestView_Message_Service_Invocation_Cancelled;
+	public static String JAXRSWSTestView_Message_Service_Invocation_Timeout;
 	public static String JAXRSWSTestView_Message_Unsuccessful_Test;
 	public static String JAXRSRSTestView_Message_Unsuccessful_Test;
 	public static String JAXRSWSTestView_Open_Monitor_Button;
@@ -173,6 +174,8 @@ public class JBossWSUIMessages extends NLS {
 	public static String JAXRSWSTestView2_Parameters_Section;
 	public static String JAXRSWSTestView2_RequestDetails_Section;
 	public static String JAXRSWSTestView2_ResponseBody_Section;
+	public static String JAXRSWSTestView2_ResponseBody_Section_Stats;
+	public static String JAXRSWSTestView2_ResponseBody_Section_Truncated;
 	public static String JAXRSWSTestView2_ResponseDetails_Section;
 	public static String JAXRSWSTestView2_ResponseHeaders_Section;
 	public static String JAXRSWSTestView2_SaveResponseText_Error;
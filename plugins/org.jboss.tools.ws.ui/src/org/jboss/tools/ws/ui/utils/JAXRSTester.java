@@ -10,16 +10,24 @@
  ******************************************************************************/
 package org.jboss.tools.ws.ui.utils;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,15 +36,39 @@ import org.apache.commons.codec.binary.Base64;
 import org.jboss.tools.ws.ui.messages.JBossWSUIMessages;
 
 /**
- * Tester class for JAX-RS services
+ * Tester class for JAX-RS services.
+ * The response body is streamed with the charset declared in its content type: only its first
+ * {@link #MAX_PREVIEW_SIZE} bytes are kept in memory (as the result message), and larger bodies are
+ * written to a temporary file.
  * @author bfitzpat
  *
  */
 public class JAXRSTester {
 	
+	/** maximum number of bytes of the response body kept in memory and returned as the result message */
+	public static final int MAX_PREVIEW_SIZE = 256 * 1024;
+	
+	// size of the buffer used to read the response
+	private static final int BUFFER_SIZE = 8192;
+	
+	// charset used when the response does not declare any (or an unsupported one)
+	private static final String DEFAULT_CHARSET = "UTF-8"; //$NON-NLS-1$
+	
 	// Result message to pass back
 	private String resultBody;
 	
+	// the file containing the whole response body, if it is larger than the result message
+	private File resultFile = null;
+	
+	// size of the response body, in bytes
+	private long resultSize = 0;
+	
+	// time elapsed between the connection and the reception of the response headers, in ms
+	private long timeToFirstByte = -1;
+	
+	// time spent reading the response body, in ms
+	private long transferTime = 0;
+	
 	// HTTP headers going in and out
 	private Map<?, ?> requestHeaders = null;
 	private Map<?, ?> resultHeaders = null;
@@ -59,6 +91,56 @@ public class JAXRSTester {
 		return this.resultBody;
 	}
 
+	/**
+	 * Return the file containing the whole response body
+	 * @return the file, or null if the response body is not larger than the result message
+	 */
+	public File getResultFile() {
+		return resultFile;
+	}
+
+	/**
+	 * Return whether the result message contains only the beginning of the response body
+	 * @return boolean
+	 */
+	public boolean isResultTruncated() {
+		return resultFile != null;
+	}
+
+	/**
+	 * Return the size of the response body
+	 * @return the size in bytes
+	 */
+	public long getResultSize() {
+		return resultSize;
+	}
+
+	/**
+	 * Return the time elapsed between the connection and the reception of the response headers
+	 * @return the time in milliseconds, or -1 if no response was received
+	 */
+	public long getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	/**
+	 * Return the throughput while reading the response body
+	 * @return the throughput in bytes per second
+	 */
+	public long getThroughput() {
+		return resultSize * 1000 / Math.max(transferTime, 1);
+	}
+
+	/**
+	 * Deletes the file containing the whole response body, if any
+	 */
+	public void deleteResultFile() {
+		if (resultFile != null) {
+			resultFile.delete();
+			resultFile = null;
+		}
+	}
+
 	/**
 	 * Return the result HTTP headers
 	 * @return Map
@@ -152,6 +234,8 @@ public class JAXRSTester {
 
         // clear the returned results
         resultBody = EMPTY_STRING;
+        timeToFirstByte = -1;
+        clearResponse();
         
         // get the parms string
         String query = buildWebQuery(parameters);
@@ -231,6 +315,7 @@ public class JAXRSTester {
         }
 
         // CONNECT!
+        final long connectionTime = System.currentTimeMillis();
         httpurlc.connect();
 
         // Check if task has been interrupted
@@ -257,6 +342,8 @@ public class JAXRSTester {
         if (httpurlc.getHeaderFields() != null) {
         	resultHeaders = httpurlc.getHeaderFields();
         }
+        timeToFirstByte = System.currentTimeMillis() - connectionTime;
+        String charset = getCharset(httpurlc.getContentType());
 
     	// retrieve result and put string results into the response
         InputStream is = null;
@@ -266,34 +353,16 @@ public class JAXRSTester {
 	        if (Thread.interrupted()) {
 	            throw new InterruptedException();
 	        }
-	        BufferedReader br = new BufferedReader(new InputStreamReader(is, "UTF-8"));//$NON-NLS-1$
-	        StringBuilder sb = new StringBuilder();
-	        String line;
-	        while ((line = br.readLine()) != null) {
-	            sb.append(line);
-	            sb.append("\n");//$NON-NLS-1$
-	        }
-	        br.close();
-	        resultBody = sb.toString();
-	        // Check if task has been interrupted
-	        if (Thread.interrupted()) {
-	            throw new InterruptedException();
-	        }
+	        readResponse(is, charset);
         } catch (IOException ie) {
         	try {
+        		// drop what may have been read from the input stream before the failure
+        		clearResponse();
 		        is = httpurlc.getErrorStream();
 		        
 		        // is possible that we're getting nothing back in the error stream
 		        if (is != null) {
-			        BufferedReader br = new BufferedReader(new InputStreamReader(is, "UTF-8"));//$NON-NLS-1$
-			        StringBuilder sb = new StringBuilder();
-			        String line;
-			        while ((line = br.readLine()) != null) {
-			            sb.append(line);
-			            sb.append("\n");//$NON-NLS-1$
-			        }
-			        br.close();
-			        resultBody = sb.toString();
+		        	readResponse(is, charset);
 		        }
         	} catch (IOException ie2) {
         		resultBody = ie2.getLocalizedMessage();
@@ -310,6 +379,110 @@ public class JAXRSTester {
         httpurlc.disconnect();
     }	
     
+    /**
+     * Clears the response body read so far, along with its size and transfer time
+     */
+    private void clearResponse() {
+    	deleteResultFile();
+    	resultSize = 0;
+    	transferTime = 0;
+    }
+
+    /**
+     * Reads the given response body: its first bytes are decoded with the given charset into the
+     * result message, and the whole body is written into a temporary file if it does not fit in the
+     * result message.
+     * @param is the response body
+     * @param charset the charset of the response body
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private void readResponse(InputStream is, String charset) throws IOException, InterruptedException {
+    	final long startTime = System.currentTimeMillis();
+    	final ByteArrayOutputStream preview = new ByteArrayOutputStream();
+    	final byte[] buffer = new byte[BUFFER_SIZE];
+    	OutputStream fileOutput = null;
+    	try {
+    		int length;
+    		while ((length = is.read(buffer)) != -1) {
+    	        // Check if task has been interrupted
+    	        if (Thread.interrupted()) {
+    	            throw new InterruptedException();
+    	        }
+    			if (fileOutput == null && resultSize + length > MAX_PREVIEW_SIZE) {
+    				// too large to be kept in memory: spill into a file
+    				resultFile = File.createTempFile("jaxrs-response", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+    				resultFile.deleteOnExit();
+    				fileOutput = new BufferedOutputStream(new FileOutputStream(resultFile));
+    				preview.writeTo(fileOutput);
+    				preview.write(buffer, 0, Math.min(length, MAX_PREVIEW_SIZE - preview.size()));
+    			}
+    			if (fileOutput != null) {
+    				fileOutput.write(buffer, 0, length);
+    			} else {
+    				preview.write(buffer, 0, length);
+    			}
+    			resultSize += length;
+    		}
+    	} finally {
+    		is.close();
+    		if (fileOutput != null) {
+    			fileOutput.close();
+    		}
+    		transferTime = System.currentTimeMillis() - startTime;
+    	}
+    	resultBody = decode(preview.toByteArray(), charset, isResultTruncated());
+    }
+
+    /**
+     * Decodes the given bytes with the given charset, replacing the malformed input
+     * @param bytes the bytes to decode
+     * @param charset the charset
+     * @param truncated whether the bytes are the beginning of a longer content, in which case the
+     * last character may be incomplete
+     * @return the decoded String
+     */
+    private static String decode(byte[] bytes, String charset, boolean truncated) throws CharacterCodingException {
+    	String decoded = Charset.forName(charset).newDecoder()
+    			.onMalformedInput(CodingErrorAction.REPLACE)
+    			.onUnmappableCharacter(CodingErrorAction.REPLACE)
+    			.decode(ByteBuffer.wrap(bytes)).toString();
+    	if (truncated) {
+    		// drop the incomplete character at the end, if any
+    		int end = decoded.length();
+    		while (end > 0 && decoded.charAt(end - 1) == '\uFFFD') {
+    			end--;
+    		}
+    		decoded = decoded.substring(0, end);
+    	}
+    	return decoded;
+    }
+
+    /**
+     * Returns the charset declared in the given content type
+     * @param contentType the content type (may be null)
+     * @return the declared charset if it is supported, UTF-8 otherwise
+     */
+    static String getCharset(String contentType) {
+    	if (contentType != null) {
+    		String[] parameters = contentType.split(";"); //$NON-NLS-1$
+    		for (int i = 1; i < parameters.length; i++) {
+    			String parameter = parameters[i].trim();
+    			if (parameter.toLowerCase().startsWith("charset=")) { //$NON-NLS-1$
+    				String charset = parameter.substring("charset=".length()).replace("\"", "").trim(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    				try {
+    					if (Charset.isSupported(charset)) {
+    						return charset;
+    					}
+    				} catch (IllegalCharsetNameException e) {
+    					// fall back to the default charset
+    				}
+    			}
+    		}
+    	}
+    	return DEFAULT_CHARSET;
+    }
+
     public static String stripCRLF ( String input ) {
     	if (input != null) {
 	    	StringBuffer output = new StringBuffer();
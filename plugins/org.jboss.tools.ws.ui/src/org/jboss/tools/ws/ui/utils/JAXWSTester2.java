@@ -13,8 +13,13 @@ package org.jboss.tools.ws.ui.utils;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.net.URL;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
@@ -39,15 +44,37 @@ import javax.xml.ws.handler.MessageContext;
 
 import org.apache.axis.message.SOAPEnvelope;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.ws.ui.messages.JBossWSUIMessages;
 
 /**
- * Test a JAX-WS web service using the JAX-WS API
+ * Test a JAX-WS web service using the JAX-WS API.
+ * The {@link Service} and {@link Dispatch} instances are cached per WSDL, service and port,
+ * so that repeated invocations of the same operation don't need to create them again. The cached
+ * {@link Service} is discarded when an invocation fails, since the WSDL or the endpoint may have changed.
  * @author bfitzpat
  *
  */
 public class JAXWSTester2 {
 
+	/** default maximum time to wait for a response, in milliseconds */
+	public static final long DEFAULT_TIMEOUT = 5 * 60 * 1000;
+
+	/** time between two checks of the progress monitor while waiting for a response, in milliseconds */
+	private static final long POLL_INTERVAL = 100;
+
+	/** maximum number of cached {@link Service} and {@link Dispatch} instances */
+	private static final int MAX_CACHE_SIZE = 20;
+
+	// the services, indexed by WSDL location and service name
+	private static final Map<String, Service> services = createCache();
+
+	// the idle dispatches, indexed by WSDL location, service name and port name
+	private static final Map<String, Dispatch<SOAPMessage>> dispatches = createCache();
+
+	// maximum time to wait for a response
+	private long timeout = DEFAULT_TIMEOUT;
+
 	// the response message to pass back
 	private String resultBody;
 	
@@ -84,6 +111,14 @@ public class JAXWSTester2 {
 	public SOAPEnvelope getResultSOAP(){
 		return this.resultSOAP;
 	}
+
+	/**
+	 * Sets the maximum time to wait for a response
+	 * @param timeout the timeout, in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
 	
 	public void doTest( IProgressMonitor monitor, String endpointurl, String actionurl, String ns, 
 			String serviceName, String messageName, String body ) throws Exception {
@@ -136,12 +171,20 @@ public class JAXWSTester2 {
 		
 		URL serviceURL = new URL (endpointurl); //"http://www.ecubicle.net/gsearch_rss.asmx"
 		QName serviceQName = new QName (ns, serviceName); // "http://www.ecubicle.net/webservices", "gsearch_rss"
-		Service s = Service.create(serviceURL, serviceQName);
 
 		boolean isSOAP12 = TesterWSDLUtils.isRequestBodySOAP12(body);
 		
 		QName messageQName = new QName(ns, messageName); //"http://www.ecubicle.net/webservices", "gsearch_rssSoap"
-		Dispatch<SOAPMessage> d = s.createDispatch(messageQName, SOAPMessage.class, Mode.MESSAGE);
+		String serviceKey = serviceURL.toExternalForm() + '|' + serviceQName;
+		String dispatchKey = serviceKey + '|' + messageQName;
+		Dispatch<SOAPMessage> d = acquireDispatch(serviceURL, serviceQName, messageQName, serviceKey, dispatchKey);
+		
+		// clear the settings of the previous invocation with the same (cached) dispatch
+		Map<String, Object> requestContext = d.getRequestContext();
+		requestContext.remove(BindingProvider.SOAPACTION_USE_PROPERTY);
+		requestContext.remove(BindingProvider.SOAPACTION_URI_PROPERTY);
+		requestContext.remove(BindingProvider.USERNAME_PROPERTY);
+		requestContext.remove(BindingProvider.PASSWORD_PROPERTY);
 		
 		MessageFactory mf = MessageFactory.newInstance();
 		if (isSOAP12) {
@@ -169,36 +212,27 @@ public class JAXWSTester2 {
 //			hd.addHeader("Authorization", "Basic " + authStringEnc);  //$NON-NLS-1$//$NON-NLS-2$
 //		}
 
-		Response<SOAPMessage> response = d.invokeAsync(m);
-		while (!response.isDone()){
-			//go off and do some work
-			if (monitor != null) {
-				if (monitor.isCanceled()) {
-					response.cancel(true);
-				}
-			}
-		}
-
+		boolean succeeded = false;
 		try {
-			if (!response.isCancelled()) {
-		        //get the actual result
-				SOAPMessage o = (javax.xml.soap.SOAPMessage)response.get();
-
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				o.writeTo(baos);
-				this.resultBody = baos.toString();
-				this.resultSOAPBody = o.getSOAPBody();
-				
-				if (response.getContext() != null) {
-					Object responseHeaders =
-						response.getContext().get(MessageContext.HTTP_RESPONSE_HEADERS);
-					if ( responseHeaders != null && responseHeaders instanceof Map) {
-						this.resultHeaders = (Map<String, String>) responseHeaders;
-					}
+			Response<SOAPMessage> response = d.invokeAsync(m);
+	        //get the actual result
+			SOAPMessage o = waitForResponse(response, monitor);
+
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			o.writeTo(baos);
+			this.resultBody = baos.toString();
+			this.resultSOAPBody = o.getSOAPBody();
+			
+			if (response.getContext() != null) {
+				Object responseHeaders =
+					response.getContext().get(MessageContext.HTTP_RESPONSE_HEADERS);
+				if ( responseHeaders != null && responseHeaders instanceof Map) {
+					this.resultHeaders = (Map<String, String>) responseHeaders;
 				}
-			} else {
-				throw new InterruptedException(JBossWSUIMessages.JAXRSWSTestView_Message_Service_Invocation_Cancelled);
 			}
+			// the dispatch can be reused for the next invocation
+			dispatches.put(dispatchKey, d);
+			succeeded = true;
 		} catch (ExecutionException ex){
 		        //get the actual cause
 		        Throwable cause = ex.getCause();
@@ -206,6 +240,95 @@ public class JAXWSTester2 {
 		} catch (InterruptedException ie){
 		        //note interruptions
 				throw ie;
+		} finally {
+			if (!succeeded) {
+				invalidate(serviceKey);
+			}
 		}
 	}
+
+	/**
+	 * Waits for the given response without busy-waiting, until it is received, the given monitor is cancelled or the
+	 * timeout elapsed.
+	 * @param response the pending response
+	 * @param monitor the progress monitor (may be null)
+	 * @return the response message
+	 * @throws InterruptedException if the invocation was cancelled
+	 * @throws ExecutionException if the invocation failed
+	 * @throws TimeoutException if no response was received before the timeout
+	 */
+	private SOAPMessage waitForResponse(Response<SOAPMessage> response, IProgressMonitor monitor)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		final long deadline = System.currentTimeMillis() + timeout;
+		while (true) {
+			if (monitor != null && monitor.isCanceled()) {
+				response.cancel(true);
+				throw new InterruptedException(JBossWSUIMessages.JAXRSWSTestView_Message_Service_Invocation_Cancelled);
+			}
+			final long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				response.cancel(true);
+				throw new TimeoutException(NLS.bind(JBossWSUIMessages.JAXRSWSTestView_Message_Service_Invocation_Timeout, 
+						timeout / 1000));
+			}
+			try {
+				return response.get(Math.min(POLL_INTERVAL, remaining), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// no response yet: check the monitor again
+			}
+		}
+	}
+
+	/**
+	 * Returns an idle dispatch for the given service and port, reusing the cached one (and removing it from the cache
+	 * until the invocation succeeded, so that it is never used by two invocations at the same time) or the cached
+	 * service if possible.
+	 */
+	private static Dispatch<SOAPMessage> acquireDispatch(URL serviceURL, QName serviceQName, QName portQName, 
+			String serviceKey, String dispatchKey) {
+		Dispatch<SOAPMessage> d = dispatches.remove(dispatchKey);
+		if (d != null) {
+			return d;
+		}
+		Service s = services.get(serviceKey);
+		if (s == null) {
+			s = Service.create(serviceURL, serviceQName);
+			services.put(serviceKey, s);
+		}
+		return s.createDispatch(portQName, SOAPMessage.class, Mode.MESSAGE);
+	}
+
+	/**
+	 * Discards the cached service with the given key and the dispatches that were
+	 * created from it.
+	 */
+	private static void invalidate(String serviceKey) {
+		services.remove(serviceKey);
+		synchronized (dispatches) {
+			for (Iterator<String> iterator = dispatches.keySet().iterator(); iterator.hasNext();) {
+				if (iterator.next().startsWith(serviceKey + '|')) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discards all cached services and dispatches, for example when the WSDL changed.
+	 */
+	public static void clearCache() {
+		dispatches.clear();
+		services.clear();
+	}
+
+	private static <V> Map<String, V> createCache() {
+		return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > MAX_CACHE_SIZE;
+			}
+		});
+	}
 }
@@ -12,13 +12,16 @@ package org.jboss.tools.ws.ui.utils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
@@ -27,15 +30,10 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
-import org.w3c.dom.DOMConfiguration;
-import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.w3c.dom.ls.DOMImplementationLS;
-import org.w3c.dom.ls.LSOutput;
-import org.w3c.dom.ls.LSSerializer;
 import org.xml.sax.SAXException;
 
 /**
@@ -45,6 +43,19 @@ import org.xml.sax.SAXException;
  */
 public class SOAPDOMParser {
 
+	/** Indentation of the pretty printed XML and JSON content. */
+	private static final String INDENT = "    "; //$NON-NLS-1$
+
+	private static final String XML_LINE_SEPARATOR = "\n"; //$NON-NLS-1$
+
+	private static final String JSON_LINE_SEPARATOR = "\r\n"; //$NON-NLS-1$
+
+	/** Number of characters inspected at the beginning of some content to detect XML. */
+	static final int DETECTION_PREFIX_LENGTH = 4096;
+
+	/** Shared StAX factory, created on first use. */
+	private static XMLInputFactory xmlInputFactory;
+
 	Document dom;
 	TreeParent root;
 
@@ -167,158 +178,446 @@ public class SOAPDOMParser {
 	}
 	
 	/**
-	 * Pretty print
+	 * Pretty print the given XML in a single pass, streaming its content with
+	 * StAX rather than building a DOM first.
 	 * @param xml
-	 * @return
+	 * @return the indented XML, or null if the given content is not well-formed
 	 */
 	public static String prettyPrint ( String xml ) {
-		//get the factory
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		Document dom;
-		
+		if (xml == null) {
+			return null;
+		}
 		try {
-			
-			//Using factory get an instance of document builder
-			DocumentBuilder db = dbf.newDocumentBuilder();
-			
-			//parse using builder to get DOM representation of the XML file
-			ByteArrayInputStream bais = new ByteArrayInputStream(xml.getBytes());
-			dom = db.parse(bais);
-			
-			String stringOutput = prettyPrintWithDOM3LS(dom);
-			return stringOutput;
-			
-		}catch(ParserConfigurationException pce) {
-			pce.printStackTrace();
-		}catch(SAXException se) {
-			se.printStackTrace();
-		}catch(IOException ioe) {
-			ioe.printStackTrace();
+			XMLStreamReader reader = createXMLStreamReader(xml);
+			try {
+				StringBuilder output = new StringBuilder(xml.length() + xml.length() / 4);
+				prettyPrint(reader, output);
+				return output.toString();
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			return null;
 		}
-		return null;
 	}
-	
+
 	/*
-	 * @param document
-	 * @return
+	 * Writes the events of the given reader into the given output, one element per line.
+	 * Elements that only contain text are kept on a single line, and whitespace-only
+	 * text between elements is replaced by the indentation.
+	 * @param reader
+	 * @param output
+	 * @throws XMLStreamException
 	 */
-	static String prettyPrintWithDOM3LS(Document document) {
-		// Pretty-prints a DOM document to XML using DOM Load and Save's LSSerializer.
-		// Note that the "format-pretty-print" DOM configuration parameter can only be set in JDK 1.6+.
-		DOMImplementation domImplementation = document.getImplementation();
-		if (domImplementation.hasFeature("LS", "3.0") && domImplementation.hasFeature("Core", "2.0")) {  //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-			DOMImplementationLS domImplementationLS = (DOMImplementationLS) domImplementation.getFeature("LS", "3.0"); //$NON-NLS-1$ //$NON-NLS-2$
-			LSSerializer lsSerializer = domImplementationLS.createLSSerializer();
-			DOMConfiguration domConfiguration = lsSerializer.getDomConfig();
-			if (domConfiguration.canSetParameter("format-pretty-print", Boolean.TRUE)) { //$NON-NLS-1$
-				lsSerializer.getDomConfig().setParameter("format-pretty-print", Boolean.TRUE); //$NON-NLS-1$
-				LSOutput lsOutput = domImplementationLS.createLSOutput();
-				lsOutput.setEncoding("UTF-8"); //$NON-NLS-1$
-				StringWriter stringWriter = new StringWriter();
-				lsOutput.setCharacterStream(stringWriter);
-				lsSerializer.write(document, lsOutput);
-				return stringWriter.toString();
-			} else {
-				throw new RuntimeException("DOMConfiguration 'format-pretty-print' parameter isn't settable."); //$NON-NLS-1$
+	private static void prettyPrint ( XMLStreamReader reader, StringBuilder output ) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		int depth = 0;
+		// whether the start tag of the current element still needs its closing '>'
+		boolean startTagOpen = false;
+		// whether the current element has content written on its own lines
+		boolean lineBroken = false;
+		output.append("<?xml version=\"").append(reader.getVersion() != null ? reader.getVersion() : "1.0") //$NON-NLS-1$ //$NON-NLS-2$
+				.append("\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+		while (reader.hasNext()) {
+			int event = reader.next();
+			switch (event) {
+			case XMLStreamConstants.START_ELEMENT:
+				startTagOpen = flushText(output, text, depth, startTagOpen);
+				newLine(output, XML_LINE_SEPARATOR, depth);
+				output.append('<');
+				appendName(output, reader.getPrefix(), reader.getLocalName());
+				for (int i = 0; i < reader.getNamespaceCount(); i++) {
+					String prefix = reader.getNamespacePrefix(i);
+					output.append(' ');
+					appendName(output, prefix == null || prefix.length() == 0 ? null : "xmlns", //$NON-NLS-1$
+							prefix == null || prefix.length() == 0 ? "xmlns" : prefix); //$NON-NLS-1$
+					appendAttributeValue(output, reader.getNamespaceURI(i));
+				}
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					output.append(' ');
+					appendName(output, reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+					appendAttributeValue(output, reader.getAttributeValue(i));
+				}
+				startTagOpen = true;
+				lineBroken = false;
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				if (startTagOpen && isBlank(text)) {
+					output.append("/>"); //$NON-NLS-1$
+					startTagOpen = false;
+				} else {
+					if (lineBroken) {
+						startTagOpen = flushText(output, text, depth + 1, startTagOpen);
+						newLine(output, XML_LINE_SEPARATOR, depth);
+					} else {
+						if (startTagOpen) {
+							output.append('>');
+							startTagOpen = false;
+						}
+						output.append(text);
+					}
+					output.append("</"); //$NON-NLS-1$
+					appendName(output, reader.getPrefix(), reader.getLocalName());
+					output.append('>');
+				}
+				text.setLength(0);
+				lineBroken = true;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.CDATA:
+				// the reader coalesces the CDATA sections with the surrounding text, which is escaped
+				appendText(text, reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+			case XMLStreamConstants.COMMENT:
+				startTagOpen = flushText(output, text, depth, startTagOpen);
+				newLine(output, XML_LINE_SEPARATOR, depth);
+				output.append("<!--").append(reader.getText()).append("-->"); //$NON-NLS-1$ //$NON-NLS-2$
+				lineBroken = true;
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				startTagOpen = flushText(output, text, depth, startTagOpen);
+				newLine(output, XML_LINE_SEPARATOR, depth);
+				output.append("<?").append(reader.getPITarget()); //$NON-NLS-1$
+				if (reader.getPIData() != null && reader.getPIData().length() > 0) {
+					output.append(' ').append(reader.getPIData());
+				}
+				output.append("?>"); //$NON-NLS-1$
+				lineBroken = true;
+				break;
+			case XMLStreamConstants.DTD:
+				newLine(output, XML_LINE_SEPARATOR, depth);
+				output.append(reader.getText());
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/*
+	 * Writes the pending (non-blank) text on its own line, as it is mixed with child elements.
+	 * @return the new state of the start tag (always closed after some text was written)
+	 */
+	private static boolean flushText ( StringBuilder output, StringBuilder text, int depth, boolean startTagOpen ) {
+		if (!isBlank(text)) {
+			if (startTagOpen) {
+				output.append('>');
+			}
+			newLine(output, XML_LINE_SEPARATOR, depth);
+			int start = 0;
+			int end = text.length();
+			while (Character.isWhitespace(text.charAt(start))) {
+				start++;
+			}
+			while (Character.isWhitespace(text.charAt(end - 1))) {
+				end--;
+			}
+			output.append(text, start, end);
+			text.setLength(0);
+			return false;
+		}
+		text.setLength(0);
+		if (startTagOpen) {
+			output.append('>');
+		}
+		return false;
+	}
+
+	private static void appendName ( StringBuilder output, String prefix, String localName ) {
+		if (prefix != null && prefix.length() > 0) {
+			output.append(prefix).append(':');
+		}
+		output.append(localName);
+	}
+
+	private static void appendAttributeValue ( StringBuilder output, String value ) {
+		output.append("=\""); //$NON-NLS-1$
+		if (value != null) {
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				switch (c) {
+				case '&':
+					output.append("&amp;"); //$NON-NLS-1$
+					break;
+				case '<':
+					output.append("&lt;"); //$NON-NLS-1$
+					break;
+				case '"':
+					output.append("&quot;"); //$NON-NLS-1$
+					break;
+				default:
+					output.append(c);
+				}
+			}
+		}
+		output.append('"');
+	}
+
+	private static void appendText ( StringBuilder output, char[] chars, int start, int length ) {
+		for (int i = start; i < start + length; i++) {
+			char c = chars[i];
+			switch (c) {
+			case '&':
+				output.append("&amp;"); //$NON-NLS-1$
+				break;
+			case '<':
+				output.append("&lt;"); //$NON-NLS-1$
+				break;
+			case '>':
+				output.append("&gt;"); //$NON-NLS-1$
+				break;
+			default:
+				output.append(c);
+			}
+		}
+	}
+
+	private static boolean isBlank ( CharSequence text ) {
+		for (int i = 0; i < text.length(); i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void newLine ( StringBuilder output, String lineSeparator, int depth ) {
+		if (output.length() > 0) {
+			output.append(lineSeparator);
+		}
+		for (int i = 0; i < depth; i++) {
+			output.append(INDENT);
+		}
+	}
+
+	/*
+	 * Creates a StAX reader on the given XML, without resolving external entities, and which
+	 * reports CDATA sections as (coalesced) text whatever the StAX implementation.
+	 */
+	private static XMLStreamReader createXMLStreamReader ( String xml ) throws XMLStreamException {
+		synchronized (SOAPDOMParser.class) {
+			if (xmlInputFactory == null) {
+				xmlInputFactory = XMLInputFactory.newInstance();
+				xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+				xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
 			}
-		} else {
-			throw new RuntimeException("DOM 3.0 LS and/or DOM 2.0 Core not supported."); //$NON-NLS-1$
+			return xmlInputFactory.createXMLStreamReader(new StringReader(xml));
 		}
-	}	
+	}
 
 	/**
-	 * from http://jaysonlorenzen.wordpress.com/2009/01/29/48/
+	 * Checks that the given content starts with an element (possibly preceded by
+	 * an XML declaration, comments or a DOCTYPE) and ends with the closing tag of
+	 * that same element. Only the first {@link #DETECTION_PREFIX_LENGTH} characters
+	 * and the end of the content are inspected, so this check does not depend on the
+	 * size of the content.
 	 * @param inXMLStr
 	 * @return
 	 */
 	public static boolean isXMLLike(String inXMLStr) {
+		if (inXMLStr == null) {
+			return false;
+		}
+		int start = skipWhitespaces(inXMLStr, 0);
+		int end = inXMLStr.length();
+		while (end > start && Character.isWhitespace(inXMLStr.charAt(end - 1))) {
+			end--;
+		}
+		if (start >= end || inXMLStr.charAt(start) != '<') {
+			return false;
+		}
+		String rootElementName = getRootElementName(inXMLStr, start, Math.min(end, start + DETECTION_PREFIX_LENGTH));
+		if (rootElementName == null) {
+			return false;
+		}
+		String closingTag = "</" + rootElementName + ">"; //$NON-NLS-1$ //$NON-NLS-2$
+		return end - start > closingTag.length()
+				&& inXMLStr.regionMatches(true, end - closingTag.length(), closingTag, 0, closingTag.length());
+	}
 
-        boolean retBool = false;
-        Pattern pattern;
-        Matcher matcher;
-
-        // REGULAR EXPRESSION TO SEE IF IT AT LEAST STARTS AND ENDS
-        // WITH THE SAME ELEMENT
-        final String XML_PATTERN_STR = "<(\\S+?)(.*?)>(.*?)</\\1>"; //$NON-NLS-1$
-
-        // IF WE HAVE A STRING
-        if (inXMLStr != null && inXMLStr.trim().length() > 0) {
-
-            // IF WE EVEN RESEMBLE XML
-            if (inXMLStr.trim().startsWith("<")) { //$NON-NLS-1$
+	/*
+	 * Skips the XML declaration, comments, processing instructions and DOCTYPE at the
+	 * beginning of the given content.
+	 * @return the name of the first element, or null if none could be found before the given limit
+	 */
+	private static String getRootElementName ( String content, int start, int limit ) {
+		int position = start;
+		while (position < limit) {
+			int next;
+			if (content.startsWith("<?", position)) { //$NON-NLS-1$
+				next = indexOf(content, "?>", position + 2, limit); //$NON-NLS-1$
+				next = next < 0 ? -1 : next + 2;
+			} else if (content.startsWith("<!--", position)) { //$NON-NLS-1$
+				next = indexOf(content, "-->", position + 4, limit); //$NON-NLS-1$
+				next = next < 0 ? -1 : next + 3;
+			} else if (content.startsWith("<!", position)) { //$NON-NLS-1$
+				// DOCTYPE, possibly with an internal subset between brackets
+				int brackets = 0;
+				int i = position + 2;
+				while (i < limit && (content.charAt(i) != '>' || brackets > 0)) {
+					if (content.charAt(i) == '[') {
+						brackets++;
+					} else if (content.charAt(i) == ']') {
+						brackets--;
+					}
+					i++;
+				}
+				next = i < limit ? i + 1 : -1;
+			} else if (content.charAt(position) == '<') {
+				int i = position + 1;
+				while (i < limit && !Character.isWhitespace(content.charAt(i)) && content.charAt(i) != '>'
+						&& content.charAt(i) != '/') {
+					i++;
+				}
+				return i > position + 1 && i < limit ? content.substring(position + 1, i) : null;
+			} else {
+				return null;
+			}
+			if (next < 0) {
+				// unterminated declaration, comment or DOCTYPE
+				return null;
+			}
+			position = skipWhitespaces(content, next);
+		}
+		return null;
+	}
 
-                pattern = Pattern.compile(XML_PATTERN_STR,
-                Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE);
+	private static int indexOf ( String content, String token, int from, int limit ) {
+		for (int i = from; i + token.length() <= limit; i++) {
+			if (content.startsWith(token, i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
 
-                // RETURN TRUE IF IT HAS PASSED BOTH TESTS
-                matcher = pattern.matcher(inXMLStr);
-                retBool = matcher.matches();
-            }
-        // ELSE WE ARE FALSE
-        }
+	private static int skipWhitespaces ( String content, int position ) {
+		while (position < content.length() && Character.isWhitespace(content.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
 
-        return retBool;
-    }
-	
+	/**
+	 * Checks that the given content is well-formed XML, streaming through it
+	 * without building a DOM.
+	 * @param xml
+	 * @return
+	 */
 	public static boolean isValidXML(String xml) {
-		//get the factory
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		
+		if (xml == null) {
+			return false;
+		}
 		try {
-			
-			//Using factory get an instance of document builder
-			DocumentBuilder db = dbf.newDocumentBuilder();
-			
-			//parse using builder to get DOM representation of the XML file
-			ByteArrayInputStream bais = new ByteArrayInputStream(xml.getBytes());
-			db.parse(bais);
-			
-			return true;
-			
-		}catch(Exception e) {
+			XMLStreamReader reader = createXMLStreamReader(xml);
+			try {
+				while (reader.hasNext()) {
+					reader.next();
+				}
+				return true;
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
 			return false;
 		}
 	}
 
 	/**
-	 * Simple JSON pretty print to format JSON output
+	 * Checks that the given content starts and ends like a JSON object or array,
+	 * without inspecting the rest of the content.
+	 * @param inJSON
+	 * @return
+	 */
+	public static boolean isJSONLike ( String inJSON ) {
+		if (inJSON == null) {
+			return false;
+		}
+		int start = skipWhitespaces(inJSON, 0);
+		int end = inJSON.length();
+		while (end > start && Character.isWhitespace(inJSON.charAt(end - 1))) {
+			end--;
+		}
+		if (end - start < 2) {
+			return false;
+		}
+		char first = inJSON.charAt(start);
+		char last = inJSON.charAt(end - 1);
+		return (first == '{' && last == '}') || (first == '[' && last == ']');
+	}
+
+	/**
+	 * Simple JSON pretty print to format JSON output, in a single pass over the
+	 * tokens of the given content: each member and array item goes on its own
+	 * line, indented by its nesting level. Content that does not look like JSON
+	 * is returned as-is (trimmed).
 	 * @param inJSON
 	 * @return
 	 */
 	public static String prettyPrintJSON ( String inJSON ) {
-		int numberOfSpaces = 4;
-		String spaces = String.format("%" + numberOfSpaces + "s", ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		inJSON = inJSON.trim();
-		if (inJSON.startsWith("{") && inJSON.endsWith("}")) { //$NON-NLS-1$ //$NON-NLS-2$
-			String output = ""; //$NON-NLS-1$
-			char[] chars = inJSON.toCharArray();
-			for (int i = 0; i < chars.length; i++) {
-				char current = chars[i];
-				switch (current) {
-				case '{':
-					output = output + current + "\r\n" + spaces; //$NON-NLS-1$
-					break;
-				case '}':
-					output = output + "\r\n" + current; //$NON-NLS-1$
-					break;
-				case ',':
-					output = output + current + "\r\n" + spaces; //$NON-NLS-1$
-					break;
-				default:
-					output = output + current;
-					break;
+		if (!isJSONLike(inJSON)) {
+			return inJSON;
+		}
+		StringBuilder output = new StringBuilder(inJSON.length() + inJSON.length() / 2);
+		int depth = 0;
+		boolean inString = false;
+		boolean escaped = false;
+		for (int i = 0; i < inJSON.length(); i++) {
+			char current = inJSON.charAt(i);
+			if (inString) {
+				output.append(current);
+				if (escaped) {
+					escaped = false;
+				} else if (current == '\\') {
+					escaped = true;
+				} else if (current == '"') {
+					inString = false;
+				}
+				continue;
+			}
+			switch (current) {
+			case '"':
+				inString = true;
+				output.append(current);
+				break;
+			case '{':
+			case '[':
+				output.append(current);
+				int next = skipWhitespaces(inJSON, i + 1);
+				if (next < inJSON.length() && inJSON.charAt(next) == (current == '{' ? '}' : ']')) {
+					// keep empty objects and arrays on a single line
+					output.append(inJSON.charAt(next));
+					i = next;
+				} else {
+					depth++;
+					newLine(output, JSON_LINE_SEPARATOR, depth);
+				}
+				break;
+			case '}':
+			case ']':
+				depth = Math.max(depth - 1, 0);
+				newLine(output, JSON_LINE_SEPARATOR, depth);
+				output.append(current);
+				break;
+			case ',':
+				output.append(current);
+				newLine(output, JSON_LINE_SEPARATOR, depth);
+				break;
+			case ':':
+				output.append(": "); //$NON-NLS-1$
+				break;
+			default:
+				if (!Character.isWhitespace(current)) {
+					output.append(current);
 				}
+				break;
 			}
-			return output;
-		} else if (inJSON.startsWith("[") && inJSON.endsWith("]")) { //$NON-NLS-1$ //$NON-NLS-2$
-			String output = "[\r\n"; //$NON-NLS-1$
-			inJSON = inJSON.substring(1, inJSON.length() - 1);
-			String innerParts = prettyPrintJSON(inJSON);
-			output = output + innerParts;
-			output = output + "\r\n]"; //$NON-NLS-1$
-			return output;
 		}
-		return inJSON;
+		return output.toString();
 	}
 
 }
@@ -64,6 +64,7 @@ import org.eclipse.jface.viewers.TextCellEditor;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.window.Window;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.browser.Browser;
 import org.eclipse.swt.custom.SashForm;
@@ -162,6 +163,7 @@ public class JAXRSWSTestView2 extends ViewPart {
 
 	/* UI controls */
 	private Text resultsText;
+	private ExpandableComposite responseBodySection;
 	private Browser resultsBrowser;
 	private Combo urlCombo;
 	private DelimitedStringList dlsList;
@@ -211,6 +213,8 @@ public class JAXRSWSTestView2 extends ViewPart {
 	private TestHistoryEntry currentHistoryEntry = null;
 	private Button useBasicAuthCB;
 	private boolean restoringFromHistoryEntry = false;
+	// the tester of the last JAX-RS test, whose response file is deleted by the next test
+	private JAXRSTester lastJAXRSTester = null;
 
 	/**
 	 * The constructor.
@@ -543,6 +547,8 @@ public class JAXRSWSTestView2 extends ViewPart {
 			getCurrentHistoryEntry().setOperationName(null);
 
 			serviceNSMessage = null;
+			// the WSDL was (re)loaded, so the services created from its previous version are stale
+			JAXWSTester2.clearCache();
 			
 			Definition wsdlDef = wbDialog.getWSDLDefinition();
 			getCurrentHistoryEntry().setWsdlDef(wsdlDef);
@@ -1191,6 +1197,7 @@ public class JAXRSWSTestView2 extends ViewPart {
 				ExpandableComposite.CLIENT_INDENT |
 				ExpandableComposite.EXPANDED);
 		ec4.setText(JBossWSUIMessages.JAXRSWSTestView2_ResponseBody_Section);
+		responseBodySection = ec4;
 
 		createResponseToolbar(ec4);
 
@@ -1379,6 +1386,8 @@ public class JAXRSWSTestView2 extends ViewPart {
 
 	@Override
 	public void dispose() {
+		deleteLastResultFile(null);
+		JAXWSTester2.clearCache();
 		toolkit.dispose();
 		mImageRegistry.dispose();
 		super.dispose();
@@ -1743,9 +1752,12 @@ public class JAXRSWSTestView2 extends ViewPart {
 						public void run() {
 							if (status.getResultsText() != null) {
 								String results = status.getResultsText();
-								if (SOAPDOMParser.isValidXML(results)) {
-									results = SOAPDOMParser.prettyPrint(results);
-								} else {
+								if (SOAPDOMParser.isXMLLike(results)) {
+									final String formattedResults = SOAPDOMParser.prettyPrint(results);
+									if (formattedResults != null) {
+										results = formattedResults;
+									}
+								} else if (SOAPDOMParser.isJSONLike(results)) {
 									results = SOAPDOMParser.prettyPrintJSON(results);
 								}
 								getCurrentHistoryEntry().setResultText(results);
@@ -1761,6 +1773,12 @@ public class JAXRSWSTestView2 extends ViewPart {
 								JAXRSWSTestView2.this.resultsBrowser.setText(status.getMessage());
 								JAXRSWSTestView2.this.form.reflow(true);
 							}
+							if (status.getResponseStats() != null) {
+								responseBodySection.setText(status.getResponseStats());
+							} else {
+								responseBodySection.setText(JBossWSUIMessages.JAXRSWSTestView2_ResponseBody_Section);
+							}
+							responseBodySection.layout();
 							resultHeadersList.removeAll();
 							String[] headers =
 								DelimitedStringList.parseString(status.getHeadersList(), RESULT_HEADER_DELIMITER);
@@ -1957,6 +1975,7 @@ public class JAXRSWSTestView2 extends ViewPart {
 		}
 
 		JAXRSTester tester = new JAXRSTester();
+		deleteLastResultFile(tester);
 
 		// now actually call it
 		try {
@@ -1995,6 +2014,7 @@ public class JAXRSWSTestView2 extends ViewPart {
 			}
 
 			status.setHeadersList(listText);
+			status.setResponseStats(getResponseStats(tester));
 			monitor.worked(10);
 			return status;
 
@@ -2029,11 +2049,38 @@ public class JAXRSWSTestView2 extends ViewPart {
 			}
 
 			status.setHeadersList(listText);
+			status.setResponseStats(getResponseStats(tester));
 			monitor.worked(10);
 			return status;
 		}
 	}
 
+	/*
+	 * Deletes the response file of the last JAX-RS test, and keeps the given tester as the last one
+	 */
+	private synchronized void deleteLastResultFile(JAXRSTester tester) {
+		if (lastJAXRSTester != null) {
+			lastJAXRSTester.deleteResultFile();
+		}
+		lastJAXRSTester = tester;
+	}
+
+	/*
+	 * Returns the size, time-to-first-byte and throughput of the response read by the given tester
+	 */
+	private String getResponseStats(JAXRSTester tester) {
+		if (tester.getTimeToFirstByte() < 0) {
+			return null;
+		}
+		if (tester.isResultTruncated()) {
+			return NLS.bind(JBossWSUIMessages.JAXRSWSTestView2_ResponseBody_Section_Truncated, new Object[] {
+					tester.getResultSize(), tester.getTimeToFirstByte(), tester.getThroughput() / 1024,
+					JAXRSTester.MAX_PREVIEW_SIZE, tester.getResultFile().getAbsolutePath() });
+		}
+		return NLS.bind(JBossWSUIMessages.JAXRSWSTestView2_ResponseBody_Section_Stats, new Object[] {
+				tester.getResultSize(), tester.getTimeToFirstByte(), tester.getThroughput() / 1024 });
+	}
+
 	/**
 	 * Passing the focus request to the control.
 	 */
@@ -6,6 +6,7 @@ public class WSTestStatus extends Status {
 
 	private String resultsText;
 	private String headersList;
+	private String responseStats;
 	
 	public WSTestStatus(int severity, String pluginId, String message) {
 		super(severity, pluginId, message);
@@ -26,4 +27,12 @@ public class WSTestStatus extends Status {
 	public void setHeadersList(String headersList) {
 		this.headersList = headersList;
 	}
+
+	public String getResponseStats() {
+		return responseStats;
+	}
+
+	public void setResponseStats(String responseStats) {
+		this.responseStats = responseStats;
+	}
 }
@@ -0,0 +1,230 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import static org.eclipse.jdt.core.ElementChangedEvent.POST_RECONCILE;
+import static org.eclipse.jdt.core.IJavaElement.COMPILATION_UNIT;
+import static org.eclipse.jdt.core.IJavaElement.METHOD;
+import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CONTENT;
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_SIGNATURE;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JavaElementChangedBuildSchedulerTestCase {
+
+	private ICompilationUnit compilationUnit;
+	private IMethod method;
+	private IMethod otherMethod;
+
+	private static JavaElementChangedEvent createEvent(IMethod element, int deltaKind, CompilationUnit ast, Flags flags) {
+		return new JavaElementChangedEvent(element, deltaKind, POST_RECONCILE, ast, flags);
+	}
+
+	private IMethod createMethod() {
+		final IMethod method = when(mock(IMethod.class).getElementType()).thenReturn(METHOD).getMock();
+		when(method.getAncestor(COMPILATION_UNIT)).thenReturn(compilationUnit);
+		return method;
+	}
+
+	private static CompilationUnit createAST() {
+		return AST.newAST(AST.JLS8).newCompilationUnit();
+	}
+
+	private static List<JavaElementChangedEvent> asList(JavaElementChangedEvent... events) {
+		final List<JavaElementChangedEvent> list = new ArrayList<JavaElementChangedEvent>();
+		for (JavaElementChangedEvent event : events) {
+			list.add(event);
+		}
+		return list;
+	}
+
+	private static IProject createProject() {
+		final IResourceRuleFactory ruleFactory = mock(IResourceRuleFactory.class);
+		final IWorkspace workspace = when(mock(IWorkspace.class).getRuleFactory()).thenReturn(ruleFactory).getMock();
+		final IProject project = when(mock(IProject.class).getWorkspace()).thenReturn(workspace).getMock();
+		when(project.getName()).thenReturn("project");
+		return project;
+	}
+
+	private static ElementChangedEvent createElementChangedEvent() {
+		return new ElementChangedEvent(mock(IJavaElementDelta.class), POST_RECONCILE);
+	}
+
+	private static JavaElementChangedBuildJob findJob(final IProject project) {
+		for (Job job : Job.getJobManager().find(null)) {
+			if (job instanceof JavaElementChangedBuildJob && ((JavaElementChangedBuildJob) job).getProject() == project) {
+				return (JavaElementChangedBuildJob) job;
+			}
+		}
+		return null;
+	}
+
+	@Before
+	public void setup() {
+		compilationUnit = when(mock(ICompilationUnit.class).getElementType()).thenReturn(COMPILATION_UNIT).getMock();
+		method = createMethod();
+		otherMethod = createMethod();
+	}
+
+	@Test
+	public void shouldKeepSingleEvent() {
+		// pre-conditions
+		final JavaElementChangedEvent event = createEvent(method, CHANGED, createAST(), new Flags(F_SIGNATURE));
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(event));
+		// verifications
+		assertThat(result.size(), equalTo(1));
+		assertThat(result.get(0), sameInstance(event));
+	}
+
+	@Test
+	public void shouldDropElementAddedThenRemoved() {
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(
+				createEvent(method, ADDED, createAST(), Flags.NONE), createEvent(method, REMOVED, createAST(), Flags.NONE)));
+		// verifications
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void shouldKeepElementAddedThenChangedAsAdded() {
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(
+				createEvent(method, ADDED, createAST(), Flags.NONE),
+				createEvent(method, CHANGED, createAST(), new Flags(F_SIGNATURE))));
+		// verifications
+		assertThat(result.size(), equalTo(1));
+		assertThat(result.get(0).getKind(), equalTo(ADDED));
+	}
+
+	@Test
+	public void shouldKeepElementRemovedThenAddedAsChanged() {
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(
+				createEvent(method, REMOVED, createAST(), Flags.NONE), createEvent(method, ADDED, createAST(), Flags.NONE)));
+		// verifications
+		assertThat(result.size(), equalTo(1));
+		assertThat(result.get(0).getKind(), equalTo(CHANGED));
+	}
+
+	@Test
+	public void shouldKeepElementChangedThenRemovedAsRemoved() {
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(
+				createEvent(method, CHANGED, createAST(), new Flags(F_SIGNATURE)),
+				createEvent(method, REMOVED, createAST(), Flags.NONE)));
+		// verifications
+		assertThat(result.size(), equalTo(1));
+		assertThat(result.get(0).getKind(), equalTo(REMOVED));
+	}
+
+	@Test
+	public void shouldCombineFlagsOfSuccessiveChanges() {
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(
+				createEvent(method, CHANGED, createAST(), new Flags(F_SIGNATURE)),
+				createEvent(method, CHANGED, createAST(), new Flags(F_CONTENT))));
+		// verifications
+		assertThat(result.size(), equalTo(1));
+		assertThat(result.get(0).getKind(), equalTo(CHANGED));
+		assertTrue(result.get(0).getFlags().hasValue(F_SIGNATURE));
+		assertTrue(result.get(0).getFlags().hasValue(F_CONTENT));
+	}
+
+	@Test
+	public void shouldUseLastASTOfCompilationUnitForAllElements() {
+		// pre-conditions
+		final CompilationUnit lastAST = createAST();
+		// operation
+		final List<JavaElementChangedEvent> result = JavaElementChangedBuildScheduler.coalesce(asList(
+				createEvent(method, CHANGED, createAST(), new Flags(F_SIGNATURE)),
+				createEvent(otherMethod, CHANGED, createAST(), new Flags(F_SIGNATURE)),
+				createEvent(method, CHANGED, lastAST, new Flags(F_SIGNATURE))));
+		// verifications: order of first change is preserved
+		assertThat(result.size(), equalTo(2));
+		assertThat(result.get(0).getElement(), equalTo((Object) method));
+		assertThat(result.get(1).getElement(), equalTo((Object) otherMethod));
+		assertThat(result.get(0).getCompilationUnitAST(), sameInstance(lastAST));
+		assertThat(result.get(1).getCompilationUnitAST(), sameInstance(lastAST));
+	}
+
+	@Test
+	public void shouldDiscardJobWhenDoneWithoutPendingEvents() {
+		// pre-conditions
+		final IProject project = createProject();
+		final JavaElementChangedBuildScheduler scheduler = new JavaElementChangedBuildScheduler();
+		scheduler.schedule(project, createElementChangedEvent());
+		final JavaElementChangedBuildJob job = findJob(project);
+		assertThat(job, notNullValue());
+		assertThat(scheduler.getJobCount(), equalTo(1));
+		// operation: the job runs and processes all the pending events
+		job.cancel();
+		scheduler.drain(project);
+		scheduler.buildDone(job);
+		// verifications
+		assertThat(scheduler.getJobCount(), equalTo(0));
+	}
+
+	@Test
+	public void shouldKeepJobWhenDoneWithPendingEvents() {
+		// pre-conditions
+		final IProject project = createProject();
+		final JavaElementChangedBuildScheduler scheduler = new JavaElementChangedBuildScheduler();
+		scheduler.schedule(project, createElementChangedEvent());
+		final JavaElementChangedBuildJob job = findJob(project);
+		// operation: the job is cancelled before it could process the pending events
+		job.cancel();
+		// verifications
+		assertThat(scheduler.getJobCount(), equalTo(1));
+		scheduler.remove(project);
+	}
+
+	@Test
+	public void shouldDiscardJobAndPendingEventsWhenProjectRemoved() {
+		// pre-conditions
+		final IProject project = createProject();
+		final JavaElementChangedBuildScheduler scheduler = new JavaElementChangedBuildScheduler();
+		scheduler.schedule(project, createElementChangedEvent());
+		// operation
+		scheduler.remove(project);
+		// verifications
+		assertThat(scheduler.getJobCount(), equalTo(0));
+		assertThat(findJob(project), nullValue());
+		assertTrue(scheduler.drain(project).isEmpty());
+	}
+
+}
@@ -0,0 +1,74 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import static org.eclipse.jdt.core.ElementChangedEvent.POST_CHANGE;
+import static org.eclipse.jdt.core.ElementChangedEvent.POST_RECONCILE;
+import static org.eclipse.jdt.core.IJavaElement.ANNOTATION;
+import static org.eclipse.jdt.core.IJavaElement.COMPILATION_UNIT;
+import static org.eclipse.jdt.core.IJavaElement.FIELD;
+import static org.eclipse.jdt.core.IJavaElement.JAVA_PROJECT;
+import static org.eclipse.jdt.core.IJavaElement.METHOD;
+import static org.eclipse.jdt.core.IJavaElement.PACKAGE_FRAGMENT;
+import static org.eclipse.jdt.core.IJavaElement.PACKAGE_FRAGMENT_ROOT;
+import static org.eclipse.jdt.core.IJavaElement.TYPE;
+import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_ANNOTATIONS;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CHILDREN;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CONTENT;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_FINE_GRAINED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_PRIMARY_RESOURCE;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_SUPER_TYPES;
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.junit.Test;
+
+/**
+ * Reports the time needed to filter synthetic Java element deltas. This
+ * benchmark is not part of the default test run: the rules themselves are
+ * verified in {@link JavaElementDeltaFilterTestCase}.
+ */
+public class JavaElementDeltaFilterBenchmark {
+
+	private final JavaElementDeltaFilter filter = new JavaElementDeltaFilter();
+
+	@Test
+	public void filterSyntheticDeltas() {
+		final int[] elementKinds = new int[] { JAVA_PROJECT, PACKAGE_FRAGMENT_ROOT, PACKAGE_FRAGMENT, COMPILATION_UNIT,
+				TYPE, FIELD, METHOD, ANNOTATION };
+		final int[] deltaKinds = new int[] { ADDED, REMOVED, CHANGED };
+		final int[] eventTypes = new int[] { POST_CHANGE, POST_RECONCILE };
+		final int[] flags = new int[] { 0, F_CONTENT, F_CHILDREN, F_FINE_GRAINED, F_CONTENT + F_FINE_GRAINED,
+				F_SUPER_TYPES, F_ANNOTATIONS, F_CONTENT + F_PRIMARY_RESOURCE };
+		final int iterations = 20000;
+		final long start = System.currentTimeMillis();
+		int accepted = 0;
+		for (int i = 0; i < iterations; i++) {
+			for (int elementKind : elementKinds) {
+				for (int deltaKind : deltaKinds) {
+					for (int eventType : eventTypes) {
+						for (int flag : flags) {
+							if (filter.apply(elementKind, deltaKind, eventType, flag, (i & 1) == 0)) {
+								accepted++;
+							}
+						}
+					}
+				}
+			}
+		}
+		final long time = System.currentTimeMillis() - start;
+		final int total = iterations * elementKinds.length * deltaKinds.length * eventTypes.length * flags.length;
+		TestLogger.info("Filtered {} synthetic deltas in {}ms ({} accepted)", total, time, accepted);
+	}
+
+}
@@ -15,19 +15,36 @@ import static org.eclipse.jdt.core.ElementChangedEvent.POST_CHANGE;
 import static org.eclipse.jdt.core.ElementChangedEvent.POST_RECONCILE;
 import static org.eclipse.jdt.core.IJavaElement.ANNOTATION;
 import static org.eclipse.jdt.core.IJavaElement.COMPILATION_UNIT;
+import static org.eclipse.jdt.core.IJavaElement.FIELD;
+import static org.eclipse.jdt.core.IJavaElement.JAVA_PROJECT;
 import static org.eclipse.jdt.core.IJavaElement.METHOD;
+import static org.eclipse.jdt.core.IJavaElement.PACKAGE_FRAGMENT;
 import static org.eclipse.jdt.core.IJavaElement.PACKAGE_FRAGMENT_ROOT;
 import static org.eclipse.jdt.core.IJavaElement.TYPE;
 import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
 import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_ADDED_TO_CLASSPATH;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_ANNOTATIONS;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_AST_AFFECTED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CHILDREN;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_CLASSPATH_CHANGED;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_CONTENT;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_FINE_GRAINED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_OPENED;
 import static org.eclipse.jdt.core.IJavaElementDelta.F_PRIMARY_RESOURCE;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_REMOVED_FROM_CLASSPATH;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.F_SUPER_TYPES;
+import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_MARKER_ADDED;
+import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_MARKER_REMOVED;
+import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.IJavaElementDeltaFlag.F_SIGNATURE;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMethod;
@@ -127,4 +144,118 @@ public class JavaElementDeltaFilterTestCase {
 		assertFalse("Wrong result", filter.apply(createEvent(element, REMOVED, POST_RECONCILE, Flags.NONE)));
 		assertFalse("Wrong result", filter.apply(createEvent(element, REMOVED, POST_CHANGE, Flags.NONE)));
 	}
+
+	@Test
+	public void shouldAcceptRawChangesWithoutEvent() {
+		final IJavaElement element = createMock(ICompilationUnit.class, COMPILATION_UNIT);
+		assertTrue("Wrong result", filter.apply(element, CHANGED, POST_RECONCILE, F_PRIMARY_RESOURCE + F_CONTENT));
+		assertFalse("Wrong result", filter.apply(element, CHANGED, POST_RECONCILE, F_CONTENT));
+		assertFalse("Wrong result", filter.apply(null, CHANGED, POST_RECONCILE, F_PRIMARY_RESOURCE + F_CONTENT));
+	}
+
+	@Test
+	public void shouldRejectUnsupportedKindsAndEventTypes() {
+		assertFalse("Wrong result", filter.apply(METHOD, 0, POST_CHANGE, 0, false));
+		assertFalse("Wrong result", filter.apply(METHOD, ADDED + REMOVED, POST_CHANGE, 0, false));
+		assertFalse("Wrong result", filter.apply(METHOD, ADDED, ElementChangedEvent.PRE_AUTO_BUILD, 0, false));
+		assertFalse("Wrong result", filter.apply(METHOD, ADDED, POST_CHANGE + POST_RECONCILE, 0, false));
+		assertFalse("Wrong result", filter.apply(-1, ADDED, POST_CHANGE, 0, false));
+		assertFalse("Wrong result", filter.apply(ANNOTATION + 1, ADDED, POST_CHANGE, 0, false));
+	}
+
+	@Test
+	public void shouldDistinguishWorkingCopyAndPrimaryCopyRules() {
+		assertTrue("Wrong result", filter.apply(TYPE, CHANGED, POST_RECONCILE, F_SUPER_TYPES, true));
+		assertFalse("Wrong result", filter.apply(TYPE, CHANGED, POST_RECONCILE, F_SUPER_TYPES, false));
+		assertTrue("Wrong result", filter.apply(COMPILATION_UNIT, CHANGED, POST_RECONCILE, F_CONTENT + F_PRIMARY_RESOURCE, false));
+		assertFalse("Wrong result", filter.apply(COMPILATION_UNIT, CHANGED, POST_RECONCILE, F_CONTENT + F_PRIMARY_RESOURCE, true));
+	}
+
+	@Test
+	public void shouldApplyJavaProjectRules() {
+		assertTrue("Wrong result", filter.apply(JAVA_PROJECT, ADDED, POST_RECONCILE, 0, false));
+		assertFalse("Wrong result", filter.apply(JAVA_PROJECT, ADDED, POST_RECONCILE, 0, true));
+		assertFalse("Wrong result", filter.apply(JAVA_PROJECT, ADDED, POST_CHANGE, 0, false));
+		assertTrue("Wrong result", filter.apply(JAVA_PROJECT, REMOVED, POST_RECONCILE, 0, false));
+		assertTrue("Wrong result", filter.apply(JAVA_PROJECT, CHANGED, POST_CHANGE, F_OPENED, false));
+		assertFalse("Wrong result", filter.apply(JAVA_PROJECT, CHANGED, POST_RECONCILE, F_OPENED, false));
+		assertTrue("Wrong result", filter.apply(JAVA_PROJECT, CHANGED, POST_CHANGE, F_CONTENT + F_CHILDREN
+				+ F_CLASSPATH_CHANGED + F_RESOLVED_CLASSPATH_CHANGED, false));
+		// flags must match exactly
+		assertFalse("Wrong result", filter.apply(JAVA_PROJECT, CHANGED, POST_CHANGE, F_CLASSPATH_CHANGED, false));
+		assertFalse("Wrong result", filter.apply(JAVA_PROJECT, CHANGED, POST_CHANGE, F_OPENED + F_CONTENT, false));
+	}
+
+	@Test
+	public void shouldApplyPackageFragmentRootAndPackageFragmentRules() {
+		assertTrue("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, ADDED, POST_CHANGE, 0, false));
+		assertTrue("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, ADDED, POST_CHANGE, F_ADDED_TO_CLASSPATH, false));
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, ADDED, POST_RECONCILE, 0, false));
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, ADDED, POST_CHANGE, 0, true));
+		assertTrue("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, REMOVED, POST_CHANGE, F_REMOVED_FROM_CLASSPATH, false));
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, REMOVED, POST_CHANGE, 0, false));
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT_ROOT, CHANGED, POST_CHANGE, F_CHILDREN, false));
+		// no rule for package fragments
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT, ADDED, POST_CHANGE, 0, false));
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT, REMOVED, POST_RECONCILE, 0, true));
+		assertFalse("Wrong result", filter.apply(PACKAGE_FRAGMENT, CHANGED, POST_CHANGE, F_CHILDREN, false));
+	}
+
+	@Test
+	public void shouldApplyCompilationUnitRules() {
+		assertTrue("Wrong result", filter.apply(COMPILATION_UNIT, ADDED, POST_RECONCILE, 0, false));
+		assertFalse("Wrong result", filter.apply(COMPILATION_UNIT, ADDED, POST_RECONCILE, 0, true));
+		assertFalse("Wrong result", filter.apply(COMPILATION_UNIT, ADDED, POST_CHANGE, 0, false));
+		assertTrue("Wrong result", filter.apply(COMPILATION_UNIT, CHANGED, POST_RECONCILE, F_CONTENT
+				+ F_FINE_GRAINED + F_AST_AFFECTED, true));
+		assertFalse("Wrong result", filter.apply(COMPILATION_UNIT, CHANGED, POST_RECONCILE, F_CONTENT
+				+ F_FINE_GRAINED + F_AST_AFFECTED, false));
+		assertFalse("Wrong result", filter.apply(COMPILATION_UNIT, CHANGED, POST_RECONCILE, F_CONTENT + F_FINE_GRAINED, true));
+		assertTrue("Wrong result", filter.apply(COMPILATION_UNIT, REMOVED, POST_RECONCILE, 0, true));
+		assertTrue("Wrong result", filter.apply(COMPILATION_UNIT, REMOVED, POST_RECONCILE, 0, false));
+		assertFalse("Wrong result", filter.apply(COMPILATION_UNIT, REMOVED, POST_CHANGE, 0, false));
+	}
+
+	@Test
+	public void shouldApplyTypeRules() {
+		assertTrue("Wrong result", filter.apply(TYPE, ADDED, POST_RECONCILE, 0, true));
+		assertTrue("Wrong result", filter.apply(TYPE, ADDED, POST_CHANGE, 0, false));
+		assertFalse("Wrong result", filter.apply(TYPE, ADDED, POST_CHANGE, F_CONTENT, false));
+		assertTrue("Wrong result", filter.apply(TYPE, CHANGED, POST_CHANGE, F_MARKER_ADDED, true));
+		assertFalse("Wrong result", filter.apply(TYPE, CHANGED, POST_CHANGE, F_MARKER_ADDED, false));
+		assertFalse("Wrong result", filter.apply(TYPE, CHANGED, POST_RECONCILE, F_MARKER_REMOVED, true));
+		assertFalse("Wrong result", filter.apply(TYPE, CHANGED, POST_RECONCILE, F_ANNOTATIONS, true));
+		assertFalse("Wrong result", filter.apply(TYPE, CHANGED, POST_RECONCILE, F_SUPER_TYPES + F_CONTENT, true));
+		assertTrue("Wrong result", filter.apply(TYPE, REMOVED, POST_CHANGE, 0, true));
+		assertTrue("Wrong result", filter.apply(TYPE, REMOVED, POST_RECONCILE, 0, false));
+	}
+
+	@Test
+	public void shouldApplyMethodRules() {
+		assertTrue("Wrong result", filter.apply(METHOD, ADDED, POST_RECONCILE, 0, true));
+		assertTrue("Wrong result", filter.apply(METHOD, ADDED, POST_CHANGE, 0, false));
+		assertTrue("Wrong result", filter.apply(METHOD, CHANGED, POST_RECONCILE, F_SIGNATURE, false));
+		assertTrue("Wrong result", filter.apply(METHOD, CHANGED, POST_CHANGE, F_MARKER_ADDED, true));
+		assertTrue("Wrong result", filter.apply(METHOD, CHANGED, POST_CHANGE, F_MARKER_REMOVED, false));
+		assertFalse("Wrong result", filter.apply(METHOD, CHANGED, POST_RECONCILE, F_CONTENT, true));
+		assertFalse("Wrong result", filter.apply(METHOD, CHANGED, POST_RECONCILE, F_SIGNATURE + F_CONTENT, true));
+		assertTrue("Wrong result", filter.apply(METHOD, REMOVED, POST_RECONCILE, 0, true));
+		assertTrue("Wrong result", filter.apply(METHOD, REMOVED, POST_CHANGE, F_CONTENT, false));
+		assertFalse("Wrong result", filter.apply(METHOD, REMOVED, POST_CHANGE, F_CHILDREN, false));
+	}
+
+	@Test
+	public void shouldApplyFieldAndAnnotationRules() {
+		assertTrue("Wrong result", filter.apply(FIELD, ADDED, POST_RECONCILE, 0, true));
+		assertTrue("Wrong result", filter.apply(FIELD, CHANGED, POST_CHANGE, F_CONTENT, false));
+		assertFalse("Wrong result", filter.apply(FIELD, CHANGED, POST_CHANGE, F_SIGNATURE, false));
+		assertFalse("Wrong result", filter.apply(FIELD, CHANGED, POST_RECONCILE, 0, true));
+		assertTrue("Wrong result", filter.apply(FIELD, REMOVED, POST_CHANGE, 0, true));
+		assertTrue("Wrong result", filter.apply(ANNOTATION, ADDED, POST_CHANGE, 0, false));
+		assertTrue("Wrong result", filter.apply(ANNOTATION, CHANGED, POST_RECONCILE, F_CONTENT, true));
+		assertFalse("Wrong result", filter.apply(ANNOTATION, CHANGED, POST_RECONCILE, 0, true));
+		assertFalse("Wrong result", filter.apply(ANNOTATION, CHANGED, POST_RECONCILE, F_CONTENT + F_FINE_GRAINED, true));
+		assertTrue("Wrong result", filter.apply(ANNOTATION, REMOVED, POST_RECONCILE, 0, false));
+	}
+
 }
@@ -40,6 +40,8 @@ import static org.jboss.tools.ws.jaxrs.core.junitrules.JavaElementsUtils.removeT
 import static org.jboss.tools.ws.jaxrs.core.junitrules.JavaElementsUtils.renameMethod;
 import static org.jboss.tools.ws.jaxrs.core.junitrules.ResourcesUtils.replaceAllOccurrencesOfCode;
 import static org.jboss.tools.ws.jaxrs.core.junitrules.ResourcesUtils.replaceFirstOccurrenceOfCode;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
@@ -75,6 +77,7 @@ import org.eclipse.ui.IEditorPart;
 import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
 import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.jboss.tools.ws.jaxrs.core.jdt.ASTProvider;
 import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
 import org.jboss.tools.ws.jaxrs.core.jdt.JdtUtils;
 import org.jboss.tools.ws.jaxrs.core.junitrules.JaxrsMetamodelMonitor;
@@ -138,12 +141,19 @@ public class JavaElementDeltaScannerTestCase {
 
 	private List<ResourceDelta> resourceEvents = null;
 
+	/** number of ASTs parsed by the scanner while processing POST_RECONCILE events. */
+	private long parsedASTsOnReconcile = 0;
+
 	private final class ElementChangeListener implements IElementChangedListener {
 		@Override
 		public void elementChanged(ElementChangedEvent event) {
 			try {
 				final JavaElementDeltaScanner scanner = new JavaElementDeltaScanner();
+				final long parsedASTs = ASTProvider.getInstance().getParsedASTs();
 				final List<? extends EventObject> events = scanner.scanAndFilterEvent(event, new NullProgressMonitor());
+				if (event.getType() == POST_RECONCILE) {
+					parsedASTsOnReconcile += ASTProvider.getInstance().getParsedASTs() - parsedASTs;
+				}
 				for (EventObject e : events) {
 					if (e instanceof JavaElementChangedEvent) {
 						javaElementEvents.add((JavaElementChangedEvent) e);
@@ -1166,6 +1176,23 @@ public class JavaElementDeltaScannerTestCase {
 		}
 	}
 	
+	@Test
+	public void shouldReuseReconcileASTWhenMethodsChangedInWorkingCopy() throws CoreException {
+		// pre-condition
+		final IType type = metamodelMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.CustomerResource");
+		parsedASTsOnReconcile = 0;
+		// operation: changes the @Path annotation of several methods in a single reconcile
+		replaceAllOccurrencesOfCode(type, "@Path(\"{id}\")", "@Path(\"{identifier}\")", WORKING_COPY);
+		// verifications: events were notified, but the compilation unit was not parsed again
+		for (IMethod method : type.getMethods()) {
+			final IAnnotation pathAnnotation = method.getAnnotation("Path");
+			if (pathAnnotation.exists()) {
+				verifyEventNotification(pathAnnotation, CHANGED, POST_RECONCILE, F_CONTENT, atLeastOnce());
+			}
+		}
+		assertThat(parsedASTsOnReconcile, equalTo(0L));
+	}
+
 	@Test
 	public void shoudIgnoreEventOnCloseProject() throws CoreException {
 		// pre-condition
@@ -0,0 +1,126 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.junit.Test;
+
+public class JaxrsMetamodelBuildCoordinatorTestCase {
+
+	private final AtomicInteger runningBuilds = new AtomicInteger();
+
+	private final AtomicInteger maxRunningBuilds = new AtomicInteger();
+
+	private static IProject createProject(final String name) {
+		final IProject project = mock(IProject.class);
+		when(project.getName()).thenReturn(name);
+		// required by the job manager to validate the scheduling rule
+		when(project.contains(project)).thenReturn(true);
+		when(project.isConflicting(project)).thenReturn(true);
+		return project;
+	}
+
+	@Test
+	public void shouldRunIndependentBuildsInParallelUpToLimit() throws InterruptedException {
+		// pre-conditions
+		final JaxrsMetamodelBuildCoordinator coordinator = new JaxrsMetamodelBuildCoordinator(2);
+		final List<FakeBuildJob> jobs = new ArrayList<FakeBuildJob>();
+		// operation
+		for (int i = 0; i < 6; i++) {
+			final FakeBuildJob job = new FakeBuildJob(coordinator);
+			jobs.add(job);
+			coordinator.submit(job, createProject("project" + i), Collections.<IProject> emptyList());
+		}
+		// pending builds are only scheduled when a running build is done
+		while (coordinator.getQueueDepth() > 0) {
+			Thread.sleep(50);
+		}
+		for (FakeBuildJob job : jobs) {
+			job.join();
+		}
+		// verifications
+		assertThat(maxRunningBuilds.get(), equalTo(2));
+		for (FakeBuildJob job : jobs) {
+			assertThat(job.getResult().getSeverity(), equalTo(IStatus.OK));
+		}
+	}
+
+	@Test
+	public void shouldBuildRequiredProjectFirst() throws InterruptedException {
+		// pre-conditions
+		final JaxrsMetamodelBuildCoordinator coordinator = new JaxrsMetamodelBuildCoordinator(4);
+		final IProject libraryProject = createProject("library");
+		final IProject webProject = createProject("web");
+		final FakeBuildJob libraryJob = new FakeBuildJob(coordinator);
+		final FakeBuildJob webJob = new FakeBuildJob(coordinator);
+		// operation
+		coordinator.submit(libraryJob, libraryProject, Collections.<IProject> emptyList());
+		coordinator.submit(webJob, webProject, Arrays.asList(libraryProject));
+		libraryJob.join();
+		webJob.join();
+		// verifications
+		assertThat(webJob.startTime, greaterThanOrEqualTo(libraryJob.endTime));
+		assertThat(maxRunningBuilds.get(), equalTo(1));
+	}
+
+	/**
+	 * A build job that just takes some time to run and records when it ran.
+	 */
+	class FakeBuildJob extends Job {
+
+		private final JaxrsMetamodelBuildCoordinator coordinator;
+
+		long startTime;
+
+		long endTime;
+
+		FakeBuildJob(final JaxrsMetamodelBuildCoordinator coordinator) {
+			super("Fake build");
+			this.coordinator = coordinator;
+		}
+
+		@Override
+		protected IStatus run(final IProgressMonitor monitor) {
+			try {
+				startTime = System.nanoTime();
+				final int running = runningBuilds.incrementAndGet();
+				synchronized (maxRunningBuilds) {
+					maxRunningBuilds.set(Math.max(maxRunningBuilds.get(), running));
+				}
+				Thread.sleep(200);
+				return Status.OK_STATUS;
+			} catch (InterruptedException e) {
+				return Status.CANCEL_STATUS;
+			} finally {
+				runningBuilds.decrementAndGet();
+				endTime = System.nanoTime();
+				coordinator.buildDone(this);
+			}
+		}
+	}
+
+}
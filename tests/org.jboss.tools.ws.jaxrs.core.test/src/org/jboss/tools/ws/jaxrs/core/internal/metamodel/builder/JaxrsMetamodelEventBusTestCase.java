@@ -0,0 +1,258 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder;
+
+import static org.eclipse.jdt.core.IJavaElementDelta.ADDED;
+import static org.eclipse.jdt.core.IJavaElementDelta.CHANGED;
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodelBatchedChangedListener;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsMetamodelChangedListener;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsEndpointDelta;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsMetamodelDelta;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JaxrsMetamodelEventBusTestCase {
+
+	private JaxrsMetamodelEventBus eventBus;
+
+	private IJaxrsMetamodel metamodel;
+
+	@Before
+	public void setup() {
+		eventBus = new JaxrsMetamodelEventBus();
+		metamodel = mock(IJaxrsMetamodel.class);
+	}
+
+	@After
+	public void dispose() {
+		eventBus.dispose();
+	}
+
+	private IJaxrsEndpoint createEndpoint() {
+		final IJaxrsEndpoint endpoint = mock(IJaxrsEndpoint.class);
+		when(endpoint.getMetamodel()).thenReturn(metamodel);
+		return endpoint;
+	}
+
+	@Test
+	public void shouldCoalesceEndpointChangesInTransaction() {
+		// pre-conditions
+		final RecordingListener listener = new RecordingListener();
+		eventBus.addListener(listener);
+		final IJaxrsEndpoint addedThenChanged = createEndpoint();
+		final IJaxrsEndpoint addedThenRemoved = createEndpoint();
+		final IJaxrsEndpoint removedThenAdded = createEndpoint();
+		final IJaxrsEndpoint changedThenRemoved = createEndpoint();
+		// operation
+		eventBus.beginTransaction();
+		eventBus.notifyEndpointChanged(addedThenChanged, ADDED);
+		eventBus.notifyEndpointChanged(addedThenRemoved, ADDED);
+		eventBus.notifyEndpointChanged(removedThenAdded, REMOVED);
+		eventBus.notifyEndpointChanged(changedThenRemoved, CHANGED);
+		eventBus.notifyEndpointChanged(addedThenChanged, CHANGED);
+		eventBus.notifyEndpointChanged(addedThenRemoved, REMOVED);
+		eventBus.notifyEndpointChanged(removedThenAdded, ADDED);
+		eventBus.notifyEndpointChanged(changedThenRemoved, REMOVED);
+		eventBus.notifyEndpointProblemLevelChanged(changedThenRemoved);
+		eventBus.notifyMetamodelProblemLevelChanged(metamodel);
+		eventBus.notifyMetamodelProblemLevelChanged(metamodel);
+		// verifications: nothing delivered until the end of the transaction
+		assertThat(eventBus.waitForDispatch(5000), is(true));
+		assertThat(listener.batches.size(), equalTo(0));
+		eventBus.endTransaction();
+		assertThat(eventBus.waitForDispatch(5000), is(true));
+		assertThat(listener.batches.size(), equalTo(1));
+		final JaxrsMetamodelDelta batch = listener.batches.get(0);
+		assertThat(batch.getMetamodel(), equalTo(metamodel));
+		assertThat(batch.getKind(), equalTo(CHANGED));
+		assertThat(batch.getEndpointDeltas(), hasSize(3));
+		assertThat(batch.getEndpointDeltas().get(0).getEndpoint(), equalTo(addedThenChanged));
+		assertThat(batch.getEndpointDeltas().get(0).getKind(), equalTo(ADDED));
+		assertThat(batch.getEndpointDeltas().get(1).getEndpoint(), equalTo(removedThenAdded));
+		assertThat(batch.getEndpointDeltas().get(1).getKind(), equalTo(CHANGED));
+		assertThat(batch.getEndpointDeltas().get(2).getEndpoint(), equalTo(changedThenRemoved));
+		assertThat(batch.getEndpointDeltas().get(2).getKind(), equalTo(REMOVED));
+		// no problem level change for a removed endpoint
+		assertThat(batch.getEndpointProblemLevelChanges(), hasSize(0));
+		assertThat(batch.isProblemLevelChanged(), is(true));
+	}
+
+	@Test
+	public void shouldDeliverNestedTransactionChangesOnce() {
+		// pre-conditions
+		final RecordingListener listener = new RecordingListener();
+		eventBus.addListener(listener);
+		final IJaxrsEndpoint endpoint = createEndpoint();
+		// operation
+		eventBus.beginTransaction();
+		eventBus.beginTransaction();
+		eventBus.notifyEndpointChanged(endpoint, ADDED);
+		eventBus.endTransaction();
+		eventBus.waitForDispatch(5000);
+		assertThat(listener.batches.size(), equalTo(0));
+		eventBus.notifyEndpointProblemLevelChanged(endpoint);
+		eventBus.endTransaction();
+		// verifications
+		eventBus.waitForDispatch(5000);
+		assertThat(listener.batches.size(), equalTo(1));
+		assertThat(listener.batches.get(0).getEndpointDeltas(), hasSize(1));
+		assertThat(listener.batches.get(0).getEndpointProblemLevelChanges(), contains(endpoint));
+	}
+
+	@Test
+	public void shouldDeliverChangesImmediatelyWithoutTransaction() {
+		// pre-conditions
+		final RecordingListener listener = new RecordingListener();
+		eventBus.addListener(listener);
+		// operation
+		eventBus.notifyEndpointChanged(createEndpoint(), ADDED);
+		eventBus.notifyEndpointChanged(createEndpoint(), ADDED);
+		// verifications
+		eventBus.waitForDispatch(5000);
+		assertThat(listener.batches.size(), equalTo(2));
+	}
+
+	@Test
+	public void shouldReplayChangesToLegacyListener() {
+		// pre-conditions
+		final RecordingLegacyListener listener = new RecordingLegacyListener();
+		eventBus.addListener(listener);
+		final IJaxrsEndpoint endpoint1 = createEndpoint();
+		final IJaxrsEndpoint endpoint2 = createEndpoint();
+		// operation
+		eventBus.beginTransaction();
+		eventBus.notifyEndpointChanged(endpoint1, ADDED);
+		eventBus.notifyEndpointChanged(endpoint2, CHANGED);
+		eventBus.notifyEndpointProblemLevelChanged(endpoint2);
+		eventBus.notifyMetamodelProblemLevelChanged(metamodel);
+		eventBus.endTransaction();
+		eventBus.notifyMetamodelChanged(metamodel, REMOVED);
+		// verifications
+		eventBus.waitForDispatch(5000);
+		assertThat(listener.notifications, contains("endpoint:" + ADDED, "endpoint:" + CHANGED,
+				"endpointProblemLevel", "metamodelProblemLevel", "metamodel:" + REMOVED));
+	}
+
+	@Test
+	public void shouldDeliverMetamodelRemovalAfterPendingChanges() {
+		// pre-conditions
+		final RecordingLegacyListener listener = new RecordingLegacyListener();
+		eventBus.addListener(listener);
+		// operation
+		eventBus.beginTransaction();
+		eventBus.notifyEndpointChanged(createEndpoint(), CHANGED);
+		eventBus.beginTransaction();
+		eventBus.notifyMetamodelChanged(metamodel, REMOVED);
+		eventBus.endTransaction();
+		eventBus.waitForDispatch(5000);
+		assertThat(listener.notifications, hasSize(0));
+		eventBus.endTransaction();
+		// verifications
+		eventBus.waitForDispatch(5000);
+		assertThat(listener.notifications, contains("endpoint:" + CHANGED, "metamodel:" + REMOVED));
+	}
+
+	@Test
+	public void shouldDeliverChangesOnDispatcherThreadAndRecordStatistics() {
+		// pre-conditions
+		final RecordingListener listener = new RecordingListener();
+		final RecordingListener failingListener = new RecordingListener() {
+			@Override
+			public void notifyMetamodelChanges(final JaxrsMetamodelDelta delta) {
+				throw new IllegalStateException("Failure for testing purpose");
+			}
+		};
+		eventBus.addListener(failingListener);
+		eventBus.addListener(listener);
+		// operation
+		eventBus.notifyEndpointChanged(createEndpoint(), ADDED);
+		// verifications
+		assertThat(eventBus.waitForDispatch(5000), is(true));
+		assertThat(listener.threads, hasSize(1));
+		assertThat(listener.threads.get(0), not(equalTo(Thread.currentThread())));
+		assertThat(eventBus.getDispatchStatistics(listener).getDispatches(), equalTo(1L));
+		assertThat(eventBus.getDispatchStatistics(failingListener).getDispatches(), equalTo(1L));
+		eventBus.removeListener(listener);
+		assertThat(eventBus.getDispatchStatistics(listener), nullValue());
+	}
+
+	static class RecordingListener implements IJaxrsMetamodelBatchedChangedListener {
+
+		final List<JaxrsMetamodelDelta> batches = new ArrayList<JaxrsMetamodelDelta>();
+
+		final List<Thread> threads = new ArrayList<Thread>();
+
+		@Override
+		public void notifyMetamodelChanges(final JaxrsMetamodelDelta delta) {
+			batches.add(delta);
+			threads.add(Thread.currentThread());
+		}
+
+		@Override
+		public void notifyMetamodelChanged(final JaxrsMetamodelDelta delta) {
+		}
+
+		@Override
+		public void notifyEndpointChanged(final JaxrsEndpointDelta delta) {
+		}
+
+		@Override
+		public void notifyEndpointProblemLevelChanged(final IJaxrsEndpoint endpoint) {
+		}
+
+		@Override
+		public void notifyMetamodelProblemLevelChanged(final IJaxrsMetamodel metamodel) {
+		}
+	}
+
+	static class RecordingLegacyListener implements IJaxrsMetamodelChangedListener {
+
+		final List<String> notifications = new ArrayList<String>();
+
+		@Override
+		public void notifyMetamodelChanged(final JaxrsMetamodelDelta delta) {
+			notifications.add("metamodel:" + delta.getKind());
+		}
+
+		@Override
+		public void notifyEndpointChanged(final JaxrsEndpointDelta delta) {
+			notifications.add("endpoint:" + delta.getKind());
+		}
+
+		@Override
+		public void notifyEndpointProblemLevelChanged(final IJaxrsEndpoint endpoint) {
+			notifications.add("endpointProblemLevel");
+		}
+
+		@Override
+		public void notifyMetamodelProblemLevelChanged(final IJaxrsMetamodel metamodel) {
+			notifications.add("metamodelProblemLevel");
+		}
+	}
+
+}
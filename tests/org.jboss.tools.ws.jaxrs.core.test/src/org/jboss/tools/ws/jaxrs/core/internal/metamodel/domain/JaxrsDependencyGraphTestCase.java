@@ -0,0 +1,184 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.jboss.tools.ws.jaxrs.core.jdt.Annotation;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JaxrsDependencyGraphTestCase {
+
+	private static final String BINDING_NAME = "org.jboss.tools.ws.jaxrs.sample.CustomBinding";
+
+	private IResource nameBindingResource;
+
+	private IResource boundProviderResource;
+
+	private IResource otherProviderResource;
+
+	private IResource paramConverterProviderResource;
+
+	private JaxrsNameBinding nameBinding;
+
+	private JaxrsProvider boundProvider;
+
+	private JaxrsProvider otherProvider;
+
+	private JaxrsParamConverterProvider paramConverterProvider;
+
+	private JaxrsMetamodel metamodel;
+
+	private JaxrsDependencyGraph graph;
+
+	private static Map<String, Annotation> annotations(final String... annotationNames) {
+		final Map<String, Annotation> annotations = new HashMap<String, Annotation>();
+		for (String annotationName : annotationNames) {
+			final Annotation annotation = mock(Annotation.class);
+			when(annotation.getFullyQualifiedName()).thenReturn(annotationName);
+			annotations.put(annotationName, annotation);
+		}
+		return annotations;
+	}
+
+	private static <T extends JaxrsJavaElement<?>> T mockElement(final Class<T> elementClass, final IResource resource,
+			final Map<String, Annotation> annotations, final Map<String, Annotation> nameBindingAnnotations) {
+		final T element = mock(elementClass);
+		when(element.getResource()).thenReturn(resource);
+		when(element.getAnnotations()).thenReturn(annotations);
+		when(element.getNameBindingAnnotations()).thenReturn(nameBindingAnnotations);
+		return element;
+	}
+
+	private void setElements(final IResource resource, final IJaxrsElement... elements) {
+		when(metamodel.findElements(resource)).thenReturn(new HashSet<IJaxrsElement>(Arrays.asList(elements)));
+	}
+
+	@Before
+	public void setup() {
+		nameBindingResource = mock(IResource.class);
+		boundProviderResource = mock(IResource.class);
+		otherProviderResource = mock(IResource.class);
+		paramConverterProviderResource = mock(IResource.class);
+		nameBinding = mockElement(JaxrsNameBinding.class, nameBindingResource, annotations(),
+				annotations());
+		when(nameBinding.getJavaClassName()).thenReturn(BINDING_NAME);
+		boundProvider = mockElement(JaxrsProvider.class, boundProviderResource, annotations(BINDING_NAME),
+				annotations(BINDING_NAME));
+		otherProvider = mockElement(JaxrsProvider.class, otherProviderResource, annotations(), annotations());
+		paramConverterProvider = mockElement(JaxrsParamConverterProvider.class, paramConverterProviderResource,
+				annotations(), annotations());
+		metamodel = mock(JaxrsMetamodel.class);
+		when(metamodel.getAllElements()).thenReturn(
+				Arrays.<IJaxrsElement> asList(nameBinding, boundProvider, otherProvider, paramConverterProvider));
+		setElements(nameBindingResource, nameBinding);
+		setElements(boundProviderResource, boundProvider);
+		setElements(otherProviderResource, otherProvider);
+		setElements(paramConverterProviderResource, paramConverterProvider);
+		graph = new JaxrsDependencyGraph();
+		graph.index(metamodel);
+	}
+
+	@Test
+	public void shouldIndexAllResources() {
+		assertTrue(graph.isIndexed());
+		// the unannotated provider has no dependency at all
+		assertThat(graph.size(), equalTo(3));
+	}
+
+	@Test
+	public void shouldFindElementsAnnotatedWithChangedNameBinding() {
+		// operation
+		graph.update(metamodel, nameBindingResource);
+		// verifications
+		assertThat(graph.getDependentResources(nameBindingResource), containsInAnyOrder(boundProviderResource));
+	}
+
+	@Test
+	public void shouldFindElementsAnnotatedWithRemovedNameBinding() {
+		// operation: name binding was removed, so the provider is not bound anymore
+		setElements(nameBindingResource);
+		when(boundProvider.getNameBindingAnnotations()).thenReturn(annotations());
+		graph.update(metamodel, nameBindingResource);
+		// verifications
+		assertThat(graph.getDependentResources(nameBindingResource), containsInAnyOrder(boundProviderResource));
+		assertThat(graph.size(), equalTo(2));
+		// the keys provided before the removal are only retrieved once
+		assertThat(graph.getDependentResources(nameBindingResource), empty());
+	}
+
+	@Test
+	public void shouldUnbindElementsAnnotatedWithRemovedNameBinding() {
+		// pre-conditions: a resource method is bound to the same name binding as the provider
+		final IResource boundResourceResource = mock(IResource.class);
+		final JaxrsResourceMethod boundResourceMethod = mockElement(JaxrsResourceMethod.class, boundResourceResource,
+				annotations(BINDING_NAME), annotations(BINDING_NAME));
+		setElements(boundResourceResource, boundResourceMethod);
+		graph.update(metamodel, boundResourceResource);
+		assertThat(graph.getDependentResources(boundProviderResource), containsInAnyOrder(boundResourceResource));
+		// operation: name binding was removed
+		setElements(nameBindingResource);
+		when(boundProvider.getNameBindingAnnotations()).thenReturn(annotations());
+		when(boundResourceMethod.getNameBindingAnnotations()).thenReturn(annotations());
+		graph.update(metamodel, nameBindingResource);
+		// verifications: the provider and the resource method were refreshed as well
+		assertThat(graph.getDependentResources(boundProviderResource), empty());
+	}
+
+	@Test
+	public void shouldNotFindUnrelatedElements() {
+		// operation
+		graph.update(metamodel, otherProviderResource);
+		// verifications
+		assertThat(graph.getDependentResources(otherProviderResource), empty());
+	}
+
+	@Test
+	public void shouldFindDependentsOfNewDependencies() {
+		// pre-conditions: the other provider is now bound too
+		final JaxrsProvider updatedProvider = mockElement(JaxrsProvider.class, otherProviderResource,
+				annotations(BINDING_NAME), annotations(BINDING_NAME));
+		setElements(otherProviderResource, updatedProvider);
+		graph.update(metamodel, otherProviderResource);
+		// operation
+		graph.update(metamodel, nameBindingResource);
+		// verifications
+		assertThat(graph.getDependentResources(nameBindingResource),
+				containsInAnyOrder(boundProviderResource, otherProviderResource));
+	}
+
+	@Test
+	public void shouldIgnoreUpdatesUntilIndexed() {
+		// operation
+		graph.clear();
+		graph.update(metamodel, nameBindingResource);
+		// verifications
+		assertFalse(graph.isIndexed());
+		assertThat(graph.size(), equalTo(0));
+		assertThat(graph.getDependentResources(nameBindingResource), empty());
+	}
+
+}
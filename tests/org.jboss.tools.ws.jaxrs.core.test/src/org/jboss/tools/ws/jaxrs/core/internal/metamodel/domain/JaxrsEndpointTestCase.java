@@ -13,6 +13,7 @@ package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.not;
 import static org.jboss.tools.ws.jaxrs.core.junitrules.JavaElementsUtils.getWorkspace;
 import static org.jboss.tools.ws.jaxrs.core.junitrules.ResourcesUtils.replaceFirstOccurrenceOfCode;
@@ -22,6 +23,7 @@ import static org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsElementDelta.F
 import static org.junit.Assert.assertThat;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IField;
@@ -192,6 +194,19 @@ public class JaxrsEndpointTestCase {
 				equalTo("/hello/customers/{foo:\\d+}/{bar:[a-z]+};matrixParam1={short};matrixParam2={List<String>};matrixParam3={String}?queryParam1={long}"));
 	}
 
+	@Test
+	public void shouldFindEndpointsByRequestPath() throws CoreException {
+		// pre-conditions
+		final JaxrsResourceMethod resourceMethod = getResourceMethod();
+		final JaxrsEndpoint endpoint = metamodel.findEndpoints(resourceMethod).iterator().next();
+		final String requestPath = endpoint.getMatchingPathTemplate().replace("{id}", "1");
+		// operation
+		final List<IJaxrsEndpoint> endpoints = metamodel.findEndpointsByPath(requestPath);
+		// verifications
+		assertThat(endpoints, hasItem((IJaxrsEndpoint) endpoint));
+		assertThat(metamodel.findEndpointsByPath(requestPath + "/unknown").contains(endpoint), equalTo(false));
+	}
+
 	@Test
 	public void shouldDisplayEndpointWithTypePathBoundOnField() throws CoreException {
 		// pre-conditions
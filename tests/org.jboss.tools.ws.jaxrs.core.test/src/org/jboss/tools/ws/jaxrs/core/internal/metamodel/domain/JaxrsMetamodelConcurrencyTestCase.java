@@ -0,0 +1,242 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
+
+import static org.eclipse.jdt.core.IJavaElementDelta.REMOVED;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IType;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.jboss.tools.ws.jaxrs.core.jdt.Flags;
+import org.jboss.tools.ws.jaxrs.core.junitrules.JaxrsMetamodelMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.TestBanner;
+import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElementChangedListener;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.JaxrsElementDelta;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Stress test with concurrent readers and writers on a {@link JaxrsMetamodel}:
+ * readers should always see a complete and consistent state of the metamodel
+ * and should not be blocked while changes are being processed.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsMetamodelConcurrencyTestCase {
+
+	/** Number of reader threads. */
+	private static final int READERS = 4;
+
+	/** Number of full builds performed by the writer thread. */
+	private static final int WRITES = 10;
+
+	@ClassRule
+	public static WorkspaceSetupRule workspaceSetupRule = new WorkspaceSetupRule("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	@Rule
+	public JaxrsMetamodelMonitor metamodelMonitor = new JaxrsMetamodelMonitor("org.jboss.tools.ws.jaxrs.tests.sampleproject", true);
+
+	@Rule
+	public TestBanner watcher = new TestBanner();
+
+	private JaxrsMetamodel metamodel = null;
+
+	@Before
+	public void setup() throws CoreException {
+		metamodel = metamodelMonitor.getMetamodel();
+	}
+
+	@Test
+	public void shouldReadConsistentStateWhileProcessingChanges() throws Exception {
+		// pre-condition
+		final int expectedElements = metamodel.findAllElements().size();
+		final int expectedEndpoints = metamodel.getAllEndpoints().size();
+		final int expectedResources = metamodel.findAllResources().size();
+		assertThat(expectedEndpoints, greaterThan(0));
+		final ExecutorService executor = Executors.newFixedThreadPool(READERS + 1);
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final CountDownLatch startSignal = new CountDownLatch(1);
+		try {
+			// operation: full builds in a writer thread, while readers keep searching the metamodel
+			final Future<Long> writer = executor.submit(new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					startSignal.await();
+					final long start = System.currentTimeMillis();
+					try {
+						for (int i = 0; i < WRITES; i++) {
+							metamodel.processProject(new NullProgressMonitor());
+						}
+					} finally {
+						writing.set(false);
+					}
+					return System.currentTimeMillis() - start;
+				}
+			});
+			final List<Future<ReaderStats>> readers = new ArrayList<Future<ReaderStats>>();
+			for (int i = 0; i < READERS; i++) {
+				readers.add(executor.submit(new Callable<ReaderStats>() {
+					@Override
+					public ReaderStats call() throws Exception {
+						startSignal.await();
+						final ReaderStats stats = new ReaderStats();
+						while (writing.get()) {
+							final long start = System.nanoTime();
+							final int elements = metamodel.findAllElements().size();
+							final int endpoints = metamodel.getAllEndpoints().size();
+							final int resources = metamodel.findAllResources().size();
+							stats.record(System.nanoTime() - start);
+							// readers should never see a partially built metamodel
+							if (elements != expectedElements || endpoints != expectedEndpoints
+									|| resources != expectedResources) {
+								stats.inconsistentReads++;
+							}
+						}
+						return stats;
+					}
+				}));
+			}
+			startSignal.countDown();
+			final long writeTime = writer.get(5, TimeUnit.MINUTES);
+			final ReaderStats allStats = new ReaderStats();
+			for (Future<ReaderStats> reader : readers) {
+				allStats.merge(reader.get(1, TimeUnit.MINUTES));
+			}
+			TestLogger.info(
+					"Processed {} full builds in {}ms while {} readers performed {} reads (max read time: {}ms, total read time: {}ms)",
+					WRITES, writeTime, READERS, allStats.reads, TimeUnit.NANOSECONDS.toMillis(allStats.maxReadTime),
+					TimeUnit.NANOSECONDS.toMillis(allStats.totalReadTime));
+			// verification
+			assertThat(allStats.inconsistentReads, equalTo(0));
+			assertThat(metamodel.findAllElements().size(), equalTo(expectedElements));
+			assertThat(metamodel.getAllEndpoints().size(), equalTo(expectedEndpoints));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void shouldNotBlockReadersWhileChangesAreProcessed() throws Exception {
+		// pre-condition
+		final IType customerType = metamodelMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.CustomerResource");
+		final JaxrsResourceMethod resourceMethod = metamodel.findResource(customerType).getMethods().values()
+				.iterator().next();
+		final CountDownLatch changeInProgress = new CountDownLatch(1);
+		final CountDownLatch readDone = new CountDownLatch(1);
+		// this listener is notified while the writer holds the write lock
+		final IJaxrsElementChangedListener blockingListener = new IJaxrsElementChangedListener() {
+			@Override
+			public void notifyElementChanged(final JaxrsElementDelta delta) {
+				if (delta.getDeltaKind() == REMOVED && delta.getElement() == resourceMethod) {
+					changeInProgress.countDown();
+					try {
+						readDone.await(30, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		metamodel.addJaxrsElementChangedListener(blockingListener);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// operation
+			final Future<?> writer = executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					metamodel.remove(resourceMethod, Flags.NONE);
+					return null;
+				}
+			});
+			assertThat(changeInProgress.await(30, TimeUnit.SECONDS), is(true));
+			final long start = System.currentTimeMillis();
+			final IJaxrsElement elementDuringChange = metamodel.getElement(resourceMethod.getIdentifier());
+			final IJaxrsElement foundElementDuringChange = metamodel.findElement(resourceMethod.getJavaElement());
+			final long readTime = System.currentTimeMillis() - start;
+			readDone.countDown();
+			writer.get(30, TimeUnit.SECONDS);
+			TestLogger.info("Read metamodel in {}ms while a change was being processed", readTime);
+			// verification: the readers were not blocked and saw the last published state
+			assertThat(elementDuringChange, is((IJaxrsElement) resourceMethod));
+			assertThat(foundElementDuringChange, is((IJaxrsElement) resourceMethod));
+			// the change is visible once published
+			assertThat(metamodel.getElement(resourceMethod.getIdentifier()), nullValue());
+			assertThat(metamodel.findElement(resourceMethod.getJavaElement()), nullValue());
+		} finally {
+			readDone.countDown();
+			metamodel.removeListener(blockingListener);
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void shouldPublishChangesOnNextLookupAndEmptyViewOnRemoval() throws Exception {
+		// pre-condition
+		final IType customerType = metamodelMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.CustomerResource");
+		final JaxrsResourceMethod resourceMethod = metamodel.findResource(customerType).getMethods().values()
+				.iterator().next();
+		assertThat(metamodel.findAllElements().size(), greaterThan(0));
+		// operation
+		metamodel.remove(resourceMethod, Flags.NONE);
+		// verification: the change is visible on the next lookup
+		assertThat(metamodel.getElement(resourceMethod.getIdentifier()), nullValue());
+		// operation
+		metamodel.remove();
+		// verification: the removed metamodel does not expose its elements anymore
+		assertThat(metamodel.findAllElements().size(), equalTo(0));
+		assertThat(metamodel.getAllEndpoints().size(), equalTo(0));
+	}
+
+	/**
+	 * Statistics collected by a reader thread.
+	 */
+	static class ReaderStats {
+		int reads = 0;
+		int inconsistentReads = 0;
+		long maxReadTime = 0;
+		long totalReadTime = 0;
+
+		void record(final long readTime) {
+			reads++;
+			totalReadTime += readTime;
+			maxReadTime = Math.max(maxReadTime, readTime);
+		}
+
+		void merge(final ReaderStats other) {
+			reads += other.reads;
+			inconsistentReads += other.inconsistentReads;
+			totalReadTime += other.totalReadTime;
+			maxReadTime = Math.max(maxReadTime, other.maxReadTime);
+		}
+	}
+
+}
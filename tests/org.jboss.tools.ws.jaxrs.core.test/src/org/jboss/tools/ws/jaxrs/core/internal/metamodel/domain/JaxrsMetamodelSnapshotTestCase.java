@@ -0,0 +1,191 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.JaxrsMetamodelMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.ResourcesUtils;
+import org.jboss.tools.ws.jaxrs.core.junitrules.TestBanner;
+import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Verifies that a {@link JaxrsMetamodel} restored from a
+ * {@link JaxrsMetamodelSnapshot} is the same as a metamodel built from
+ * scratch.
+ * 
+ * @author xcoulon
+ *
+ */
+public class JaxrsMetamodelSnapshotTestCase {
+
+	final IProgressMonitor progressMonitor = new NullProgressMonitor();
+
+	@ClassRule
+	public static WorkspaceSetupRule workspaceSetupRule = new WorkspaceSetupRule("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	@Rule
+	public JaxrsMetamodelMonitor metamodelMonitor = new JaxrsMetamodelMonitor("org.jboss.tools.ws.jaxrs.tests.sampleproject", true);
+
+	@Rule
+	public TestBanner watcher = new TestBanner();
+
+	private JaxrsMetamodel metamodel = null;
+
+	private File snapshotFile = null;
+
+	@Before
+	public void setup() throws CoreException {
+		metamodel = metamodelMonitor.getMetamodel();
+		snapshotFile = JaxrsMetamodelSnapshot.getSnapshotFile(metamodel.getProject());
+		snapshotFile.delete();
+	}
+
+	@After
+	public void deleteSnapshot() {
+		snapshotFile.delete();
+	}
+
+	@Test
+	public void shouldRestoreSameElementsAndEndpointsFromSnapshot() throws CoreException {
+		// pre-condition
+		final Set<String> expectedElements = getElements(metamodel);
+		final Set<String> expectedEndpoints = getEndpoints(metamodel);
+		assertThat(expectedElements.isEmpty(), is(false));
+		assertThat(expectedEndpoints.isEmpty(), is(false));
+		metamodel.processProject(progressMonitor);
+		// operation
+		metamodel.saveSnapshot();
+		assertThat(snapshotFile.exists(), is(true));
+		metamodel.processProjectFromSnapshot(progressMonitor);
+		// verification
+		assertThat(getElements(metamodel), equalTo(expectedElements));
+		assertThat(getEndpoints(metamodel), equalTo(expectedEndpoints));
+	}
+
+	@Test
+	public void shouldProcessCompilationUnitChangedSinceSnapshot() throws CoreException {
+		// pre-condition
+		metamodel.saveSnapshot();
+		ResourcesUtils.replaceFirstOccurrenceOfCode("org.jboss.tools.ws.jaxrs.sample.services.CustomerResource",
+				metamodel.getJavaProject(), "@Path(\"{id}\")", "@Path(\"{id}/details\")", false);
+		// operation
+		metamodel.processProjectFromSnapshot(progressMonitor);
+		final Set<String> restoredEndpoints = getEndpoints(metamodel);
+		// verification: same result as a full build
+		metamodel.processProject(progressMonitor);
+		assertThat(restoredEndpoints, equalTo(getEndpoints(metamodel)));
+		assertThat(restoredEndpoints.toString().contains("details"), is(true));
+	}
+
+	@Test
+	public void shouldProcessWholeProjectWhenSnapshotIsCorrupted() throws CoreException, IOException {
+		// pre-condition
+		final Set<String> expectedElements = getElements(metamodel);
+		final Set<String> expectedEndpoints = getEndpoints(metamodel);
+		metamodel.saveSnapshot();
+		// truncate the snapshot right after the format version
+		final FileOutputStream output = new FileOutputStream(snapshotFile);
+		try {
+			output.write(new byte[] { 0, 0, 0, 1, 0, 0 });
+		} finally {
+			output.close();
+		}
+		// operation
+		metamodel.processProjectFromSnapshot(progressMonitor);
+		// verification
+		assertThat(getElements(metamodel), equalTo(expectedElements));
+		assertThat(getEndpoints(metamodel), equalTo(expectedEndpoints));
+		assertThat(snapshotFile.exists(), is(false));
+	}
+
+	@Test
+	public void shouldProcessCompilationUnitChangedBeforeSnapshotWasSaved() throws CoreException {
+		// pre-condition: a change that was not processed yet when the snapshot is saved
+		metamodel.processProject(progressMonitor);
+		ResourcesUtils.replaceFirstOccurrenceOfCode("org.jboss.tools.ws.jaxrs.sample.services.CustomerResource",
+				metamodel.getJavaProject(), "@Path(\"{id}\")", "@Path(\"{id}/details\")", false);
+		metamodel.saveSnapshot();
+		// operation
+		metamodel.processProjectFromSnapshot(progressMonitor);
+		// verification
+		assertThat(getEndpoints(metamodel).toString().contains("details"), is(true));
+	}
+
+	@Test
+	public void shouldProcessWholeProjectWhenSnapshotContentIsInvalid() throws CoreException, IOException {
+		// pre-condition
+		final Set<String> expectedElements = getElements(metamodel);
+		final Set<String> expectedEndpoints = getEndpoints(metamodel);
+		metamodel.saveSnapshot();
+		// replace the number of modification stamps with a negative value,
+		// after the format version, the classpath signature and the problem level
+		final RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw");
+		try {
+			file.readInt();
+			file.seek(file.getFilePointer() + file.readInt());
+			file.readInt();
+			file.writeInt(-1);
+		} finally {
+			file.close();
+		}
+		// operation
+		metamodel.processProjectFromSnapshot(progressMonitor);
+		// verification
+		assertThat(getElements(metamodel), equalTo(expectedElements));
+		assertThat(getEndpoints(metamodel), equalTo(expectedEndpoints));
+		assertThat(snapshotFile.exists(), is(false));
+	}
+
+	/**
+	 * @return the identifiers of all elements in the given metamodel, sorted
+	 *         alphabetically.
+	 */
+	private static Set<String> getElements(final JaxrsMetamodel metamodel) {
+		final Set<String> elements = new TreeSet<String>();
+		for (IJaxrsElement element : metamodel.getAllElements()) {
+			elements.add(element.getElementKind() + " " + element.getIdentifier());
+		}
+		return elements;
+	}
+
+	/**
+	 * @return the HTTP verb and URI template of all endpoints in the given
+	 *         metamodel, sorted alphabetically.
+	 */
+	private static Set<String> getEndpoints(final JaxrsMetamodel metamodel) {
+		final Set<String> endpoints = new TreeSet<String>();
+		for (IJaxrsEndpoint endpoint : metamodel.getAllEndpoints()) {
+			endpoints.add(endpoint.getHttpMethod().getHttpVerb() + " " + endpoint.getUriPathTemplate());
+		}
+		return endpoints;
+	}
+
+}
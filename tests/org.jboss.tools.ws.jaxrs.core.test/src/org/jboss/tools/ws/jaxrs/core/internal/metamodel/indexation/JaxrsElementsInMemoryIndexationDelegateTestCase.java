@@ -0,0 +1,39 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.indexation;
+
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.InMemoryIndexBackend;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JaxrsElementsIndexationDelegate;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+/**
+ * Runs all tests of the {@link JaxrsElementsIndexationDelegateTestCase} with
+ * the {@link InMemoryIndexBackend}.
+ * 
+ * @author xcoulon
+ * 
+ */
+public class JaxrsElementsInMemoryIndexationDelegateTestCase extends JaxrsElementsIndexationDelegateTestCase {
+
+	@BeforeClass
+	public static void useInMemoryIndexBackend() {
+		System.setProperty(JaxrsElementsIndexationDelegate.INDEX_BACKEND_PROPERTY,
+				JaxrsElementsIndexationDelegate.IN_MEMORY_INDEX_BACKEND);
+	}
+
+	@AfterClass
+	public static void resetIndexBackend() {
+		System.clearProperty(JaxrsElementsIndexationDelegate.INDEX_BACKEND_PROPERTY);
+	}
+
+}
@@ -0,0 +1,66 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.indexation;
+
+import static org.jboss.tools.ws.jaxrs.core.internal.metamodel.indexation.JaxrsElementsIndexationBatchTestCase.indexAll;
+
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JaxrsElementsIndexationDelegate;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.jboss.tools.ws.jaxrs.core.junitrules.JaxrsMetamodelMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Reports the time spent to index a whole metamodel with and without batching.
+ * This benchmark is not part of the default test run.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsElementsIndexationBatchBenchmark {
+
+	/** Number of times the whole metamodel is (re)indexed. */
+	private static final int ITERATIONS = 20;
+
+	@ClassRule
+	public static WorkspaceSetupRule workspaceSetupRule = new WorkspaceSetupRule("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	@Rule
+	public JaxrsMetamodelMonitor metamodelMonitor = new JaxrsMetamodelMonitor("org.jboss.tools.ws.jaxrs.tests.sampleproject", true);
+
+	@Test
+	public void compareFullIndexationWithAndWithoutBatch() throws CoreException {
+		final JaxrsMetamodel metamodel = metamodelMonitor.getMetamodel();
+		final List<IJaxrsElement> allElements = metamodel.getAllElements();
+		final List<IJaxrsEndpoint> allEndpoints = metamodel.getAllEndpoints();
+		final JaxrsElementsIndexationDelegate unbatchedIndexationService = new JaxrsElementsIndexationDelegate(metamodel);
+		final JaxrsElementsIndexationDelegate batchedIndexationService = new JaxrsElementsIndexationDelegate(metamodel);
+		try {
+			final long unbatchedTime = indexAll(unbatchedIndexationService, allElements, allEndpoints, ITERATIONS, false);
+			final long batchedTime = indexAll(batchedIndexationService, allElements, allEndpoints, ITERATIONS, true);
+			TestLogger.info("Indexed {} elements and {} endpoints {} times in {}ms without batch and {}ms with batch",
+					allElements.size(), allEndpoints.size(), ITERATIONS, unbatchedTime, batchedTime);
+		} finally {
+			unbatchedIndexationService.dispose();
+			batchedIndexationService.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.indexation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.Term;
+import org.eclipse.core.runtime.CoreException;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsEndpoint;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsMetamodel;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JaxrsElementsIndexationDelegate;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.LuceneFields;
+import org.jboss.tools.ws.jaxrs.core.junitrules.JaxrsMetamodelMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsElement;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.IJaxrsEndpoint;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Verifies the batched indexation mode of the
+ * {@link JaxrsElementsIndexationDelegate}. The time spent to index a whole
+ * metamodel with and without batching is reported by
+ * {@link JaxrsElementsIndexationBatchBenchmark}.
+ *
+ * @author xcoulon
+ *
+ */
+public class JaxrsElementsIndexationBatchTestCase {
+
+	@ClassRule
+	public static WorkspaceSetupRule workspaceSetupRule = new WorkspaceSetupRule("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	@Rule
+	public JaxrsMetamodelMonitor metamodelMonitor = new JaxrsMetamodelMonitor("org.jboss.tools.ws.jaxrs.tests.sampleproject", true);
+
+	@Test
+	public void shouldRetrieveElementsIndexedInUncommittedBatch() throws CoreException, CorruptIndexException, IOException {
+		// pre-condition
+		final JaxrsMetamodel metamodel = metamodelMonitor.getMetamodel();
+		final List<IJaxrsElement> allElements = metamodel.getAllElements();
+		final JaxrsElementsIndexationDelegate indexationService = new JaxrsElementsIndexationDelegate(metamodel);
+		try {
+			// operation
+			indexationService.beginBatch();
+			for (IJaxrsElement element : allElements) {
+				indexationService.indexElement(element);
+			}
+			// verification: elements can be found before the batch is committed
+			final Set<IJaxrsElement> foundElements = indexationService.searchElements(new Term(
+					LuceneFields.FIELD_JAVA_PROJECT_IDENTIFIER, metamodel.getJavaProject().getHandleIdentifier()));
+			assertThat(indexationService.isInBatch(), is(true));
+			assertThat(foundElements.size(), equalTo(allElements.size()));
+			indexationService.endBatch();
+			assertThat(indexationService.isInBatch(), is(false));
+		} finally {
+			indexationService.dispose();
+		}
+	}
+
+	@Test
+	public void shouldCommitOnlyWhenOutermostBatchEnds() throws CoreException, CorruptIndexException, IOException {
+		// pre-condition
+		final JaxrsMetamodel metamodel = metamodelMonitor.getMetamodel();
+		final JaxrsElementsIndexationDelegate indexationService = new JaxrsElementsIndexationDelegate(metamodel);
+		try {
+			// operation
+			indexationService.beginBatch();
+			indexationService.beginBatch();
+			for (IJaxrsElement element : metamodel.getAllElements()) {
+				indexationService.indexElement(element);
+			}
+			indexationService.endBatch();
+			// verification
+			assertThat(indexationService.isInBatch(), is(true));
+			indexationService.endBatch();
+			assertThat(indexationService.isInBatch(), is(false));
+		} finally {
+			indexationService.dispose();
+		}
+	}
+
+	@Test
+	public void shouldFindSameEndpointsWithAndWithoutBatch() throws CoreException, CorruptIndexException,
+			IOException {
+		// pre-condition
+		final JaxrsMetamodel metamodel = metamodelMonitor.getMetamodel();
+		final List<IJaxrsElement> allElements = metamodel.getAllElements();
+		final List<IJaxrsEndpoint> allEndpoints = metamodel.getAllEndpoints();
+		final JaxrsElementsIndexationDelegate unbatchedIndexationService = new JaxrsElementsIndexationDelegate(metamodel);
+		final JaxrsElementsIndexationDelegate batchedIndexationService = new JaxrsElementsIndexationDelegate(metamodel);
+		try {
+			// operation
+			indexAll(unbatchedIndexationService, allElements, allEndpoints, 1, false);
+			indexAll(batchedIndexationService, allElements, allEndpoints, 1, true);
+			// verification: both indexes should return the same results
+			final Term endpointTerm = new Term(LuceneFields.FIELD_TYPE, EnumElementCategory.ENDPOINT.toString());
+			final Set<JaxrsEndpoint> unbatchedEndpoints = unbatchedIndexationService.searchEndpoints(endpointTerm);
+			final Set<JaxrsEndpoint> batchedEndpoints = batchedIndexationService.searchEndpoints(endpointTerm);
+			assertThat(batchedEndpoints.size(), equalTo(allEndpoints.size()));
+			assertThat(batchedEndpoints, equalTo(unbatchedEndpoints));
+			final Term projectTerm = new Term(LuceneFields.FIELD_JAVA_PROJECT_IDENTIFIER, metamodel.getJavaProject()
+					.getHandleIdentifier());
+			assertThat(batchedIndexationService.searchElements(projectTerm),
+					equalTo(unbatchedIndexationService.searchElements(projectTerm)));
+		} finally {
+			unbatchedIndexationService.dispose();
+			batchedIndexationService.dispose();
+		}
+	}
+
+	/**
+	 * (Re)indexes the given elements and endpoints the given number of times,
+	 * either in a single batch or with a commit after each change.
+	 *
+	 * @return the time spent in milliseconds
+	 */
+	static long indexAll(final JaxrsElementsIndexationDelegate indexationService,
+			final List<IJaxrsElement> elements, final List<IJaxrsEndpoint> endpoints, final int iterations,
+			final boolean batch) {
+		final long start = System.currentTimeMillis();
+		if (batch) {
+			indexationService.beginBatch();
+		}
+		for (int i = 0; i < iterations; i++) {
+			for (IJaxrsElement element : elements) {
+				indexationService.reindexElement(element);
+			}
+			for (IJaxrsEndpoint endpoint : endpoints) {
+				indexationService.reindexElement(endpoint);
+			}
+		}
+		if (batch) {
+			indexationService.endBatch();
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+}
@@ -0,0 +1,74 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.io.IOException;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.Term;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.junit.Test;
+
+/**
+ * Reports the time needed to perform single element lookups with the
+ * {@link InMemoryIndexBackend} and with the {@link LuceneIndexBackend}. This
+ * benchmark is not part of the default test run.
+ */
+public class InMemoryIndexBackendBenchmark {
+
+	@Test
+	public void compareLookupsWithLuceneIndexBackend() throws IOException {
+		final int size = 5000;
+		final int lookups = 20000;
+		final IJaxrsIndexBackend inMemoryBackend = new InMemoryIndexBackend();
+		final IJaxrsIndexBackend luceneBackend = new LuceneIndexBackend();
+		try {
+			for (int i = 0; i < size; i++) {
+				final Document document = new Document();
+				document.add(new Field(LuceneFields.FIELD_IDENTIFIER, "element:" + i, Field.Store.YES,
+						Field.Index.NOT_ANALYZED));
+				document.add(new Field(LuceneFields.FIELD_TYPE, (i % 2 == 0) ? "RESOURCE" : "RESOURCE_METHOD",
+						Field.Store.YES, Field.Index.NOT_ANALYZED));
+				document.add(new Field(LuceneFields.FIELD_ANNOTATION_NAME, "Annotation" + (i % 100), Field.Store.YES,
+						Field.Index.NOT_ANALYZED));
+				inMemoryBackend.addDocument(document);
+				luceneBackend.addDocument(document);
+			}
+			luceneBackend.commit();
+			final long inMemoryTime = lookup(inMemoryBackend.getSnapshot(), size, lookups);
+			final long luceneTime = lookup(luceneBackend.getSnapshot(), size, lookups);
+			TestLogger.info("Performed {} lookups in {} documents in {}ms with the Lucene index backend and in {}ms "
+					+ "with the in-memory index backend", lookups, size, luceneTime, inMemoryTime);
+		} finally {
+			inMemoryBackend.close();
+			luceneBackend.close();
+		}
+	}
+
+	/**
+	 * Performs the given number of single element lookups by identifier and
+	 * type.
+	 * 
+	 * @return the time spent in milliseconds
+	 */
+	private static long lookup(final IJaxrsIndexSnapshot snapshot, final int size, final int lookups)
+			throws IOException {
+		final long start = System.currentTimeMillis();
+		for (int i = 0; i < lookups; i++) {
+			final int index = (i * 7) % size;
+			snapshot.searchIdentifier(new Term(LuceneFields.FIELD_IDENTIFIER, "element:" + index), new Term(
+					LuceneFields.FIELD_TYPE, (index % 2 == 0) ? "RESOURCE" : "RESOURCE_METHOD"));
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+}
@@ -0,0 +1,146 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.Term;
+import org.junit.Test;
+
+public class InMemoryIndexBackendTestCase {
+
+	private static Document createDocument(final String identifier, final String type, final String... annotationNames) {
+		final Document document = new Document();
+		document.add(new Field(LuceneFields.FIELD_IDENTIFIER, identifier, Field.Store.YES, Field.Index.NOT_ANALYZED));
+		document.add(new Field(LuceneFields.FIELD_TYPE, type, Field.Store.YES, Field.Index.NOT_ANALYZED));
+		for (String annotationName : annotationNames) {
+			document.add(new Field(LuceneFields.FIELD_ANNOTATION_NAME, annotationName, Field.Store.YES,
+					Field.Index.NOT_ANALYZED));
+		}
+		return document;
+	}
+
+	private static Term identifier(final String identifier) {
+		return new Term(LuceneFields.FIELD_IDENTIFIER, identifier);
+	}
+
+	private static Term type(final String type) {
+		return new Term(LuceneFields.FIELD_TYPE, type);
+	}
+
+	private static Term annotation(final String annotationName) {
+		return new Term(LuceneFields.FIELD_ANNOTATION_NAME, annotationName);
+	}
+
+	@Test
+	public void shouldSearchDocumentsMatchingAllTerms() throws IOException {
+		// preconditions
+		final InMemoryIndexBackend backend = new InMemoryIndexBackend();
+		backend.addDocument(createDocument("element:a", "RESOURCE", "Path", "Produces"));
+		backend.addDocument(createDocument("element:b", "RESOURCE", "Path"));
+		backend.addDocument(createDocument("element:c", "PROVIDER", "Produces"));
+		// operation
+		final IJaxrsIndexSnapshot snapshot = backend.getSnapshot();
+		// verifications
+		assertThat(snapshot.numDocs(), equalTo(3));
+		assertThat(snapshot.searchIdentifiers(type("RESOURCE")), containsInAnyOrder("a", "b"));
+		assertThat(snapshot.searchIdentifiers(type("RESOURCE"), annotation("Produces")),
+				containsInAnyOrder("a"));
+		assertThat(snapshot.searchIdentifiers(type("RESOURCE"), annotation("Consumes")), empty());
+		assertThat(snapshot.searchIdentifiers(), empty());
+		assertThat(snapshot.searchIdentifier(annotation("Produces"), type("PROVIDER")), equalTo("c"));
+		assertThat(snapshot.count(annotation("Path")), equalTo(2));
+	}
+
+	@Test
+	public void shouldUpdateAndDeleteDocuments() throws IOException {
+		// preconditions
+		final InMemoryIndexBackend backend = new InMemoryIndexBackend();
+		backend.addDocument(createDocument("element:a", "RESOURCE", "Path"));
+		backend.addDocument(createDocument("element:b", "RESOURCE", "Path"));
+		// operation
+		backend.updateDocument(identifier("element:a"), createDocument("element:a", "PROVIDER", "Provider"));
+		backend.deleteDocuments(identifier("element:b"));
+		// verifications
+		final IJaxrsIndexSnapshot snapshot = backend.getSnapshot();
+		assertThat(snapshot.numDocs(), equalTo(1));
+		assertThat(snapshot.searchIdentifiers(type("RESOURCE")), empty());
+		assertThat(snapshot.searchIdentifiers(annotation("Path")), empty());
+		assertThat(snapshot.searchIdentifiers(type("PROVIDER"), annotation("Provider")),
+				containsInAnyOrder("a"));
+		assertThat(snapshot.searchIdentifier(identifier("element:b")), nullValue());
+	}
+
+	@Test
+	public void shouldNotSeeChangesAfterSnapshot() throws IOException {
+		// preconditions
+		final InMemoryIndexBackend backend = new InMemoryIndexBackend();
+		backend.addDocument(createDocument("element:a", "RESOURCE", "Path"));
+		final IJaxrsIndexSnapshot snapshot = backend.getSnapshot();
+		// operation
+		backend.addDocument(createDocument("element:b", "RESOURCE", "Path"));
+		backend.deleteDocuments(identifier("element:a"));
+		// verifications
+		assertThat(snapshot.numDocs(), equalTo(1));
+		assertThat(snapshot.searchIdentifiers(type("RESOURCE")), containsInAnyOrder("a"));
+		assertThat(backend.getSnapshot().searchIdentifiers(type("RESOURCE")), containsInAnyOrder("b"));
+		// operation: clear all
+		backend.deleteAll();
+		// verifications
+		assertThat(snapshot.searchIdentifiers(type("RESOURCE")), containsInAnyOrder("a"));
+		assertThat(backend.getSnapshot().numDocs(), equalTo(0));
+	}
+
+	@Test
+	public void shouldReturnSameResultsAsLuceneIndexBackend() throws IOException {
+		// preconditions
+		final int size = 500;
+		final IJaxrsIndexBackend inMemoryBackend = new InMemoryIndexBackend();
+		final IJaxrsIndexBackend luceneBackend = new LuceneIndexBackend();
+		try {
+			for (int i = 0; i < size; i++) {
+				final Document document = createDocument("element:" + i, (i % 2 == 0) ? "RESOURCE" : "RESOURCE_METHOD",
+						"Annotation" + (i % 100));
+				inMemoryBackend.addDocument(document);
+				luceneBackend.addDocument(document);
+			}
+			luceneBackend.commit();
+			// operation
+			final IJaxrsIndexSnapshot inMemorySnapshot = inMemoryBackend.getSnapshot();
+			final IJaxrsIndexSnapshot luceneSnapshot = luceneBackend.getSnapshot();
+			// verifications
+			for (int i = 0; i < size; i++) {
+				final Term[] terms = new Term[] { identifier("element:" + i),
+						type((i % 2 == 0) ? "RESOURCE" : "RESOURCE_METHOD") };
+				assertThat(inMemorySnapshot.searchIdentifier(terms), equalTo(String.valueOf(i)));
+				assertThat(luceneSnapshot.searchIdentifier(terms), equalTo(String.valueOf(i)));
+			}
+			for (int i = 0; i < 100; i++) {
+				final Term[] terms = new Term[] { type("RESOURCE"), annotation("Annotation" + i) };
+				assertThat(inMemorySnapshot.searchIdentifiers(terms), equalTo(luceneSnapshot.searchIdentifiers(terms)));
+				assertThat(inMemorySnapshot.count(terms), equalTo(luceneSnapshot.count(terms)));
+			}
+			assertThat(inMemorySnapshot.numDocs(), equalTo(luceneSnapshot.numDocs()));
+		} finally {
+			inMemoryBackend.close();
+			luceneBackend.close();
+		}
+	}
+
+}
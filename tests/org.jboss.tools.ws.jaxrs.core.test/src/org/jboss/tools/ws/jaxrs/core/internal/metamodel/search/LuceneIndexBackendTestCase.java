@@ -0,0 +1,194 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class LuceneIndexBackendTestCase {
+
+	private static Document createDocument(final String identifier, final String type) {
+		final Document document = new Document();
+		document.add(new Field(LuceneFields.FIELD_IDENTIFIER, identifier, Field.Store.YES, Field.Index.NOT_ANALYZED));
+		document.add(new Field(LuceneFields.FIELD_TYPE, type, Field.Store.YES, Field.Index.NOT_ANALYZED));
+		return document;
+	}
+
+	private static Term identifier(final String identifier) {
+		return new Term(LuceneFields.FIELD_IDENTIFIER, identifier);
+	}
+
+	private static Term type(final String type) {
+		return new Term(LuceneFields.FIELD_TYPE, type);
+	}
+
+	@Test
+	public void shouldReturnIdentifiersWithoutPrefix() throws IOException {
+		// preconditions
+		final LuceneIndexBackend backend = new LuceneIndexBackend();
+		try {
+			backend.addDocument(createDocument("element:a", "RESOURCE"));
+			backend.addDocument(createDocument("endpoint:b", "ENDPOINT"));
+			// operation
+			final IJaxrsIndexSnapshot snapshot = backend.getSnapshot();
+			// verifications
+			assertThat(snapshot.searchIdentifiers(type("RESOURCE")), containsInAnyOrder("a"));
+			assertThat(snapshot.searchIdentifier(type("ENDPOINT")), equalTo("b"));
+			assertThat(snapshot.searchIdentifier(type("PROVIDER")), nullValue());
+		} finally {
+			backend.close();
+		}
+	}
+
+	@Test
+	public void shouldReturnIdentifiersAfterUpdateAndDeletion() throws IOException {
+		// preconditions
+		final LuceneIndexBackend backend = new LuceneIndexBackend();
+		try {
+			backend.addDocument(createDocument("element:a", "RESOURCE"));
+			backend.addDocument(createDocument("element:b", "RESOURCE"));
+			assertThat(backend.getSnapshot().searchIdentifiers(type("RESOURCE")), containsInAnyOrder("a", "b"));
+			// operation
+			backend.updateDocument(identifier("element:a"), createDocument("element:a", "PROVIDER"));
+			backend.deleteDocuments(identifier("element:b"));
+			backend.addDocument(createDocument("element:c", "RESOURCE"));
+			// verifications
+			final IJaxrsIndexSnapshot snapshot = backend.getSnapshot();
+			assertThat(snapshot.searchIdentifiers(type("RESOURCE")), containsInAnyOrder("c"));
+			assertThat(snapshot.searchIdentifiers(type("PROVIDER")), containsInAnyOrder("a"));
+			assertThat(snapshot.searchIdentifiers(identifier("element:b")), empty());
+		} finally {
+			backend.close();
+		}
+	}
+
+	@Test
+	public void shouldAllocateLessThanLoadingStoredDocuments() throws Exception {
+		// preconditions
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		final Method getThreadAllocatedBytes = getThreadAllocatedBytesMethod(threadMXBean);
+		Assume.assumeTrue(getThreadAllocatedBytes != null);
+		final int size = 5000;
+		final int queries = 50;
+		final LuceneIndexBackend backend = new LuceneIndexBackend();
+		final RAMDirectory directory = new RAMDirectory();
+		try {
+			final IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(Version.LUCENE_35,
+					new StandardAnalyzer(Version.LUCENE_35)));
+			for (int i = 0; i < size; i++) {
+				backend.addDocument(createDocument("element:" + i, "RESOURCE"));
+				indexWriter.addDocument(createDocument("element:" + i, "RESOURCE"));
+			}
+			backend.commit();
+			indexWriter.close();
+			final IJaxrsIndexSnapshot snapshot = backend.getSnapshot();
+			final IndexSearcher searcher = new IndexSearcher(IndexReader.open(directory));
+			final Term[] terms = new Term[] { type("RESOURCE") };
+			// warm-up (including the identifiers cache)
+			snapshot.searchIdentifiers(terms);
+			searchStoredIdentifiers(searcher, terms);
+			// operation
+			final long threadId = Thread.currentThread().getId();
+			final long storedFieldsStart = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+			for (int i = 0; i < queries; i++) {
+				assertThat(searchStoredIdentifiers(searcher, terms).size(), equalTo(size));
+			}
+			final long storedFieldsBytes = ((Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId) - storedFieldsStart)
+					/ queries;
+			final long identifiersCacheStart = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+			for (int i = 0; i < queries; i++) {
+				assertThat(snapshot.searchIdentifiers(terms).size(), equalTo(size));
+			}
+			final long identifiersCacheBytes = ((Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId) - identifiersCacheStart)
+					/ queries;
+			TestLogger.info("Allocated {} bytes per query matching {} documents when loading the stored documents "
+					+ "and {} bytes with the identifiers cache", storedFieldsBytes, size, identifiersCacheBytes);
+			// verifications
+			assertThat(identifiersCacheBytes, lessThan(storedFieldsBytes));
+			searcher.getIndexReader().close();
+		} finally {
+			backend.close();
+			directory.close();
+		}
+	}
+
+	private static Method getThreadAllocatedBytesMethod(final ThreadMXBean threadMXBean) {
+		try {
+			final Method method = threadMXBean.getClass().getMethod("getThreadAllocatedBytes", long.class);
+			method.setAccessible(true);
+			return method;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Retrieves the identifiers of the matching documents by loading each
+	 * stored document, as the former collectors did.
+	 */
+	private static Set<String> searchStoredIdentifiers(final IndexSearcher searcher, final Term... terms)
+			throws IOException {
+		final Set<String> identifiers = new HashSet<String>();
+		searcher.search(LuceneIndexBackend.joinTerms(terms), new Collector() {
+
+			private IndexReader indexReader;
+
+			@Override
+			public void setScorer(Scorer scorer) throws IOException {
+			}
+
+			@Override
+			public void setNextReader(IndexReader indexReader, int docBase) throws IOException {
+				this.indexReader = indexReader;
+			}
+
+			@Override
+			public boolean acceptsDocsOutOfOrder() {
+				return true;
+			}
+
+			@Override
+			public void collect(int docId) throws IOException {
+				final String docIdentifier = indexReader.document(docId).get(LuceneFields.FIELD_IDENTIFIER);
+				identifiers.add(docIdentifier.substring(IndexedObjectType.JAX_RS_ELEMENT.getPrefix().length()));
+			}
+		});
+		return identifiers;
+	}
+
+}
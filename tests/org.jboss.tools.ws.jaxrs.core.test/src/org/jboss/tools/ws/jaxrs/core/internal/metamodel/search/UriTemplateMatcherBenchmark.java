@@ -0,0 +1,56 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.junit.Test;
+
+/**
+ * Reports the time needed to match request paths against 10000 templates with
+ * the {@link UriTemplateMatcher} and with a linear scan of the templates'
+ * patterns. This benchmark is not part of the default test run.
+ */
+public class UriTemplateMatcherBenchmark {
+
+	@Test
+	public void compareWithLinearScan() {
+		final int size = 10000;
+		final UriTemplateMatcher<Integer> matcher = new UriTemplateMatcher<Integer>();
+		final List<Pattern> patterns = new ArrayList<Pattern>(size);
+		for (int i = 0; i < size; i++) {
+			matcher.add("/api/resource" + i + "/{id}/items/{itemId}", i);
+			patterns.add(Pattern.compile("/api/resource" + i + "/([^/]+)/items/([^/]+)"));
+		}
+		final String[] requestPaths = new String[1000];
+		for (int i = 0; i < requestPaths.length; i++) {
+			requestPaths[i] = "/api/resource" + (i * 7 % size) + "/" + i + "/items/" + i;
+		}
+		final long linearScanStart = System.currentTimeMillis();
+		for (String requestPath : requestPaths) {
+			for (Pattern pattern : patterns) {
+				pattern.matcher(requestPath).matches();
+			}
+		}
+		final long linearScanTime = System.currentTimeMillis() - linearScanStart;
+		final long trieStart = System.currentTimeMillis();
+		for (String requestPath : requestPaths) {
+			matcher.match(requestPath);
+		}
+		final long trieTime = System.currentTimeMillis() - trieStart;
+		TestLogger.info("Matched {} request paths against {} templates in {}ms with a linear scan and in {}ms with a trie",
+				requestPaths.length, size, linearScanTime, trieTime);
+	}
+
+}
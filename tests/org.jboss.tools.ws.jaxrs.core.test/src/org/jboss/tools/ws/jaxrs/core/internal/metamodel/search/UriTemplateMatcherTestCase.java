@@ -0,0 +1,208 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.metamodel.search;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class UriTemplateMatcherTestCase {
+
+	@Test
+	public void shouldMatchLiteralTemplate() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers", "customers");
+		matcher.add("/api/orders", "orders");
+		// operation
+		final List<String> matches = matcher.match("/api/customers");
+		// verifications
+		assertThat(matches, contains("customers"));
+	}
+
+	@Test
+	public void shouldSortMatchesByPrecedence() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers/{id}", "customer");
+		matcher.add("/api/customers/count", "count");
+		matcher.add("/api/{resource}/{id}", "any");
+		// operation
+		final List<String> matches = matcher.match("/api/customers/count");
+		// verifications
+		assertThat(matches, contains("count", "customer", "any"));
+	}
+
+	@Test
+	public void shouldMatchParametersWithinSegment() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/files/{name}.{extension}", "file");
+		// operation
+		final List<String> matches = matcher.match("/api/files/report.pdf");
+		// verifications
+		assertThat(matches, contains("file"));
+		assertThat(matcher.match("/api/files/report"), empty());
+	}
+
+	@Test
+	public void shouldMatchCustomRegexp() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers/{id: \\d+}/orders", "orders");
+		// operation
+		final List<String> matches = matcher.match("/api/customers/12/orders");
+		// verifications
+		assertThat(matches, contains("orders"));
+		assertThat(matcher.match("/api/customers/abc/orders"), empty());
+	}
+
+	@Test
+	public void shouldMatchCustomRegexpSpanningMultipleSegments() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/files/{path: .*}", "files");
+		// operation
+		final List<String> matches = matcher.match("/api/files/a/b/c.txt");
+		// verifications
+		assertThat(matches, contains("files"));
+	}
+
+	@Test
+	public void shouldIgnoreQueryAndMatrixParameters() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers/{id}", "customer");
+		// operation
+		final List<String> matches = matcher.match("/api/customers;sort=asc/12?start=0");
+		// verifications
+		assertThat(matches, contains("customer"));
+	}
+
+	@Test
+	public void shouldReplaceTemplateOfSameValue() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers/{id}", "customer");
+		// operation
+		matcher.add("/api/clients/{id}", "customer");
+		// verifications
+		assertThat(matcher.size(), equalTo(1));
+		assertThat(matcher.match("/api/customers/12"), empty());
+		assertThat(matcher.match("/api/clients/12"), contains("customer"));
+	}
+
+	@Test
+	public void shouldRemoveTemplate() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers/{id}", "customer");
+		matcher.add("/api/customers/{id: \\d+}/orders", "orders");
+		// operation
+		matcher.remove("customer");
+		matcher.remove("orders");
+		// verifications
+		assertThat(matcher.size(), equalTo(0));
+		assertThat(matcher.match("/api/customers/12"), empty());
+		assertThat(matcher.match("/api/customers/12/orders"), empty());
+	}
+
+	@Test
+	public void shouldIgnoreInvalidTemplate() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		// operation
+		matcher.add("/api/customers/{id", "customer");
+		matcher.add("/api/orders/{id: [}", "orders");
+		// verifications
+		assertThat(matcher.size(), equalTo(0));
+	}
+
+	@Test
+	public void shouldPruneNodesOfRemovedTemplates() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers", "customers");
+		final int nodeCount = matcher.getNodeCount();
+		matcher.add("/api/customers/{id}/orders/{orderId}", "order");
+		matcher.add("/api/customers/{id}/invoices/{number: \\d+}/lines", "lines");
+		// operation
+		matcher.remove("order");
+		matcher.remove("lines");
+		// verifications
+		assertThat(matcher.getNodeCount(), equalTo(nodeCount));
+		assertThat(matcher.match("/api/customers"), contains("customers"));
+		matcher.remove("customers");
+		assertThat(matcher.getNodeCount(), equalTo(1));
+	}
+
+	@Test
+	public void shouldPruneNodesOfReplacedTemplate() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		matcher.add("/api/customers/{id}", "customer");
+		final int nodeCount = matcher.getNodeCount();
+		// operation
+		matcher.add("/api/clients/{id}/orders", "customer");
+		matcher.add("/api/customers/{id}", "customer");
+		// verifications
+		assertThat(matcher.getNodeCount(), equalTo(nodeCount));
+		assertThat(matcher.match("/api/customers/1"), contains("customer"));
+	}
+
+	@Test
+	public void shouldNotLinkNodesOfInvalidTemplates() {
+		// preconditions
+		final UriTemplateMatcher<String> matcher = new UriTemplateMatcher<String>();
+		// operation
+		matcher.add("/api/customers/{id}/orders/{orderId", "missing bracket");
+		matcher.add("/api/customers/{id}/orders/{orderId: [0-9}", "invalid regexp");
+		// verifications
+		assertThat(matcher.size(), equalTo(0));
+		assertThat(matcher.getNodeCount(), equalTo(1));
+	}
+
+	@Test
+	public void shouldMatchSameTemplatesAsLinearScan() {
+		// preconditions
+		final int size = 100;
+		final UriTemplateMatcher<Integer> matcher = new UriTemplateMatcher<Integer>();
+		final List<Pattern> patterns = new ArrayList<Pattern>(size);
+		for (int i = 0; i < size; i++) {
+			matcher.add("/api/resource" + i + "/{id}/items/{itemId}", i);
+			patterns.add(Pattern.compile("/api/resource" + i + "/([^/]+)/items/([^/]+)"));
+		}
+		for (int i = 0; i < size; i++) {
+			final String requestPath = "/api/resource" + (i * 7 % size) + "/" + i + "/items/" + i;
+			// operation
+			final List<Integer> matches = matcher.match(requestPath);
+			// verifications
+			final List<Integer> linearScanMatches = new ArrayList<Integer>();
+			for (int j = 0; j < size; j++) {
+				if (patterns.get(j).matcher(requestPath).matches()) {
+					linearScanMatches.add(j);
+				}
+			}
+			assertThat(matches, equalTo(linearScanMatches));
+			assertThat(matches, contains(i * 7 % size));
+		}
+		assertThat(matcher.match("/api/resource1/12/items"), empty());
+		assertThat(matcher.match("/api/resource1/12/items/3/4"), empty());
+	}
+
+}
@@ -0,0 +1,135 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.utils;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LruCacheTestCase {
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedEntry() {
+		// preconditions
+		final LruCache<String, String> cache = new LruCache<String, String>(2, false);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		// operation: access 'a' so that 'b' becomes the least recently used entry
+		cache.get("a");
+		cache.put("c", "C");
+		// verifications
+		assertThat(cache.size(), equalTo(2));
+		assertThat(cache.get("a"), equalTo("A"));
+		assertThat(cache.get("b"), nullValue());
+		assertThat(cache.get("c"), equalTo("C"));
+		assertThat(cache.getEvictions(), equalTo(1L));
+	}
+
+	@Test
+	public void shouldCountHitsAndMisses() {
+		// preconditions
+		final LruCache<String, String> cache = new LruCache<String, String>(10, true);
+		cache.put("a", "A");
+		// operation
+		cache.get("a");
+		cache.get("a");
+		cache.get("b");
+		// verifications
+		assertThat(cache.getHits(), equalTo(2L));
+		assertThat(cache.getMisses(), equalTo(1L));
+		assertThat(cache.getEvictions(), equalTo(0L));
+	}
+
+	@Test
+	public void shouldRemoveEntry() {
+		// preconditions
+		final LruCache<String, String> cache = new LruCache<String, String>(10, false);
+		cache.put("a", "A");
+		// operation
+		cache.remove("a");
+		// verifications
+		assertThat(cache.size(), equalTo(0));
+		assertThat(cache.get("a"), nullValue());
+	}
+
+	@Test
+	public void shouldListKeysWithoutChangingRecency() {
+		// preconditions
+		final LruCache<String, String> cache = new LruCache<String, String>(2, false);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		// operation
+		final List<String> keys = cache.keys();
+		cache.put("c", "C");
+		// verifications
+		assertThat(keys, equalTo(Arrays.asList("a", "b")));
+		assertThat(cache.keys(), equalTo(Arrays.asList("b", "c")));
+		assertThat(cache.getHits(), equalTo(0L));
+	}
+
+	@Test
+	public void shouldNotifyRemovedEntries() {
+		// preconditions
+		final List<String> removedValues = new ArrayList<String>();
+		final LruCache<String, String> cache = new LruCache<String, String>(2, false) {
+			@Override
+			protected void entryRemoved(final String key, final String value) {
+				removedValues.add(value);
+			}
+		};
+		cache.put("a", "A");
+		cache.put("b", "B");
+		// operation
+		cache.put("c", "C");
+		cache.put("b", "B2");
+		cache.remove("c");
+		cache.clear();
+		// verifications
+		assertThat(removedValues, equalTo(Arrays.asList("A", "B", "C", "B2")));
+	}
+
+	@Test
+	public void shouldRemainBoundedUnderConcurrentAccess() throws InterruptedException {
+		// preconditions
+		final LruCache<Integer, Integer> cache = new LruCache<Integer, Integer>(100, false);
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 4; i++) {
+			final int offset = i * 1000;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 1000; j++) {
+						cache.put(offset + j, j);
+						cache.get(offset + j / 2);
+					}
+				}
+			});
+		}
+		// operation
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		// verifications
+		assertThat(cache.size(), equalTo(100));
+		assertThat(cache.getHits() + cache.getMisses(), equalTo(4000L));
+		assertThat(cache.getEvictions(), equalTo(3900L));
+	}
+
+}
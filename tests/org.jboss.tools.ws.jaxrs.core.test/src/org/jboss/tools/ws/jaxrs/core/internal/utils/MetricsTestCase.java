@@ -0,0 +1,182 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.internal.utils;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics.Counter;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics.Format;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics.Histogram;
+import org.jboss.tools.ws.jaxrs.core.internal.utils.Metrics.Timer;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsTestCase {
+
+	private static final Counter counter = Metrics.counter("test.counter");
+
+	private static final Histogram histogram = Metrics.histogram("test.histogram");
+
+	private static final Timer timer = Metrics.timer("test.timer");
+
+	private boolean wasEnabled;
+
+	@Before
+	public void setup() {
+		wasEnabled = Metrics.isEnabled();
+		Metrics.reset();
+	}
+
+	@After
+	public void restore() {
+		Metrics.setEnabled(wasEnabled);
+		Metrics.reset();
+	}
+
+	@Test
+	public void shouldNotRecordWhenDisabled() {
+		// preconditions
+		Metrics.setEnabled(false);
+		// operation
+		counter.increment();
+		histogram.record(42);
+		timer.stop(Metrics.start());
+		// verifications
+		assertThat(Metrics.start(), equalTo(0L));
+		assertThat(counter.getCount(), equalTo(0L));
+		assertThat(histogram.getCount(), equalTo(0L));
+		assertThat(timer.getCount(), equalTo(0L));
+	}
+
+	@Test
+	public void shouldRecordValues() {
+		// preconditions
+		Metrics.setEnabled(true);
+		// operation
+		counter.increment();
+		counter.add(2);
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+		final long start = Metrics.start();
+		timer.stop(start);
+		// verifications
+		assertThat(counter.getCount(), equalTo(3L));
+		assertThat(histogram.getCount(), equalTo(100L));
+		assertThat(histogram.getTotal(), equalTo(5050L));
+		assertThat(histogram.getMin(), equalTo(1L));
+		assertThat(histogram.getMax(), equalTo(100L));
+		assertThat(histogram.getMean(), equalTo(50.5d));
+		// percentiles are upper bounds of power-of-2 buckets
+		assertThat(histogram.getPercentile(0.5), equalTo(63L));
+		assertThat(histogram.getPercentile(0.99), equalTo(100L));
+		assertThat(timer.getCount(), equalTo(1L));
+	}
+
+	@Test
+	public void shouldExportInJSONAndCSV() {
+		// preconditions
+		Metrics.setEnabled(true);
+		counter.add(5);
+		histogram.record(8);
+		timer.record(1500000);
+		// operation
+		final String json = Metrics.export(Format.JSON);
+		final String csv = Metrics.export(Format.CSV);
+		// verifications
+		TestLogger.info("Exported metrics:\n{}", json);
+		assertThat(json, startsWith("{\n  \"enabled\": true,"));
+		assertThat(json, containsString("{\"name\": \"test.counter\", \"type\": \"counter\", \"count\": 5}"));
+		assertThat(json, containsString("{\"name\": \"test.timer\", \"type\": \"timer\", \"unit\": \"ms\", \"count\": 1, \"total\": 1.500,"));
+		assertThat(csv, startsWith("name,type,unit,count,total,min,mean,max,p50,p90,p99\n"));
+		assertThat(csv, containsString("\ntest.counter,counter,,5,,,,,,,\n"));
+		assertThat(csv, containsString("\ntest.histogram,histogram,,1,8.000,8.000,8.000,8.000,8.000,8.000,8.000\n"));
+		assertThat(csv, containsString("\ntest.timer,timer,ms,1,1.500,1.500,1.500,1.500,1.500,1.500,1.500\n"));
+	}
+
+	@Test
+	public void shouldFormatLogMessage() {
+		assertThat(Logger.getMessage("Built {} in {}ms", "Foo$Bar", 12), equalTo("Built Foo.Bar in 12ms"));
+		assertThat(Logger.getMessage("{} and {} and {}", "a", null), equalTo("a and null and {}"));
+		assertThat(Logger.getMessage("no placeholder", "a"), equalTo("no placeholder"));
+		assertThat(Logger.getMessage("$1 {}", (Object[]) null), equalTo("$1 {}"));
+	}
+
+	@Test
+	public void shouldRecordWithoutAllocating() throws Exception {
+		// preconditions
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		final Method getThreadAllocatedBytes = getThreadAllocatedBytesMethod(threadMXBean);
+		Assume.assumeTrue(getThreadAllocatedBytes != null);
+		final long threadId = Thread.currentThread().getId();
+		final int iterations = 100000;
+		// warm up
+		Metrics.setEnabled(false);
+		record(iterations);
+		Metrics.setEnabled(true);
+		record(iterations);
+		Metrics.reset();
+		// operation
+		Metrics.setEnabled(false);
+		final long disabledStart = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+		record(iterations);
+		final long disabledBytes = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId) - disabledStart;
+		Metrics.setEnabled(true);
+		final long enabledStart = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+		record(iterations);
+		final long enabledBytes = (Long) getThreadAllocatedBytes.invoke(threadMXBean, threadId) - enabledStart;
+				TestLogger.info("Allocated {} bytes to record {} values when disabled and {} bytes when enabled",
+				disabledBytes, iterations, enabledBytes);
+		// verifications: less than one byte per recorded value, since only the
+		// reflective calls (and the JIT compiler) may allocate a few bytes
+		assertThat(disabledBytes, lessThan((long) iterations));
+		assertThat(enabledBytes, lessThan((long) iterations));
+		assertThat(counter.getCount(), equalTo((long) iterations));
+		assertThat(histogram.getCount(), equalTo((long) iterations));
+		assertThat(timer.getCount(), equalTo((long) iterations));
+	}
+
+	private static void record(final int iterations) {
+		for (int i = 0; i < iterations; i++) {
+			final long start = Metrics.start();
+			counter.increment();
+			histogram.record(i);
+			timer.stop(start);
+		}
+	}
+
+	/**
+	 * @return the {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+	 *         method, or {@code null} if the given bean does not support it.
+	 */
+	private static Method getThreadAllocatedBytesMethod(final ThreadMXBean threadMXBean) {
+		try {
+			final Class<?> threadMXBeanType = Class.forName("com.sun.management.ThreadMXBean");
+			if (!threadMXBeanType.isInstance(threadMXBean)) {
+				return null;
+			}
+			return threadMXBeanType.getMethod("getThreadAllocatedBytes", long.class);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+}
@@ -220,5 +220,16 @@ public class WtpUtilsTestCase {
 		assertThat(location, nullValue());
 	}
 
+	@Test
+	public void shouldReloadApplicationPathWhenWebxmlChanged() throws Exception {
+		// pre-conditions
+		final IResource webxmlResource = projectMonitor.replaceDeploymentDescriptorWith("web-3_0-with-default-servlet-mapping.xml");
+		assertThat(WtpUtils.getApplicationPath(webxmlResource, APPLICATION), equalTo("/hello/*"));
+		// operation
+		projectMonitor.replaceDeploymentDescriptorWith("web-3_0-without-servlet-mapping.xml");
+		final String applicationPath = WtpUtils.getApplicationPath(webxmlResource, APPLICATION);
+		// verifications
+		assertThat(applicationPath, nullValue());
+	}
 
 }
@@ -0,0 +1,178 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.jdt;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.jboss.tools.ws.jaxrs.core.junitrules.ResourcesUtils.replaceFirstOccurrenceOfCode;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.jboss.tools.ws.jaxrs.core.junitrules.TestBanner;
+import org.jboss.tools.ws.jaxrs.core.junitrules.TestProjectMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ASTProviderTestCase {
+
+	private static final String CUSTOMER_RESOURCE = "org.jboss.tools.ws.jaxrs.sample.services.CustomerResource";
+
+	@ClassRule
+	public static WorkspaceSetupRule workspaceSetupRule = new WorkspaceSetupRule("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	@Rule
+	public TestBanner testWatcher = new TestBanner();
+
+	@Rule
+	public TestProjectMonitor projectMonitor = new TestProjectMonitor("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	private final ASTProvider astProvider = ASTProvider.getInstance();
+
+	@Before
+	public void setup() {
+		CompilationUnitsRepository.getInstance().clear();
+	}
+
+	@Test
+	public void shouldReuseAST() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(CUSTOMER_RESOURCE);
+		final CompilationUnit ast = astProvider.getAST(type, new NullProgressMonitor());
+		final long reusedASTs = astProvider.getReusedASTs();
+		final long parsedASTs = astProvider.getParsedASTs();
+		// operation
+		final CompilationUnit otherAST = astProvider.getAST(type.getCompilationUnit(), new NullProgressMonitor());
+		// verifications
+		assertThat(otherAST, sameInstance(ast));
+		assertThat(astProvider.getReusedASTs(), equalTo(reusedASTs + 1));
+		assertThat(astProvider.getParsedASTs(), equalTo(parsedASTs));
+	}
+
+	@Test
+	public void shouldParseAgainAfterChange() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(CUSTOMER_RESOURCE);
+		final CompilationUnit ast = astProvider.getAST(type, new NullProgressMonitor());
+		final long parsedASTs = astProvider.getParsedASTs();
+		// operation
+		replaceFirstOccurrenceOfCode(CUSTOMER_RESOURCE, projectMonitor.getJavaProject(),
+				"@Path(value=CustomerResource.URI_BASE)", "@Path(\"/foo\")", false);
+		final CompilationUnit otherAST = astProvider.getAST(type, new NullProgressMonitor());
+		// verifications
+		assertThat(otherAST, not(sameInstance(ast)));
+		assertThat(astProvider.getParsedASTs(), equalTo(parsedASTs + 1));
+	}
+
+	@Test
+	public void shouldParseAgainAfterTypeCreation() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(CUSTOMER_RESOURCE);
+		final CompilationUnit ast = astProvider.getAST(type, new NullProgressMonitor());
+		final long parsedASTs = astProvider.getParsedASTs();
+		// operation: the bindings of the existing AST do not include the new type
+		projectMonitor.createCompilationUnit("FooHTTPMethod.txt", "org.jboss.tools.ws.jaxrs.sample.services",
+				"FOO.java");
+		final CompilationUnit otherAST = astProvider.getAST(type, new NullProgressMonitor());
+		// verifications
+		assertThat(otherAST, not(sameInstance(ast)));
+		assertThat(astProvider.getParsedASTs(), equalTo(parsedASTs + 1));
+	}
+
+	@Test
+	public void shouldReuseASTAfterMethodBodyChange() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(CUSTOMER_RESOURCE);
+		final IType otherType = projectMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.RestApplication");
+		final CompilationUnit ast = astProvider.getAST(otherType, new NullProgressMonitor());
+		// operation
+		replaceFirstOccurrenceOfCode(type, "return null;", "return new Customer();", true);
+		final CompilationUnit otherAST = astProvider.getAST(otherType, new NullProgressMonitor());
+		// verifications
+		assertThat(otherAST, sameInstance(ast));
+	}
+
+	@Test
+	public void shouldParseAgainAfterConstantChange() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(CUSTOMER_RESOURCE);
+		final IType otherType = projectMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.RestApplication");
+		final CompilationUnit ast = astProvider.getAST(otherType, new NullProgressMonitor());
+		// operation: annotation values are resolved through the bindings of the constants they reference
+		replaceFirstOccurrenceOfCode(type.getField("URI_BASE"), "\"/customers\"", "\"/clients\"", true);
+		final CompilationUnit otherAST = astProvider.getAST(otherType, new NullProgressMonitor());
+		// verifications
+		assertThat(otherAST, not(sameInstance(ast)));
+	}
+
+	@Test
+	public void shouldParseCompilationUnitsInBatch() throws CoreException {
+		// preconditions
+		final List<ICompilationUnit> compilationUnits = new ArrayList<ICompilationUnit>();
+		compilationUnits.add(projectMonitor.resolveType(CUSTOMER_RESOURCE).getCompilationUnit());
+		compilationUnits.add(projectMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.ProductResourceLocator")
+				.getCompilationUnit());
+		compilationUnits.add(projectMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.RestApplication")
+				.getCompilationUnit());
+		final long parsedASTs = astProvider.getParsedASTs();
+		final long reusedASTs = astProvider.getReusedASTs();
+		// operation
+		final Map<ICompilationUnit, CompilationUnit> asts = astProvider.getASTs(compilationUnits,
+				new NullProgressMonitor());
+		final Map<ICompilationUnit, CompilationUnit> otherASTs = astProvider.getASTs(compilationUnits,
+				new NullProgressMonitor());
+		// verifications
+		assertThat(asts.size(), equalTo(3));
+		for (ICompilationUnit compilationUnit : compilationUnits) {
+			assertThat(asts.get(compilationUnit), notNullValue());
+			assertThat(otherASTs.get(compilationUnit), sameInstance(asts.get(compilationUnit)));
+		}
+		assertThat(astProvider.getParsedASTs(), equalTo(parsedASTs + 3));
+		assertThat(astProvider.getReusedASTs(), equalTo(reusedASTs + 3));
+	}
+
+	@Test
+	public void shouldParseCompilationUnitsBeforeIteratingOverMembers() throws CoreException {
+		// preconditions
+		final List<IType> types = new ArrayList<IType>();
+		types.add(projectMonitor.resolveType(CUSTOMER_RESOURCE));
+		types.add(projectMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.ProductResourceLocator"));
+		types.add(projectMonitor.resolveType("org.jboss.tools.ws.jaxrs.sample.services.RestApplication"));
+		final long parsedASTs = astProvider.getParsedASTs();
+		// operation
+		final Iterator<IType> iterator = astProvider.withASTs(types, new NullProgressMonitor()).iterator();
+		final IType firstType = iterator.next();
+		// verifications: all compilation units were parsed at once
+		assertThat(firstType, equalTo(types.get(0)));
+		assertThat(astProvider.getParsedASTs(), equalTo(parsedASTs + 3));
+		for (IType type : types) {
+			assertThat(CompilationUnitsRepository.getInstance().getCachedAST(type.getCompilationUnit()),
+					notNullValue());
+		}
+		assertThat(iterator.next(), equalTo(types.get(1)));
+		assertThat(iterator.next(), equalTo(types.get(2)));
+		assertThat(iterator.hasNext(), equalTo(false));
+	}
+
+}
@@ -0,0 +1,215 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.jdt;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.junit.Test;
+
+public class AnnotationTestCase {
+
+	private static final String PATH = "javax.ws.rs.Path";
+
+	private static final String PRODUCES = "javax.ws.rs.Produces";
+
+	private static final String CONSUMES = "javax.ws.rs.Consumes";
+
+	private static final String GET = "javax.ws.rs.GET";
+
+	private static final String PATH_PARAM = "javax.ws.rs.PathParam";
+
+	private static Map<String, List<String>> toMap(final String name, final String... values) {
+		final Map<String, List<String>> elements = new HashMap<String, List<String>>();
+		elements.put(name, new ArrayList<String>(Arrays.asList(values)));
+		return elements;
+	}
+
+	@Test
+	public void shouldShareElementsOfEqualAnnotations() {
+		// preconditions
+		final Map<String, List<String>> elements = toMap(Annotation.VALUE, new String("application/json"));
+		final Map<String, List<String>> otherElements = toMap(Annotation.VALUE, new String("application/json"));
+		// operation
+		final Annotation annotation = new Annotation(null, new String(PRODUCES), elements);
+		final Annotation otherAnnotation = new Annotation(null, new String(PRODUCES), otherElements);
+		// verifications
+		assertThat(annotation, equalTo(otherAnnotation));
+		assertThat(annotation.getJavaAnnotationElements(), sameInstance(otherAnnotation.getJavaAnnotationElements()));
+		assertThat(annotation.getFullyQualifiedName(), sameInstance(otherAnnotation.getFullyQualifiedName()));
+		assertThat(annotation.getValue(), sameInstance(otherAnnotation.getValue()));
+		assertThat(annotation.getJavaAnnotationElements(), equalTo(elements));
+		assertThat(elements, equalTo(annotation.getJavaAnnotationElements()));
+		assertThat(annotation.getJavaAnnotationElements().hashCode(), equalTo(elements.hashCode()));
+	}
+
+	@Test
+	public void shouldKeepMultipleElementsAndValues() {
+		// preconditions
+		final Map<String, List<String>> elements = toMap("value", "text/plain", "text/html");
+		elements.put("name", Arrays.asList("foo"));
+		elements.put("empty", new ArrayList<String>());
+		// operation
+		final Annotation annotation = new Annotation(null, CONSUMES, elements);
+		// verifications
+		assertThat(annotation.getJavaAnnotationElements().size(), equalTo(3));
+		assertThat(annotation.getValues(), equalTo(Arrays.asList("text/plain", "text/html")));
+		assertThat(annotation.getValue("name"), equalTo("foo"));
+		assertThat(annotation.getValues("empty").isEmpty(), equalTo(true));
+		assertThat(annotation.getValues("unknown"), nullValue());
+		assertThat(annotation.getValue("unknown"), nullValue());
+		assertThat(annotation.toString(), equalTo("@" + CONSUMES + "(empty=[], name=\"foo\", value=[text/plain, text/html])"));
+		assertThat(new Annotation(null, GET, new HashMap<String, List<String>>()).getJavaAnnotationElements(),
+				sameInstance((Map<String, List<String>>) AnnotationElements.EMPTY));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldNotModifyElements() {
+		// preconditions
+		final Annotation annotation = new Annotation(null, PATH, "/customers");
+		// operation
+		annotation.getValues().add("/orders");
+	}
+
+	@Test
+	public void shouldShareElementsWithWorkingCopyUntilUpdate() {
+		// preconditions
+		final Annotation annotation = new Annotation(null, PATH, "/customers");
+		// operation
+		final Annotation workingCopy = annotation.createWorkingCopy();
+		// verifications
+		assertThat(workingCopy.isWorkingCopy(), equalTo(true));
+		assertThat(workingCopy.getPrimaryCopy(), sameInstance(annotation));
+		assertThat(annotation.getWorkingCopy(), sameInstance(workingCopy));
+		assertThat(workingCopy.getJavaAnnotationElements(), sameInstance(annotation.getJavaAnnotationElements()));
+		assertThat(annotation.hasChanges(workingCopy), equalTo(false));
+		// operation
+		final boolean updated = workingCopy.update(new Annotation(null, PATH, "/orders"));
+		// verifications
+		assertThat(updated, equalTo(true));
+		assertThat(workingCopy.getValue(), equalTo("/orders"));
+		assertThat(annotation.getValue(), equalTo("/customers"));
+		assertThat(annotation.hasChanges(workingCopy), equalTo(true));
+		assertThat(annotation.update(workingCopy), equalTo(true));
+		assertThat(annotation.getJavaAnnotationElements(), sameInstance(workingCopy.getJavaAnnotationElements()));
+		assertThat(annotation.update(workingCopy), equalTo(false));
+	}
+
+	/**
+	 * Verifies that the equal annotations (primary and working copies) of 5000
+	 * endpoints share their elements and values. The heap used by these
+	 * annotations and by the former representation (a copy of the member value
+	 * pairs in a {@link HashMap} for each annotation) is only logged, since it
+	 * depends on the garbage collector.
+	 */
+	@Test
+	public void shouldShareElementsAcrossEndpoints() {
+		// preconditions
+		final int endpoints = 5000;
+		// operation
+		long before = usedMemory();
+		final List<Annotation> annotations = createAnnotations(endpoints);
+		final long annotationsHeap = usedMemory() - before;
+		before = usedMemory();
+		final List<Map<String, List<String>>> copies = createHashMapCopies(endpoints);
+		final long copiesHeap = usedMemory() - before;
+		TestLogger.info("Heap used by the annotation elements of {} endpoints: {} bytes with HashMap copies, {} bytes with shared elements",
+				endpoints, copiesHeap, annotationsHeap);
+		// verifications: one @Path per 10 endpoints, plus @GET, @Produces, @Consumes and @PathParam
+		assertThat(annotations.size(), equalTo(copies.size()));
+		final Map<Annotation, Annotation> firstAnnotations = new HashMap<Annotation, Annotation>();
+		final Map<Map<String, List<String>>, Boolean> distinctElements = new IdentityHashMap<Map<String, List<String>>, Boolean>();
+		for (Annotation annotation : annotations) {
+			final Annotation firstAnnotation = firstAnnotations.get(annotation);
+			if (firstAnnotation == null) {
+				firstAnnotations.put(annotation, annotation);
+			} else {
+				assertThat(annotation.getJavaAnnotationElements(), sameInstance(firstAnnotation.getJavaAnnotationElements()));
+				assertThat(annotation.getValues(), sameInstance(firstAnnotation.getValues()));
+			}
+			distinctElements.put(annotation.getJavaAnnotationElements(), Boolean.TRUE);
+		}
+		assertThat(firstAnnotations.size(), equalTo(endpoints / 10 + 4));
+		assertThat(distinctElements.size(), equalTo(endpoints / 10 + 4));
+	}
+
+	/**
+	 * @return the primary and working copies of the annotations of the given
+	 *         number of endpoints, using the {@link Annotation} elements.
+	 */
+	private static List<Annotation> createAnnotations(final int endpoints) {
+		final List<Annotation> annotations = new ArrayList<Annotation>(endpoints * 10);
+		for (int i = 0; i < endpoints; i++) {
+			for (Entry<String, Map<String, List<String>>> entry : createEndpointAnnotations(i).entrySet()) {
+				final Annotation annotation = new Annotation(null, entry.getKey(), entry.getValue());
+				annotations.add(annotation);
+				annotations.add(annotation.createWorkingCopy());
+			}
+		}
+		return annotations;
+	}
+
+	/**
+	 * @return the primary and working copies of the member value pairs of the
+	 *         annotations of the given number of endpoints, using deep
+	 *         {@link HashMap} copies as the {@link Annotation} used to do.
+	 */
+	private static List<Map<String, List<String>>> createHashMapCopies(final int endpoints) {
+		final List<Map<String, List<String>>> copies = new ArrayList<Map<String, List<String>>>(endpoints * 10);
+		for (int i = 0; i < endpoints; i++) {
+			for (Map<String, List<String>> elements : createEndpointAnnotations(i).values()) {
+				final Map<String, List<String>> primaryCopy = new HashMap<String, List<String>>(elements);
+				final Map<String, List<String>> workingCopy = new HashMap<String, List<String>>();
+				for (Entry<String, List<String>> entry : primaryCopy.entrySet()) {
+					workingCopy.put(entry.getKey(), new ArrayList<String>(entry.getValue()));
+				}
+				copies.add(primaryCopy);
+				copies.add(workingCopy);
+			}
+		}
+		return copies;
+	}
+
+	/**
+	 * @return the member value pairs of the annotations of a typical resource
+	 *         method, as they would be read from the Java model (ie: new
+	 *         Strings for each annotation).
+	 */
+	private static Map<String, Map<String, List<String>>> createEndpointAnnotations(final int index) {
+		final Map<String, Map<String, List<String>>> annotations = new HashMap<String, Map<String, List<String>>>();
+		annotations.put(new String(PATH), toMap(Annotation.VALUE, "/resource" + (index / 10) + "/{id}"));
+		annotations.put(new String(GET), new HashMap<String, List<String>>());
+		annotations.put(new String(PRODUCES), toMap(Annotation.VALUE, new String("application/json")));
+		annotations.put(new String(CONSUMES), toMap(Annotation.VALUE, new String("application/json"), new String("application/xml")));
+		annotations.put(new String(PATH_PARAM), toMap(Annotation.VALUE, new String("id")));
+		return annotations;
+	}
+
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -9,6 +9,7 @@ import static org.junit.Assert.assertThat;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
@@ -21,6 +22,7 @@ import org.eclipse.jdt.core.IType;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JavaElementsSearcher;
 import org.jboss.tools.ws.jaxrs.core.junitrules.TestProjectMonitor;
 import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -328,5 +330,33 @@ public class Jaxrs11ElementsSearcherTestCase {
 		// verifications
 		assertThat(relatedTypes.size(), equalTo(0));
 	}
+
+	@Test
+	public void shouldFindSameTypesInSinglePassAsInSequence() throws CoreException {
+		// pre-conditions
+		final NullProgressMonitor progressMonitor = new NullProgressMonitor();
+		// operation: sequence of searches
+		final Set<IType> applicationTypes = JavaElementsSearcher.findApplicationTypes(javaProject, progressMonitor);
+		final Set<IType> httpMethodTypes = JavaElementsSearcher.findHttpMethodTypes(javaProject, progressMonitor);
+		final Set<IType> nameBindingTypes = JavaElementsSearcher.findNameBindingTypes(javaProject, progressMonitor);
+		final Set<IType> resourceTypes = JavaElementsSearcher.findResourceTypes(javaProject, progressMonitor);
+		final Set<IType> paramConverterProviderTypes = JavaElementsSearcher.findParamConverterProviderTypes(javaProject, progressMonitor);
+		final Set<IType> parameterAggregatorTypes = JavaElementsSearcher.findParameterAggregatorTypes(javaProject, progressMonitor);
+		final Set<IType> providerTypes = JavaElementsSearcher.findProviderTypes(javaProject, progressMonitor);
+		// operation: single pass
+		final Map<EnumElementCategory, Set<IType>> jaxrsTypes = JavaElementsSearcher.findJaxrsTypes(javaProject, progressMonitor);
+		// verifications
+		assertThat(jaxrsTypes.get(EnumElementCategory.APPLICATION), equalTo(applicationTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.HTTP_METHOD), equalTo(httpMethodTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.NAME_BINDING), equalTo(nameBindingTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.RESOURCE), equalTo(resourceTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PARAM_CONVERTER_PROVIDER), equalTo(paramConverterProviderTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PARAMETER_AGGREGATOR), equalTo(parameterAggregatorTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PROVIDER), equalTo(providerTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.APPLICATION).size(), equalTo(1));
+		assertThat(jaxrsTypes.get(EnumElementCategory.HTTP_METHOD).size(), equalTo(2));
+		assertThat(jaxrsTypes.get(EnumElementCategory.RESOURCE).size(), equalTo(7));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PROVIDER).size(), equalTo(5));
+	}
 	
-}
\ No newline at end of file
+}
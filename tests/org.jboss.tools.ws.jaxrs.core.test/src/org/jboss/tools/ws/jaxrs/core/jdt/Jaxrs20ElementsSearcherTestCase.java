@@ -6,6 +6,8 @@ import static org.junit.Assert.assertThat;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -17,6 +19,7 @@ import org.jboss.tools.ws.jaxrs.core.internal.metamodel.search.JavaElementsSearc
 import org.jboss.tools.ws.jaxrs.core.junitrules.JaxrsMetamodelMonitor;
 import org.jboss.tools.ws.jaxrs.core.junitrules.TestBanner;
 import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.metamodel.domain.EnumElementCategory;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -66,6 +69,29 @@ public class Jaxrs20ElementsSearcherTestCase {
 		assertThat(relatedTypes.size(), equalTo(1));
 		assertThat(relatedTypes.iterator().next(), equalTo(carResource.getJavaElement()));
 	}
+
+	@Test
+	public void shouldFindSameTypesInSinglePassAsInSequence() throws CoreException {
+		// pre-conditions
+		final NullProgressMonitor progressMonitor = new NullProgressMonitor();
+		// operation: sequence of searches
+		final Set<IType> applicationTypes = JavaElementsSearcher.findApplicationTypes(javaProject, progressMonitor);
+		final Set<IType> httpMethodTypes = JavaElementsSearcher.findHttpMethodTypes(javaProject, progressMonitor);
+		final Set<IType> nameBindingTypes = JavaElementsSearcher.findNameBindingTypes(javaProject, progressMonitor);
+		final Set<IType> resourceTypes = JavaElementsSearcher.findResourceTypes(javaProject, progressMonitor);
+		final Set<IType> paramConverterProviderTypes = JavaElementsSearcher.findParamConverterProviderTypes(javaProject, progressMonitor);
+		final Set<IType> parameterAggregatorTypes = JavaElementsSearcher.findParameterAggregatorTypes(javaProject, progressMonitor);
+		final Set<IType> providerTypes = JavaElementsSearcher.findProviderTypes(javaProject, progressMonitor);
+		// operation: single pass
+		final Map<EnumElementCategory, Set<IType>> jaxrsTypes = JavaElementsSearcher.findJaxrsTypes(javaProject, progressMonitor);
+		// verifications
+		assertThat(jaxrsTypes.get(EnumElementCategory.APPLICATION), equalTo(applicationTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.HTTP_METHOD), equalTo(httpMethodTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.NAME_BINDING), equalTo(nameBindingTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.RESOURCE), equalTo(resourceTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PARAM_CONVERTER_PROVIDER), equalTo(paramConverterProviderTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PARAMETER_AGGREGATOR), equalTo(parameterAggregatorTypes));
+		assertThat(jaxrsTypes.get(EnumElementCategory.PROVIDER), equalTo(providerTypes));
+	}
 	
-		
 }
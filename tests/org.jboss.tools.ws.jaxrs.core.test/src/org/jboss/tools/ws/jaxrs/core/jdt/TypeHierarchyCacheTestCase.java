@@ -0,0 +1,152 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.jdt;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.jboss.tools.ws.jaxrs.core.junitrules.ResourcesUtils.replaceFirstOccurrenceOfCode;
+import static org.junit.Assert.assertThat;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.jboss.tools.ws.jaxrs.core.junitrules.TestBanner;
+import org.jboss.tools.ws.jaxrs.core.junitrules.TestProjectMonitor;
+import org.jboss.tools.ws.jaxrs.core.junitrules.WorkspaceSetupRule;
+import org.jboss.tools.ws.jaxrs.core.utils.JaxrsClassnames;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class TypeHierarchyCacheTestCase {
+
+	@ClassRule
+	public static WorkspaceSetupRule workspaceSetupRule = new WorkspaceSetupRule("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	@Rule
+	public TestBanner testWatcher = new TestBanner();
+
+	@Rule
+	public TestProjectMonitor projectMonitor = new TestProjectMonitor("org.jboss.tools.ws.jaxrs.tests.sampleproject");
+
+	private final TypeHierarchyCache cache = TypeHierarchyCache.getInstance();
+
+	private IJavaProject javaProject = null;
+
+	@Before
+	public void setup() {
+		javaProject = projectMonitor.getJavaProject();
+		cache.clear();
+	}
+
+	@Test
+	public void shouldReuseCachedHierarchy() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(JaxrsClassnames.APPLICATION);
+		final ITypeHierarchy hierarchy = JdtUtils.resolveTypeHierarchy(type, javaProject, true,
+				new NullProgressMonitor());
+		final long hits = cache.getHits();
+		// operation
+		final ITypeHierarchy cachedHierarchy = JdtUtils.resolveTypeHierarchy(type, javaProject, true,
+				new NullProgressMonitor());
+		// verifications
+		assertThat(cachedHierarchy, sameInstance(hierarchy));
+		assertThat(cache.getHits(), equalTo(hits + 1));
+		assertThat(cache.size(), equalTo(1));
+	}
+
+	@Test
+	public void shouldNotShareHierarchiesAcrossScopes() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(JaxrsClassnames.APPLICATION);
+		final ITypeHierarchy hierarchy = JdtUtils.resolveTypeHierarchy(type, javaProject, true,
+				new NullProgressMonitor());
+		// operation
+		final ITypeHierarchy otherHierarchy = JdtUtils.resolveTypeHierarchy(type, javaProject, false,
+				new NullProgressMonitor());
+		// verifications
+		assertThat(otherHierarchy, not(sameInstance(hierarchy)));
+		assertThat(cache.size(), equalTo(2));
+	}
+
+	@Test
+	public void shouldComputeHierarchyAgainAfterChange() throws CoreException {
+		// preconditions
+		final IType type = projectMonitor.resolveType(JaxrsClassnames.APPLICATION);
+		final ITypeHierarchy hierarchy = JdtUtils.resolveTypeHierarchy(type, javaProject, true,
+				new NullProgressMonitor());
+		assertThat(hierarchy.getSubtypes(type).length, equalTo(1));
+		final long invalidations = cache.getInvalidations();
+		// operation
+		replaceFirstOccurrenceOfCode("org.jboss.tools.ws.jaxrs.sample.services.RestApplication", javaProject,
+				"extends Application", "", false);
+		final ITypeHierarchy updatedHierarchy = JdtUtils.resolveTypeHierarchy(type, javaProject, true,
+				new NullProgressMonitor());
+		// verifications
+		assertThat(updatedHierarchy, not(sameInstance(hierarchy)));
+		assertThat(updatedHierarchy.getSubtypes(type).length, equalTo(0));
+		assertThat(cache.getInvalidations(), equalTo(invalidations + 1));
+	}
+
+	@Test
+	public void shouldRemoveHierarchiesOfProject() throws CoreException {
+		// preconditions
+		final IType applicationType = projectMonitor.resolveType(JaxrsClassnames.APPLICATION);
+		final IType customerType = projectMonitor
+				.resolveType("org.jboss.tools.ws.jaxrs.sample.services.CustomerResource");
+		JdtUtils.resolveTypeHierarchy(applicationType, javaProject, true, new NullProgressMonitor());
+		JdtUtils.resolveTypeHierarchy(customerType, javaProject, false, new NullProgressMonitor());
+		assertThat(cache.size(), equalTo(2));
+		// operation
+		cache.remove(javaProject);
+		// verifications
+		assertThat(cache.size(), equalTo(0));
+	}
+
+	@Test
+	public void shouldNotPinHierarchiesWithinNarrowerScopes() throws CoreException {
+		// preconditions
+		final IType applicationType = projectMonitor.resolveType(JaxrsClassnames.APPLICATION);
+		JdtUtils.resolveTypeHierarchy(applicationType, javaProject, true, new NullProgressMonitor());
+		int scopes = 0;
+		// operation: resolve the hierarchy within each method of the project,
+		// as incremental builds do with their own narrow scopes
+		for (IPackageFragment packageFragment : javaProject.getPackageFragments()) {
+			if (packageFragment.getKind() != IPackageFragmentRoot.K_SOURCE) {
+				continue;
+			}
+			for (ICompilationUnit compilationUnit : packageFragment.getCompilationUnits()) {
+				for (IType type : compilationUnit.getTypes()) {
+					for (IMethod method : type.getMethods()) {
+						JdtUtils.resolveTypeHierarchy(applicationType, method, true, new NullProgressMonitor());
+						scopes++;
+					}
+				}
+			}
+		}
+		// verifications: only the project-wide hierarchy is pinned, the other
+		// ones are evicted when the cache is full
+		assertThat(scopes > 50, equalTo(true));
+		assertThat(cache.size(), lessThanOrEqualTo(51));
+		cache.remove(javaProject);
+		assertThat(cache.size(), equalTo(0));
+	}
+
+}
@@ -32,6 +32,7 @@ import org.jboss.tools.ws.jaxrs.core.JBossJaxrsCorePlugin;
 import org.jboss.tools.ws.jaxrs.core.configuration.ProjectBuilderUtils;
 import org.jboss.tools.ws.jaxrs.core.configuration.ProjectNatureUtils;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JavaElementChangedEvent;
+import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.JaxrsMetamodelEventBus;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.builder.ResourceDelta;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsElementFactory;
 import org.jboss.tools.ws.jaxrs.core.internal.metamodel.domain.JaxrsHttpMethod;
@@ -103,7 +104,8 @@ public class JaxrsMetamodelMonitor extends TestProjectMonitor implements IJaxrsM
 			if(buildMetamodel) {
 				buildMetamodel();
 			}
-			// clear listener list
+			// clear listener list (once the pending notifications were delivered)
+			waitForDispatch();
 			this.elementChanges.clear();
 			this.endpointChanges.clear();
 			this.endpointProblemLevelChanges.clear();
@@ -185,26 +187,41 @@ public class JaxrsMetamodelMonitor extends TestProjectMonitor implements IJaxrsM
 	}
 
 	public List<JaxrsEndpointDelta> getEndpointChanges() {
+		waitForDispatch();
 		return endpointChanges;
 	}
 
 	public List<IJaxrsEndpoint> getEndpointProblemLevelChanges() {
+		waitForDispatch();
 		return endpointProblemLevelChanges;
 	}
 
 	public List<IJaxrsMetamodel> getMetamodelProblemLevelChanges() {
+		waitForDispatch();
 		return metamodelProblemLevelChanges;
 	}
 	
 	public List<JaxrsMetamodelDelta> getMetamodelChanges() {
+		waitForDispatch();
 		return metamodelChanges;
 	}
 
+	/**
+	 * Waits until the metamodel changes were delivered to this monitor by the
+	 * {@link JaxrsMetamodelEventBus}.
+	 */
+	private void waitForDispatch() {
+		if(!JaxrsMetamodelEventBus.getInstance().waitForDispatch(10000)) {
+			fail("Timeout while waiting for the JAX-RS Metamodel changes to be delivered");
+		}
+	}
+
 	public JaxrsMetamodel getMetamodel() {
 		return metamodel;
 	}
 
 	public void resetElementChangesNotifications() {
+		waitForDispatch();
 		this.elementChanges.clear();
 		this.endpointChanges.clear();
 		this.endpointProblemLevelChanges.clear();
@@ -0,0 +1,38 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.wtp;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.tools.ws.jaxrs.core.internal.utils.TestLogger;
+import org.junit.Test;
+
+/**
+ * Reports the time needed to parse a web deployment descriptor with 5000
+ * servlet mappings. This benchmark is not part of the default test run.
+ */
+public class WebDeploymentDescriptorBenchmark {
+
+	@Test
+	public void parseLargeDescriptor() throws XMLStreamException {
+		final StringBuilder contents = new StringBuilder("<web-app xmlns=\"http://java.sun.com/xml/ns/javaee\">\n");
+		for (int i = 0; i < 5000; i++) {
+			contents.append("	<servlet-mapping>\n		<servlet-name>com.acme.Application").append(i)
+					.append("</servlet-name>\n		<url-pattern>/api").append(i)
+					.append("/*</url-pattern>\n	</servlet-mapping>\n");
+		}
+		contents.append("</web-app>");
+		final long startTime = System.currentTimeMillis();
+		WebDeploymentDescriptor.parse(contents.toString(), 4L);
+		TestLogger.info("Parsed {} chars in {}ms", contents.length(), (System.currentTimeMillis() - startTime));
+	}
+
+}
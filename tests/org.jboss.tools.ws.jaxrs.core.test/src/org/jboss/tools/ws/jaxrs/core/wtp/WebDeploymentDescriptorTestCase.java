@@ -0,0 +1,142 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.core.wtp;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.eclipse.jdt.core.ISourceRange;
+import org.jboss.tools.ws.jaxrs.core.wtp.WebDeploymentDescriptor.ServletMapping;
+import org.junit.Test;
+
+public class WebDeploymentDescriptorTestCase {
+
+	private static final String WEB_2_3 = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<!DOCTYPE web-app\n"
+			+ "        PUBLIC \"-//Sun Microsystems, Inc.//DTD Web Application 2.3//EN\"\n"
+			+ "        \"http://java.sun.com/dtd/web-app_2_3.dtd\">\n"
+			+ "<!-- A sample web.xml file validated by the web-app DTD in version 2.3 -->\n"
+			+ "<web-app>\n"
+			+ "	<servlet>\n"
+			+ "	<servlet-class></servlet-class>\n"
+			+ "	</servlet>\n"
+			+ "	<servlet-mapping>\n"
+			+ "		<servlet-name>javax.ws.rs.core.Application</servlet-name>\n"
+			+ "		<url-pattern>/hello/*</url-pattern>\n"
+			+ "	</servlet-mapping>\n"
+			+ "</web-app>";
+
+	private static final String WEB_3_0 = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<web-app xmlns=\"http://java.sun.com/xml/ns/javaee\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+			+ "	xsi:schemaLocation=\"http://java.sun.com/xml/ns/javaee http://java.sun.com/xml/ns/javaee/web-app_3_0.xsd\"\n"
+			+ "	version=\"3.0\">\n"
+			+ "	<servlet-mapping>\n"
+			+ "		<servlet-name>\n"
+			+ "			org.jboss.tools.ws.jaxrs.sample.services.RestApplication\n"
+			+ "		</servlet-name>\n"
+			+ "		<url-pattern>/hello/*</url-pattern>\n"
+			+ "	</servlet-mapping>\n"
+			+ "	<servlet-mapping><servlet-name>default</servlet-name><url-pattern>/</url-pattern></servlet-mapping>\n"
+			+ "</web-app>";
+
+	private static String getText(final String contents, final ISourceRange sourceRange) {
+		return contents.substring(sourceRange.getOffset(), sourceRange.getOffset() + sourceRange.getLength());
+	}
+
+	@Test
+	public void shouldParseServletMappingWithDoctype() throws XMLStreamException {
+		// operation
+		final WebDeploymentDescriptor webDeploymentDescriptor = WebDeploymentDescriptor.parse(WEB_2_3, 1L);
+		// verifications
+		assertThat(webDeploymentDescriptor.getModificationStamp(), equalTo(1L));
+		assertThat(webDeploymentDescriptor.getServletMappings().size(), equalTo(1));
+		final ServletMapping servletMapping = webDeploymentDescriptor
+				.getServletMapping("javax.ws.rs.core.Application");
+		assertThat(servletMapping.getUrlPattern(), equalTo("/hello/*"));
+		assertThat(getText(WEB_2_3, servletMapping.getSourceRange()), equalTo("<servlet-mapping>\n"
+				+ "		<servlet-name>javax.ws.rs.core.Application</servlet-name>\n"
+				+ "		<url-pattern>/hello/*</url-pattern>\n" + "	</servlet-mapping>"));
+	}
+
+	@Test
+	public void shouldParseServletMappingsWithNamespace() throws XMLStreamException {
+		// operation
+		final WebDeploymentDescriptor webDeploymentDescriptor = WebDeploymentDescriptor.parse(WEB_3_0, 2L);
+		// verifications
+		assertThat(webDeploymentDescriptor.getServletMappings().size(), equalTo(2));
+		final ServletMapping applicationMapping = webDeploymentDescriptor
+				.getServletMapping("org.jboss.tools.ws.jaxrs.sample.services.RestApplication");
+		assertThat(applicationMapping.getUrlPattern(), equalTo("/hello/*"));
+		final String applicationMappingText = getText(WEB_3_0, applicationMapping.getSourceRange());
+		assertThat(applicationMappingText.startsWith("<servlet-mapping>"), equalTo(true));
+		assertThat(applicationMappingText.endsWith("</servlet-mapping>"), equalTo(true));
+		final ServletMapping defaultMapping = webDeploymentDescriptor.getServletMapping("default");
+		assertThat(defaultMapping.getUrlPattern(), equalTo("/"));
+		assertThat(getText(WEB_3_0, defaultMapping.getSourceRange()),
+				equalTo("<servlet-mapping><servlet-name>default</servlet-name><url-pattern>/</url-pattern></servlet-mapping>"));
+		assertThat(webDeploymentDescriptor.getServletMapping("unknown"), nullValue());
+	}
+
+	@Test
+	public void shouldLocateEmptyAndPrefixedServletMappings() throws XMLStreamException {
+		// preconditions
+		final String contents = "<j2ee:web-app xmlns:j2ee=\"http://java.sun.com/xml/ns/j2ee\">\n"
+				+ "	<j2ee:servlet-mapping>\n		<j2ee:servlet-name>foo</j2ee:servlet-name>\n"
+				+ "		<j2ee:url-pattern>/foo/*</j2ee:url-pattern>\n	</j2ee:servlet-mapping>\n"
+				+ "	<!-- <j2ee:servlet-mapping>old</j2ee:servlet-mapping> -->\n"
+				+ "	<j2ee:servlet-mapping/>\n" + "	<j2ee:servlet-mapping>\n"
+				+ "		<j2ee:servlet-name>bar</j2ee:servlet-name>\n	</j2ee:servlet-mapping>\n" + "</j2ee:web-app>";
+		// operation
+		final WebDeploymentDescriptor webDeploymentDescriptor = WebDeploymentDescriptor.parse(contents, 5L);
+		// verifications
+		assertThat(webDeploymentDescriptor.getServletMappings().size(), equalTo(3));
+		assertThat(getText(contents, webDeploymentDescriptor.getServletMapping("foo").getSourceRange()),
+				equalTo("<j2ee:servlet-mapping>\n		<j2ee:servlet-name>foo</j2ee:servlet-name>\n"
+						+ "		<j2ee:url-pattern>/foo/*</j2ee:url-pattern>\n	</j2ee:servlet-mapping>"));
+		assertThat(getText(contents, webDeploymentDescriptor.getServletMappings().get(1).getSourceRange()),
+				equalTo("<j2ee:servlet-mapping/>"));
+		assertThat(getText(contents, webDeploymentDescriptor.getServletMapping("bar").getSourceRange()),
+				equalTo("<j2ee:servlet-mapping>\n		<j2ee:servlet-name>bar</j2ee:servlet-name>\n"
+						+ "	</j2ee:servlet-mapping>"));
+	}
+
+	@Test(expected = XMLStreamException.class)
+	public void shouldFailOnMalformedContent() throws XMLStreamException {
+		WebDeploymentDescriptor.parse("<web-app><servlet-mapping></web-app>", 3L);
+	}
+
+	@Test
+	public void shouldParseLargeDescriptorInSinglePass() throws XMLStreamException {
+		// preconditions
+		final StringBuilder contents = new StringBuilder("<web-app xmlns=\"http://java.sun.com/xml/ns/javaee\">\n");
+		for (int i = 0; i < 5000; i++) {
+			contents.append("	<servlet-mapping>\n		<servlet-name>com.acme.Application").append(i)
+					.append("</servlet-name>\n		<url-pattern>/api").append(i)
+					.append("/*</url-pattern>\n	</servlet-mapping>\n");
+		}
+		contents.append("</web-app>");
+		// operation
+		final WebDeploymentDescriptor webDeploymentDescriptor = WebDeploymentDescriptor.parse(contents.toString(), 4L);
+		// verifications
+		assertThat(webDeploymentDescriptor.getServletMappings().size(), equalTo(5000));
+		for (int i = 0; i < 5000; i++) {
+			final ServletMapping servletMapping = webDeploymentDescriptor.getServletMapping("com.acme.Application" + i);
+			assertThat(servletMapping.getUrlPattern(), equalTo("/api" + i + "/*"));
+			assertThat(getText(contents.toString(), servletMapping.getSourceRange()), equalTo("<servlet-mapping>\n"
+					+ "		<servlet-name>com.acme.Application" + i + "</servlet-name>\n		<url-pattern>/api" + i
+					+ "/*</url-pattern>\n	</servlet-mapping>"));
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Xavier Coulon - Initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.jaxrs.ui.cnf;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.Viewer;
+import org.junit.Test;
+
+/**
+ * @author xcoulon
+ *
+ */
+public class UriMappingsRefreshSchedulerTestCase {
+
+	private final TreeNode project = new TreeNode("project", null);
+
+	private final TreeNode category = new TreeNode("category", project);
+
+	private final TreeNode element1 = new TreeNode("element1", category);
+
+	private final TreeNode element2 = new TreeNode("element2", category);
+
+	private static Collection<Object> targets(final Object... targets) {
+		return new LinkedHashSet<Object>(Arrays.asList(targets));
+	}
+
+	@Test
+	public void shouldCollapseRefreshTargetsIntoAncestors() {
+		// operation
+		final List<Object> refreshTargets = UriMappingsRefreshScheduler.getMinimalRefreshTargets(targets(element1,
+				category, element2));
+		// verifications
+		assertThat(refreshTargets, contains((Object) category));
+	}
+
+	@Test
+	public void shouldKeepUnrelatedRefreshTargets() {
+		// operation
+		final List<Object> refreshTargets = UriMappingsRefreshScheduler.getMinimalRefreshTargets(targets(element1,
+				element2));
+		// verifications
+		assertThat(refreshTargets, contains((Object) element1, element2));
+	}
+
+	@Test
+	public void shouldSkipUpdatesCoveredByRefreshes() {
+		// operation
+		final List<Object> updateTargets = UriMappingsRefreshScheduler.getMinimalUpdateTargets(
+				targets(element1, element2, category), targets(project));
+		// verifications
+		assertThat(updateTargets, empty());
+	}
+
+	@Test
+	public void shouldKeepUpdatesNotCoveredByRefreshes() {
+		// operation
+		final List<Object> updateTargets = UriMappingsRefreshScheduler.getMinimalUpdateTargets(
+				targets(element1, element2, category), targets(element1));
+		// verifications
+		assertThat(updateTargets, contains((Object) element2, category));
+	}
+
+	@Test
+	public void shouldKeepAllUpdatesWithoutRefreshes() {
+		// operation
+		final List<Object> updateTargets = UriMappingsRefreshScheduler.getMinimalUpdateTargets(
+				targets(element1, category), Collections.<Object> emptySet());
+		// verifications
+		assertThat(updateTargets, contains((Object) element1, category));
+	}
+
+	static class TreeNode implements ITreeContentProvider {
+
+		private final String name;
+
+		private final Object parent;
+
+		TreeNode(final String name, final Object parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+
+		@Override
+		public Object getParent(final Object element) {
+			return parent;
+		}
+
+		@Override
+		public Object[] getChildren(final Object parentElement) {
+			return new Object[0];
+		}
+
+		@Override
+		public Object[] getElements(final Object inputElement) {
+			return new Object[0];
+		}
+
+		@Override
+		public boolean hasChildren(final Object element) {
+			return false;
+		}
+
+		@Override
+		public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+}
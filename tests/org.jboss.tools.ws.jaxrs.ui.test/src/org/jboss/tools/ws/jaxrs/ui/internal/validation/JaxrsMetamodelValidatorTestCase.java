@@ -12,13 +12,19 @@ package org.jboss.tools.ws.jaxrs.ui.internal.validation;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.jboss.tools.ws.jaxrs.ui.internal.validation.ValidationUtils.deleteJaxrsMarkers;
+import static org.jboss.tools.ws.jaxrs.ui.internal.validation.ValidationUtils.findJaxrsMarkers;
 import static org.jboss.tools.ws.jaxrs.ui.internal.validation.ValidationUtils.havePreferenceKey;
 import static org.jboss.tools.ws.jaxrs.ui.internal.validation.ValidationUtils.toSet;
 import static org.jboss.tools.ws.jaxrs.ui.preferences.JaxrsPreferences.HTTP_METHOD_MISSING_RETENTION_ANNOTATION;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -120,4 +126,35 @@ public class JaxrsMetamodelValidatorTestCase {
 		
 	}
 	
+	@Test
+	public void shouldReportSameMarkersWhenValidatingInParallel() throws CoreException, ValidationException {
+		// preconditions: enough elements to use several workers, with at least one problem
+		ResourcesUtils.replaceFirstOccurrenceOfCode("org.jboss.tools.ws.jaxrs.sample.services.BarResource", javaProject, "getContent1(@PathParam(\"param1\") int id)", "getContent1(@PathParam(\"param3\") int id)", true);
+		metamodelMonitor.createElements("org.jboss.tools.ws.jaxrs.sample.services.BarResource");
+		assertThat(metamodel.getAllElements().size(), greaterThan(2 * 25));
+		deleteJaxrsMarkers(project);
+		new JaxrsMetamodelValidator(1).validateAll(project, validationHelper, context, validatorManager, reporter);
+		final List<String> sequentialMarkers = describe(findJaxrsMarkers(project));
+		assertThat(sequentialMarkers.size(), greaterThanOrEqualTo(1));
+		deleteJaxrsMarkers(project);
+		// operation
+		new JaxrsMetamodelValidator(4).validateAll(project, validationHelper, context, validatorManager, reporter);
+		// validation
+		final List<String> parallelMarkers = describe(findJaxrsMarkers(project));
+		assertThat(parallelMarkers, equalTo(sequentialMarkers));
+	}
+
+	/**
+	 * @return a sorted description of the given markers (resource, location and message)
+	 */
+	private static List<String> describe(final IMarker[] markers) {
+		final List<String> descriptions = new ArrayList<String>();
+		for (IMarker marker : markers) {
+			descriptions.add(marker.getResource().getFullPath() + "@" + marker.getAttribute(IMarker.CHAR_START, -1)
+					+ ":" + marker.getAttribute(IMarker.MESSAGE, ""));
+		}
+		Collections.sort(descriptions);
+		return descriptions;
+	}
+
 }
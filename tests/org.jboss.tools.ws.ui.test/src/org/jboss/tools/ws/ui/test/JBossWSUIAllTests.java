@@ -17,6 +17,9 @@ import junit.framework.TestSuite;
 
 import org.jboss.tools.ws.ui.test.dialogs.JaxrsURLTemplateParserTestCase;
 import org.jboss.tools.ws.ui.test.preferences.JBossWSRuntimePreferencePageTest;
+import org.jboss.tools.ws.ui.test.utils.JAXRSTesterTestCase;
+import org.jboss.tools.ws.ui.test.utils.JAXWSTester2TestCase;
+import org.jboss.tools.ws.ui.test.utils.SOAPDOMParserTestCase;
 
 /**
  * @author Grid Qian
@@ -28,6 +31,9 @@ public class JBossWSUIAllTests extends TestCase {
 		TestSuite suite = new TestSuite(JBossWSUIAllTests.class.getName());
 		suite.addTestSuite(JBossWSRuntimePreferencePageTest.class);
 		suite.addTestSuite(JaxrsURLTemplateParserTestCase.class);
+		suite.addTestSuite(JAXWSTester2TestCase.class);
+		suite.addTestSuite(JAXRSTesterTestCase.class);
+		suite.addTestSuite(SOAPDOMParserTestCase.class);
 		// needs to be rewritten for updated utility class
 //		suite.addTestSuite(TesterWSDLUtilsTest.class);
 
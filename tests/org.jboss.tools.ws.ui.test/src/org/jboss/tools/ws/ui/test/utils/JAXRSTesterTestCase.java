@@ -0,0 +1,126 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Red Hat, Inc. - initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.ui.test.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.jboss.tools.ws.ui.utils.JAXRSTester;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Invokes a local stub HTTP endpoint with the {@link JAXRSTester}
+ */
+public class JAXRSTesterTestCase extends TestCase {
+
+	private HttpServer server;
+
+	private String baseURL;
+
+	private volatile int responseStatus = 200;
+
+	private volatile String responseContentType;
+
+	private volatile byte[] responseContent;
+
+	@Override
+	protected void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0); //$NON-NLS-1$
+		baseURL = "http://localhost:" + server.getAddress().getPort() + "/api"; //$NON-NLS-1$ //$NON-NLS-2$
+		server.createContext("/api", new HttpHandler() { //$NON-NLS-1$
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().add("Content-Type", responseContentType); //$NON-NLS-1$
+				exchange.sendResponseHeaders(responseStatus, responseContent.length);
+				final OutputStream responseBody = exchange.getResponseBody();
+				responseBody.write(responseContent);
+				responseBody.close();
+			}
+		});
+		server.start();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		server.stop(0);
+	}
+
+	private JAXRSTester invoke() throws Exception {
+		final JAXRSTester tester = new JAXRSTester();
+		tester.doTest(baseURL, Collections.<String, String> emptyMap(), Collections.<String, String> emptyMap());
+		return tester;
+	}
+
+	public void testShouldDecodeResponseWithDeclaredCharset() throws Exception {
+		// pre-conditions
+		responseContentType = "text/plain; charset=ISO-8859-1"; //$NON-NLS-1$
+		responseContent = "caf\u00e9\r\ncr\u00e8me".getBytes("ISO-8859-1"); //$NON-NLS-1$ //$NON-NLS-2$
+		// operation
+		final JAXRSTester tester = invoke();
+		// verifications: charset and line endings are preserved
+		assertEquals("caf\u00e9\r\ncr\u00e8me", tester.getResultBody()); //$NON-NLS-1$
+		assertFalse(tester.isResultTruncated());
+		assertEquals(responseContent.length, tester.getResultSize());
+		assertTrue(tester.getTimeToFirstByte() >= 0);
+	}
+
+	public void testShouldSpillLargeResponseToFile() throws Exception {
+		// pre-conditions
+		responseContentType = "application/json"; //$NON-NLS-1$
+		responseContent = new byte[3 * 1024 * 1024];
+		for (int i = 0; i < responseContent.length; i++) {
+			responseContent[i] = (byte) ('a' + i % 26);
+		}
+		// operation
+		final JAXRSTester tester = invoke();
+		// verifications
+		assertTrue(tester.isResultTruncated());
+		assertEquals(responseContent.length, tester.getResultSize());
+		assertEquals(JAXRSTester.MAX_PREVIEW_SIZE, tester.getResultBody().length());
+		assertEquals(responseContent.length, tester.getResultFile().length());
+		assertTrue(tester.getResultFile().delete());
+	}
+
+	public void testShouldDeletePreviousResultFileOnNextTest() throws Exception {
+		// pre-conditions
+		responseContentType = "application/json"; //$NON-NLS-1$
+		responseContent = new byte[JAXRSTester.MAX_PREVIEW_SIZE + 1];
+		final JAXRSTester tester = invoke();
+		final File resultFile = tester.getResultFile();
+		assertTrue(resultFile.exists());
+		responseContent = "small".getBytes("UTF-8"); //$NON-NLS-1$ //$NON-NLS-2$
+		// operation
+		tester.doTest(baseURL, Collections.<String, String> emptyMap(), Collections.<String, String> emptyMap());
+		// verifications
+		assertFalse(resultFile.exists());
+		assertFalse(tester.isResultTruncated());
+		assertEquals(responseContent.length, tester.getResultSize());
+	}
+
+	public void testShouldReadErrorResponse() throws Exception {
+		// pre-conditions
+		responseStatus = 404;
+		responseContentType = "text/plain; charset=UTF-8"; //$NON-NLS-1$
+		responseContent = "Not found".getBytes("UTF-8"); //$NON-NLS-1$ //$NON-NLS-2$
+		// operation
+		final JAXRSTester tester = invoke();
+		// verifications
+		assertEquals("Not found", tester.getResultBody()); //$NON-NLS-1$
+	}
+}
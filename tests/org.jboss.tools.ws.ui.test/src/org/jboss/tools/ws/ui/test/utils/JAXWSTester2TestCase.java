@@ -0,0 +1,182 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Red Hat, Inc. - initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.ui.test.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jboss.tools.ws.ui.utils.JAXWSTester2;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Invokes a local stub SOAP endpoint with the {@link JAXWSTester2}
+ */
+public class JAXWSTester2TestCase extends TestCase {
+
+	private static final String NS = "http://stub.test/"; //$NON-NLS-1$
+
+	private static final String WSDL = "<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\"" //$NON-NLS-1$
+			+ " xmlns:soap=\"http://schemas.xmlsoap.org/wsdl/soap/\" xmlns:tns=\"" + NS + "\"" //$NON-NLS-1$ //$NON-NLS-2$
+			+ " targetNamespace=\"" + NS + "\" name=\"HelloService\">" //$NON-NLS-1$ //$NON-NLS-2$
+			+ "<message name=\"sayHello\"/><message name=\"sayHelloResponse\"/>" //$NON-NLS-1$
+			+ "<portType name=\"Hello\"><operation name=\"sayHello\">" //$NON-NLS-1$
+			+ "<input message=\"tns:sayHello\"/><output message=\"tns:sayHelloResponse\"/></operation></portType>" //$NON-NLS-1$
+			+ "<binding name=\"HelloBinding\" type=\"tns:Hello\">" //$NON-NLS-1$
+			+ "<soap:binding transport=\"http://schemas.xmlsoap.org/soap/http\" style=\"document\"/>" //$NON-NLS-1$
+			+ "<operation name=\"sayHello\"><soap:operation soapAction=\"\"/>" //$NON-NLS-1$
+			+ "<input><soap:body use=\"literal\"/></input><output><soap:body use=\"literal\"/></output>" //$NON-NLS-1$
+			+ "</operation></binding>" //$NON-NLS-1$
+			+ "<service name=\"HelloService\"><port name=\"HelloPort\" binding=\"tns:HelloBinding\">" //$NON-NLS-1$
+			+ "<soap:address location=\"%s\"/></port></service></definitions>"; //$NON-NLS-1$
+
+	private static final String REQUEST = "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">" //$NON-NLS-1$
+			+ "<soap:Body><tns:sayHello xmlns:tns=\"" + NS + "\"/></soap:Body></soap:Envelope>"; //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final String RESPONSE = "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">" //$NON-NLS-1$
+			+ "<soap:Body><tns:sayHelloResponse xmlns:tns=\"" + NS + "\"/></soap:Body></soap:Envelope>"; //$NON-NLS-1$ //$NON-NLS-2$
+
+	private HttpServer server;
+
+	private ExecutorService serverExecutor;
+
+	private String endpointURL;
+
+	private final AtomicInteger wsdlRequests = new AtomicInteger();
+
+	private volatile long responseDelay = 0;
+
+	@Override
+	protected void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0); //$NON-NLS-1$
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		endpointURL = "http://localhost:" + server.getAddress().getPort() + "/hello"; //$NON-NLS-1$ //$NON-NLS-2$
+		server.createContext("/hello", new HttpHandler() { //$NON-NLS-1$
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				final byte[] content;
+				if ("GET".equals(exchange.getRequestMethod())) { //$NON-NLS-1$
+					wsdlRequests.incrementAndGet();
+					content = String.format(WSDL, endpointURL).getBytes("UTF-8"); //$NON-NLS-1$
+				} else {
+					final InputStream requestBody = exchange.getRequestBody();
+					while (requestBody.read() != -1) {
+						// consume the request
+					}
+					try {
+						Thread.sleep(responseDelay);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					content = RESPONSE.getBytes("UTF-8"); //$NON-NLS-1$
+				}
+				exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8"); //$NON-NLS-1$ //$NON-NLS-2$
+				exchange.sendResponseHeaders(200, content.length);
+				final OutputStream responseBody = exchange.getResponseBody();
+				responseBody.write(content);
+				responseBody.close();
+			}
+		});
+		server.start();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JAXWSTester2.clearCache();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	private JAXWSTester2 invoke(final NullProgressMonitor monitor) throws Exception {
+		final JAXWSTester2 tester = new JAXWSTester2();
+		tester.doTest(monitor, endpointURL + "?wsdl", null, NS, "HelloService", "HelloPort", REQUEST); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return tester;
+	}
+
+	public void testShouldWaitForSlowResponseWithIdleCPU() throws Exception {
+		// warm up and load the WSDL
+		invoke(new NullProgressMonitor());
+		responseDelay = 2000;
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		final long startCpuTime = threadMXBean.getCurrentThreadCpuTime();
+		final long startTime = System.currentTimeMillis();
+		// operation
+		final JAXWSTester2 tester = invoke(new NullProgressMonitor());
+		// verifications
+		final long elapsedTime = System.currentTimeMillis() - startTime;
+		final long cpuTime = (threadMXBean.getCurrentThreadCpuTime() - startCpuTime) / 1000000;
+		assertTrue(tester.getResultBody().contains("sayHelloResponse")); //$NON-NLS-1$
+		assertTrue(elapsedTime >= responseDelay);
+		if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+			assertTrue("CPU time while waiting: " + cpuTime + "ms in " + elapsedTime + "ms", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					cpuTime < elapsedTime / 4);
+		}
+		// the service and dispatch were reused
+		assertEquals(1, wsdlRequests.get());
+	}
+
+	public void testShouldCancelInvocationWhenMonitorIsCancelled() throws Exception {
+		// pre-conditions
+		responseDelay = 10000;
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		final Timer timer = new Timer(true);
+		timer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				monitor.setCanceled(true);
+			}
+		}, 500);
+		final long startTime = System.currentTimeMillis();
+		// operation
+		try {
+			invoke(monitor);
+			fail("Expected an InterruptedException"); //$NON-NLS-1$
+		} catch (InterruptedException e) {
+			// verifications
+			assertTrue(System.currentTimeMillis() - startTime < responseDelay);
+		} finally {
+			timer.cancel();
+		}
+	}
+
+	public void testShouldTimeoutWhenResponseIsTooSlow() throws Exception {
+		// pre-conditions
+		responseDelay = 10000;
+		final JAXWSTester2 tester = new JAXWSTester2();
+		tester.setTimeout(1000);
+		final long startTime = System.currentTimeMillis();
+		// operation
+		try {
+			tester.doTest(new NullProgressMonitor(), endpointURL + "?wsdl", null, NS, "HelloService", "HelloPort", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					REQUEST);
+			fail("Expected a TimeoutException"); //$NON-NLS-1$
+		} catch (TimeoutException e) {
+			// verifications
+			assertTrue(System.currentTimeMillis() - startTime < responseDelay);
+		}
+	}
+}
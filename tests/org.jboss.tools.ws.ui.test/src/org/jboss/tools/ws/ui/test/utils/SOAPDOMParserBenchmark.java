@@ -0,0 +1,50 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Red Hat, Inc. - initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.ui.test.utils;
+
+import static org.jboss.tools.ws.ui.test.utils.SOAPDOMParserTestCase.KB;
+import static org.jboss.tools.ws.ui.test.utils.SOAPDOMParserTestCase.MB;
+import static org.jboss.tools.ws.ui.test.utils.SOAPDOMParserTestCase.createJSON;
+import static org.jboss.tools.ws.ui.test.utils.SOAPDOMParserTestCase.createXML;
+
+import junit.framework.TestCase;
+
+import org.jboss.tools.ws.ui.utils.SOAPDOMParser;
+
+/**
+ * Reports the time needed to format 10 KB, 1 MB and 10 MB payloads with the
+ * {@link SOAPDOMParser}. This benchmark is not part of the default test run
+ * since its results depend on the host: run it explicitly to check that the
+ * formatting time grows linearly with the payload size.
+ */
+public class SOAPDOMParserBenchmark extends TestCase {
+
+	public void testPrettyPrintLargePayloads() {
+		final int[] sizes = new int[] { 10 * KB, 1 * MB, 10 * MB };
+		// warm up
+		SOAPDOMParser.prettyPrintJSON(createJSON(MB));
+		SOAPDOMParser.prettyPrint(createXML(MB));
+		for (int i = 0; i < sizes.length; i++) {
+			final String json = createJSON(sizes[i]);
+			long start = System.currentTimeMillis();
+			SOAPDOMParser.prettyPrintJSON(json);
+			final long jsonTime = System.currentTimeMillis() - start;
+
+			final String xml = createXML(sizes[i]);
+			start = System.currentTimeMillis();
+			SOAPDOMParser.prettyPrint(xml);
+			final long xmlTime = System.currentTimeMillis() - start;
+			System.out.println("Formatted " + sizes[i] / KB + " KB in " + jsonTime + " ms (JSON) and " + xmlTime //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ " ms (XML)"); //$NON-NLS-1$
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+/******************************************************************************* 
+ * Copyright (c) 2008 - 2014 Red Hat, Inc. and others. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the 
+ * Eclipse Public License v1.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v10.html 
+ * 
+ * Contributors: 
+ * Red Hat, Inc. - initial API and implementation 
+ ******************************************************************************/
+package org.jboss.tools.ws.ui.test.utils;
+
+import junit.framework.TestCase;
+
+import org.jboss.tools.ws.ui.utils.SOAPDOMParser;
+
+/**
+ * Formats and detects XML and JSON content with the {@link SOAPDOMParser}
+ */
+public class SOAPDOMParserTestCase extends TestCase {
+
+	static final int KB = 1024;
+
+	static final int MB = 1024 * KB;
+
+	public void testPrettyPrintJSON() {
+		final String json = " {\"name\" : \"a, {b}: [c]\",\"escaped\":\"\\\"{\\\\\",\"items\":[1, {\"id\":2}],\"empty\":{ }} "; //$NON-NLS-1$
+		final String expected = "{\r\n" //$NON-NLS-1$
+				+ "    \"name\": \"a, {b}: [c]\",\r\n" //$NON-NLS-1$
+				+ "    \"escaped\": \"\\\"{\\\\\",\r\n" //$NON-NLS-1$
+				+ "    \"items\": [\r\n" //$NON-NLS-1$
+				+ "        1,\r\n" //$NON-NLS-1$
+				+ "        {\r\n" //$NON-NLS-1$
+				+ "            \"id\": 2\r\n" //$NON-NLS-1$
+				+ "        }\r\n" //$NON-NLS-1$
+				+ "    ],\r\n" //$NON-NLS-1$
+				+ "    \"empty\": {}\r\n" //$NON-NLS-1$
+				+ "}"; //$NON-NLS-1$
+		assertEquals(expected, SOAPDOMParser.prettyPrintJSON(json));
+	}
+
+	public void testPrettyPrintJSONKeepsOtherContent() {
+		assertEquals("not json, {really}", SOAPDOMParser.prettyPrintJSON(" not json, {really} ")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("{\"truncated\":", SOAPDOMParser.prettyPrintJSON("{\"truncated\":")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testPrettyPrintXML() {
+		final String xml = "<?xml version=\"1.0\"?><s:Envelope xmlns:s=\"urn:soap\"><s:Body>" //$NON-NLS-1$
+				+ "<greet xmlns=\"urn:greet\" lang=\"a&amp;b\"><name>J &lt; K</name><empty/>" //$NON-NLS-1$
+				+ "<!-- note --><data>a<![CDATA[<raw>]]>b</data></greet></s:Body></s:Envelope>"; //$NON-NLS-1$
+		final String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" //$NON-NLS-1$
+				+ "<s:Envelope xmlns:s=\"urn:soap\">\n" //$NON-NLS-1$
+				+ "    <s:Body>\n" //$NON-NLS-1$
+				+ "        <greet xmlns=\"urn:greet\" lang=\"a&amp;b\">\n" //$NON-NLS-1$
+				+ "            <name>J &lt; K</name>\n" //$NON-NLS-1$
+				+ "            <empty/>\n" //$NON-NLS-1$
+				+ "            <!-- note -->\n" //$NON-NLS-1$
+				// CDATA sections are reported as plain (escaped) text
+				+ "            <data>a&lt;raw&gt;b</data>\n" //$NON-NLS-1$
+				+ "        </greet>\n" //$NON-NLS-1$
+				+ "    </s:Body>\n" //$NON-NLS-1$
+				+ "</s:Envelope>"; //$NON-NLS-1$
+		assertEquals(expected, SOAPDOMParser.prettyPrint(xml));
+		// formatting is stable
+		assertEquals(expected, SOAPDOMParser.prettyPrint(expected));
+	}
+
+	public void testPrettyPrintInvalidXML() {
+		assertNull(SOAPDOMParser.prettyPrint("<a><b></a>")); //$NON-NLS-1$
+		assertNull(SOAPDOMParser.prettyPrint("{\"a\":1}")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isValidXML("<a><b></a>")); //$NON-NLS-1$
+		assertTrue(SOAPDOMParser.isValidXML("<a><b/></a>")); //$NON-NLS-1$
+	}
+
+	public void testIsXMLLike() {
+		assertTrue(SOAPDOMParser.isXMLLike("<a>text</a>")); //$NON-NLS-1$
+		assertTrue(SOAPDOMParser.isXMLLike(" <s:Envelope xmlns:s=\"urn:soap\"><s:Body/></s:Envelope>\n")); //$NON-NLS-1$
+		assertTrue(SOAPDOMParser.isXMLLike("<?xml version=\"1.0\"?>\n<!-- c --><!DOCTYPE a [<!ENTITY e \"x\">]><a><!-- --></a>")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isXMLLike("<a>text</b>")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isXMLLike("<a>truncated")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isXMLLike("<!-- unterminated <a></a>")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isXMLLike("{\"a\":\"<a></a>\"}")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isXMLLike("")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isXMLLike(null));
+	}
+
+	public void testIsJSONLike() {
+		assertTrue(SOAPDOMParser.isJSONLike(" {\"a\":1}\n")); //$NON-NLS-1$
+		assertTrue(SOAPDOMParser.isJSONLike("[1,2]")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isJSONLike("[1,2}")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isJSONLike("<a/>")); //$NON-NLS-1$
+		assertFalse(SOAPDOMParser.isJSONLike(null));
+	}
+
+	/**
+	 * Formats and detects 10 KB and 1 MB payloads. The formatting time of
+	 * larger payloads is reported by {@link SOAPDOMParserBenchmark}.
+	 */
+	public void testPrettyPrintLargePayloads() {
+		for (int size : new int[] { 10 * KB, 1 * MB }) {
+			final String json = createJSON(size);
+			assertTrue(SOAPDOMParser.isJSONLike(json));
+			final String formattedJSON = SOAPDOMParser.prettyPrintJSON(json);
+			assertTrue(formattedJSON.length() > json.length());
+			assertTrue(SOAPDOMParser.isJSONLike(formattedJSON));
+
+			final String xml = createXML(size);
+			assertTrue(SOAPDOMParser.isXMLLike(xml));
+			final String formattedXML = SOAPDOMParser.prettyPrint(xml);
+			assertNotNull(formattedXML);
+			assertTrue(formattedXML.length() > xml.length());
+			assertTrue(SOAPDOMParser.isXMLLike(formattedXML));
+		}
+	}
+
+	static String createJSON(final int size) {
+		final StringBuilder json = new StringBuilder(size + 100);
+		json.append("{\"items\":["); //$NON-NLS-1$
+		for (int i = 0; json.length() < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(i).append(",\"name\":\"item, {").append(i).append("}\",\"tags\":[\"a\",\"b\"]}"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		return json.append("]}").toString(); //$NON-NLS-1$
+	}
+
+	static String createXML(final int size) {
+		final StringBuilder xml = new StringBuilder(size + 100);
+		xml.append("<?xml version=\"1.0\"?><items xmlns=\"urn:items\">"); //$NON-NLS-1$
+		for (int i = 0; xml.length() < size; i++) {
+			xml.append("<item id=\"").append(i).append("\"><name>item &amp; ").append(i) //$NON-NLS-1$ //$NON-NLS-2$
+					.append("</name><tags><tag>a</tag><tag>b</tag></tags></item>"); //$NON-NLS-1$
+		}
+		return xml.append("</items>").toString(); //$NON-NLS-1$
+	}
+
+}